@@ -0,0 +1,84 @@
+package benchmark.jmh;
+
+import building.Building;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Measures one step of a busy building.
+ * <p>
+ * A new request arrives every other step, taken in turn from a fixed list of random
+ * requests, and the building is stepped. The building is run for a while before the
+ * measurement so the queues and elevators are in their steady state.
+ * <p>
+ * With snapshotMode the building also publishes its report after every step. Run
+ * with -prof gc to see what that allocates per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildingStepBenchmark {
+
+  private static final int REQUESTS = 4096;
+  private static final int WARM_UP_STEPS = 10_000;
+
+  @Param({"11", "50"})
+  private int floors;
+
+  @Param({"8", "64"})
+  private int elevators;
+
+  @Param({"5"})
+  private int capacity;
+
+  @Param({"false", "true"})
+  private boolean snapshotMode;
+
+  private Building building;
+  private Request[] requests;
+  private int next;
+  private boolean arrival;
+
+  /**
+   * Build the building and run it into its steady state.
+   */
+  @Setup
+  public void setUp() {
+    this.building = Simulations.runningBuilding(this.floors, this.elevators, this.capacity);
+    this.building.setSnapshotMode(this.snapshotMode);
+    this.requests = Simulations.randomRequests(this.floors, REQUESTS);
+    for (int i = 0; i < WARM_UP_STEPS; i++) {
+      this.step();
+    }
+  }
+
+  /**
+   * Add a request every other step, then step the building.
+   *
+   * @return the step number, so the work cannot be removed.
+   */
+  @Benchmark
+  public long step() {
+    this.arrival = !this.arrival;
+    if (this.arrival) {
+      this.building.addRequestToElevatorSystem(this.requests[this.next]);
+      this.next = (this.next + 1) & (REQUESTS - 1);
+    }
+    this.building.stepElevatorSystem();
+    return this.building.getCurrentStep();
+  }
+}
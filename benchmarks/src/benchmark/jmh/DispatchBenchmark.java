@@ -0,0 +1,81 @@
+package benchmark.jmh;
+
+import building.Building;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Measures giving out requests from deep queues.
+ * <p>
+ * Before every call the building is restarted with idle elevators and queueDepth
+ * requests waiting. The call is the first step after that, which is spent almost
+ * entirely in Building.distributeRequests: every idle elevator is given a run from
+ * the queues. distributeRequests is private, so it is reached through
+ * stepElevatorSystem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+  @Param({"11", "50"})
+  private int floors;
+
+  @Param({"8", "64"})
+  private int elevators;
+
+  @Param({"5"})
+  private int capacity;
+
+  @Param({"256", "16384"})
+  private int queueDepth;
+
+  private Building building;
+  private List<Request> requests;
+
+  /**
+   * Build the building and the requests.
+   */
+  @Setup
+  public void setUp() {
+    this.building = Simulations.runningBuilding(this.floors, this.elevators, this.capacity);
+    this.requests = Arrays.asList(Simulations.randomRequests(this.floors, this.queueDepth));
+  }
+
+  /**
+   * Restart the building and fill its queues.
+   */
+  @Setup(Level.Invocation)
+  public void fillQueues() {
+    Simulations.restart(this.building);
+    this.building.addRequestsToElevatorSystem(this.requests);
+  }
+
+  /**
+   * Give out the waiting requests.
+   *
+   * @return the requests still waiting, so the work cannot be removed.
+   */
+  @Benchmark
+  public int distributeRequests() {
+    this.building.stepElevatorSystem();
+    return this.building.getWaitingRequestCount();
+  }
+}
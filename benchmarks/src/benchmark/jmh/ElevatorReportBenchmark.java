@@ -0,0 +1,90 @@
+package benchmark.jmh;
+
+import building.enums.Direction;
+import elevator.ElevatorReport;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures hashing and comparing elevator reports, which the delta tracking and the
+ * displays do for every elevator on every step.
+ * <p>
+ * Only the number of floors changes the work, through the length of the floor
+ * requests, so it is the only parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorReportBenchmark {
+
+  @Param({"11", "50", "200"})
+  private int floors;
+
+  private ElevatorReport report;
+  private ElevatorReport same;
+  private ElevatorReport lastFloorDiffers;
+
+  /**
+   * Build three reports: one, an equal copy of it and one that only differs in the
+   * request for the top floor, so equals has to look at every floor.
+   */
+  @Setup
+  public void setUp() {
+    this.report = this.report(false);
+    this.same = this.report(false);
+    this.lastFloorDiffers = this.report(true);
+  }
+
+  private ElevatorReport report(boolean topFloor) {
+    boolean[] floorRequests = new boolean[this.floors];
+    for (int floor = 0; floor < this.floors; floor += 3) {
+      floorRequests[floor] = true;
+    }
+    floorRequests[this.floors - 1] = topFloor;
+    return new ElevatorReport(1, this.floors / 2, Direction.UP, true, floorRequests,
+        0, 5, false, false);
+  }
+
+  /**
+   * Hash a report.
+   *
+   * @return the hash code.
+   */
+  @Benchmark
+  public int hashCodeOfReport() {
+    return this.report.hashCode();
+  }
+
+  /**
+   * Compare two equal reports.
+   *
+   * @return true.
+   */
+  @Benchmark
+  public boolean equalsSame() {
+    return this.report.equals(this.same);
+  }
+
+  /**
+   * Compare two reports that differ in the top floor only.
+   *
+   * @return false.
+   */
+  @Benchmark
+  public boolean equalsDifferent() {
+    return this.report.equals(this.lastFloorDiffers);
+  }
+}
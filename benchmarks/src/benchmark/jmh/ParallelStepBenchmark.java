@@ -0,0 +1,85 @@
+package benchmark.jmh;
+
+import building.Building;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Compares serial and fork/join stepping of the elevators for growing fleets.
+ * <p>
+ * A busy building is stepped serially, or in the common pool with each task
+ * stepping at most the given number of elevators. Comparing the scores for each
+ * fleet size shows from which size parallel stepping pays off on the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStepBenchmark {
+
+  private static final int FLOORS = 30;
+  private static final int CAPACITY = 10;
+  private static final int REQUESTS = 1 << 16;
+  private static final int WARM_UP_STEPS = 500;
+
+  @Param({"64", "1024", "16384"})
+  private int elevators;
+
+  /************************************************************************
+   * The sequential threshold, or serial to step without the pool.
+   ************************************************************************/
+  @Param({"serial", "256", "1024", "4096"})
+  private String stepping;
+
+  private Building building;
+  private Request[] requests;
+  private int requestsPerStep;
+  private int next;
+
+  /**
+   * Build the building and run it until its elevators are busy.
+   */
+  @Setup
+  public void setUp() {
+    this.building = new Building(FLOORS, this.elevators, CAPACITY);
+    if (!this.stepping.equals("serial")) {
+      this.building.setParallelStepping(ForkJoinPool.commonPool(),
+          Integer.parseInt(this.stepping));
+    }
+    this.building.startElevatorSystem();
+    this.requests = Simulations.randomRequests(FLOORS, REQUESTS);
+    this.requestsPerStep = Math.max(1, this.elevators / 8);
+    for (int i = 0; i < WARM_UP_STEPS; i++) {
+      this.step();
+    }
+  }
+
+  /**
+   * Add an eighth of a request per elevator, then step the building.
+   *
+   * @return the step number, so the work cannot be removed.
+   */
+  @Benchmark
+  public long step() {
+    for (int i = 0; i < this.requestsPerStep; i++) {
+      this.building.addRequestToElevatorSystem(this.requests[this.next]);
+      this.next = (this.next + 1) & (REQUESTS - 1);
+    }
+    this.building.stepElevatorSystem();
+    return this.building.getCurrentStep();
+  }
+}
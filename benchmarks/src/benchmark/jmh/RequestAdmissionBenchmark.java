@@ -0,0 +1,94 @@
+package benchmark.jmh;
+
+import building.Building;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Measures adding a request to a building.
+ * <p>
+ * Every call adds a batch of requests, and the building is restarted with empty
+ * queues before the next call so the queues do not grow without end. The time is
+ * reported per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestAdmissionBenchmark {
+
+  private static final int BATCH = 1024;
+
+  @Param({"11", "50"})
+  private int floors;
+
+  @Param({"8", "64"})
+  private int elevators;
+
+  @Param({"5"})
+  private int capacity;
+
+  private Building building;
+  private Request[] requests;
+
+  /**
+   * Build the building and the requests.
+   */
+  @Setup
+  public void setUp() {
+    this.building = Simulations.runningBuilding(this.floors, this.elevators, this.capacity);
+    this.requests = Simulations.randomRequests(this.floors, BATCH);
+  }
+
+  /**
+   * Empty the queues.
+   */
+  @Setup(Level.Invocation)
+  public void emptyQueues() {
+    Simulations.restart(this.building);
+  }
+
+  /**
+   * Add requests with addRequestToElevatorSystem, straight into the queues.
+   *
+   * @return the requests waiting, so the work cannot be removed.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int addRequestToElevatorSystem() {
+    for (Request request : this.requests) {
+      this.building.addRequestToElevatorSystem(request);
+    }
+    return this.building.getWaitingRequestCount();
+  }
+
+  /**
+   * Add requests with submitRequest, through the lock free queue that the next step
+   * empties.
+   *
+   * @return the number of requests, so the work cannot be removed.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public int submitRequest() {
+    for (Request request : this.requests) {
+      this.building.submitRequest(request);
+    }
+    return this.requests.length;
+  }
+}
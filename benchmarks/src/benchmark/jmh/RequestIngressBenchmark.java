@@ -0,0 +1,269 @@
+package benchmark.jmh;
+
+import building.queue.RequestIngressQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+import org.openjdk.jmh.infra.ThreadParams;
+import scanerzus.Request;
+
+/**
+ * Measures submitting requests from several threads at once.
+ * <p>
+ * Each group has 1, 4 or 16 producer threads offering requests and one consumer
+ * thread draining them, as the stepping thread does. The lock free ingress queue is
+ * compared with a ConcurrentLinkedQueue and with a list guarded by a lock, which is
+ * what a synchronized addRequestToElevatorSystem would amount to. Producers wait
+ * when the consumer falls too far behind, so the offer score is bounded by how fast
+ * the requests can be drained. The offer score is the one to compare; the drain
+ * score counts calls to drain, however many requests each one took.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestIngressBenchmark {
+
+  private static final int BACKLOG = 1 << 16;
+
+  @Param({"lockFree", "concurrent", "locked"})
+  private String queue;
+
+  private Ingress ingress;
+  private Request[] requests;
+
+  /************************************************************************
+   * The number of requests the consumer has drained. Only the consumer
+   * writes it.
+   ************************************************************************/
+  private volatile long drained = 0;
+
+  /**
+   * The queues being compared. Only offer is called from several threads.
+   */
+  private interface Ingress {
+    void offer(Request request);
+
+    int drainTo(List<Request> target);
+  }
+
+  /**
+   * The requests one producer has offered.
+   */
+  @State(Scope.Thread)
+  public static class Producer {
+    private long offered = 0;
+    private int next = 0;
+    private int producers;
+
+    /**
+     * Find out how many producers share the queue.
+     *
+     * @param params the parameters of the thread.
+     */
+    @Setup
+    public void setUp(ThreadParams params) {
+      this.producers = params.getSubgroupThreadCount();
+    }
+  }
+
+  /**
+   * The list the consumer drains into.
+   */
+  @State(Scope.Thread)
+  public static class Consumer {
+    private final List<Request> batch = new ArrayList<>();
+  }
+
+  /**
+   * Create the queue and the requests.
+   */
+  @Setup
+  public void setUp() {
+    switch (this.queue) {
+      case "lockFree":
+        this.ingress = lockFreeIngress();
+        break;
+      case "concurrent":
+        this.ingress = concurrentIngress();
+        break;
+      case "locked":
+        this.ingress = lockedIngress();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown queue: " + this.queue);
+    }
+    this.requests = Simulations.randomRequests(20, 1024);
+  }
+
+  /**
+   * Offer one request from one producer.
+   *
+   * @param producer the producer.
+   * @param control  tells a waiting producer that the iteration is over.
+   */
+  @Benchmark
+  @Group("oneProducer")
+  @GroupThreads(1)
+  public void offerFromOne(Producer producer, Control control) {
+    this.offer(producer, control);
+  }
+
+  /**
+   * Drain the requests of one producer.
+   *
+   * @param consumer the consumer.
+   * @return the number of requests drained.
+   */
+  @Benchmark
+  @Group("oneProducer")
+  @GroupThreads(1)
+  public int drainForOne(Consumer consumer) {
+    return this.drain(consumer);
+  }
+
+  /**
+   * Offer one request from one of four producers.
+   *
+   * @param producer the producer.
+   * @param control  tells a waiting producer that the iteration is over.
+   */
+  @Benchmark
+  @Group("fourProducers")
+  @GroupThreads(4)
+  public void offerFromFour(Producer producer, Control control) {
+    this.offer(producer, control);
+  }
+
+  /**
+   * Drain the requests of four producers.
+   *
+   * @param consumer the consumer.
+   * @return the number of requests drained.
+   */
+  @Benchmark
+  @Group("fourProducers")
+  @GroupThreads(1)
+  public int drainForFour(Consumer consumer) {
+    return this.drain(consumer);
+  }
+
+  /**
+   * Offer one request from one of sixteen producers.
+   *
+   * @param producer the producer.
+   * @param control  tells a waiting producer that the iteration is over.
+   */
+  @Benchmark
+  @Group("sixteenProducers")
+  @GroupThreads(16)
+  public void offerFromSixteen(Producer producer, Control control) {
+    this.offer(producer, control);
+  }
+
+  /**
+   * Drain the requests of sixteen producers.
+   *
+   * @param consumer the consumer.
+   * @return the number of requests drained.
+   */
+  @Benchmark
+  @Group("sixteenProducers")
+  @GroupThreads(1)
+  public int drainForSixteen(Consumer consumer) {
+    return this.drain(consumer);
+  }
+
+  private void offer(Producer producer, Control control) {
+    // every producer offers about as many, so this estimates the whole backlog.
+    while (producer.offered * producer.producers - this.drained > BACKLOG
+        && !control.stopMeasurement) {
+      Thread.onSpinWait();
+    }
+    this.ingress.offer(this.requests[producer.next]);
+    producer.next = (producer.next + 1) & (this.requests.length - 1);
+    producer.offered++;
+  }
+
+  private int drain(Consumer consumer) {
+    int count = this.ingress.drainTo(consumer.batch);
+    consumer.batch.clear();
+    this.drained += count;
+    return count;
+  }
+
+  private static Ingress lockFreeIngress() {
+    RequestIngressQueue queue = new RequestIngressQueue();
+    return new Ingress() {
+      @Override
+      public void offer(Request request) {
+        queue.offer(request);
+      }
+
+      @Override
+      public int drainTo(List<Request> target) {
+        return queue.drainTo(target);
+      }
+    };
+  }
+
+  private static Ingress concurrentIngress() {
+    ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+    return new Ingress() {
+      @Override
+      public void offer(Request request) {
+        queue.offer(request);
+      }
+
+      @Override
+      public int drainTo(List<Request> target) {
+        int count = 0;
+        Request request;
+        while ((request = queue.poll()) != null) {
+          target.add(request);
+          count++;
+        }
+        return count;
+      }
+    };
+  }
+
+  private static Ingress lockedIngress() {
+    List<Request> queue = new ArrayList<>();
+    return new Ingress() {
+      @Override
+      public void offer(Request request) {
+        synchronized (queue) {
+          queue.add(request);
+        }
+      }
+
+      @Override
+      public int drainTo(List<Request> target) {
+        synchronized (queue) {
+          target.addAll(queue);
+          int count = queue.size();
+          queue.clear();
+          return count;
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,67 @@
+package benchmark.jmh;
+
+import building.Building;
+import building.enums.ElevatorSystemStatus;
+import java.util.Random;
+import scanerzus.Request;
+
+/**
+ * The buildings and traffic shared by the benchmarks.
+ * Everything is seeded, so every run of a benchmark sees the same requests.
+ */
+final class Simulations {
+
+  /************************************************************************
+   * The seed of the random requests.
+   ************************************************************************/
+  static final long SEED = 42;
+
+  private Simulations() {
+  }
+
+  /**
+   * Create random requests between different floors.
+   *
+   * @param floors the number of floors.
+   * @param count  the number of requests.
+   * @return the requests.
+   */
+  static Request[] randomRequests(int floors, int count) {
+    Random random = new Random(SEED);
+    Request[] requests = new Request[count];
+    for (int i = 0; i < count; i++) {
+      int startFloor = random.nextInt(floors);
+      int endFloor = (startFloor + 1 + random.nextInt(floors - 1)) % floors;
+      requests[i] = new Request(startFloor, endFloor);
+    }
+    return requests;
+  }
+
+  /**
+   * Create a running building.
+   *
+   * @param floors    the number of floors.
+   * @param elevators the number of elevators.
+   * @param capacity  the capacity of each elevator.
+   * @return the started building.
+   */
+  static Building runningBuilding(int floors, int elevators, int capacity) {
+    Building building = new Building(floors, elevators, capacity);
+    building.startElevatorSystem();
+    return building;
+  }
+
+  /**
+   * Stop a building, step it until every elevator is back on the ground floor and
+   * start it again, leaving it with empty queues and idle elevators.
+   *
+   * @param building the building.
+   */
+  static void restart(Building building) {
+    building.stopElevatorSystem();
+    while (building.getElevatorSystemStatus() != ElevatorSystemStatus.outOfService) {
+      building.stepElevatorSystem();
+    }
+    building.startElevatorSystem();
+  }
+}
@@ -0,0 +1,89 @@
+package benchmark.jmh;
+
+import building.Building;
+import building.BuildingReport;
+import display.AsciiBuildingDisplay;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Measures reading and rendering the status of a busy building.
+ * <p>
+ * The building is run with more requests than it can serve, so its queues are
+ * long when it is read. It is not stepped during the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusReportBenchmark {
+
+  private static final int STEPS = 200;
+
+  @Param({"11", "50"})
+  private int floors;
+
+  @Param({"8", "64"})
+  private int elevators;
+
+  @Param({"5"})
+  private int capacity;
+
+  @Param({"false", "true"})
+  private boolean snapshotMode;
+
+  private Building building;
+  private BuildingReport report;
+  private AsciiBuildingDisplay display;
+
+  /**
+   * Build the building and run it until its queues are long.
+   */
+  @Setup
+  public void setUp() {
+    this.building = Simulations.runningBuilding(this.floors, this.elevators, this.capacity);
+    this.building.setSnapshotMode(this.snapshotMode);
+    Request[] requests = Simulations.randomRequests(this.floors, STEPS * 4);
+    for (int step = 0; step < STEPS; step++) {
+      for (int i = 0; i < 4; i++) {
+        this.building.addRequestToElevatorSystem(requests[step * 4 + i]);
+      }
+      this.building.stepElevatorSystem();
+    }
+    this.report = this.building.getStatusElevatorSystem();
+    this.display = new AsciiBuildingDisplay();
+  }
+
+  /**
+   * Read the status of the building.
+   *
+   * @return the report.
+   */
+  @Benchmark
+  public BuildingReport getStatusElevatorSystem() {
+    return this.building.getStatusElevatorSystem();
+  }
+
+  /**
+   * Render a report as the console does.
+   *
+   * @return the rendered building.
+   */
+  @Benchmark
+  public String display() {
+    return this.display.display(this.report);
+  }
+}
@@ -1,11 +1,29 @@
 package building;
 
+import building.dispatch.DispatchStrategy;
+import building.dispatch.EndFloorDispatchStrategy;
+import building.enums.Direction;
+import building.enums.ElevatorCounter;
 import building.enums.ElevatorSystemStatus;
+import building.enums.RequestStatus;
+import building.queue.RequestQueue;
+import building.queue.RequestQueueFactory;
+import building.queue.PersistentRequestQueue;
+import building.queue.RequestIngressQueue;
 import elevator.Elevator;
+import elevator.ElevatorDigest;
+import elevator.ElevatorFleet;
 import elevator.ElevatorInterface;
 import elevator.ElevatorReport;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import metrics.MetricsRegistry;
 import scanerzus.Request;
 
 
@@ -14,6 +32,8 @@ import scanerzus.Request;
  */
 public class Building implements BuildingInterface {
 
+  private static final long NOT_RUNNING = Long.MIN_VALUE;
+
   private final int numberOfFloors;
   private final int numberOfElevators;
 
@@ -21,14 +41,101 @@ public class Building implements BuildingInterface {
 
   private final ElevatorInterface[] elevators;
 
-  private final List<Request> upRequests = new ArrayList<>();
-  private final List<Request> downRequests = new ArrayList<>();
+  private final ElevatorFleet fleet;
+
+  private final RequestTracker tracker;
+
+  private final MetricsRegistry metrics = new MetricsRegistry();
+
+  private final LongAdder requestsSubmitted = this.metrics.counter("requests.submitted");
+
+  /************************************************************************
+   * Submitted requests turned away because the system was not running.
+   * They are counted here because requestCounts is only written by the
+   * stepping thread.
+   ************************************************************************/
+  private final LongAdder submittedNotAccepting = new LongAdder();
+
+  /************************************************************************
+   * The queues are swapped for journaled views of themselves the first
+   * time a reader asks for the changes since a version.
+   ************************************************************************/
+  private RequestQueue upRequests;
+  private RequestQueue downRequests;
+
+  private final RequestIngressQueue ingress = new RequestIngressQueue();
+
+  private final List<Request> ingressBatch = new ArrayList<>();
+
+  private final AtomicReference<ElevatorSystemStatus> submittedStatus = new AtomicReference<>();
+
+  private final long[] requestCounts = new long[RequestStatus.values().length];
+
+  private volatile ElevatorSystemStatus elevatorsStatus;
+
+  private DispatchStrategy dispatchStrategy = new EndFloorDispatchStrategy();
+
+  private ForkJoinPool stepPool = null;
+
+  private TickListener[] tickListeners = new TickListener[0];
+
+  /************************************************************************
+   * The listener called during a step: null when there are none, the only
+   * listener when there is one and a chain of them otherwise.
+   ************************************************************************/
+  private TickListener tickListener = null;
+
+  private long currentStep = 0;
+
+  /************************************************************************
+   * The time the system has run for before the current run, and when the
+   * current run started. They are read by the servedPerSecond gauge from
+   * other threads.
+   ************************************************************************/
+  private volatile long runningNanos = 0;
+
+  private volatile long runningSince = NOT_RUNNING;
+
+  private int sequentialThreshold = Integer.MAX_VALUE;
+
+  private boolean snapshotMode = false;
+
+  private volatile BuildingReport publishedSnapshot = null;
+
+  /************************************************************************
+   * The version of the building when the published snapshot was made.
+   ************************************************************************/
+  private long snapshotVersion = 0;
+
+  /************************************************************************
+   * The least time between two published statistics in nanoseconds, 0 to
+   * publish after every step and negative when none are published.
+   ************************************************************************/
+  private long statisticsInterval = -1;
+
+  private long statisticsPublishedAt = 0;
+
+  private volatile BuildingStatistics publishedStatistics = null;
+
+  private long version = 0;
 
-  private ElevatorSystemStatus elevatorsStatus;
+  private long upRequestsVersion = 0;
+
+  private long downRequestsVersion = 0;
+
+  private ElevatorReport[] trackedReports = null;
+
+  private long[] elevatorVersions = null;
+
+  private JournaledRequestQueue upJournal = null;
+
+  private JournaledRequestQueue downJournal = null;
 
 
   /**
    * Constructs a Building object and initializes it to the given number of floors and elevators.
+   * The waiting requests are held in persistent queues, so the reports share the
+   * requests with the building instead of copying them.
    *
    * @param numberOfFloors    the number of floors in the building
    * @param numberOfElevators the number of elevators in the building
@@ -37,6 +144,44 @@ public class Building implements BuildingInterface {
   public Building(int numberOfFloors,
                   int numberOfElevators,
                   int elevatorCapacity) throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity,
+        (floors, direction) -> new PersistentRequestQueue());
+  }
+
+  /**
+   * Constructs a Building object that holds its waiting requests in queues
+   * created by the given factory.
+   *
+   * @param numberOfFloors      the number of floors in the building
+   * @param numberOfElevators   the number of elevators in the building
+   * @param elevatorCapacity    the maximum number of people that can be in an elevator at once
+   * @param requestQueueFactory the factory used to create the up and down request queues
+   */
+  public Building(int numberOfFloors,
+                  int numberOfElevators,
+                  int elevatorCapacity,
+                  RequestQueueFactory requestQueueFactory) throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, requestQueueFactory,
+        Elevator.DEFAULT_FLOOR_LIMIT, Elevator.DEFAULT_OCCUPANCY_LIMIT);
+  }
+
+  /**
+   * Constructs a Building object whose elevators use the given limits on floors
+   * and occupancy instead of the defaults, so that taller towers can be modelled.
+   *
+   * @param numberOfFloors      the number of floors in the building
+   * @param numberOfElevators   the number of elevators in the building
+   * @param elevatorCapacity    the maximum number of people that can be in an elevator at once
+   * @param requestQueueFactory the factory used to create the up and down request queues
+   * @param floorLimit          the largest number of floors an elevator may serve
+   * @param occupancyLimit      the largest capacity an elevator may have
+   */
+  public Building(int numberOfFloors,
+                  int numberOfElevators,
+                  int elevatorCapacity,
+                  RequestQueueFactory requestQueueFactory,
+                  int floorLimit,
+                  int occupancyLimit) throws IllegalArgumentException {
     // check the parameters for validity.
 
     // are floors greater than or equal to 2.
@@ -54,21 +199,59 @@ public class Building implements BuildingInterface {
       throw new IllegalArgumentException("maxOccupancy must be greater than or equal to 1");
     }
 
+    if (requestQueueFactory == null) {
+      throw new IllegalArgumentException("requestQueueFactory cannot be null");
+    }
+
 
     this.numberOfFloors = numberOfFloors;
     this.numberOfElevators = numberOfElevators;
     this.elevatorCapacity = elevatorCapacity;
-
-    // Initialize the RequestGenerator
-
+    this.upRequests = requestQueueFactory.create(numberOfFloors, Direction.UP);
+    this.downRequests = requestQueueFactory.create(numberOfFloors, Direction.DOWN);
 
     // Initialize the ElevatorSystemStatus in the building
+    // the ids are the index in the building, so every building numbers its
+    // elevators the same way, as a fleet does.
     this.elevators = new Elevator[numberOfElevators];
 
     for (int i = 0; i < numberOfElevators; i++) {
-      this.elevators[i] = new Elevator(numberOfFloors, this.elevatorCapacity);
+      this.elevators[i] = new Elevator(i, numberOfFloors, this.elevatorCapacity,
+          floorLimit, occupancyLimit);
     }
+    this.fleet = null;
+    this.tracker = new RequestTracker(this.elevators, this.numberOfFloors);
     this.elevatorsStatus = ElevatorSystemStatus.outOfService;
+    this.registerMetrics();
+  }
+
+  /**
+   * Constructs a Building object whose elevators are the cars of a fleet.
+   * The fleet keeps the state of all its cars in arrays and steps them in one loop,
+   * which suits buildings with a very large number of elevators.
+   *
+   * @param fleet               the elevators of the building
+   * @param requestQueueFactory the factory used to create the up and down request queues
+   */
+  public Building(ElevatorFleet fleet,
+                  RequestQueueFactory requestQueueFactory) throws IllegalArgumentException {
+    if (fleet == null) {
+      throw new IllegalArgumentException("fleet cannot be null");
+    }
+    if (requestQueueFactory == null) {
+      throw new IllegalArgumentException("requestQueueFactory cannot be null");
+    }
+
+    this.numberOfFloors = fleet.getMaxFloor();
+    this.numberOfElevators = fleet.size();
+    this.elevatorCapacity = fleet.getMaxOccupancy();
+    this.upRequests = requestQueueFactory.create(this.numberOfFloors, Direction.UP);
+    this.downRequests = requestQueueFactory.create(this.numberOfFloors, Direction.DOWN);
+    this.elevators = fleet.getCars();
+    this.fleet = fleet;
+    this.tracker = new RequestTracker(this.elevators, this.numberOfFloors);
+    this.elevatorsStatus = ElevatorSystemStatus.outOfService;
+    this.registerMetrics();
   }
 
   /**
@@ -101,6 +284,295 @@ public class Building implements BuildingInterface {
     return this.elevatorCapacity;
   }
 
+  /**
+   * This method is used to get the number of steps the building has been stepped.
+   *
+   * @return the number of calls to stepElevatorSystem, counting the steps
+   *     covered by advanceElevatorSystem.
+   */
+  public long getCurrentStep() {
+    return this.currentStep;
+  }
+
+  /**
+   * This method is used to get how long the requests took to be served.
+   * Every request is followed from the step it arrives in a queue, through the
+   * step it is given to an elevator and the step the elevator opens its door on
+   * its start floor, to the step the elevator opens its door on its end floor.
+   *
+   * @return the statistics of the requests served so far.
+   */
+  public RequestStatistics getRequestStatistics() {
+    return this.tracker.getStatistics();
+  }
+
+  /**
+   * This method is used to get the wait times of the requests that start on a floor
+   * and go in a direction, from arrival to pick up.
+   *
+   * @param startFloor the start floor of the requests.
+   * @param direction  UP or DOWN.
+   * @return a copy of the histogram of the wait times in steps.
+   * @throws IllegalArgumentException if the floor or direction is not valid.
+   */
+  public LatencyHistogram getWaitTimeHistogram(int startFloor, Direction direction) {
+    return this.tracker.getWaitTimes(startFloor, direction).copy();
+  }
+
+  /**
+   * This method is used to get the ride times of the requests that start on a floor
+   * and go in a direction, from pick up to drop off.
+   *
+   * @param startFloor the start floor of the requests.
+   * @param direction  UP or DOWN.
+   * @return a copy of the histogram of the ride times in steps.
+   * @throws IllegalArgumentException if the floor or direction is not valid.
+   */
+  public LatencyHistogram getRideTimeHistogram(int startFloor, Direction direction) {
+    return this.tracker.getRideTimes(startFloor, direction).copy();
+  }
+
+  /**
+   * This method is used to get the wait times of all the requests.
+   *
+   * @return the histograms of every floor and direction merged.
+   */
+  public LatencyHistogram getWaitTimeHistogram() {
+    return this.tracker.mergeHistograms(false);
+  }
+
+  /**
+   * This method is used to get the ride times of all the requests.
+   *
+   * @return the histograms of every floor and direction merged.
+   */
+  public LatencyHistogram getRideTimeHistogram() {
+    return this.tracker.mergeHistograms(true);
+  }
+
+  /**
+   * This method is used to get the metrics of the building.
+   * <p>
+   * The registry holds:
+   * <ul>
+   *   <li>building.steps, the steps taken, counting the steps skipped by
+   *   advanceElevatorSystem</li>
+   *   <li>queue.up.depth and queue.down.depth, the requests waiting in each queue</li>
+   *   <li>requests.submitted, requests.inFlight and requests.served since the
+   *   building was built</li>
+   *   <li>requests.servedPerSecond, the requests served per second that the
+   *   elevator system has been running</li>
+   *   <li>requests.status.&lt;status&gt;, the requests with each admission result</li>
+   *   <li>elevators.&lt;counter&gt;, every ElevatorCounter added up over the elevators</li>
+   *   <li>elevator.&lt;index&gt;.floorsTravelled, the floors travelled by each elevator</li>
+   * </ul>
+   * The gauges read the state of the building without locking, so when they are read
+   * from another thread while the building steps they can be a step behind.
+   *
+   * @return the metrics registry.
+   */
+  public MetricsRegistry getMetrics() {
+    return this.metrics;
+  }
+
+  /**
+   * This method is used to get the version of the building.
+   * The version goes up every time the building changes: a step, a request or
+   * a start or stop.
+   *
+   * @return the version of the building.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method is used to get the number of requests waiting for an elevator.
+   * Unlike getStatusElevatorSystem this does not copy the waiting requests.
+   *
+   * @return the number of up and down requests that have not been given to an elevator.
+   */
+  public int getWaitingRequestCount() {
+    return this.upRequests.size() + this.downRequests.size();
+  }
+
+  /**
+   * This method is used to set the algorithm that gives the waiting requests
+   * to the elevators. The default is the EndFloorDispatchStrategy.
+   *
+   * @param dispatchStrategy the dispatch strategy to use from the next step.
+   */
+  public void setDispatchStrategy(DispatchStrategy dispatchStrategy) {
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("dispatchStrategy cannot be null");
+    }
+    this.dispatchStrategy = dispatchStrategy;
+  }
+
+  /**
+   * This method is used to get the algorithm that gives the waiting requests
+   * to the elevators.
+   *
+   * @return the dispatch strategy.
+   */
+  public DispatchStrategy getDispatchStrategy() {
+    return this.dispatchStrategy;
+  }
+
+  /**
+   * This method is used to step the elevators in parallel.
+   * The elevators are split into ranges of at most sequentialThreshold elevators
+   * that are stepped by the tasks of the pool. Each elevator only changes its own
+   * state when it steps, so the results are the same as stepping them one at a time.
+   * Parallel stepping only pays off for very large numbers of elevators.
+   *
+   * @param pool                the pool to step the elevators in, null to step them serially.
+   * @param sequentialThreshold the largest number of elevators stepped by a single task.
+   */
+  public void setParallelStepping(ForkJoinPool pool, int sequentialThreshold) {
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException("sequentialThreshold must be greater than or equal to 1");
+    }
+    this.stepPool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+  }
+
+  /**
+   * This method is used to add a listener that is called at the phases of every step.
+   * A building without listeners does not check the clock or call anything extra,
+   * so listeners only cost something while they are added. Listeners must be added
+   * and removed on the thread that steps the building.
+   *
+   * @param listener the listener, such as a TickProfiler.
+   * @throws IllegalArgumentException if the listener is null.
+   */
+  public void addTickListener(TickListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Tick listener cannot be null");
+    }
+    TickListener[] listeners = Arrays.copyOf(this.tickListeners, this.tickListeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+    this.setTickListeners(listeners);
+  }
+
+  /**
+   * This method is used to remove a listener added with addTickListener.
+   *
+   * @param listener the listener.
+   * @return true if the listener was added, false if not.
+   */
+  public boolean removeTickListener(TickListener listener) {
+    for (int i = 0; i < this.tickListeners.length; i++) {
+      if (this.tickListeners[i] == listener) {
+        TickListener[] listeners = new TickListener[this.tickListeners.length - 1];
+        System.arraycopy(this.tickListeners, 0, listeners, 0, i);
+        System.arraycopy(this.tickListeners, i + 1, listeners, i, listeners.length - i);
+        this.setTickListeners(listeners);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void setTickListeners(TickListener[] listeners) {
+    this.tickListeners = listeners;
+    if (listeners.length == 0) {
+      this.tickListener = null;
+    } else if (listeners.length == 1) {
+      this.tickListener = listeners[0];
+    } else {
+      this.tickListener = new TickListenerChain(listeners.clone());
+    }
+  }
+
+  /**
+   * This method is used to publish the statistics of the building for other threads.
+   * <p>
+   * While publishing is on the building creates new statistics at the end of a
+   * step once the interval has passed since the last ones, and whenever the system
+   * is started or stopped. getPublishedStatistics returns the latest, which never
+   * change, so monitoring threads can read them without touching the state the
+   * stepping thread is writing. Like the other settings this is called from the
+   * stepping thread.
+   *
+   * @param interval the least time between two publications, 0 to publish after
+   *                 every step or negative to stop publishing.
+   * @param unit     the unit of the interval.
+   */
+  public void setStatisticsInterval(long interval, TimeUnit unit) {
+    if (interval < 0) {
+      this.statisticsInterval = -1;
+      this.publishedStatistics = null;
+      return;
+    }
+    this.statisticsInterval = unit.toNanos(interval);
+    this.publishStatistics(true);
+  }
+
+  /**
+   * This method is used to find out if the statistics are published.
+   *
+   * @return true if the statistics are published.
+   */
+  public boolean isPublishingStatistics() {
+    return this.statisticsInterval >= 0;
+  }
+
+  /**
+   * This method is used to get the latest published statistics. It can be called
+   * from any thread.
+   *
+   * @return the statistics, or null if they are not published.
+   */
+  public BuildingStatistics getPublishedStatistics() {
+    return this.publishedStatistics;
+  }
+
+  /**
+   * This method is used to find out if the elevators are stepped in parallel.
+   *
+   * @return true if the elevators are stepped in parallel.
+   */
+  public boolean isParallelStepping() {
+    return this.stepPool != null && this.sequentialThreshold < this.elevators.length;
+  }
+
+  /**
+   * This method is used to turn snapshot mode on or off.
+   * <p>
+   * In snapshot mode the building publishes a report after every step and
+   * getStatusElevatorSystem returns the published report, so polling the status
+   * creates no objects and can be done from any thread. A published report never
+   * changes: its elevator reports are immutable, and shared with the report before
+   * for the elevators that did not change, and its request lists are the immutable
+   * views of the queues, which cost nothing to take with the default persistent
+   * queues. A step that changes nothing publishes nothing new. Requests added
+   * between steps show up in the report after the next step.
+   *
+   * @param snapshotMode true to publish a report after every step, false to create a
+   *                     new report on every call to getStatusElevatorSystem.
+   */
+  public void setSnapshotMode(boolean snapshotMode) {
+    if (!snapshotMode) {
+      this.snapshotMode = false;
+      this.publishedSnapshot = null;
+      return;
+    }
+    if (!this.snapshotMode) {
+      this.snapshotMode = true;
+      this.publishSnapshot();
+    }
+  }
+
+  /**
+   * This method is used to find out if snapshot mode is on.
+   *
+   * @return true if the status reports are reused.
+   */
+  public boolean isSnapshotMode() {
+    return this.snapshotMode;
+  }
+
   /**
    * This method is used to start the building elevator system.
    */
@@ -119,10 +591,14 @@ public class Building implements BuildingInterface {
 
     // At this point we know we are stopped.
     // GO GO GO!
+    this.version++;
     for (ElevatorInterface elevator : this.elevators) {
       elevator.start();
     }
     this.elevatorsStatus = ElevatorSystemStatus.running;
+    this.runningSince = System.nanoTime();
+    this.publishSnapshot();
+    this.publishStatistics(true);
   }
 
   /**
@@ -136,6 +612,7 @@ public class Building implements BuildingInterface {
     }
 
     // for all of the elevators in the building, stop them.
+    this.version++;
     for (ElevatorInterface elevator : this.elevators) {
       elevator.takeOutOfService();
       this.elevatorsStatus = ElevatorSystemStatus.stopping;
@@ -143,6 +620,15 @@ public class Building implements BuildingInterface {
       this.upRequests.clear();
       this.downRequests.clear();
     }
+    this.tracker.abandonAll();
+    if (this.runningSince != NOT_RUNNING) {
+      this.runningNanos += System.nanoTime() - this.runningSince;
+      this.runningSince = NOT_RUNNING;
+    }
+    this.upRequestsVersion = this.version;
+    this.downRequestsVersion = this.version;
+    this.publishSnapshot();
+    this.publishStatistics(true);
   }
 
   /**
@@ -152,6 +638,10 @@ public class Building implements BuildingInterface {
    */
   @Override
   public BuildingReport getStatusElevatorSystem() {
+    BuildingReport snapshot = this.publishedSnapshot;
+    if (snapshot != null) {
+      return snapshot;
+    }
 
     ElevatorReport[] elevatorReports = new ElevatorReport[this.elevators.length];
     for (int i = 0; i < this.elevators.length; i++) {
@@ -163,8 +653,8 @@ public class Building implements BuildingInterface {
         this.numberOfElevators,
         this.elevatorCapacity,
         elevatorReports,
-        this.upRequests,
-        this.downRequests,
+        this.upRequests.toList(),
+        this.downRequests.toList(),
         this.elevatorsStatus);
 
     return buildingReport;
@@ -177,36 +667,367 @@ public class Building implements BuildingInterface {
    */
   @Override
   public void addRequestToElevatorSystem(Request request) {
-    if (this.elevatorsStatus == ElevatorSystemStatus.outOfService ||
-        this.elevatorsStatus == ElevatorSystemStatus.stopping) {
-      throw new IllegalStateException("Elevator system not accepting requests.");
+    RequestStatus status = this.offerRequest(request);
+    if (status != RequestStatus.accepted) {
+      throw this.rejection(status);
     }
+  }
 
+  /**
+   * This method is used to add a request to the building without throwing.
+   * A request that is not accepted is counted against the reason it was rejected.
+   *
+   * @param request the request to be added to the building
+   * @return accepted if the request was added, otherwise the reason it was not.
+   */
+  public RequestStatus offerRequest(Request request) {
+    RequestStatus status = this.elevatorsStatus == ElevatorSystemStatus.running
+        ? this.requestStatus(request) : RequestStatus.notAccepting;
+    this.requestCounts[status.ordinal()]++;
+    if (status == RequestStatus.accepted) {
+      this.enqueue(request);
+    }
+    return status;
+  }
 
-    if (request == null) {
-      throw new IllegalArgumentException("Request cannot be null");
+  /**
+   * This method is used to get the number of requests that had a given result.
+   * Requests given to addRequestToElevatorSystem, offerRequest and
+   * addRequestsToElevatorSystem are counted, as are submitted requests.
+   *
+   * @param status the result.
+   * @return the number of requests with that result.
+   */
+  public long getRequestCount(RequestStatus status) {
+    if (status == RequestStatus.notAccepting) {
+      return this.requestCounts[status.ordinal()] + this.submittedNotAccepting.sum();
     }
+    return this.requestCounts[status.ordinal()];
+  }
 
-    if (request.getStartFloor() < 0 || request.getStartFloor() >= this.numberOfFloors) {
-      throw new IllegalArgumentException("Start floor must be between 0 and "
-          + (this.numberOfFloors - 1));
+  /**
+   * This method is used to get the number of requests that were not accepted.
+   *
+   * @return the number of rejected requests for every reason.
+   */
+  public long getRejectedRequestCount() {
+    long rejected = 0;
+    for (RequestStatus status : RequestStatus.values()) {
+      if (status != RequestStatus.accepted) {
+        rejected += this.getRequestCount(status);
+      }
     }
+    return rejected;
+  }
 
-    if (request.getEndFloor() < 0 || request.getEndFloor() >= this.numberOfFloors) {
-      throw new IllegalArgumentException("End floor must be between 0 and "
-          + (this.numberOfFloors - 1));
+  /**
+   * This method is used to add a batch of requests to the building.
+   * <p>
+   * The state of the system is checked once for the whole batch and each request
+   * is checked without throwing. The requests that pass are added in order and the
+   * others are skipped.
+   *
+   * @param requests the requests to be added to the building
+   * @return the status of each request, in the order of the collection
+   */
+  public RequestStatus[] addRequestsToElevatorSystem(Collection<Request> requests) {
+    RequestStatus[] statuses = new RequestStatus[requests.size()];
+    if (this.elevatorsStatus != ElevatorSystemStatus.running) {
+      Arrays.fill(statuses, RequestStatus.notAccepting);
+      this.requestCounts[RequestStatus.notAccepting.ordinal()] += statuses.length;
+      return statuses;
     }
 
+    this.version++;
+    boolean upAdded = false;
+    boolean downAdded = false;
+    int i = 0;
+    for (Request request : requests) {
+      RequestStatus status = this.requestStatus(request);
+      statuses[i++] = status;
+      this.requestCounts[status.ordinal()]++;
+      if (status != RequestStatus.accepted) {
+        continue;
+      }
+      this.arrived(request);
+      if (request.getStartFloor() < request.getEndFloor()) {
+        this.upRequests.add(request);
+        upAdded = true;
+      } else {
+        this.downRequests.add(request);
+        downAdded = true;
+      }
+    }
+    if (upAdded) {
+      this.upRequestsVersion = this.version;
+    }
+    if (downAdded) {
+      this.downRequestsVersion = this.version;
+    }
+    return statuses;
+  }
+
+  /**
+   * This method is used to submit a request from any thread.
+   * <p>
+   * The request is checked straight away. If the elevator system is running and
+   * no stop has been submitted it is put in a lock free queue that the stepping
+   * thread empties at the start of the next step, otherwise it is turned away.
+   * The request counts are updated when that step takes the request in: if the
+   * system was stopped in between, the request is dropped and counted as
+   * notAccepting even though it was handed over.
+   *
+   * @param request the request to be added to the building
+   * @return accepted if the request was handed to the next step, or notAccepting if
+   *         the system is not running or is about to stop.
+   * @throws IllegalArgumentException if the request is null or its floors are not valid
+   */
+  public RequestStatus submitRequest(Request request) {
+    this.checkRequest(request);
+    this.requestsSubmitted.increment();
+    if (this.elevatorsStatus != ElevatorSystemStatus.running
+        || this.submittedStatus.get() == ElevatorSystemStatus.stopping) {
+      this.submittedNotAccepting.increment();
+      return RequestStatus.notAccepting;
+    }
+    this.ingress.offer(request);
+    return RequestStatus.accepted;
+  }
+
+  /**
+   * This method is used to ask for the elevator system to be started from any thread.
+   * The stepping thread starts the system at the start of the next step. If the
+   * system is still stopping it is started on the first step after it has stopped.
+   */
+  public void submitStart() {
+    this.submittedStatus.set(ElevatorSystemStatus.running);
+  }
+
+  /**
+   * This method is used to ask for the elevator system to be stopped from any thread.
+   * The stepping thread stops the system at the start of the next step. A stop
+   * replaces a start that has not happened yet.
+   */
+  public void submitStop() {
+    this.submittedStatus.set(ElevatorSystemStatus.stopping);
+  }
+
+  /**
+   * This method is used to get the status of the elevator system without building a
+   * report. The status is read without locking, so from another thread it can be a
+   * step behind.
+   *
+   * @return running, stopping or out of service.
+   */
+  public ElevatorSystemStatus getElevatorSystemStatus() {
+    return this.elevatorsStatus;
+  }
+
+  /**
+   * This method is used to get the status of one elevator without building a
+   * report for the whole building. In snapshot mode the report is the one in the
+   * published snapshot.
+   *
+   * @param index the index of the elevator, from 0 to the number of elevators - 1.
+   * @return the status of the elevator.
+   * @throws IllegalArgumentException if the index is out of range.
+   */
+  public ElevatorReport getElevatorStatus(int index) {
+    this.checkElevatorIndex(index);
+    BuildingReport snapshot = this.publishedSnapshot;
+    if (snapshot != null) {
+      return snapshot.getElevatorReports()[index];
+    }
+    return this.elevators[index].getElevatorStatus();
+  }
+
+  /**
+   * This method is used to get one of the counters of one elevator.
+   *
+   * @param index   the index of the elevator, from 0 to the number of elevators - 1.
+   * @param counter the counter.
+   * @return the value of the counter.
+   * @throws IllegalArgumentException if the index is out of range.
+   */
+  public long getElevatorCounter(int index, ElevatorCounter counter) {
+    this.checkElevatorIndex(index);
+    return this.elevators[index].getCounter(counter);
+  }
+
+  /**
+   * This method is used to get the state of one elevator packed into a long, without
+   * creating any objects. See ElevatorDigest for the layout and for reading it.
+   *
+   * @param index the index of the elevator, from 0 to the number of elevators - 1.
+   * @return the digest of the elevator.
+   * @throws IllegalArgumentException if the index is out of range.
+   */
+  public long getElevatorDigest(int index) {
+    this.checkElevatorIndex(index);
+    return ElevatorDigest.of(this.elevators[index]);
+  }
+
+  private void checkElevatorIndex(int index) {
+    if (index < 0 || index >= this.elevators.length) {
+      throw new IllegalArgumentException("Elevator index must be between 0 and "
+          + (this.elevators.length - 1));
+    }
+  }
+
+  /**
+   * Check that a request can be served by the building.
+   * This only reads fields that never change, so it can be called from any thread.
+   *
+   * @param request the request to check.
+   * @throws IllegalArgumentException if the request is null or its floors are not valid
+   */
+  private void checkRequest(Request request) {
+    RequestStatus status = this.requestStatus(request);
+    if (status != RequestStatus.accepted) {
+      throw this.rejection(status);
+    }
+  }
+
+  /**
+   * Create the exception that the throwing methods use for a rejected request.
+   *
+   * @param status the reason the request was rejected.
+   * @return the exception to throw.
+   */
+  private RuntimeException rejection(RequestStatus status) {
+    switch (status) {
+      case notAccepting:
+        return new IllegalStateException(status.getMessage(this.numberOfFloors));
+      case nullRequest:
+      case startFloorOutOfRange:
+      case endFloorOutOfRange:
+      case sameFloor:
+        return new IllegalArgumentException(status.getMessage(this.numberOfFloors));
+      default:
+        throw new AssertionError("No exception for a request that was " + status);
+    }
+  }
+
+  /**
+   * Find out if a request can be served by the building, without throwing.
+   * This only reads fields that never change, so it can be called from any thread.
+   *
+   * @param request the request to check.
+   * @return accepted if the request is valid, otherwise the reason it is not.
+   */
+  private RequestStatus requestStatus(Request request) {
+    if (request == null) {
+      return RequestStatus.nullRequest;
+    }
+    if (request.getStartFloor() < 0 || request.getStartFloor() >= this.numberOfFloors) {
+      return RequestStatus.startFloorOutOfRange;
+    }
+    if (request.getEndFloor() < 0 || request.getEndFloor() >= this.numberOfFloors) {
+      return RequestStatus.endFloorOutOfRange;
+    }
     if (request.getStartFloor() == request.getEndFloor()) {
-      throw new IllegalArgumentException("Start floor and end floor cannot be the same");
+      return RequestStatus.sameFloor;
+    }
+    return RequestStatus.accepted;
+  }
+
+  /**
+   * Register the gauges of the building. The elevators keep their own counters,
+   * which are only added up when a gauge is read.
+   */
+  private void registerMetrics() {
+    this.metrics.gauge("building.steps", () -> this.currentStep);
+    this.metrics.gauge("queue.up.depth", this.upRequests::size);
+    this.metrics.gauge("queue.down.depth", this.downRequests::size);
+    this.metrics.gauge("requests.inFlight", this.tracker::getRequestsInFlight);
+    this.metrics.gauge("requests.served", this.tracker::getCompletedRequests);
+    this.metrics.gauge("requests.servedPerSecond", () -> {
+      long elapsedNanos = this.runningNanos;
+      long since = this.runningSince;
+      if (since != NOT_RUNNING) {
+        elapsedNanos += System.nanoTime() - since;
+      }
+      return (long) (this.tracker.getCompletedRequests() * 1e9 / Math.max(1, elapsedNanos));
+    });
+    for (RequestStatus status : RequestStatus.values()) {
+      this.metrics.gauge("requests.status." + status.name(), () -> this.getRequestCount(status));
+    }
+    for (ElevatorCounter counter : ElevatorCounter.values()) {
+      this.metrics.gauge("elevators." + counter.name(), () -> {
+        long total = 0;
+        for (ElevatorInterface elevator : this.elevators) {
+          total += elevator.getCounter(counter);
+        }
+        return total;
+      });
+    }
+    for (int i = 0; i < this.elevators.length; i++) {
+      ElevatorInterface elevator = this.elevators[i];
+      this.metrics.gauge("elevator." + i + ".floorsTravelled",
+          () -> elevator.getCounter(ElevatorCounter.floorsTravelled));
+    }
+  }
+
+  /**
+   * Record the arrival of an accepted request with the tracker and the listeners.
+   *
+   * @param request the request.
+   */
+  private void arrived(Request request) {
+    this.tracker.arrived(request, this.currentStep);
+    if (this.tickListener != null) {
+      this.tickListener.requestAccepted(request, this.currentStep);
     }
+  }
 
+  /**
+   * Put a checked request in the up or down queue.
+   *
+   * @param request the request.
+   */
+  private void enqueue(Request request) {
+    this.version++;
+    this.arrived(request);
     if (request.getStartFloor() < request.getEndFloor()) {
       this.upRequests.add(request);
+      this.upRequestsVersion = this.version;
     } else {
       this.downRequests.add(request);
+      this.downRequestsVersion = this.version;
     }
+  }
 
+  /**
+   * Carry out a start or stop submitted from another thread, then move the requests
+   * submitted from other threads into the up and down queues.
+   */
+  private void drainIngress() {
+    ElevatorSystemStatus submitted = this.submittedStatus.get();
+    // a start waits until the system has finished stopping.
+    if (submitted != null && (submitted == ElevatorSystemStatus.stopping
+        || this.elevatorsStatus != ElevatorSystemStatus.stopping)
+        && this.submittedStatus.compareAndSet(submitted, null)) {
+      if (submitted == ElevatorSystemStatus.stopping) {
+        this.stopElevatorSystem();
+      } else {
+        this.startElevatorSystem();
+      }
+    }
+    if (this.ingress.isEmpty()) {
+      return;
+    }
+    this.ingress.drainTo(this.ingressBatch);
+    // a request is only accepted once it is in a queue. If the system has stopped
+    // since the request was submitted it is dropped and counted as not accepted.
+    if (this.elevatorsStatus == ElevatorSystemStatus.running) {
+      for (Request request : this.ingressBatch) {
+        this.enqueue(request);
+      }
+      this.requestCounts[RequestStatus.accepted.ordinal()] += this.ingressBatch.size();
+    } else {
+      this.requestCounts[RequestStatus.notAccepting.ordinal()] += this.ingressBatch.size();
+    }
+    this.ingressBatch.clear();
   }
 
   /**
@@ -214,20 +1035,145 @@ public class Building implements BuildingInterface {
    */
   @Override
   public void stepElevatorSystem() {
+    this.drainIngress();
+    this.currentStep++;
     if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
       return;
     }
+    this.version++;
+    TickListener listener = this.tickListener;
+    if (listener != null) {
+      listener.beforeDispatch(this.currentStep);
+    }
 
     // If we are stopping then we do not distribute requests.
     if (this.elevatorsStatus != ElevatorSystemStatus.stopping) {
       this.distributeRequests();
     }
 
-    for (ElevatorInterface elevator : this.elevators) {
-      elevator.step();
+    if (listener != null) {
+      listener.afterDispatch(this.currentStep);
     }
+    if (this.isParallelStepping()) {
+      this.stepPool.invoke(new StepElevatorsTask(this.elevators, 0, this.elevators.length,
+          this.sequentialThreshold));
+      if (listener != null) {
+        for (int i = 0; i < this.elevators.length; i++) {
+          listener.elevatorStepped(i, this.currentStep);
+        }
+      }
+    } else if (listener != null) {
+      // the fleet's car views step their car the same way fleet.step does.
+      for (int i = 0; i < this.elevators.length; i++) {
+        this.elevators[i].step();
+        listener.elevatorStepped(i, this.currentStep);
+      }
+    } else if (this.fleet != null) {
+      this.fleet.step();
+    } else {
+      for (ElevatorInterface elevator : this.elevators) {
+        elevator.step();
+      }
+    }
+    this.tracker.stepped(this.currentStep);
+
+    this.checkStopped();
+    this.publishSnapshot();
+    this.publishStatistics(false);
+    if (listener != null) {
+      listener.afterTick(this.currentStep);
+    }
+  }
+
+  /**
+   * This method is used to move the building elevator system on by several steps.
+   * The result is the same as calling stepElevatorSystem that many times.
+   * <p>
+   * While no requests are waiting each elevator is jumped from one step where it
+   * has something to do to the next: a door closing, a wait at the top or bottom
+   * ending or the arrival at a stop. While requests are waiting the building is
+   * stepped one step at a time.
+   *
+   * @param steps the number of steps to move on by.
+   */
+  public void advanceElevatorSystem(long steps) {
+    this.advance(steps);
+    this.publishSnapshot();
+    this.publishStatistics(false);
+  }
+
+  /**
+   * Move the building on by several steps.
+   *
+   * @param steps the number of steps to move on by.
+   */
+  private void advance(long steps) {
+    long remaining = steps;
+    if (remaining > 0 && this.elevatorsStatus != ElevatorSystemStatus.outOfService) {
+      this.version++;
+    }
+    while (remaining > 0) {
+      this.drainIngress();
+      // stepping an out of service building does nothing.
+      if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
+        this.currentStep += remaining;
+        return;
+      }
+
+      boolean requestsWaiting = !this.upRequests.isEmpty() || !this.downRequests.isEmpty();
+      if (requestsWaiting) {
+        this.stepElevatorSystem();
+        remaining--;
+        continue;
+      }
+
+      if (this.elevatorsStatus == ElevatorSystemStatus.running) {
+        // with no waiting requests the dispatch strategy has nothing to do and
+        // the elevators do not depend on each other, so each one is moved on
+        // from event to event by itself.
+        for (int i = 0; i < this.elevators.length; i++) {
+          ElevatorInterface elevator = this.elevators[i];
+          long left = remaining;
+          while (left > 0) {
+            int cycle = elevator.idleCycleLength();
+            if (cycle > 0) {
+              // whole idle cycles leave the elevator as it was, only its counters move on.
+              elevator.skipIdleCycles(left / cycle);
+              left %= cycle;
+              if (left == 0) {
+                break;
+              }
+            }
+            int jump = (int) Math.min(left, elevator.stepsUntilNextEvent());
+            elevator.skipSteps(jump);
+            left -= jump;
+            this.tracker.elevatorStepped(i, this.currentStep + remaining - left);
+          }
+        }
+        this.currentStep += remaining;
+        return;
+      }
+
+      // while stopping the building goes out of service on the step the last
+      // elevator reaches the ground floor, so all the elevators jump together.
+      long jump = remaining;
+      for (ElevatorInterface elevator : this.elevators) {
+        jump = Math.min(jump, elevator.stepsUntilNextEvent());
+      }
+      for (ElevatorInterface elevator : this.elevators) {
+        elevator.skipSteps((int) jump);
+      }
+      this.currentStep += jump;
+      remaining -= jump;
+      this.checkStopped();
+    }
+  }
 
-    // if we are stopping and all the elevators are on the ground floor then we are out of service.
+  /**
+   * If we are stopping and all the elevators are on the ground floor then we are
+   * out of service.
+   */
+  private void checkStopped() {
     if (this.elevatorsStatus == ElevatorSystemStatus.stopping) {
       boolean allElevatorsOnGroundFloor = true;
       for (ElevatorInterface elevator : this.elevators) {
@@ -243,47 +1189,230 @@ public class Building implements BuildingInterface {
   }
 
   /**
-   * This method is used to distribute the requests to the elevators.
-   * Only elevators on the ground floor and top floor will be considered.
+   * This method is used to get what changed in the building since a version.
+   * <p>
+   * The delta holds the elevators whose status is different from their status at
+   * that version and the requests added to and removed from each queue since then.
+   * A queue is sent in full instead when its changes since the version are no longer
+   * known. Pass the version of the last delta to get the changes after it, or -1 to
+   * get everything.
+   *
+   * @param version the version the reader is up to.
+   * @return the changes since that version.
    */
-  private void distributeRequests() {
-    if (this.upRequests.isEmpty() && this.downRequests.isEmpty()) {
-      return;
+  public BuildingDelta getStatusSince(long version) {
+    this.trackElevatorChanges();
+    if (this.upJournal == null) {
+      this.upJournal = new JournaledRequestQueue(this.upRequests, () -> this.version);
+      this.downJournal = new JournaledRequestQueue(this.downRequests, () -> this.version);
+      this.upRequests = this.upJournal;
+      this.downRequests = this.downJournal;
     }
 
+    int changed = 0;
+    for (long elevatorVersion : this.elevatorVersions) {
+      if (elevatorVersion > version) {
+        changed++;
+      }
+    }
+    int[] elevatorIndexes = new int[changed];
+    ElevatorReport[] elevatorReports = new ElevatorReport[changed];
+    int next = 0;
+    for (int i = 0; i < this.elevators.length; i++) {
+      if (this.elevatorVersions[i] > version) {
+        elevatorIndexes[next] = i;
+        elevatorReports[next] = this.elevators[i].getElevatorStatus();
+        next++;
+      }
+    }
 
-    // iterate over the elevators if they are on the ground floor
-    // add upRequests up to the capacity of the elevator.
-    // if the elevator is on the top floor add downRequests up to the capacity of the elevator.
-    for (ElevatorInterface elevator : this.elevators) {
-      if (!elevator.isTakingRequests()) {
-        continue;
+    List<Request> upAdded = new ArrayList<>();
+    List<Request> upRemoved = new ArrayList<>();
+    List<Request> upRequests = this.queueChanges(this.upJournal, this.upRequestsVersion,
+        version, upAdded, upRemoved);
+    List<Request> downAdded = new ArrayList<>();
+    List<Request> downRemoved = new ArrayList<>();
+    List<Request> downRequests = this.queueChanges(this.downJournal, this.downRequestsVersion,
+        version, downAdded, downRemoved);
+    return new BuildingDelta(this.version,
+        elevatorIndexes,
+        elevatorReports,
+        upRequests,
+        upAdded,
+        upRemoved,
+        downRequests,
+        downAdded,
+        downRemoved,
+        this.elevatorsStatus);
+  }
+
+  /**
+   * Find what changed in a queue since a version.
+   *
+   * @param journal      the journaled queue.
+   * @param queueVersion the version the queue last changed at.
+   * @param version      the version the reader is up to.
+   * @param added        the list that receives the requests added since the version.
+   * @param removed      the list that receives the requests removed since the version.
+   * @return the whole queue if the journal does not go back to the version, otherwise null.
+   */
+  private List<Request> queueChanges(JournaledRequestQueue journal, long queueVersion,
+                                     long version, List<Request> added,
+                                     List<Request> removed) {
+    if (queueVersion <= version) {
+      return null;
+    }
+    if (!journal.covers(version)) {
+      return journal.toList();
+    }
+    journal.changesSince(version, added, removed);
+    return null;
+  }
+
+  /**
+   * Compare the status of each elevator with the status it had the last time this
+   * was called and record the current version for the elevators that changed.
+   * Every version a reader is given comes from a call to this, so an elevator whose
+   * recorded version is not after the reader's version still has the status the
+   * reader saw.
+   */
+  private void trackElevatorChanges() {
+    if (this.trackedReports == null) {
+      this.trackedReports = new ElevatorReport[this.elevators.length];
+      this.elevatorVersions = new long[this.elevators.length];
+      for (int i = 0; i < this.elevators.length; i++) {
+        this.trackedReports[i] = this.elevators[i].getElevatorStatus();
+        this.elevatorVersions[i] = this.version;
       }
-      if (elevator.getCurrentFloor() == 0) {
-        List<Request> upRequestsForElevator = getRequests(this.upRequests);
-        elevator.processRequests(upRequestsForElevator);
-      } else if (elevator.getCurrentFloor() == this.numberOfFloors - 1) {
-        List<Request> downRequestsForElevator = getRequests(this.downRequests);
-        elevator.processRequests(downRequestsForElevator);
+      return;
+    }
+    for (int i = 0; i < this.elevators.length; i++) {
+      // an elevator hands out the same report until something in it changes.
+      ElevatorReport status = this.elevators[i].getElevatorStatus();
+      if (status != this.trackedReports[i]) {
+        if (!status.equals(this.trackedReports[i])) {
+          this.elevatorVersions[i] = this.version;
+        }
+        this.trackedReports[i] = status;
       }
+    }
+  }
 
+  /**
+   * If snapshot mode is on publish a new report of the building.
+   * Nothing in the report is written to after it is published, and the volatile
+   * write makes all of it visible to the threads that read it.
+   * <p>
+   * An elevator hands out the same report until something in it changes, so the
+   * reports of the elevators that did not change are shared with the last snapshot.
+   * If nothing at all changed the last snapshot stays published and nothing new is
+   * created.
+   */
+  private void publishSnapshot() {
+    if (!this.snapshotMode) {
+      return;
     }
+    BuildingReport published = this.publishedSnapshot;
+    if (published != null && this.isStillTrue(published)) {
+      return;
+    }
+    ElevatorReport[] elevatorReports = new ElevatorReport[this.elevators.length];
+    for (int i = 0; i < this.elevators.length; i++) {
+      elevatorReports[i] = this.elevators[i].getElevatorStatus();
+    }
+    this.snapshotVersion = this.version;
+    this.publishedSnapshot = new BuildingReport(this.numberOfFloors,
+        this.numberOfElevators,
+        this.elevatorCapacity,
+        elevatorReports,
+        this.upRequests.toList(),
+        this.downRequests.toList(),
+        this.elevatorsStatus);
   }
 
   /**
-   * This method is used to get the requests for the elevators.
+   * Find out if the published snapshot still describes the building.
    *
-   * @param requests the requests to get the requests from.
-   * @return the requests to return.
+   * @param published the published snapshot.
+   * @return true if neither the queues, the status nor any elevator has changed.
    */
-  private List<Request> getRequests(List<Request> requests) {
-    List<Request> requestsToReturn = new ArrayList<Request>();
-    while (!requests.isEmpty() && requestsToReturn.size() < this.elevatorCapacity) {
-      requestsToReturn.add(requests.remove(0));
+  private boolean isStillTrue(BuildingReport published) {
+    if (published.getSystemStatus() != this.elevatorsStatus
+        || this.upRequestsVersion > this.snapshotVersion
+        || this.downRequestsVersion > this.snapshotVersion) {
+      return false;
+    }
+    ElevatorReport[] elevatorReports = published.getElevatorReports();
+    for (int i = 0; i < this.elevators.length; i++) {
+      if (this.elevators[i].getElevatorStatus() != elevatorReports[i]) {
+        return false;
+      }
     }
-    return requestsToReturn;
+    return true;
   }
 
-}
+  /**
+   * If the statistics are published and the interval has passed, or always is set,
+   * publish new statistics. In snapshot mode they share the elevator reports of the
+   * published snapshot, which is up to date.
+   *
+   * @param always true to publish before the interval has passed.
+   */
+  private void publishStatistics(boolean always) {
+    if (this.statisticsInterval < 0) {
+      return;
+    }
+    if (this.statisticsInterval > 0) {
+      long now = System.nanoTime();
+      if (!always && now - this.statisticsPublishedAt < this.statisticsInterval) {
+        return;
+      }
+      this.statisticsPublishedAt = now;
+    }
+    BuildingReport snapshot = this.publishedSnapshot;
+    ElevatorReport[] elevatorReports;
+    if (snapshot != null) {
+      elevatorReports = snapshot.getElevatorReports();
+    } else {
+      elevatorReports = new ElevatorReport[this.elevators.length];
+      for (int i = 0; i < this.elevators.length; i++) {
+        elevatorReports[i] = this.elevators[i].getElevatorStatus();
+      }
+    }
+    ElevatorCounter[] counters = ElevatorCounter.values();
+    long[] elevatorCounters = new long[this.elevators.length * counters.length];
+    for (int i = 0; i < this.elevators.length; i++) {
+      for (ElevatorCounter counter : counters) {
+        elevatorCounters[i * counters.length + counter.ordinal()] =
+            this.elevators[i].getCounter(counter);
+      }
+    }
+    this.publishedStatistics = new BuildingStatistics(this.currentStep,
+        this.elevatorsStatus,
+        this.tracker.getStatistics(),
+        this.tracker.mergeHistograms(false),
+        this.tracker.mergeHistograms(true),
+        elevatorReports,
+        elevatorCounters,
+        this.metrics.snapshot());
+  }
 
+  /**
+   * This method is used to distribute the requests to the elevators.
+   * The dispatch strategy decides which elevators get which requests.
+   */
+  private void distributeRequests() {
+    int upWaiting = this.upRequests.size();
+    int downWaiting = this.downRequests.size();
+    this.dispatchStrategy.distributeRequests(this.tracker.getDispatchView(this.currentStep),
+        this.upRequests, this.downRequests);
+    // the strategy only takes requests out of the queues.
+    if (this.upRequests.size() != upWaiting) {
+      this.upRequestsVersion = this.version;
+    }
+    if (this.downRequests.size() != downWaiting) {
+      this.downRequestsVersion = this.version;
+    }
+  }
 
+}
@@ -0,0 +1,183 @@
+package building;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.List;
+import scanerzus.Request;
+
+
+/**
+ * This is the report of what changed in the building since a version.
+ * <p>
+ * It holds the reports of the elevators whose state changed and, for each request
+ * queue, the requests that were added to it and removed from it since the version.
+ * When the building no longer knows what changed since the version, for a reader
+ * that is too far behind or after the queues were cleared, the whole queue is sent
+ * instead. The version of the delta is passed to the next call of getStatusSince to
+ * get the changes after it.
+ */
+public class BuildingDelta {
+  private final long version;
+
+  private final int[] elevatorIndexes;
+
+  private final ElevatorReport[] elevatorReports;
+
+  private final List<Request> upRequests;
+
+  private final List<Request> upAdded;
+
+  private final List<Request> upRemoved;
+
+  private final List<Request> downRequests;
+
+  private final List<Request> downAdded;
+
+  private final List<Request> downRemoved;
+
+  private final ElevatorSystemStatus systemStatus;
+
+  /**
+   * This constructor is used to create a new BuildingDelta object.
+   *
+   * @param version         The version of the building the delta brings a reader up to.
+   * @param elevatorIndexes The indexes of the elevators that changed.
+   * @param elevatorReports The status of the elevators that changed.
+   * @param upRequests      All of the up requests, or null if only the changes are sent.
+   * @param upAdded         The up requests added since the version.
+   * @param upRemoved       The up requests removed since the version.
+   * @param downRequests    All of the down requests, or null if only the changes are sent.
+   * @param downAdded       The down requests added since the version.
+   * @param downRemoved     The down requests removed since the version.
+   * @param systemStatus    The status of the elevator system.
+   */
+  public BuildingDelta(long version,
+                       int[] elevatorIndexes,
+                       ElevatorReport[] elevatorReports,
+                       List<Request> upRequests,
+                       List<Request> upAdded,
+                       List<Request> upRemoved,
+                       List<Request> downRequests,
+                       List<Request> downAdded,
+                       List<Request> downRemoved,
+                       ElevatorSystemStatus systemStatus) {
+    this.version = version;
+    this.elevatorIndexes = elevatorIndexes;
+    this.elevatorReports = elevatorReports;
+    this.upRequests = upRequests;
+    this.upAdded = upAdded;
+    this.upRemoved = upRemoved;
+    this.downRequests = downRequests;
+    this.downAdded = downAdded;
+    this.downRemoved = downRemoved;
+    this.systemStatus = systemStatus;
+  }
+
+  /**
+   * This method is used to get the version of the building this delta brings a reader up to.
+   *
+   * @return the version.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method is used to get the indexes of the elevators that changed.
+   * The index of an elevator is its position in the building's elevator reports.
+   *
+   * @return the indexes in the same order as getElevatorReports.
+   */
+  public int[] getElevatorIndexes() {
+    return this.elevatorIndexes;
+  }
+
+  /**
+   * This method is used to get the status of the elevators that changed.
+   *
+   * @return the status of the elevators that changed.
+   */
+  public ElevatorReport[] getElevatorReports() {
+    return this.elevatorReports;
+  }
+
+  /**
+   * This method is used to get all of the up requests when the reader has to
+   * replace its copy instead of applying the changes.
+   *
+   * @return the up requests, or null if only the changes are sent.
+   */
+  public List<Request> getUpRequests() {
+    return this.upRequests;
+  }
+
+  /**
+   * This method is used to get the up requests added since the version,
+   * in the order they were added.
+   *
+   * @return the added up requests.
+   */
+  public List<Request> getUpAdded() {
+    return this.upAdded;
+  }
+
+  /**
+   * This method is used to get the up requests removed since the version.
+   * They are removed before the added requests are appended.
+   *
+   * @return the removed up requests.
+   */
+  public List<Request> getUpRemoved() {
+    return this.upRemoved;
+  }
+
+  /**
+   * This method is used to get all of the down requests when the reader has to
+   * replace its copy instead of applying the changes.
+   *
+   * @return the down requests, or null if only the changes are sent.
+   */
+  public List<Request> getDownRequests() {
+    return this.downRequests;
+  }
+
+  /**
+   * This method is used to get the down requests added since the version,
+   * in the order they were added.
+   *
+   * @return the added down requests.
+   */
+  public List<Request> getDownAdded() {
+    return this.downAdded;
+  }
+
+  /**
+   * This method is used to get the down requests removed since the version.
+   * They are removed before the added requests are appended.
+   *
+   * @return the removed down requests.
+   */
+  public List<Request> getDownRemoved() {
+    return this.downRemoved;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system.
+   *
+   * @return the status of the elevator system.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return this.systemStatus;
+  }
+
+  /**
+   * This method is used to find out if nothing changed.
+   *
+   * @return true if no elevator and no queue changed.
+   */
+  public boolean isEmpty() {
+    return this.elevatorIndexes.length == 0
+        && this.upRequests == null && this.upAdded.isEmpty() && this.upRemoved.isEmpty()
+        && this.downRequests == null && this.downAdded.isEmpty() && this.downRemoved.isEmpty();
+  }
+}
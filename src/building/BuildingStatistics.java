@@ -0,0 +1,155 @@
+package building;
+
+import building.enums.ElevatorCounter;
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import java.util.Collections;
+import java.util.SortedMap;
+
+
+/**
+ * This is the report of the statistics of a building at the end of a step.
+ * <p>
+ * The stepping thread creates it and nothing in it changes afterwards, so it can be
+ * read from any thread. The histograms are handed out as copies.
+ */
+public class BuildingStatistics {
+  private static final int COUNTERS = ElevatorCounter.values().length;
+
+  private final long step;
+
+  private final ElevatorSystemStatus systemStatus;
+
+  private final RequestStatistics requestStatistics;
+
+  private final LatencyHistogram waitTimes;
+
+  private final LatencyHistogram rideTimes;
+
+  private final ElevatorReport[] elevatorReports;
+
+  /************************************************************************
+   * The counters of the elevators, COUNTERS entries per elevator indexed
+   * by ElevatorCounter.
+   ************************************************************************/
+  private final long[] elevatorCounters;
+
+  private final SortedMap<String, Long> metrics;
+
+  /**
+   * This constructor is used to create a new BuildingStatistics object.
+   *
+   * @param step              The step the statistics were taken after.
+   * @param systemStatus      The status of the elevator system.
+   * @param requestStatistics The times of the requests.
+   * @param waitTimes         The wait times of every request, owned by the statistics.
+   * @param rideTimes         The ride times of every request, owned by the statistics.
+   * @param elevatorReports   The status of the elevators.
+   * @param elevatorCounters  The counters of the elevators, as laid out above.
+   * @param metrics           The values of the metrics of the building.
+   */
+  public BuildingStatistics(long step,
+                            ElevatorSystemStatus systemStatus,
+                            RequestStatistics requestStatistics,
+                            LatencyHistogram waitTimes,
+                            LatencyHistogram rideTimes,
+                            ElevatorReport[] elevatorReports,
+                            long[] elevatorCounters,
+                            SortedMap<String, Long> metrics) {
+    this.step = step;
+    this.systemStatus = systemStatus;
+    this.requestStatistics = requestStatistics;
+    this.waitTimes = waitTimes;
+    this.rideTimes = rideTimes;
+    this.elevatorReports = elevatorReports;
+    this.elevatorCounters = elevatorCounters;
+    this.metrics = Collections.unmodifiableSortedMap(metrics);
+  }
+
+  /**
+   * This method is used to get the step the statistics were taken after.
+   *
+   * @return the step.
+   */
+  public long getStep() {
+    return this.step;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system.
+   *
+   * @return the status of the elevator system.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    return this.systemStatus;
+  }
+
+  /**
+   * This method is used to get the times of the requests.
+   *
+   * @return the request statistics.
+   */
+  public RequestStatistics getRequestStatistics() {
+    return this.requestStatistics;
+  }
+
+  /**
+   * This method is used to get the wait times of every request.
+   *
+   * @return a copy of the histogram.
+   */
+  public LatencyHistogram getWaitTimeHistogram() {
+    return this.waitTimes.copy();
+  }
+
+  /**
+   * This method is used to get the ride times of every request.
+   *
+   * @return a copy of the histogram.
+   */
+  public LatencyHistogram getRideTimeHistogram() {
+    return this.rideTimes.copy();
+  }
+
+  /**
+   * This method is used to get the value at a percentile of the wait times without
+   * copying the histogram.
+   *
+   * @param percentile the percentage, from 0 to 100.
+   * @return the wait time.
+   * @throws IllegalArgumentException if the percentile is out of range.
+   */
+  public long getWaitTimeAtPercentile(double percentile) {
+    return this.waitTimes.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * This method is used to get the status of one elevator.
+   *
+   * @param index the index of the elevator.
+   * @return the status of the elevator.
+   */
+  public ElevatorReport getElevatorReport(int index) {
+    return this.elevatorReports[index];
+  }
+
+  /**
+   * This method is used to get one of the counters of one elevator.
+   *
+   * @param index   the index of the elevator.
+   * @param counter the counter.
+   * @return the value of the counter.
+   */
+  public long getElevatorCounter(int index, ElevatorCounter counter) {
+    return this.elevatorCounters[index * COUNTERS + counter.ordinal()];
+  }
+
+  /**
+   * This method is used to get the values of the metrics of the building.
+   *
+   * @return the values by name, in name order.
+   */
+  public SortedMap<String, Long> getMetrics() {
+    return this.metrics;
+  }
+}
@@ -0,0 +1,210 @@
+package building;
+
+import building.queue.RequestQueue;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * This is a request queue that passes every call on to another queue and keeps a
+ * journal of the requests added to it and taken out of it, with the version of the
+ * building at the time. A reader that saw the queue at a version can then be sent
+ * only the requests that came and went since.
+ * <p>
+ * The journal holds at most LIMIT changes. When it is full the older half is
+ * dropped, and so is all of it when the queue is cleared. A reader from before the
+ * dropped changes is not covered and has to be sent the whole queue again.
+ */
+class JournaledRequestQueue implements RequestQueue {
+  private static final int LIMIT = 1 << 16;
+
+  private final RequestQueue queue;
+
+  private final LongSupplier version;
+
+  private Request[] requests = new Request[16];
+
+  /************************************************************************
+   * The version of each change. Versions only go up, so the changes after
+   * a version are found with a binary search.
+   ************************************************************************/
+  private long[] versions = new long[16];
+
+  private boolean[] removals = new boolean[16];
+
+  private int size = 0;
+
+  /************************************************************************
+   * The oldest version a reader can be at and still be sent the changes.
+   ************************************************************************/
+  private long horizon;
+
+  /**
+   * Start a journal of a queue.
+   *
+   * @param queue   the queue.
+   * @param version gives the version of the building when the queue changes.
+   */
+  JournaledRequestQueue(RequestQueue queue, LongSupplier version) {
+    this.queue = queue;
+    this.version = version;
+    this.horizon = version.getAsLong();
+  }
+
+  /**
+   * Find out if the journal holds every change since a version.
+   *
+   * @param since the version the reader is up to.
+   * @return true if the changes since that version can be sent.
+   */
+  boolean covers(long since) {
+    return since >= this.horizon;
+  }
+
+  /**
+   * Add the requests that were added and removed since a version to two lists.
+   * A request that was both added and removed since then is in neither. The added
+   * requests are in the order they were added, so a reader of a first in first out
+   * queue that removes the removed requests and appends the added ones has the
+   * queue in service order.
+   *
+   * @param since   the version the reader is up to, which the journal must cover.
+   * @param added   the list that receives the requests that were added.
+   * @param removed the list that receives the requests that were removed.
+   */
+  void changesSince(long since, List<Request> added, List<Request> removed) {
+    int start = Arrays.binarySearch(this.versions, 0, this.size, since + 1);
+    if (start < 0) {
+      start = -start - 1;
+    }
+    // equal versions can sit either side of the one the search lands on.
+    while (start > 0 && this.versions[start - 1] > since) {
+      start--;
+    }
+    int first = added.size();
+    Map<Request, Integer> pending = new IdentityHashMap<>();
+    for (int i = start; i < this.size; i++) {
+      Request request = this.requests[i];
+      if (!this.removals[i]) {
+        pending.put(request, added.size());
+        added.add(request);
+        continue;
+      }
+      Integer position = pending.remove(request);
+      if (position == null) {
+        removed.add(request);
+      } else {
+        added.set(position, null);
+      }
+    }
+    added.subList(first, added.size()).removeIf(request -> request == null);
+  }
+
+  @Override
+  public void add(Request request) {
+    this.queue.add(request);
+    this.record(request, false);
+  }
+
+  @Override
+  public int drainTo(List<Request> target, int max) {
+    int first = target.size();
+    int drained = this.queue.drainTo(target, max);
+    this.recordRemoved(target, first);
+    return drained;
+  }
+
+  @Override
+  public int drainFloorTo(int startFloor, List<Request> target, int max) {
+    int first = target.size();
+    int drained = this.queue.drainFloorTo(startFloor, target, max);
+    this.recordRemoved(target, first);
+    return drained;
+  }
+
+  @Override
+  public int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                             int window) {
+    int first = target.size();
+    int drained = this.queue.drainMatchingTo(filter, target, max, window);
+    this.recordRemoved(target, first);
+    return drained;
+  }
+
+  @Override
+  public int sizeAtFloor(int startFloor) {
+    return this.queue.sizeAtFloor(startFloor);
+  }
+
+  @Override
+  public int size() {
+    return this.queue.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.queue.isEmpty();
+  }
+
+  @Override
+  public void clear() {
+    this.queue.clear();
+    Arrays.fill(this.requests, 0, this.size, null);
+    this.size = 0;
+    this.horizon = this.version.getAsLong();
+  }
+
+  @Override
+  public List<Request> toList() {
+    return this.queue.toList();
+  }
+
+  @Override
+  public Iterator<Request> iterator() {
+    return this.queue.iterator();
+  }
+
+  /**
+   * Record the requests a drain added to the end of target.
+   *
+   * @param target the list the requests were drained to.
+   * @param first  the size of target before the drain.
+   */
+  private void recordRemoved(List<Request> target, int first) {
+    for (int i = first; i < target.size(); i++) {
+      this.record(target.get(i), true);
+    }
+  }
+
+  /**
+   * Record a change, dropping the older half of the journal if it is full.
+   *
+   * @param request the request that was added or removed.
+   * @param removal true if it was removed.
+   */
+  private void record(Request request, boolean removal) {
+    if (this.size == LIMIT) {
+      int dropped = LIMIT / 2;
+      this.horizon = this.versions[dropped - 1];
+      this.size -= dropped;
+      System.arraycopy(this.requests, dropped, this.requests, 0, this.size);
+      System.arraycopy(this.versions, dropped, this.versions, 0, this.size);
+      System.arraycopy(this.removals, dropped, this.removals, 0, this.size);
+      Arrays.fill(this.requests, this.size, LIMIT, null);
+    } else if (this.size == this.requests.length) {
+      int length = this.size * 2;
+      this.requests = Arrays.copyOf(this.requests, length);
+      this.versions = Arrays.copyOf(this.versions, length);
+      this.removals = Arrays.copyOf(this.removals, length);
+    }
+    this.requests[this.size] = request;
+    this.versions[this.size] = this.version.getAsLong();
+    this.removals[this.size] = removal;
+    this.size++;
+  }
+}
@@ -0,0 +1,228 @@
+package building;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of times, counted in steps, that uses a fixed amount of memory.
+ * <p>
+ * The values are counted in buckets whose width grows with the value, as in an HDR
+ * histogram. Values below 16 each have their own bucket. Above that every power of
+ * two is split into 16 buckets, so a percentile is never more than 1/16 above the
+ * true value. Values of 2^32 steps and more are counted in an overflow bucket after
+ * the others; the largest value is also kept exactly.
+ * <p>
+ * Recording a value does not create any objects. Histograms can be merged, for
+ * example to combine floors or runs.
+ */
+public class LatencyHistogram {
+
+  /************************************************************************
+   * The number of bits of a value kept exactly: 16 buckets per power of two.
+   ************************************************************************/
+  private static final int SUB_BUCKET_BITS = 4;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /************************************************************************
+   * The number of bits of the largest value with a bucket of its own.
+   ************************************************************************/
+  private static final int VALUE_BITS = 32;
+
+  private static final int BUCKETS = (VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  /************************************************************************
+   * The bucket of the values too large for the others.
+   ************************************************************************/
+  private static final int OVERFLOW = BUCKETS;
+
+  private final long[] counts = new long[BUCKETS + 1];
+
+  private long count = 0;
+
+  private long total = 0;
+
+  private long max = 0;
+
+  /**
+   * Count a value. Negative values are counted as 0.
+   *
+   * @param value the value in steps.
+   */
+  public void record(long value) {
+    long clamped = Math.max(value, 0);
+    this.counts[bucket(clamped)]++;
+    this.count++;
+    this.total += clamped;
+    if (clamped > this.max) {
+      this.max = clamped;
+    }
+  }
+
+  /**
+   * Add the values counted by another histogram to this one.
+   *
+   * @param other the histogram to add.
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i <= OVERFLOW; i++) {
+      this.counts[i] += other.counts[i];
+    }
+    this.count += other.count;
+    this.total += other.total;
+    this.max = Math.max(this.max, other.max);
+  }
+
+  /**
+   * Remove all of the values.
+   */
+  public void reset() {
+    Arrays.fill(this.counts, 0);
+    this.count = 0;
+    this.total = 0;
+    this.max = 0;
+  }
+
+  /**
+   * Create a histogram holding the same values that does not change with this one.
+   *
+   * @return the copy.
+   */
+  public LatencyHistogram copy() {
+    LatencyHistogram copy = new LatencyHistogram();
+    copy.merge(this);
+    return copy;
+  }
+
+  /**
+   * Get the number of values counted.
+   *
+   * @return the number of values.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Get the largest value counted.
+   *
+   * @return the largest value, 0 if there are none.
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * Get the average of the values counted.
+   *
+   * @return the average, 0 if there are none.
+   */
+  public double getMean() {
+    return this.count == 0 ? 0 : (double) this.total / this.count;
+  }
+
+  /**
+   * Get the value that the given percentage of the values are at or below.
+   * The answer is the top of the bucket the value falls in, but never above the
+   * largest value.
+   *
+   * @param percentile the percentage, from 0 to 100.
+   * @return the value, 0 if there are none.
+   * @throws IllegalArgumentException if the percentile is out of range.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    if (this.count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+    long seen = 0;
+    for (int i = 0; i <= OVERFLOW; i++) {
+      seen += this.counts[i];
+      if (seen >= rank) {
+        return Math.min(highestValue(i), this.max);
+      }
+    }
+    return this.max;
+  }
+
+  /**
+   * hashCode method for the LatencyHistogram.
+   *
+   * @return a hash of the counts.
+   */
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(this.counts);
+    result = 31 * result + Long.hashCode(this.total);
+    result = 31 * result + Long.hashCode(this.max);
+    return result;
+  }
+
+  /**
+   * equals method for the LatencyHistogram.
+   *
+   * @param o the object to compare.
+   * @return true if the other histogram counted the same values.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof LatencyHistogram)) {
+      return false;
+    }
+    LatencyHistogram that = (LatencyHistogram) o;
+    return this.count == that.count && this.total == that.total && this.max == that.max
+        && Arrays.equals(this.counts, that.counts);
+  }
+
+  /**
+   * toString method for the LatencyHistogram.
+   *
+   * @return the count, the main percentiles and the largest value.
+   */
+  @Override
+  public String toString() {
+    return String.format("count=%d p50=%d p95=%d p99=%d max=%d", this.count,
+        this.getValueAtPercentile(50), this.getValueAtPercentile(95),
+        this.getValueAtPercentile(99), this.max);
+  }
+
+  /**
+   * Find the bucket of a value.
+   *
+   * @param value the value, not negative.
+   * @return the index of its bucket.
+   */
+  private static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    if (shift > VALUE_BITS - 1 - SUB_BUCKET_BITS) {
+      return OVERFLOW;
+    }
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  /**
+   * Find the largest value that falls in a bucket.
+   *
+   * @param bucket the index of the bucket.
+   * @return the largest value of the bucket.
+   */
+  private static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    if (bucket == OVERFLOW) {
+      return Long.MAX_VALUE;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long top = bucket - (long) shift * SUB_BUCKETS;
+    return ((top + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,49 @@
+package building;
+
+import scanerzus.Request;
+
+/**
+ * The steps at which a request reached each stage of its trip through the building:
+ * arriving in a queue, being given to an elevator, being picked up when the door
+ * opened on its start floor and being dropped off when the door opened on its end floor.
+ * A stage that has not been reached yet is -1.
+ */
+class RequestLifecycle {
+  final Request request;
+  final long arrivalStep;
+  long assignmentStep = -1;
+  long pickUpStep = -1;
+  long dropOffStep = -1;
+
+  /************************************************************************
+   * An earlier lifecycle of the same request object that is still waiting.
+   ************************************************************************/
+  RequestLifecycle older;
+
+  /**
+   * Start the lifecycle of a request that has just arrived.
+   *
+   * @param request     the request.
+   * @param arrivalStep the step the request arrived at.
+   */
+  RequestLifecycle(Request request, long arrivalStep) {
+    this.request = request;
+    this.arrivalStep = arrivalStep;
+  }
+
+  boolean isPickedUp() {
+    return this.pickUpStep >= 0;
+  }
+
+  long getTimeToAssignment() {
+    return this.assignmentStep - this.arrivalStep;
+  }
+
+  long getWaitTime() {
+    return this.pickUpStep - this.arrivalStep;
+  }
+
+  long getRideTime() {
+    return this.dropOffStep - this.pickUpStep;
+  }
+}
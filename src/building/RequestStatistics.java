@@ -0,0 +1,161 @@
+package building;
+
+/**
+ * This is the report of how long the requests served by a building took.
+ * <p>
+ * Times are counted in steps. The time to assignment runs from the step a request
+ * arrived to the step it was given to an elevator, the wait time from arrival to the
+ * step the elevator opened its door on the start floor, and the ride time from then
+ * to the step the elevator opened its door on the end floor. Only requests that
+ * have been dropped off are included in the times.
+ */
+public class RequestStatistics {
+  private final long completedRequests;
+
+  private final long abandonedRequests;
+
+  private final long requestsInFlight;
+
+  private final long totalTimeToAssignment;
+
+  private final long maxTimeToAssignment;
+
+  private final long totalWaitTime;
+
+  private final long maxWaitTime;
+
+  private final long totalRideTime;
+
+  private final long maxRideTime;
+
+  /**
+   * This constructor is used to create a new RequestStatistics object.
+   *
+   * @param completedRequests     The number of requests that have been dropped off.
+   * @param abandonedRequests     The number of requests dropped when the system stopped.
+   * @param requestsInFlight      The number of requests given to an elevator and not
+   *                              yet dropped off.
+   * @param totalTimeToAssignment The sum of the times to assignment.
+   * @param maxTimeToAssignment   The longest time to assignment.
+   * @param totalWaitTime         The sum of the wait times.
+   * @param maxWaitTime           The longest wait time.
+   * @param totalRideTime         The sum of the ride times.
+   * @param maxRideTime           The longest ride time.
+   */
+  public RequestStatistics(long completedRequests,
+                           long abandonedRequests,
+                           long requestsInFlight,
+                           long totalTimeToAssignment,
+                           long maxTimeToAssignment,
+                           long totalWaitTime,
+                           long maxWaitTime,
+                           long totalRideTime,
+                           long maxRideTime) {
+    this.completedRequests = completedRequests;
+    this.abandonedRequests = abandonedRequests;
+    this.requestsInFlight = requestsInFlight;
+    this.totalTimeToAssignment = totalTimeToAssignment;
+    this.maxTimeToAssignment = maxTimeToAssignment;
+    this.totalWaitTime = totalWaitTime;
+    this.maxWaitTime = maxWaitTime;
+    this.totalRideTime = totalRideTime;
+    this.maxRideTime = maxRideTime;
+  }
+
+  /**
+   * This method is used to get the number of requests that have been dropped off.
+   *
+   * @return the number of completed requests.
+   */
+  public long getCompletedRequests() {
+    return this.completedRequests;
+  }
+
+  /**
+   * This method is used to get the number of requests that were waiting or riding
+   * when the elevator system was stopped.
+   *
+   * @return the number of abandoned requests.
+   */
+  public long getAbandonedRequests() {
+    return this.abandonedRequests;
+  }
+
+  /**
+   * This method is used to get the number of requests that have been given to an
+   * elevator and not dropped off yet.
+   *
+   * @return the number of requests in flight.
+   */
+  public long getRequestsInFlight() {
+    return this.requestsInFlight;
+  }
+
+  /**
+   * This method is used to get the average time to assignment.
+   *
+   * @return the average number of steps, 0 if no request has completed.
+   */
+  public double getAverageTimeToAssignment() {
+    return this.average(this.totalTimeToAssignment);
+  }
+
+  /**
+   * This method is used to get the longest time to assignment.
+   *
+   * @return the longest number of steps, 0 if no request has completed.
+   */
+  public long getMaxTimeToAssignment() {
+    return this.maxTimeToAssignment;
+  }
+
+  /**
+   * This method is used to get the average wait time.
+   *
+   * @return the average number of steps, 0 if no request has completed.
+   */
+  public double getAverageWaitTime() {
+    return this.average(this.totalWaitTime);
+  }
+
+  /**
+   * This method is used to get the longest wait time.
+   *
+   * @return the longest number of steps, 0 if no request has completed.
+   */
+  public long getMaxWaitTime() {
+    return this.maxWaitTime;
+  }
+
+  /**
+   * This method is used to get the average ride time.
+   *
+   * @return the average number of steps, 0 if no request has completed.
+   */
+  public double getAverageRideTime() {
+    return this.average(this.totalRideTime);
+  }
+
+  /**
+   * This method is used to get the longest ride time.
+   *
+   * @return the longest number of steps, 0 if no request has completed.
+   */
+  public long getMaxRideTime() {
+    return this.maxRideTime;
+  }
+
+  private double average(long total) {
+    return this.completedRequests == 0 ? 0 : (double) total / this.completedRequests;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("completed=%d abandoned=%d inFlight=%d "
+            + "assignment avg=%.2f max=%d wait avg=%.2f max=%d ride avg=%.2f max=%d",
+        this.completedRequests, this.abandonedRequests, this.requestsInFlight,
+        this.getAverageTimeToAssignment(), this.maxTimeToAssignment,
+        this.getAverageWaitTime(), this.maxWaitTime,
+        this.getAverageRideTime(), this.maxRideTime);
+  }
+}
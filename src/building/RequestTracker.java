@@ -0,0 +1,370 @@
+package building;
+
+import building.enums.Direction;
+import elevator.ElevatorInterface;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import scanerzus.Request;
+
+/**
+ * This class follows every request through the building and adds up how long
+ * the requests took.
+ * <p>
+ * A request is waiting from the step it arrives until the dispatch strategy gives it
+ * to an elevator. The strategy is handed views of the elevators that tell the tracker
+ * which elevator got which requests. After that the tracker watches the doors of the
+ * elevators that have requests: a request is picked up when the door opens on its
+ * start floor and dropped off when the door opens on its end floor.
+ * <p>
+ * The wait and ride times of the requests that are dropped off are counted in a
+ * histogram for each start floor and direction.
+ */
+class RequestTracker {
+  private final ElevatorInterface[] elevators;
+
+  private final ElevatorInterface[] dispatchView;
+
+  /************************************************************************
+   * The requests that have not been given to an elevator. A request object
+   * that was added more than once keeps its lifecycles in a chain, newest first.
+   ************************************************************************/
+  private final Map<Request, RequestLifecycle> waiting = new IdentityHashMap<>();
+
+  /************************************************************************
+   * The requests each elevator has been given and not dropped off.
+   ************************************************************************/
+  private final List<List<RequestLifecycle>> inFlight;
+
+  /************************************************************************
+   * Was the door of each elevator closed when it was last looked at.
+   * Only kept up to date for elevators that have requests in flight.
+   ************************************************************************/
+  private final boolean[] doorWasClosed;
+
+  private int busyElevators = 0;
+
+  private long requestsInFlight = 0;
+
+  private long step = 0;
+
+  private long completedRequests = 0;
+  private long abandonedRequests = 0;
+  private long totalTimeToAssignment = 0;
+  private long maxTimeToAssignment = 0;
+  private long totalWaitTime = 0;
+  private long maxWaitTime = 0;
+  private long totalRideTime = 0;
+  private long maxRideTime = 0;
+
+  /************************************************************************
+   * The wait and ride times by direction and start floor. The up
+   * histograms come first, then the down histograms.
+   ************************************************************************/
+  private final LatencyHistogram[] waitTimes;
+  private final LatencyHistogram[] rideTimes;
+
+  private final int numberOfFloors;
+
+  /**
+   * Construct a tracker for the elevators of a building.
+   *
+   * @param elevators      the elevators of the building.
+   * @param numberOfFloors the number of floors in the building.
+   */
+  RequestTracker(ElevatorInterface[] elevators, int numberOfFloors) {
+    this.elevators = elevators;
+    this.numberOfFloors = numberOfFloors;
+    this.waitTimes = new LatencyHistogram[2 * numberOfFloors];
+    this.rideTimes = new LatencyHistogram[2 * numberOfFloors];
+    for (int i = 0; i < this.waitTimes.length; i++) {
+      this.waitTimes[i] = new LatencyHistogram();
+      this.rideTimes[i] = new LatencyHistogram();
+    }
+    this.dispatchView = new ElevatorInterface[elevators.length];
+    this.inFlight = new ArrayList<>(elevators.length);
+    for (int i = 0; i < elevators.length; i++) {
+      this.dispatchView[i] = new TrackedElevator(elevators[i], this, i);
+      this.inFlight.add(new ArrayList<>());
+    }
+    this.doorWasClosed = new boolean[elevators.length];
+  }
+
+  /**
+   * Get the elevators to hand to the dispatch strategy on a step.
+   *
+   * @param step the step the requests are being given out on.
+   * @return views of the elevators that record the requests they are given.
+   */
+  ElevatorInterface[] getDispatchView(long step) {
+    this.step = step;
+    return this.dispatchView;
+  }
+
+  /**
+   * Record a request arriving in a queue.
+   *
+   * @param request the request.
+   * @param step    the step it arrived at.
+   */
+  void arrived(Request request, long step) {
+    RequestLifecycle lifecycle = new RequestLifecycle(request, step);
+    lifecycle.older = this.waiting.put(request, lifecycle);
+  }
+
+  /**
+   * Record requests being given to an elevator.
+   *
+   * @param index    the index of the elevator.
+   * @param requests the requests.
+   * @param newRun   true if the requests replace the elevator's requests for a new run.
+   */
+  void assigned(int index, List<Request> requests, boolean newRun) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    List<RequestLifecycle> carried = this.inFlight.get(index);
+    if (newRun && !carried.isEmpty()) {
+      this.abandon(index);
+    }
+
+    ElevatorInterface elevator = this.elevators[index];
+    if (carried.isEmpty()) {
+      this.busyElevators++;
+      this.doorWasClosed[index] = elevator.isDoorClosed();
+    }
+    boolean doorOpen = !elevator.isDoorClosed();
+    for (Request request : requests) {
+      RequestLifecycle lifecycle = this.takeWaiting(request);
+      lifecycle.assignmentStep = this.step;
+      // a passenger whose door is already open just gets on.
+      if (doorOpen && request.getStartFloor() == elevator.getCurrentFloor()) {
+        lifecycle.pickUpStep = this.step;
+      }
+      carried.add(lifecycle);
+    }
+    this.requestsInFlight += requests.size();
+  }
+
+  /**
+   * Look at the doors of the elevators that have requests after a step.
+   *
+   * @param step the step that has just been taken.
+   */
+  void stepped(long step) {
+    if (this.busyElevators == 0) {
+      return;
+    }
+    for (int i = 0; i < this.elevators.length; i++) {
+      if (!this.inFlight.get(i).isEmpty()) {
+        this.elevatorStepped(i, step);
+      }
+    }
+  }
+
+  /**
+   * Look at the door of one elevator after it has been moved on.
+   *
+   * @param index the index of the elevator.
+   * @param step  the step the elevator has been moved on to.
+   */
+  void elevatorStepped(int index, long step) {
+    List<RequestLifecycle> carried = this.inFlight.get(index);
+    if (carried.isEmpty()) {
+      return;
+    }
+    ElevatorInterface elevator = this.elevators[index];
+    boolean closed = elevator.isDoorClosed();
+    if (!closed && this.doorWasClosed[index]) {
+      this.doorOpened(index, elevator.getCurrentFloor(), step);
+    }
+    this.doorWasClosed[index] = closed;
+  }
+
+  /**
+   * Record that the requests waiting and in flight were dropped by the building.
+   */
+  void abandonAll() {
+    for (RequestLifecycle lifecycle : this.waiting.values()) {
+      for (; lifecycle != null; lifecycle = lifecycle.older) {
+        this.abandonedRequests++;
+      }
+    }
+    this.waiting.clear();
+    for (int i = 0; i < this.elevators.length; i++) {
+      if (!this.inFlight.get(i).isEmpty()) {
+        this.abandon(i);
+      }
+    }
+  }
+
+  long getCompletedRequests() {
+    return this.completedRequests;
+  }
+
+  long getRequestsInFlight() {
+    return this.requestsInFlight;
+  }
+
+  /**
+   * Get the totals so far.
+   *
+   * @return the statistics of the requests.
+   */
+  RequestStatistics getStatistics() {
+    return new RequestStatistics(this.completedRequests,
+        this.abandonedRequests,
+        this.requestsInFlight,
+        this.totalTimeToAssignment,
+        this.maxTimeToAssignment,
+        this.totalWaitTime,
+        this.maxWaitTime,
+        this.totalRideTime,
+        this.maxRideTime);
+  }
+
+  /**
+   * Get the histogram of the wait times of the requests from a floor in a direction.
+   *
+   * @param startFloor the start floor.
+   * @param direction  UP or DOWN.
+   * @return the histogram, owned by the tracker.
+   */
+  LatencyHistogram getWaitTimes(int startFloor, Direction direction) {
+    return this.waitTimes[this.histogramIndex(startFloor, direction)];
+  }
+
+  /**
+   * Get the histogram of the ride times of the requests from a floor in a direction.
+   *
+   * @param startFloor the start floor.
+   * @param direction  UP or DOWN.
+   * @return the histogram, owned by the tracker.
+   */
+  LatencyHistogram getRideTimes(int startFloor, Direction direction) {
+    return this.rideTimes[this.histogramIndex(startFloor, direction)];
+  }
+
+  /**
+   * Merge the histograms of every floor and direction.
+   *
+   * @param rides true for the ride times, false for the wait times.
+   * @return a new histogram.
+   */
+  LatencyHistogram mergeHistograms(boolean rides) {
+    LatencyHistogram merged = new LatencyHistogram();
+    for (LatencyHistogram histogram : rides ? this.rideTimes : this.waitTimes) {
+      merged.merge(histogram);
+    }
+    return merged;
+  }
+
+  private int histogramIndex(int startFloor, Direction direction) {
+    if (startFloor < 0 || startFloor >= this.numberOfFloors) {
+      throw new IllegalArgumentException("Start floor must be between 0 and "
+          + (this.numberOfFloors - 1));
+    }
+    if (direction == Direction.UP) {
+      return startFloor;
+    }
+    if (direction == Direction.DOWN) {
+      return this.numberOfFloors + startFloor;
+    }
+    throw new IllegalArgumentException("Direction must be UP or DOWN");
+  }
+
+  /**
+   * Pick up and drop off the requests of an elevator whose door has just opened.
+   *
+   * @param index the index of the elevator.
+   * @param floor the floor the door opened on.
+   * @param step  the step the door opened on.
+   */
+  private void doorOpened(int index, int floor, long step) {
+    List<RequestLifecycle> carried = this.inFlight.get(index);
+    int kept = 0;
+    for (int i = 0; i < carried.size(); i++) {
+      RequestLifecycle lifecycle = carried.get(i);
+      if (!lifecycle.isPickedUp()) {
+        if (lifecycle.request.getStartFloor() == floor) {
+          lifecycle.pickUpStep = step;
+        }
+      } else if (lifecycle.request.getEndFloor() == floor) {
+        lifecycle.dropOffStep = step;
+        this.completed(lifecycle);
+        continue;
+      }
+      carried.set(kept++, lifecycle);
+    }
+    int dropped = carried.size() - kept;
+    if (dropped > 0) {
+      carried.subList(kept, carried.size()).clear();
+      this.requestsInFlight -= dropped;
+      if (kept == 0) {
+        this.busyElevators--;
+      }
+    }
+  }
+
+  /**
+   * Add a dropped off request to the totals.
+   *
+   * @param lifecycle the lifecycle of the request.
+   */
+  private void completed(RequestLifecycle lifecycle) {
+    this.completedRequests++;
+    long timeToAssignment = lifecycle.getTimeToAssignment();
+    this.totalTimeToAssignment += timeToAssignment;
+    this.maxTimeToAssignment = Math.max(this.maxTimeToAssignment, timeToAssignment);
+    long waitTime = lifecycle.getWaitTime();
+    this.totalWaitTime += waitTime;
+    this.maxWaitTime = Math.max(this.maxWaitTime, waitTime);
+    long rideTime = lifecycle.getRideTime();
+    this.totalRideTime += rideTime;
+    this.maxRideTime = Math.max(this.maxRideTime, rideTime);
+
+    Request request = lifecycle.request;
+    int index = request.getStartFloor()
+        + (request.getStartFloor() < request.getEndFloor() ? 0 : this.numberOfFloors);
+    this.waitTimes[index].record(waitTime);
+    this.rideTimes[index].record(rideTime);
+  }
+
+  /**
+   * Drop the requests an elevator was carrying.
+   *
+   * @param index the index of the elevator.
+   */
+  private void abandon(int index) {
+    List<RequestLifecycle> carried = this.inFlight.get(index);
+    this.abandonedRequests += carried.size();
+    this.requestsInFlight -= carried.size();
+    carried.clear();
+    this.busyElevators--;
+  }
+
+  /**
+   * Take the oldest waiting lifecycle of a request out of the waiting requests.
+   *
+   * @param request the request.
+   * @return its lifecycle, or a new one arriving now if the request was never seen.
+   */
+  private RequestLifecycle takeWaiting(Request request) {
+    RequestLifecycle newest = this.waiting.remove(request);
+    if (newest == null) {
+      return new RequestLifecycle(request, this.step);
+    }
+    if (newest.older == null) {
+      return newest;
+    }
+    RequestLifecycle newer = newest;
+    while (newer.older.older != null) {
+      newer = newer.older;
+    }
+    RequestLifecycle oldest = newer.older;
+    newer.older = null;
+    this.waiting.put(request, newest);
+    return oldest;
+  }
+}
@@ -0,0 +1,48 @@
+package building;
+
+import elevator.ElevatorInterface;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This fork/join task steps a range of elevators.
+ * The range is split in half until it is no larger than the sequential threshold,
+ * then the elevators in it are stepped one after the other.
+ * Each elevator only changes its own state when it steps so the ranges can be
+ * stepped at the same time.
+ */
+class StepElevatorsTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final ElevatorInterface[] elevators;
+  private final int from;
+  private final int to;
+  private final int sequentialThreshold;
+
+  /**
+   * Construct a task that steps the elevators from index from up to but not including to.
+   *
+   * @param elevators           the elevators in the building.
+   * @param from                the first elevator to step.
+   * @param to                  one past the last elevator to step.
+   * @param sequentialThreshold the largest range that is stepped without splitting.
+   */
+  StepElevatorsTask(ElevatorInterface[] elevators, int from, int to, int sequentialThreshold) {
+    this.elevators = elevators;
+    this.from = from;
+    this.to = to;
+    this.sequentialThreshold = sequentialThreshold;
+  }
+
+  @Override
+  protected void compute() {
+    if (this.to - this.from <= this.sequentialThreshold) {
+      for (int i = this.from; i < this.to; i++) {
+        this.elevators[i].step();
+      }
+      return;
+    }
+    int middle = (this.from + this.to) >>> 1;
+    invokeAll(new StepElevatorsTask(this.elevators, this.from, middle, this.sequentialThreshold),
+        new StepElevatorsTask(this.elevators, middle, this.to, this.sequentialThreshold));
+  }
+}
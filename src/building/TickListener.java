@@ -0,0 +1,69 @@
+package building;
+
+import scanerzus.Request;
+
+/**
+ * A listener that is called at the phases of every step of a building.
+ * <p>
+ * A step of a running or stopping building has three phases: the waiting requests
+ * are given to the elevators, every elevator steps, and the building does its own
+ * bookkeeping. The callbacks are called between the phases, on the thread that
+ * steps the building, so they must be quick.
+ * <p>
+ * Steps of a building that is out of service do nothing and are not reported.
+ * Neither are the steps that advanceElevatorSystem jumps over while no requests are
+ * waiting, since the elevators are not stepped one step at a time then.
+ * <p>
+ * Every method does nothing by default, so a listener only overrides the phases it
+ * cares about.
+ */
+public interface TickListener {
+
+  /**
+   * Called when a request is accepted into the up or down queue, whether it was
+   * added directly or submitted from another thread and taken at the start of a
+   * step. This is also called between steps.
+   *
+   * @param request the request.
+   * @param step    the number of the last step taken, which the request arrived after.
+   */
+  default void requestAccepted(Request request, long step) {
+  }
+
+  /**
+   * Called at the start of a step, before the waiting requests are given out.
+   *
+   * @param step the number of the step, counting from 1.
+   */
+  default void beforeDispatch(long step) {
+  }
+
+  /**
+   * Called after the waiting requests are given out and before the elevators step.
+   * While the building is stopping no requests are given out.
+   *
+   * @param step the number of the step.
+   */
+  default void afterDispatch(long step) {
+  }
+
+  /**
+   * Called after an elevator has stepped. With parallel stepping the elevators step
+   * together on other threads, so this is called for every elevator once all of
+   * them have stepped.
+   *
+   * @param index the index of the elevator in the building.
+   * @param step  the number of the step.
+   */
+  default void elevatorStepped(int index, long step) {
+  }
+
+  /**
+   * Called at the end of a step, after the building has recorded what the elevators
+   * did and published its snapshot.
+   *
+   * @param step the number of the step.
+   */
+  default void afterTick(long step) {
+  }
+}
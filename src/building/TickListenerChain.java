@@ -0,0 +1,56 @@
+package building;
+
+import scanerzus.Request;
+
+/**
+ * A tick listener that calls several listeners in the order they were added.
+ * The building only uses it when more than one listener is added, so a single
+ * listener is called directly.
+ */
+class TickListenerChain implements TickListener {
+  private final TickListener[] listeners;
+
+  /**
+   * Construct a chain of listeners.
+   *
+   * @param listeners the listeners, which the chain keeps.
+   */
+  TickListenerChain(TickListener[] listeners) {
+    this.listeners = listeners;
+  }
+
+  @Override
+  public void requestAccepted(Request request, long step) {
+    for (TickListener listener : this.listeners) {
+      listener.requestAccepted(request, step);
+    }
+  }
+
+  @Override
+  public void beforeDispatch(long step) {
+    for (TickListener listener : this.listeners) {
+      listener.beforeDispatch(step);
+    }
+  }
+
+  @Override
+  public void afterDispatch(long step) {
+    for (TickListener listener : this.listeners) {
+      listener.afterDispatch(step);
+    }
+  }
+
+  @Override
+  public void elevatorStepped(int index, long step) {
+    for (TickListener listener : this.listeners) {
+      listener.elevatorStepped(index, step);
+    }
+  }
+
+  @Override
+  public void afterTick(long step) {
+    for (TickListener listener : this.listeners) {
+      listener.afterTick(step);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package building;
+
+import building.enums.Direction;
+import building.enums.ElevatorCounter;
+import elevator.ElevatorInterface;
+import elevator.ElevatorReport;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This is the view of an elevator that the building hands to the dispatch strategy.
+ * It passes every call on to the elevator and tells the request tracker which
+ * requests the elevator was given.
+ */
+class TrackedElevator implements ElevatorInterface {
+  private final ElevatorInterface elevator;
+  private final RequestTracker tracker;
+  private final int index;
+
+  /**
+   * Construct the view of an elevator.
+   *
+   * @param elevator the elevator.
+   * @param tracker  the tracker told about the requests the elevator is given.
+   * @param index    the index of the elevator in the building.
+   */
+  TrackedElevator(ElevatorInterface elevator, RequestTracker tracker, int index) {
+    this.elevator = elevator;
+    this.tracker = tracker;
+    this.index = index;
+  }
+
+  @Override
+  public int getElevatorId() {
+    return this.elevator.getElevatorId();
+  }
+
+  @Override
+  public int getMaxFloor() {
+    return this.elevator.getMaxFloor();
+  }
+
+  @Override
+  public int getMaxOccupancy() {
+    return this.elevator.getMaxOccupancy();
+  }
+
+  @Override
+  public int getCurrentFloor() {
+    return this.elevator.getCurrentFloor();
+  }
+
+  @Override
+  public Direction getDirection() {
+    return this.elevator.getDirection();
+  }
+
+  @Override
+  public boolean isDoorClosed() {
+    return this.elevator.isDoorClosed();
+  }
+
+  @Override
+  public boolean[] getFloorRequests() {
+    return this.elevator.getFloorRequests();
+  }
+
+  @Override
+  public int getNextStopRequest() {
+    return this.elevator.getNextStopRequest();
+  }
+
+  @Override
+  public void start() {
+    this.elevator.start();
+  }
+
+  @Override
+  public void takeOutOfService() {
+    this.elevator.takeOutOfService();
+  }
+
+  @Override
+  public void step() {
+    this.elevator.step();
+  }
+
+  @Override
+  public int stepsUntilNextEvent() {
+    return this.elevator.stepsUntilNextEvent();
+  }
+
+  @Override
+  public int idleCycleLength() {
+    return this.elevator.idleCycleLength();
+  }
+
+  @Override
+  public void skipSteps(int steps) {
+    this.elevator.skipSteps(steps);
+  }
+
+  @Override
+  public void skipIdleCycles(long cycles) {
+    this.elevator.skipIdleCycles(cycles);
+  }
+
+  @Override
+  public long getCounter(ElevatorCounter counter) {
+    return this.elevator.getCounter(counter);
+  }
+
+  @Override
+  public void processRequests(List<Request> requests) {
+    this.elevator.processRequests(requests);
+    this.tracker.assigned(this.index, requests, true);
+  }
+
+  @Override
+  public boolean isAcceptingPickUps(Direction direction) {
+    return this.elevator.isAcceptingPickUps(direction);
+  }
+
+  @Override
+  public int getSpareCapacity() {
+    return this.elevator.getSpareCapacity();
+  }
+
+  @Override
+  public void pickUpRequests(List<Request> requests) {
+    this.elevator.pickUpRequests(requests);
+    this.tracker.assigned(this.index, requests, false);
+  }
+
+  @Override
+  public void reverseDirection() {
+    this.elevator.reverseDirection();
+  }
+
+  @Override
+  public boolean isTakingRequests() {
+    return this.elevator.isTakingRequests();
+  }
+
+  @Override
+  public ElevatorReport getElevatorStatus() {
+    return this.elevator.getElevatorStatus();
+  }
+}
@@ -0,0 +1,33 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+
+/**
+ * Directional collective control.
+ * <p>
+ * The elevators sweep the whole building and are loaded on the ground and top floors
+ * like the end floor strategy. In addition an elevator passing a floor stops for the
+ * calls waiting on that floor that are going its way, while it has room for them.
+ */
+public class CollectiveControlDispatchStrategy extends EndFloorDispatchStrategy {
+
+  @Override
+  public void distributeRequests(ElevatorInterface[] elevators,
+                                 RequestQueue upRequests,
+                                 RequestQueue downRequests) {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return;
+    }
+    this.distributeAtEndFloors(elevators, upRequests, downRequests);
+
+    for (ElevatorInterface elevator : elevators) {
+      if (elevator.isAcceptingPickUps(Direction.UP)) {
+        this.pickUp(elevator, elevator.getCurrentFloor(), upRequests);
+      } else if (elevator.isAcceptingPickUps(Direction.DOWN)) {
+        this.pickUp(elevator, elevator.getCurrentFloor(), downRequests);
+      }
+    }
+  }
+}
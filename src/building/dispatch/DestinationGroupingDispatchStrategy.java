@@ -0,0 +1,126 @@
+package building.dispatch;
+
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * Destination dispatch.
+ * <p>
+ * Elevators are loaded on the ground and top floors like the end floor strategy, but
+ * instead of taking the first requests in the queue an elevator takes requests that
+ * are going to the same or nearby floors. Each load is built around the request that
+ * has waited longest, so every request is eventually served, and is filled with the
+ * requests whose end floors are closest to it. Fewer end floors per load means fewer
+ * stops on each run.
+ */
+public class DestinationGroupingDispatchStrategy extends EndFloorDispatchStrategy {
+
+  /************************************************************************
+   * The number of loads worth of requests that are looked at when
+   * building a load.
+   ************************************************************************/
+  private static final int DEFAULT_LOOKAHEAD_LOADS = 4;
+
+  /************************************************************************
+   * The number of loads worth of requests that are looked at.
+   ************************************************************************/
+  private final int lookaheadLoads;
+
+  /************************************************************************
+   * The number of requests going to each floor, reused between loads.
+   ************************************************************************/
+  private int[] endFloorCounts = new int[0];
+
+  /************************************************************************
+   * The end floors chosen for the load being built, reused between loads.
+   ************************************************************************/
+  private boolean[] chosen = new boolean[0];
+
+  /**
+   * Construct the strategy looking at four loads worth of requests.
+   */
+  public DestinationGroupingDispatchStrategy() {
+    this(DEFAULT_LOOKAHEAD_LOADS);
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param lookaheadLoads the number of loads worth of requests at the front of
+   *                       the queue that are grouped by end floor, at least 1.
+   */
+  public DestinationGroupingDispatchStrategy(int lookaheadLoads) {
+    if (lookaheadLoads < 1) {
+      throw new IllegalArgumentException("lookaheadLoads must be greater than or equal to 1");
+    }
+    this.lookaheadLoads = lookaheadLoads;
+  }
+
+  /**
+   * Get the requests for an elevator, grouping them by end floor.
+   *
+   * @param elevator the elevator the requests are for.
+   * @param requests the requests to get the requests from.
+   * @return the requests to give to the elevator.
+   */
+  @Override
+  protected List<Request> getRequests(ElevatorInterface elevator, RequestQueue requests) {
+    int capacity = elevator.getMaxOccupancy();
+    if (requests.size() <= capacity) {
+      return super.getRequests(elevator, requests);
+    }
+
+    int numberOfFloors = elevator.getMaxFloor();
+    if (this.endFloorCounts.length < numberOfFloors) {
+      this.endFloorCounts = new int[numberOfFloors];
+      this.chosen = new boolean[numberOfFloors];
+    } else {
+      Arrays.fill(this.endFloorCounts, 0);
+      Arrays.fill(this.chosen, false);
+    }
+    boolean[] chosen = this.chosen;
+
+    // count the end floors of the requests at the front of the queue.
+    int lookahead = capacity * this.lookaheadLoads;
+    int anchorFloor = -1;
+    int looked = 0;
+    for (Request request : requests) {
+      if (looked == lookahead) {
+        break;
+      }
+      int endFloor = request.getEndFloor();
+      if (anchorFloor < 0) {
+        anchorFloor = endFloor;
+      }
+      this.endFloorCounts[endFloor]++;
+      looked++;
+    }
+
+    // take whole floors working outwards from the oldest request's end floor.
+    int load = 0;
+    for (int distance = 0; load < capacity && distance < numberOfFloors; distance++) {
+      int below = anchorFloor - distance;
+      int above = anchorFloor + distance;
+      if (below >= 0 && this.endFloorCounts[below] > 0) {
+        chosen[below] = true;
+        load += this.endFloorCounts[below];
+      }
+      if (distance > 0 && load < capacity && above < numberOfFloors
+          && this.endFloorCounts[above] > 0) {
+        chosen[above] = true;
+        load += this.endFloorCounts[above];
+      }
+    }
+
+    // the chosen floors hold at least a load of the requests looked at, so the load
+    // is taken from those requests without looking at the rest of the queue.
+    List<Request> requestsToReturn = new ArrayList<>(capacity);
+    requests.drainMatchingTo(request -> chosen[request.getEndFloor()],
+        requestsToReturn, capacity, looked);
+    return requestsToReturn;
+  }
+}
@@ -0,0 +1,29 @@
+package building.dispatch;
+
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+
+/**
+ * This interface is used to represent the algorithm that gives the waiting
+ * requests to the elevators.
+ * <p>
+ * The building calls the strategy once every step while it is running, before
+ * the elevators are stepped. The strategy removes the requests it hands out
+ * from the queues and leaves the rest waiting.
+ * <p>
+ * When both queues are empty a strategy must leave the elevators alone, the
+ * building relies on this to skip over quiet steps.
+ */
+public interface DispatchStrategy {
+
+  /**
+   * Give waiting requests to the elevators.
+   *
+   * @param elevators    the elevators in the building.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   */
+  void distributeRequests(ElevatorInterface[] elevators,
+                          RequestQueue upRequests,
+                          RequestQueue downRequests);
+}
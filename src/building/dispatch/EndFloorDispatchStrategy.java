@@ -0,0 +1,86 @@
+package building.dispatch;
+
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The default dispatch strategy.
+ * <p>
+ * The elevators sweep the whole building from the ground floor to the top floor and
+ * back (SCAN). Up requests are only given to an elevator waiting on the ground floor
+ * and down requests are only given to an elevator waiting on the top floor, up to
+ * the capacity of the elevator.
+ */
+public class EndFloorDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public void distributeRequests(ElevatorInterface[] elevators,
+                                 RequestQueue upRequests,
+                                 RequestQueue downRequests) {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return;
+    }
+    this.distributeAtEndFloors(elevators, upRequests, downRequests);
+  }
+
+  /**
+   * Give requests to the elevators that are taking requests on the ground floor
+   * or the top floor.
+   *
+   * @param elevators    the elevators in the building.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   */
+  protected void distributeAtEndFloors(ElevatorInterface[] elevators,
+                                       RequestQueue upRequests,
+                                       RequestQueue downRequests) {
+    // iterate over the elevators if they are on the ground floor
+    // add upRequests up to the capacity of the elevator.
+    // if the elevator is on the top floor add downRequests up to the capacity of the elevator.
+    for (ElevatorInterface elevator : elevators) {
+      if (!elevator.isTakingRequests()) {
+        continue;
+      }
+      if (elevator.getCurrentFloor() == 0) {
+        elevator.processRequests(this.getRequests(elevator, upRequests));
+      } else if (elevator.getCurrentFloor() == elevator.getMaxFloor() - 1) {
+        elevator.processRequests(this.getRequests(elevator, downRequests));
+      }
+    }
+  }
+
+  /**
+   * Get the requests for an elevator waiting on the ground floor or the top floor.
+   *
+   * @param elevator the elevator the requests are for.
+   * @param requests the requests to get the requests from.
+   * @return the requests to give to the elevator.
+   */
+  protected List<Request> getRequests(ElevatorInterface elevator, RequestQueue requests) {
+    int capacity = elevator.getMaxOccupancy();
+    List<Request> requestsToReturn = new ArrayList<>(Math.min(capacity, requests.size()));
+    requests.drainTo(requestsToReturn, capacity);
+    return requestsToReturn;
+  }
+
+  /**
+   * Give the requests waiting on a floor to an elevator that is going their way.
+   *
+   * @param elevator the elevator to give the requests to.
+   * @param floor    the floor the requests start on.
+   * @param requests the queue the requests are waiting in.
+   */
+  protected void pickUp(ElevatorInterface elevator, int floor, RequestQueue requests) {
+    int waiting = requests.sizeAtFloor(floor);
+    int spareCapacity = elevator.getSpareCapacity();
+    if (waiting == 0 || spareCapacity <= 0) {
+      return;
+    }
+    List<Request> pickUps = new ArrayList<>(Math.min(spareCapacity, waiting));
+    requests.drainFloorTo(floor, pickUps, spareCapacity);
+    elevator.pickUpRequests(pickUps);
+  }
+}
@@ -0,0 +1,83 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+
+/**
+ * LOOK dispatch.
+ * <p>
+ * Calls are given to the nearest elevator coming their way like the nearest car
+ * strategy. An elevator that has no stops and no waiting calls ahead of it turns
+ * around instead of travelling on to the top or bottom floor, as long as there are
+ * calls waiting behind it.
+ */
+public class LookDispatchStrategy extends NearestCarDispatchStrategy {
+
+  @Override
+  public void distributeRequests(ElevatorInterface[] elevators,
+                                 RequestQueue upRequests,
+                                 RequestQueue downRequests) {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return;
+    }
+    this.distributeAtEndFloors(elevators, upRequests, downRequests);
+
+    // turn around before handing out calls so a car that turns can take
+    // the calls on its own floor.
+    for (ElevatorInterface elevator : elevators) {
+      if (this.shouldTurnAround(elevator, upRequests, downRequests)) {
+        elevator.reverseDirection();
+      }
+    }
+
+    this.assignToNearestCars(elevators, upRequests, Direction.UP);
+    this.assignToNearestCars(elevators, downRequests, Direction.DOWN);
+  }
+
+  /**
+   * Should the elevator turn around.
+   *
+   * @param elevator     the elevator.
+   * @param upRequests   the requests waiting to go up.
+   * @param downRequests the requests waiting to go down.
+   * @return true if nothing is ahead of the elevator and calls are waiting behind it.
+   */
+  private boolean shouldTurnAround(ElevatorInterface elevator,
+                                   RequestQueue upRequests,
+                                   RequestQueue downRequests) {
+    Direction direction = elevator.getDirection();
+    int floor = elevator.getCurrentFloor();
+    int topFloor = elevator.getMaxFloor() - 1;
+    if (floor == 0 || floor == topFloor
+        || !elevator.isDoorClosed()
+        || !elevator.isAcceptingPickUps(direction)) {
+      return false;
+    }
+
+    if (elevator.getNextStopRequest() >= 0) {
+      return false;
+    }
+
+    boolean up = direction == Direction.UP;
+    int step = up ? 1 : -1;
+
+    // calls going our way on this floor will be picked up here.
+    RequestQueue sameWay = up ? upRequests : downRequests;
+    if (sameWay.sizeAtFloor(floor) > 0) {
+      return false;
+    }
+    for (int ahead = floor + step; ahead >= 0 && ahead <= topFloor; ahead += step) {
+      if (upRequests.sizeAtFloor(ahead) > 0 || downRequests.sizeAtFloor(ahead) > 0) {
+        return false;
+      }
+    }
+
+    for (int behind = floor; behind >= 0 && behind <= topFloor; behind -= step) {
+      if (upRequests.sizeAtFloor(behind) > 0 || downRequests.sizeAtFloor(behind) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,82 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import building.queue.RequestQueue;
+import elevator.ElevatorInterface;
+
+/**
+ * Nearest car dispatch.
+ * <p>
+ * Elevators are loaded on the ground and top floors like the end floor strategy.
+ * The calls waiting on the other floors are given to the closest elevator that is
+ * travelling towards the floor in the direction of the calls and has room for them.
+ * The elevator stops for the calls when it reaches their floor.
+ */
+public class NearestCarDispatchStrategy extends EndFloorDispatchStrategy {
+
+  @Override
+  public void distributeRequests(ElevatorInterface[] elevators,
+                                 RequestQueue upRequests,
+                                 RequestQueue downRequests) {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return;
+    }
+    this.distributeAtEndFloors(elevators, upRequests, downRequests);
+    this.assignToNearestCars(elevators, upRequests, Direction.UP);
+    this.assignToNearestCars(elevators, downRequests, Direction.DOWN);
+  }
+
+  /**
+   * Give the waiting calls on every floor to the nearest elevators coming their way.
+   *
+   * @param elevators the elevators in the building.
+   * @param requests  the calls waiting to go in the given direction.
+   * @param direction the direction of the calls.
+   */
+  protected void assignToNearestCars(ElevatorInterface[] elevators,
+                                     RequestQueue requests,
+                                     Direction direction) {
+    if (requests.isEmpty() || elevators.length == 0) {
+      return;
+    }
+    int numberOfFloors = elevators[0].getMaxFloor();
+    for (int floor = 0; floor < numberOfFloors && !requests.isEmpty(); floor++) {
+      while (requests.sizeAtFloor(floor) > 0) {
+        ElevatorInterface nearest = this.nearestCar(elevators, floor, direction);
+        if (nearest == null) {
+          break;
+        }
+        this.pickUp(nearest, floor, requests);
+      }
+    }
+  }
+
+  /**
+   * Find the closest elevator that will pass the floor going in the given direction
+   * and has room for another request.
+   *
+   * @param elevators the elevators in the building.
+   * @param floor     the floor the calls are waiting on.
+   * @param direction the direction of the calls.
+   * @return the nearest elevator or null if no elevator is coming.
+   */
+  protected ElevatorInterface nearestCar(ElevatorInterface[] elevators,
+                                         int floor,
+                                         Direction direction) {
+    ElevatorInterface nearest = null;
+    int nearestDistance = Integer.MAX_VALUE;
+    for (ElevatorInterface elevator : elevators) {
+      if (elevator.getSpareCapacity() <= 0 || !elevator.isAcceptingPickUps(direction)) {
+        continue;
+      }
+      int distance = direction == Direction.UP
+          ? floor - elevator.getCurrentFloor()
+          : elevator.getCurrentFloor() - floor;
+      if (distance >= 0 && distance < nearestDistance) {
+        nearest = elevator;
+        nearestDistance = distance;
+      }
+    }
+    return nearest;
+  }
+}
@@ -0,0 +1,22 @@
+package building.enums;
+
+/**
+ * This enum is used to name the counters an elevator keeps as it steps.
+ */
+public enum ElevatorCounter {
+  steps("Steps"),
+  floorsTravelled("Floors travelled"),
+  doorOpenings("Door openings"),
+  idleSteps("Idle steps"),
+  stopWaitSteps("Stop wait steps");
+  final String display;
+
+  ElevatorCounter(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
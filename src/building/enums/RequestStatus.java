@@ -0,0 +1,46 @@
+package building.enums;
+
+/**
+ * This enum is used to report what happened to a request given to the building.
+ */
+public enum RequestStatus {
+  accepted("Accepted"),
+  notAccepting("Not accepting requests"),
+  nullRequest("Request is null"),
+  startFloorOutOfRange("Start floor out of range"),
+  endFloorOutOfRange("End floor out of range"),
+  sameFloor("Start and end floor are the same");
+  final String display;
+
+  RequestStatus(String display) {
+    this.display = display;
+  }
+
+  /**
+   * Get the message that explains this result to the person who made the request.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @return the message.
+   */
+  public String getMessage(int numberOfFloors) {
+    switch (this) {
+      case notAccepting:
+        return "Elevator system not accepting requests.";
+      case nullRequest:
+        return "Request cannot be null";
+      case startFloorOutOfRange:
+        return "Start floor must be between 0 and " + (numberOfFloors - 1);
+      case endFloorOutOfRange:
+        return "End floor must be between 0 and " + (numberOfFloors - 1);
+      case sameFloor:
+        return "Start floor and end floor cannot be the same";
+      default:
+        return this.display;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
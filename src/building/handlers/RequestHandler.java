@@ -1,11 +1,13 @@
 package building.handlers;
 
+import building.enums.RequestStatus;
 import scanerzus.Request;
 
 /**
  * This functional interface is used to handle the request.
+ * The handler returns what happened to the request instead of throwing.
  */
 @FunctionalInterface
 public interface RequestHandler {
-  void handleRequest(Request request);
+  RequestStatus handleRequest(Request request);
 }
@@ -0,0 +1,209 @@
+package building.queue;
+
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * A request queue that keeps one bucket of requests per start floor.
+ * <p>
+ * Requests are served in the order an elevator sweeping the building would meet them.
+ * For up requests the lowest start floor is served first, for down requests the
+ * highest start floor is served first. Requests on the same floor are served first
+ * in first out.
+ */
+public class FloorBucketRequestQueue implements RequestQueue {
+
+  /************************************************************************
+   * The requests waiting on each floor.
+   ************************************************************************/
+  private final RingBufferRequestQueue[] buckets;
+
+  /************************************************************************
+   * True if the lowest floor is served first.
+   ************************************************************************/
+  private final boolean ascending;
+
+  /************************************************************************
+   * The total number of requests in all of the buckets.
+   ************************************************************************/
+  private int size = 0;
+
+  /************************************************************************
+   * The first bucket in service order that may hold a request.
+   * All buckets before it in service order are empty.
+   ************************************************************************/
+  private int cursor;
+
+  /**
+   * Construct an empty queue.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param direction      the direction of the requests in the queue,
+   *                       DOWN serves the highest floor first.
+   */
+  public FloorBucketRequestQueue(int numberOfFloors, Direction direction) {
+    if (numberOfFloors < 1) {
+      throw new IllegalArgumentException("numberOfFloors must be greater than or equal to 1");
+    }
+    this.buckets = new RingBufferRequestQueue[numberOfFloors];
+    for (int i = 0; i < numberOfFloors; i++) {
+      this.buckets[i] = new RingBufferRequestQueue();
+    }
+    this.ascending = direction != Direction.DOWN;
+    this.cursor = numberOfFloors;
+  }
+
+  @Override
+  public void add(Request request) {
+    int floor = request.getStartFloor();
+    if (floor < 0 || floor >= this.buckets.length) {
+      throw new IllegalArgumentException("Start floor must be between 0 and "
+          + (this.buckets.length - 1));
+    }
+    this.buckets[floor].add(request);
+    this.size++;
+    int position = this.position(floor);
+    if (position < this.cursor) {
+      this.cursor = position;
+    }
+  }
+
+  @Override
+  public int drainTo(List<Request> target, int max) {
+    int drained = 0;
+    while (drained < max && this.size > 0) {
+      RingBufferRequestQueue bucket = this.buckets[this.floorAt(this.cursor)];
+      int count = bucket.drainTo(target, max - drained);
+      drained += count;
+      this.size -= count;
+      if (bucket.isEmpty()) {
+        this.cursor++;
+      }
+    }
+    if (this.size == 0) {
+      this.cursor = this.buckets.length;
+    }
+    return drained;
+  }
+
+  @Override
+  public int drainFloorTo(int startFloor, List<Request> target, int max) {
+    if (startFloor < 0 || startFloor >= this.buckets.length) {
+      return 0;
+    }
+    int count = this.buckets[startFloor].drainTo(target, max);
+    this.size -= count;
+    if (this.size == 0) {
+      this.cursor = this.buckets.length;
+    }
+    return count;
+  }
+
+  @Override
+  public int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                             int window) {
+    int drained = 0;
+    int left = window;
+    for (int position = this.cursor;
+         position < this.buckets.length && drained < max && left > 0; position++) {
+      RingBufferRequestQueue bucket = this.buckets[this.floorAt(position)];
+      int waiting = bucket.size();
+      drained += bucket.drainMatchingTo(filter, target, max - drained, left);
+      left -= Math.min(waiting, left);
+    }
+    this.size -= drained;
+    if (this.size == 0) {
+      this.cursor = this.buckets.length;
+    }
+    return drained;
+  }
+
+  @Override
+  public int sizeAtFloor(int startFloor) {
+    if (startFloor < 0 || startFloor >= this.buckets.length) {
+      return 0;
+    }
+    return this.buckets[startFloor].size();
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public void clear() {
+    for (RingBufferRequestQueue bucket : this.buckets) {
+      bucket.clear();
+    }
+    this.size = 0;
+    this.cursor = this.buckets.length;
+  }
+
+  @Override
+  public List<Request> toList() {
+    List<Request> requests = new ArrayList<>(this.size);
+    for (int position = this.cursor; position < this.buckets.length; position++) {
+      this.buckets[this.floorAt(position)].copyTo(requests);
+    }
+    return requests;
+  }
+
+  @Override
+  public Iterator<Request> iterator() {
+    return new Iterator<Request>() {
+      private int position = FloorBucketRequestQueue.this.cursor;
+      private Iterator<Request> current = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!this.current.hasNext()
+            && this.position < FloorBucketRequestQueue.this.buckets.length) {
+          this.current = FloorBucketRequestQueue.this
+              .buckets[FloorBucketRequestQueue.this.floorAt(this.position)].iterator();
+          this.position++;
+        }
+        return this.current.hasNext();
+      }
+
+      @Override
+      public Request next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return this.current.next();
+      }
+    };
+  }
+
+  /**
+   * Convert a floor into its position in service order.
+   *
+   * @param floor the floor.
+   * @return the position of the floor in service order.
+   */
+  private int position(int floor) {
+    return this.ascending ? floor : this.buckets.length - 1 - floor;
+  }
+
+  /**
+   * Convert a position in service order into a floor.
+   *
+   * @param position the position in service order.
+   * @return the floor.
+   */
+  private int floorAt(int position) {
+    return this.ascending ? position : this.buckets.length - 1 - position;
+  }
+}
@@ -0,0 +1,353 @@
+package building.queue;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * A first in first out request queue whose snapshots are immutable and cost nothing to take.
+ * <p>
+ * The requests live in an append only array between a start and an end index. A slot
+ * below the end is never written again, so {@link #toList()} returns a view of the
+ * array between the current start and end that shares the array with the queue and
+ * never changes. Adding a request writes past the end of every view. Removing
+ * requests from the front moves the start. A request removed from the middle of the
+ * queue is only marked as removed, in an array the views do not read, and is skipped
+ * from then on. Clearing the queue, growing the array or compacting it when the
+ * removed requests outnumber the waiting ones moves the queue to a new array and
+ * leaves the old one to the views that still use it. A view cannot skip removed
+ * requests, so taking one while there are any compacts the queue first.
+ * <p>
+ * The requests of each start floor are chained together in service order, so
+ * removing the requests of one floor costs as much as the requests it removes and
+ * not the length of the queue.
+ * <p>
+ * The fields of a view are final, so a view can be handed to another thread, such as
+ * a display thread, which will see the requests as they were when the view was taken
+ * while the queue carries on changing.
+ */
+public class PersistentRequestQueue implements RequestQueue {
+
+  /************************************************************************
+   * The capacity of a new queue.
+   ************************************************************************/
+  private static final int INITIAL_CAPACITY = 16;
+
+  /************************************************************************
+   * The array holding the requests. Slots below end are never written.
+   ************************************************************************/
+  private Request[] requests;
+
+  /************************************************************************
+   * Set for the slots between start and end whose request was removed.
+   ************************************************************************/
+  private boolean[] removed;
+
+  /************************************************************************
+   * For each slot the next slot holding a request from the same start
+   * floor, -1 if there is none.
+   ************************************************************************/
+  private int[] nextAtFloor;
+
+  /************************************************************************
+   * The index of the request at the front of the queue. It is never a
+   * removed slot.
+   ************************************************************************/
+  private int start = 0;
+
+  /************************************************************************
+   * One past the index of the request at the back of the queue.
+   ************************************************************************/
+  private int end = 0;
+
+  /************************************************************************
+   * The number of requests waiting.
+   ************************************************************************/
+  private int size = 0;
+
+  /************************************************************************
+   * The number of requests waiting on each start floor.
+   ************************************************************************/
+  private int[] floorCounts = new int[0];
+
+  /************************************************************************
+   * The first and last slots of the chain of each start floor, -1 if the
+   * chain is empty. The chain can still hold removed slots, which are
+   * skipped.
+   ************************************************************************/
+  private int[] firstAtFloor = new int[0];
+
+  private int[] lastAtFloor = new int[0];
+
+  /**
+   * Construct an empty queue.
+   */
+  public PersistentRequestQueue() {
+    this.requests = new Request[INITIAL_CAPACITY];
+    this.removed = new boolean[INITIAL_CAPACITY];
+    this.nextAtFloor = new int[INITIAL_CAPACITY];
+  }
+
+  @Override
+  public void add(Request request) {
+    if (this.end == this.requests.length) {
+      // a new array, keeping room for as many requests again as are waiting.
+      this.moveTo(Math.max(INITIAL_CAPACITY, this.size * 2));
+    }
+    int floor = request.getStartFloor();
+    if (floor >= this.floorCounts.length) {
+      int length = Math.max(floor + 1, this.floorCounts.length * 2);
+      int grown = this.floorCounts.length;
+      this.floorCounts = Arrays.copyOf(this.floorCounts, length);
+      this.firstAtFloor = Arrays.copyOf(this.firstAtFloor, length);
+      this.lastAtFloor = Arrays.copyOf(this.lastAtFloor, length);
+      Arrays.fill(this.firstAtFloor, grown, length, -1);
+    }
+    if (floor >= 0) {
+      this.floorCounts[floor]++;
+    }
+    this.requests[this.end] = request;
+    this.link(this.end);
+    this.end++;
+    this.size++;
+  }
+
+  @Override
+  public int drainTo(List<Request> target, int max) {
+    int count = Math.min(max, this.size);
+    for (int i = 0; i < count; i++) {
+      this.take(this.start, target);
+      this.skipRemoved();
+    }
+    return count;
+  }
+
+  @Override
+  public int drainFloorTo(int startFloor, List<Request> target, int max) {
+    if (max <= 0 || this.sizeAtFloor(startFloor) == 0) {
+      return 0;
+    }
+    int drained = 0;
+    int slot = this.firstAtFloor[startFloor];
+    while (slot >= 0 && drained < max) {
+      if (!this.removed[slot]) {
+        this.take(slot, target);
+        drained++;
+      }
+      slot = this.nextAtFloor[slot];
+    }
+    // the slots before this one are all removed now.
+    this.firstAtFloor[startFloor] = slot;
+    this.tidy();
+    return drained;
+  }
+
+  @Override
+  public int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                             int window) {
+    if (max <= 0 || window <= 0) {
+      return 0;
+    }
+    int drained = 0;
+    int looked = 0;
+    for (int i = this.start; i < this.end && looked < window && drained < max; i++) {
+      if (this.removed[i]) {
+        continue;
+      }
+      looked++;
+      if (filter.test(this.requests[i])) {
+        this.take(i, target);
+        drained++;
+      }
+    }
+    this.tidy();
+    return drained;
+  }
+
+  @Override
+  public int sizeAtFloor(int startFloor) {
+    if (startFloor < 0 || startFloor >= this.floorCounts.length) {
+      return 0;
+    }
+    return this.floorCounts[startFloor];
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public void clear() {
+    this.requests = new Request[INITIAL_CAPACITY];
+    this.removed = new boolean[INITIAL_CAPACITY];
+    this.nextAtFloor = new int[INITIAL_CAPACITY];
+    this.start = 0;
+    this.end = 0;
+    this.size = 0;
+    Arrays.fill(this.floorCounts, 0);
+    Arrays.fill(this.firstAtFloor, -1);
+  }
+
+  /**
+   * Get an immutable view of the requests in the order that they would be served.
+   * The view never changes. This takes constant time unless requests were removed
+   * from the middle of the queue since the last view, when the queue is compacted
+   * first.
+   *
+   * @return the requests waiting now.
+   */
+  @Override
+  public List<Request> toList() {
+    if (this.end - this.start != this.size) {
+      this.moveTo(this.requests.length);
+    }
+    return new View(this.requests, this.start, this.end);
+  }
+
+  @Override
+  public Iterator<Request> iterator() {
+    return new Iterator<Request>() {
+      private final Request[] requests = PersistentRequestQueue.this.requests;
+      private final boolean[] removed = PersistentRequestQueue.this.removed;
+      private final int end = PersistentRequestQueue.this.end;
+      private int index = PersistentRequestQueue.this.start;
+
+      @Override
+      public boolean hasNext() {
+        while (this.index < this.end && this.removed[this.index]) {
+          this.index++;
+        }
+        return this.index < this.end;
+      }
+
+      @Override
+      public Request next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return this.requests[this.index++];
+      }
+    };
+  }
+
+  /**
+   * Remove the request in a slot that has not been removed.
+   *
+   * @param slot   the slot.
+   * @param target the list that receives the request.
+   */
+  private void take(int slot, List<Request> target) {
+    Request request = this.requests[slot];
+    target.add(request);
+    this.removed[slot] = true;
+    this.size--;
+    int floor = request.getStartFloor();
+    if (floor >= 0 && floor < this.floorCounts.length) {
+      this.floorCounts[floor]--;
+    }
+  }
+
+  /**
+   * Move the start past the removed slots at the front.
+   */
+  private void skipRemoved() {
+    while (this.start < this.end && this.removed[this.start]) {
+      this.start++;
+    }
+  }
+
+  /**
+   * Move the start past the removed slots at the front, and compact the queue if
+   * the removed slots between start and end outnumber the waiting requests.
+   */
+  private void tidy() {
+    this.skipRemoved();
+    int removedSlots = this.end - this.start - this.size;
+    if (removedSlots > Math.max(this.size, INITIAL_CAPACITY)) {
+      this.moveTo(this.requests.length);
+    }
+  }
+
+  /**
+   * Add a slot to the end of the chain of its start floor.
+   *
+   * @param slot the slot.
+   */
+  private void link(int slot) {
+    this.nextAtFloor[slot] = -1;
+    int floor = this.requests[slot].getStartFloor();
+    if (floor < 0) {
+      return;
+    }
+    if (this.firstAtFloor[floor] < 0) {
+      this.firstAtFloor[floor] = slot;
+    } else {
+      this.nextAtFloor[this.lastAtFloor[floor]] = slot;
+    }
+    this.lastAtFloor[floor] = slot;
+  }
+
+  /**
+   * Move the waiting requests to the front of new arrays, leaving out the removed
+   * ones, and chain them again.
+   *
+   * @param capacity the length of the new arrays.
+   */
+  private void moveTo(int capacity) {
+    Request[] moved = new Request[capacity];
+    int count = 0;
+    for (int i = this.start; i < this.end; i++) {
+      if (!this.removed[i]) {
+        moved[count++] = this.requests[i];
+      }
+    }
+    this.requests = moved;
+    this.removed = new boolean[capacity];
+    this.nextAtFloor = new int[capacity];
+    this.start = 0;
+    this.end = count;
+    Arrays.fill(this.firstAtFloor, -1);
+    for (int i = 0; i < count; i++) {
+      this.link(i);
+    }
+  }
+
+  /**
+   * An immutable view of part of an array of requests.
+   */
+  private static final class View extends AbstractList<Request> implements RandomAccess {
+    private final Request[] requests;
+    private final int start;
+    private final int size;
+
+    private View(Request[] requests, int start, int end) {
+      this.requests = requests;
+      this.start = start;
+      this.size = end - start;
+    }
+
+    @Override
+    public Request get(int index) {
+      if (index < 0 || index >= this.size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+      }
+      return this.requests[this.start + index];
+    }
+
+    @Override
+    public int size() {
+      return this.size;
+    }
+  }
+}
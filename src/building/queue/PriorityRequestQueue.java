@@ -0,0 +1,634 @@
+package building.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * A request queue that serves the most urgent request first.
+ * <p>
+ * Requests are served by priority class, then by deadline, earliest first, with
+ * requests without a deadline last, and then by age, oldest first. Requests with the
+ * same priority and deadline are therefore served first in first out.
+ * <p>
+ * The requests waiting on each start floor are kept in a binary heap of their own,
+ * and the floors with waiting requests are kept in a heap ordered by their most
+ * urgent request. Adding a request and removing the most urgent one take
+ * O(log n + log f) time for f floors, and removing k requests from one floor takes
+ * O(k (log n + log f)), so picking up on a floor does not depend on the requests
+ * waiting elsewhere. Removing the requests that match a filter from the first w
+ * requests takes O(w (log n + log f)); from the whole queue it scans every heap and
+ * rebuilds them in O(n) time.
+ * <p>
+ * Iterating over the queue merges the floor heaps lazily, so looking at the first k
+ * requests takes O(k log k) time and the heaps are not copied. The list returned by
+ * toList is built once and kept until the queue next changes.
+ */
+public class PriorityRequestQueue implements RequestQueue {
+
+  /************************************************************************
+   * The capacity of a new floor heap.
+   ************************************************************************/
+  private static final int INITIAL_CAPACITY = 16;
+
+  /************************************************************************
+   * The heap of requests waiting on each start floor. This grows when a
+   * request arrives for a higher floor.
+   ************************************************************************/
+  private FloorHeap[] floors = new FloorHeap[0];
+
+  /************************************************************************
+   * The heap of the floors with waiting requests. The floor whose most
+   * urgent request is the most urgent of all is at index 0.
+   ************************************************************************/
+  private int[] order = new int[0];
+
+  /************************************************************************
+   * The number of floors in the order heap.
+   ************************************************************************/
+  private int orderSize = 0;
+
+  /************************************************************************
+   * The index of each floor in the order heap, -1 if it has no requests.
+   ************************************************************************/
+  private int[] positions = new int[0];
+
+  /************************************************************************
+   * The number of requests in the queue.
+   ************************************************************************/
+  private int size = 0;
+
+  /************************************************************************
+   * The arrival number given to the next request added.
+   ************************************************************************/
+  private long nextArrival = 0;
+
+  /************************************************************************
+   * The requests in service order, or null if the queue changed since
+   * toList was last called.
+   ************************************************************************/
+  private List<Request> list = null;
+
+  @Override
+  public void add(Request request) {
+    int floor = request.getStartFloor();
+    if (floor < 0) {
+      throw new IllegalArgumentException("Start floor cannot be negative");
+    }
+    this.ensureFloor(floor);
+    this.floors[floor].add(request, this.nextArrival++);
+    this.size++;
+    this.list = null;
+    this.floorAdded(floor);
+  }
+
+  @Override
+  public int drainTo(List<Request> target, int max) {
+    int drained = 0;
+    while (drained < max && this.orderSize > 0) {
+      int floor = this.order[0];
+      target.add(this.floors[floor].poll());
+      this.floorChanged(floor);
+      drained++;
+    }
+    this.removed(drained);
+    return drained;
+  }
+
+  @Override
+  public int drainFloorTo(int startFloor, List<Request> target, int max) {
+    if (this.sizeAtFloor(startFloor) == 0 || max <= 0) {
+      return 0;
+    }
+    FloorHeap heap = this.floors[startFloor];
+    int drained = 0;
+    while (drained < max && heap.size > 0) {
+      target.add(heap.poll());
+      drained++;
+    }
+    this.floorChanged(startFloor);
+    this.removed(drained);
+    return drained;
+  }
+
+  @Override
+  public int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                             int window) {
+    if (max <= 0 || this.size == 0 || window <= 0) {
+      return 0;
+    }
+    if (window < this.size) {
+      return this.drainMatchingFromFront(filter, target, max, window);
+    }
+
+    // the matching requests of every floor move to a heap of their own.
+    FloorHeap matched = null;
+    for (int i = 0; i < this.orderSize; i++) {
+      FloorHeap heap = this.floors[this.order[i]];
+      int kept = 0;
+      for (int j = 0; j < heap.size; j++) {
+        Request request = heap.requests[j];
+        if (filter.test(request)) {
+          if (matched == null) {
+            matched = new FloorHeap(Math.max(max, 1));
+          }
+          matched.add(request, heap.arrivals[j]);
+        } else {
+          heap.requests[kept] = request;
+          heap.arrivals[kept] = heap.arrivals[j];
+          kept++;
+        }
+      }
+      Arrays.fill(heap.requests, kept, heap.size, null);
+      heap.size = kept;
+    }
+    if (matched == null) {
+      return 0;
+    }
+
+    int drained = 0;
+    while (drained < max && matched.size > 0) {
+      target.add(matched.poll());
+      drained++;
+    }
+    // the matching requests over max go back, then every heap is rebuilt once.
+    for (int i = 0; i < matched.size; i++) {
+      Request request = matched.requests[i];
+      this.floors[request.getStartFloor()].append(request, matched.arrivals[i]);
+    }
+    this.rebuild();
+    this.removed(drained);
+    return drained;
+  }
+
+  /**
+   * Remove up to max requests that match the filter from the first window requests.
+   * The window is taken from the front of the queue in service order and the requests
+   * that are not removed go back with their arrival numbers, so this takes
+   * O(window (log n + log f)) time.
+   *
+   * @param filter the test a request must pass to be removed.
+   * @param target the list that receives the requests.
+   * @param max    the maximum number of requests to remove.
+   * @param window the number of requests to look at, less than the size of the queue.
+   * @return the number of requests that were removed.
+   */
+  private int drainMatchingFromFront(Predicate<? super Request> filter, List<Request> target,
+                                     int max, int window) {
+    Request[] taken = new Request[window];
+    long[] arrivals = new long[window];
+    int count = 0;
+    int drained = 0;
+    while (count < window && drained < max) {
+      int floor = this.order[0];
+      FloorHeap heap = this.floors[floor];
+      long arrival = heap.arrivals[0];
+      Request request = heap.poll();
+      this.floorChanged(floor);
+      if (filter.test(request)) {
+        target.add(request);
+        drained++;
+      } else {
+        taken[count] = request;
+        arrivals[count] = arrival;
+      }
+      count++;
+    }
+    for (int i = 0; i < count; i++) {
+      Request request = taken[i];
+      if (request == null) {
+        continue;
+      }
+      int floor = request.getStartFloor();
+      this.floors[floor].add(request, arrivals[i]);
+      this.floorAdded(floor);
+    }
+    this.removed(drained);
+    return drained;
+  }
+
+  @Override
+  public int sizeAtFloor(int startFloor) {
+    if (startFloor < 0 || startFloor >= this.floors.length) {
+      return 0;
+    }
+    return this.floors[startFloor].size;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < this.orderSize; i++) {
+      this.floors[this.order[i]].clear();
+    }
+    Arrays.fill(this.positions, -1);
+    this.orderSize = 0;
+    this.size = 0;
+    this.list = null;
+  }
+
+  /**
+   * Get the requests in the order that they would be served.
+   * The list is built the first time it is asked for after the queue changes and
+   * is shared until the queue changes again, so it cannot be modified.
+   *
+   * @return the requests waiting now.
+   */
+  @Override
+  public List<Request> toList() {
+    if (this.list == null) {
+      List<Request> requests = new ArrayList<>(this.size);
+      for (Request request : this) {
+        requests.add(request);
+      }
+      this.list = Collections.unmodifiableList(requests);
+    }
+    return this.list;
+  }
+
+  /**
+   * Iterate over the requests in the order that they would be served.
+   * The iterator reads the heaps of the queue, so it must not be used after the
+   * queue changes.
+   *
+   * @return the iterator.
+   */
+  @Override
+  public Iterator<Request> iterator() {
+    return new MergeIterator();
+  }
+
+  /**
+   * Make room for a floor in the arrays that are indexed by floor.
+   *
+   * @param floor the floor.
+   */
+  private void ensureFloor(int floor) {
+    if (floor < this.floors.length) {
+      return;
+    }
+    int length = Math.max(floor + 1, this.floors.length * 2);
+    int oldLength = this.floors.length;
+    this.floors = Arrays.copyOf(this.floors, length);
+    for (int i = oldLength; i < length; i++) {
+      this.floors[i] = new FloorHeap(INITIAL_CAPACITY);
+    }
+    this.order = Arrays.copyOf(this.order, length);
+    this.positions = Arrays.copyOf(this.positions, length);
+    Arrays.fill(this.positions, oldLength, length, -1);
+  }
+
+  /**
+   * Restore the order heap after a request was added to a floor: the floor joins
+   * the heap if it was empty and moves up if the request is its most urgent.
+   *
+   * @param floor the floor.
+   */
+  private void floorAdded(int floor) {
+    if (this.positions[floor] < 0) {
+      this.order[this.orderSize] = floor;
+      this.positions[floor] = this.orderSize;
+      this.orderSize++;
+    }
+    this.orderSiftUp(this.positions[floor]);
+  }
+
+  /**
+   * Restore the order heap after requests were taken from the front of a floor:
+   * the floor moves down the heap, or leaves it if it has no requests left.
+   *
+   * @param floor the floor.
+   */
+  private void floorChanged(int floor) {
+    int position = this.positions[floor];
+    if (this.floors[floor].size > 0) {
+      this.orderSiftDown(position);
+      return;
+    }
+    this.positions[floor] = -1;
+    int last = --this.orderSize;
+    if (position == last) {
+      return;
+    }
+    // the last floor fills the gap and moves whichever way it belongs.
+    int moved = this.order[last];
+    this.order[position] = moved;
+    this.positions[moved] = position;
+    this.orderSiftDown(position);
+    this.orderSiftUp(this.positions[moved]);
+  }
+
+  /**
+   * Count requests that left the queue.
+   *
+   * @param count the number of requests.
+   */
+  private void removed(int count) {
+    if (count > 0) {
+      this.size -= count;
+      this.list = null;
+    }
+  }
+
+  /**
+   * Rebuild every floor heap and the order heap.
+   */
+  private void rebuild() {
+    this.orderSize = 0;
+    for (int floor = 0; floor < this.floors.length; floor++) {
+      FloorHeap heap = this.floors[floor];
+      if (heap.size == 0) {
+        this.positions[floor] = -1;
+        continue;
+      }
+      heap.heapify();
+      this.order[this.orderSize] = floor;
+      this.positions[floor] = this.orderSize;
+      this.orderSize++;
+    }
+    for (int i = (this.orderSize >>> 1) - 1; i >= 0; i--) {
+      this.orderSiftDown(i);
+    }
+  }
+
+  private void orderSiftUp(int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!this.floorBefore(this.order[index], this.order[parent])) {
+        return;
+      }
+      this.orderSwap(index, parent);
+      index = parent;
+    }
+  }
+
+  private void orderSiftDown(int index) {
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= this.orderSize) {
+        return;
+      }
+      if (child + 1 < this.orderSize
+          && this.floorBefore(this.order[child + 1], this.order[child])) {
+        child++;
+      }
+      if (!this.floorBefore(this.order[child], this.order[index])) {
+        return;
+      }
+      this.orderSwap(index, child);
+      index = child;
+    }
+  }
+
+  private void orderSwap(int i, int j) {
+    int floor = this.order[i];
+    this.order[i] = this.order[j];
+    this.order[j] = floor;
+    this.positions[this.order[i]] = i;
+    this.positions[this.order[j]] = j;
+  }
+
+  /**
+   * Is the most urgent request of one floor served before that of another.
+   *
+   * @param a the first floor, with requests.
+   * @param b the second floor, with requests.
+   * @return true if the first floor's request is more urgent.
+   */
+  private boolean floorBefore(int a, int b) {
+    FloorHeap first = this.floors[a];
+    FloorHeap second = this.floors[b];
+    return before(first.requests[0], first.arrivals[0], second.requests[0],
+        second.arrivals[0]);
+  }
+
+  /**
+   * Is one request served before another.
+   *
+   * @param a        the first request.
+   * @param aArrival the arrival number of the first request.
+   * @param b        the second request.
+   * @param bArrival the arrival number of the second request.
+   * @return true if the first request is more urgent.
+   */
+  private static boolean before(Request a, long aArrival, Request b, long bArrival) {
+    if (a.getPriority() != b.getPriority()) {
+      return a.getPriority().ordinal() < b.getPriority().ordinal();
+    }
+    if (a.getDeadline() != b.getDeadline()) {
+      return a.getDeadline() < b.getDeadline();
+    }
+    return aArrival < bArrival;
+  }
+
+  /**
+   * A binary heap of requests with their arrival numbers.
+   * The most urgent request is at index 0.
+   */
+  private static final class FloorHeap {
+    private Request[] requests;
+    private long[] arrivals;
+    private int size = 0;
+
+    private FloorHeap(int capacity) {
+      this.requests = new Request[capacity];
+      this.arrivals = new long[capacity];
+    }
+
+    private void add(Request request, long arrival) {
+      this.append(request, arrival);
+      this.siftUp(this.size - 1);
+    }
+
+    /**
+     * Add a request to the end of the array without restoring the heap order.
+     *
+     * @param request the request.
+     * @param arrival the arrival number of the request.
+     */
+    private void append(Request request, long arrival) {
+      if (this.size == this.requests.length) {
+        int capacity = Math.max(INITIAL_CAPACITY, this.requests.length * 2);
+        this.requests = Arrays.copyOf(this.requests, capacity);
+        this.arrivals = Arrays.copyOf(this.arrivals, capacity);
+      }
+      this.requests[this.size] = request;
+      this.arrivals[this.size] = arrival;
+      this.size++;
+    }
+
+    private Request poll() {
+      Request first = this.requests[0];
+      int last = --this.size;
+      this.requests[0] = this.requests[last];
+      this.arrivals[0] = this.arrivals[last];
+      this.requests[last] = null;
+      if (last > 0) {
+        this.siftDown(0);
+      }
+      return first;
+    }
+
+    private void clear() {
+      Arrays.fill(this.requests, 0, this.size, null);
+      this.size = 0;
+    }
+
+    private void heapify() {
+      for (int i = (this.size >>> 1) - 1; i >= 0; i--) {
+        this.siftDown(i);
+      }
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (!this.before(index, parent)) {
+          return;
+        }
+        this.swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= this.size) {
+          return;
+        }
+        if (child + 1 < this.size && this.before(child + 1, child)) {
+          child++;
+        }
+        if (!this.before(child, index)) {
+          return;
+        }
+        this.swap(index, child);
+        index = child;
+      }
+    }
+
+    private boolean before(int i, int j) {
+      return PriorityRequestQueue.before(this.requests[i], this.arrivals[i],
+          this.requests[j], this.arrivals[j]);
+    }
+
+    private void swap(int i, int j) {
+      Request request = this.requests[i];
+      this.requests[i] = this.requests[j];
+      this.requests[j] = request;
+      long arrival = this.arrivals[i];
+      this.arrivals[i] = this.arrivals[j];
+      this.arrivals[j] = arrival;
+    }
+  }
+
+  /**
+   * Visits the requests in service order by merging the floor heaps.
+   * <p>
+   * The iterator keeps its own small heap of the requests that could come next:
+   * the most urgent request of every floor to start with, then the two children of
+   * each request it returns. Each entry is the floor in the high 32 bits and the
+   * index in the floor's heap in the low 32 bits.
+   */
+  private final class MergeIterator implements Iterator<Request> {
+    private long[] frontier;
+    private int frontierSize = 0;
+
+    private MergeIterator() {
+      this.frontier = new long[Math.max(INITIAL_CAPACITY,
+          PriorityRequestQueue.this.orderSize * 2)];
+      for (int i = 0; i < PriorityRequestQueue.this.orderSize; i++) {
+        this.push(PriorityRequestQueue.this.order[i], 0);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.frontierSize > 0;
+    }
+
+    @Override
+    public Request next() {
+      if (this.frontierSize == 0) {
+        throw new NoSuchElementException();
+      }
+      long entry = this.frontier[0];
+      int floor = (int) (entry >>> 32);
+      int index = (int) entry;
+      this.frontier[0] = this.frontier[--this.frontierSize];
+      this.siftDown(0);
+
+      FloorHeap heap = PriorityRequestQueue.this.floors[floor];
+      int child = 2 * index + 1;
+      if (child < heap.size) {
+        this.push(floor, child);
+      }
+      if (child + 1 < heap.size) {
+        this.push(floor, child + 1);
+      }
+      return heap.requests[index];
+    }
+
+    private void push(int floor, int index) {
+      if (this.frontierSize == this.frontier.length) {
+        this.frontier = Arrays.copyOf(this.frontier, this.frontier.length * 2);
+      }
+      int at = this.frontierSize++;
+      this.frontier[at] = (long) floor << 32 | index;
+      while (at > 0) {
+        int parent = (at - 1) >>> 1;
+        if (!this.before(this.frontier[at], this.frontier[parent])) {
+          return;
+        }
+        this.swap(at, parent);
+        at = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= this.frontierSize) {
+          return;
+        }
+        if (child + 1 < this.frontierSize
+            && this.before(this.frontier[child + 1], this.frontier[child])) {
+          child++;
+        }
+        if (!this.before(this.frontier[child], this.frontier[index])) {
+          return;
+        }
+        this.swap(index, child);
+        index = child;
+      }
+    }
+
+    private boolean before(long a, long b) {
+      FloorHeap first = PriorityRequestQueue.this.floors[(int) (a >>> 32)];
+      FloorHeap second = PriorityRequestQueue.this.floors[(int) (b >>> 32)];
+      return PriorityRequestQueue.before(first.requests[(int) a], first.arrivals[(int) a],
+          second.requests[(int) b], second.arrivals[(int) b]);
+    }
+
+    private void swap(int i, int j) {
+      long entry = this.frontier[i];
+      this.frontier[i] = this.frontier[j];
+      this.frontier[j] = entry;
+    }
+  }
+}
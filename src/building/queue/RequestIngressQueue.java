@@ -0,0 +1,99 @@
+package building.queue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import scanerzus.Request;
+
+/**
+ * A lock free queue that any number of threads can add requests to and one thread
+ * takes them from.
+ * <p>
+ * The queue is a linked list of nodes. A producer swaps its node in as the new tail
+ * with a single atomic exchange and then links the old tail to it, so producers never
+ * wait for each other or for the consumer. The consumer follows the links from the
+ * head. A node whose link has not been written yet ends the drain early, the request
+ * in it is taken by the next drain.
+ * <p>
+ * Only {@link #offer(Request)} may be called from several threads at once. The other
+ * methods must all be called from the one consuming thread.
+ */
+public class RequestIngressQueue {
+
+  /************************************************************************
+   * The last node added. Producers swap themselves in here.
+   ************************************************************************/
+  private final AtomicReference<Node> tail;
+
+  /************************************************************************
+   * The node before the first request that has not been taken.
+   * Only the consumer reads and writes this.
+   ************************************************************************/
+  private Node head;
+
+  /**
+   * Construct an empty queue.
+   */
+  public RequestIngressQueue() {
+    Node stub = new Node(null);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  /**
+   * Add a request to the back of the queue. This can be called from any thread.
+   *
+   * @param request the request to add.
+   * @throws IllegalArgumentException if the request is null.
+   */
+  public void offer(Request request) {
+    if (request == null) {
+      throw new IllegalArgumentException("Request cannot be null");
+    }
+    Node node = new Node(request);
+    Node previous = this.tail.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * Remove the requests that have been added and add them to target in the order
+   * that they were added. This must only be called from the consuming thread.
+   *
+   * @param target the list that receives the requests.
+   * @return the number of requests that were removed.
+   */
+  public int drainTo(List<Request> target) {
+    int count = 0;
+    Node node = this.head.next;
+    while (node != null) {
+      target.add(node.request);
+      // the node becomes the new head, let go of its request.
+      node.request = null;
+      this.head = node;
+      node = node.next;
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Is the queue empty. This must only be called from the consuming thread.
+   * A request that is still being added may not be seen yet.
+   *
+   * @return true if there are no requests to take.
+   */
+  public boolean isEmpty() {
+    return this.head.next == null;
+  }
+
+  /**
+   * A node of the list.
+   */
+  private static final class Node {
+    private Request request;
+    private volatile Node next;
+
+    private Node(Request request) {
+      this.request = request;
+    }
+  }
+}
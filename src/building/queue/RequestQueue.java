@@ -0,0 +1,108 @@
+package building.queue;
+
+import java.util.List;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * This interface is used to represent the queue of requests that are waiting
+ * for an elevator in one direction.
+ * <p>
+ * Implementations must support adding a request and removing a batch of
+ * requests without shifting the requests that remain in the queue.
+ * Iterating over the queue visits the requests in the order that they would be served.
+ */
+public interface RequestQueue extends Iterable<Request> {
+
+  /**
+   * Add a request to the back of the queue.
+   *
+   * @param request the request to add.
+   */
+  void add(Request request);
+
+  /**
+   * Remove up to max requests from the front of the queue and add them to target.
+   *
+   * @param target the list that receives the requests.
+   * @param max    the maximum number of requests to remove.
+   * @return the number of requests that were removed.
+   */
+  int drainTo(List<Request> target, int max);
+
+  /**
+   * Remove up to max requests that start on the given floor and add them to target.
+   * The requests are removed in the order that they would be served.
+   *
+   * @param startFloor the floor the requests start on.
+   * @param target     the list that receives the requests.
+   * @param max        the maximum number of requests to remove.
+   * @return the number of requests that were removed.
+   */
+  int drainFloorTo(int startFloor, List<Request> target, int max);
+
+  /**
+   * Remove up to max requests that match the filter and add them to target.
+   * The requests are removed in the order that they would be served.
+   *
+   * @param filter the test a request must pass to be removed.
+   * @param target the list that receives the requests.
+   * @param max    the maximum number of requests to remove.
+   * @return the number of requests that were removed.
+   */
+  default int drainMatchingTo(Predicate<? super Request> filter, List<Request> target,
+                              int max) {
+    return this.drainMatchingTo(filter, target, max, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Remove up to max requests that match the filter from the first window requests
+   * in service order and add them to target. The requests after the window are not
+   * looked at, so the work depends on the window and not on the length of the queue.
+   * The requests are removed in the order that they would be served.
+   *
+   * @param filter the test a request must pass to be removed.
+   * @param target the list that receives the requests.
+   * @param max    the maximum number of requests to remove.
+   * @param window the number of requests at the front of the queue to look at.
+   * @return the number of requests that were removed.
+   */
+  int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                      int window);
+
+  /**
+   * Get the number of requests in the queue that start on the given floor.
+   *
+   * @param startFloor the floor the requests start on.
+   * @return the number of requests waiting on that floor.
+   */
+  int sizeAtFloor(int startFloor);
+
+  /**
+   * Get the number of requests in the queue.
+   *
+   * @return the number of requests in the queue.
+   */
+  int size();
+
+  /**
+   * Is the queue empty.
+   *
+   * @return true if there are no requests in the queue.
+   */
+  boolean isEmpty();
+
+  /**
+   * Remove all of the requests from the queue.
+   */
+  void clear();
+
+  /**
+   * Get the requests in the order that they would be served.
+   * This is used by the BuildingReport. The list does not change when the
+   * queue changes afterwards, it is either a copy or an immutable view.
+   *
+   * @return a list holding the requests in the queue.
+   */
+  List<Request> toList();
+}
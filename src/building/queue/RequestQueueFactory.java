@@ -0,0 +1,20 @@
+package building.queue;
+
+import building.enums.Direction;
+
+/**
+ * This functional interface is used by the building to create its request queues.
+ * The building creates one queue for the up requests and one for the down requests.
+ */
+@FunctionalInterface
+public interface RequestQueueFactory {
+
+  /**
+   * Create a request queue.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param direction      the direction of the requests that will be held in the queue.
+   * @return the new request queue.
+   */
+  RequestQueue create(int numberOfFloors, Direction direction);
+}
@@ -0,0 +1,231 @@
+package building.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import scanerzus.Request;
+
+/**
+ * A first in first out request queue backed by a growable ring buffer.
+ * Adding a request and removing a request from the front are both constant time,
+ * the buffer doubles in size when it is full.
+ * <p>
+ * The queue keeps a count of the requests waiting on each floor so that floors
+ * with no requests can be skipped without a scan. Removing the requests of one
+ * floor scans and compacts the buffer up to the last request removed.
+ */
+public class RingBufferRequestQueue implements RequestQueue {
+
+  /************************************************************************
+   * The capacity of a new queue. Must be a power of two.
+   ************************************************************************/
+  private static final int INITIAL_CAPACITY = 16;
+
+  /************************************************************************
+   * The buffer holding the requests. The length is always a power of two.
+   ************************************************************************/
+  private Request[] buffer;
+
+  /************************************************************************
+   * The index of the request at the front of the queue.
+   ************************************************************************/
+  private int head = 0;
+
+  /************************************************************************
+   * The number of requests in the queue.
+   ************************************************************************/
+  private int size = 0;
+
+  /************************************************************************
+   * The number of requests waiting on each start floor.
+   * This grows when a request arrives for a higher floor.
+   ************************************************************************/
+  private int[] floorCounts = new int[0];
+
+  /**
+   * Construct an empty queue.
+   */
+  public RingBufferRequestQueue() {
+    this.buffer = new Request[INITIAL_CAPACITY];
+  }
+
+  @Override
+  public void add(Request request) {
+    if (this.size == this.buffer.length) {
+      this.grow();
+    }
+    this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = request;
+    this.size++;
+    int floor = request.getStartFloor();
+    if (floor >= this.floorCounts.length) {
+      this.floorCounts = Arrays.copyOf(this.floorCounts,
+          Math.max(floor + 1, this.floorCounts.length * 2));
+    }
+    if (floor >= 0) {
+      this.floorCounts[floor]++;
+    }
+  }
+
+  @Override
+  public int drainTo(List<Request> target, int max) {
+    int count = Math.min(max, this.size);
+    int mask = this.buffer.length - 1;
+    for (int i = 0; i < count; i++) {
+      Request request = this.buffer[this.head];
+      target.add(request);
+      this.uncount(request);
+      this.buffer[this.head] = null;
+      this.head = (this.head + 1) & mask;
+    }
+    this.size -= count;
+    return count;
+  }
+
+  @Override
+  public int drainFloorTo(int startFloor, List<Request> target, int max) {
+    if (this.sizeAtFloor(startFloor) == 0) {
+      return 0;
+    }
+    return this.drainMatchingTo(request -> request.getStartFloor() == startFloor, target, max);
+  }
+
+  @Override
+  public int drainMatchingTo(Predicate<? super Request> filter, List<Request> target, int max,
+                             int window) {
+    int limit = Math.min(window, this.size);
+    if (max <= 0 || limit <= 0) {
+      return 0;
+    }
+    int mask = this.buffer.length - 1;
+    int drained = 0;
+    int last = -1;
+    for (int i = 0; i < limit && drained < max; i++) {
+      int position = (this.head + i) & mask;
+      Request request = this.buffer[position];
+      if (filter.test(request)) {
+        target.add(request);
+        this.uncount(request);
+        this.buffer[position] = null;
+        drained++;
+        last = i;
+      }
+    }
+    if (drained == 0) {
+      return 0;
+    }
+    // the requests kept in front of the last one taken close up towards the back,
+    // so the requests behind it do not move.
+    int kept = last;
+    for (int i = last - 1; i >= 0; i--) {
+      Request request = this.buffer[(this.head + i) & mask];
+      if (request != null) {
+        this.buffer[(this.head + kept) & mask] = request;
+        kept--;
+      }
+    }
+    for (int i = 0; i <= kept; i++) {
+      this.buffer[(this.head + i) & mask] = null;
+    }
+    this.head = (this.head + drained) & mask;
+    this.size -= drained;
+    return drained;
+  }
+
+  @Override
+  public int sizeAtFloor(int startFloor) {
+    if (startFloor < 0 || startFloor >= this.floorCounts.length) {
+      return 0;
+    }
+    return this.floorCounts[startFloor];
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public void clear() {
+    int mask = this.buffer.length - 1;
+    for (int i = 0; i < this.size; i++) {
+      this.buffer[(this.head + i) & mask] = null;
+    }
+    this.head = 0;
+    this.size = 0;
+    Arrays.fill(this.floorCounts, 0);
+  }
+
+  @Override
+  public List<Request> toList() {
+    List<Request> requests = new ArrayList<>(this.size);
+    this.copyTo(requests);
+    return requests;
+  }
+
+  /**
+   * Add the requests to target in the order that they would be served.
+   *
+   * @param target the list that receives the requests.
+   */
+  void copyTo(List<Request> target) {
+    int mask = this.buffer.length - 1;
+    for (int i = 0; i < this.size; i++) {
+      target.add(this.buffer[(this.head + i) & mask]);
+    }
+  }
+
+  @Override
+  public Iterator<Request> iterator() {
+    return new Iterator<Request>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < RingBufferRequestQueue.this.size;
+      }
+
+      @Override
+      public Request next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Request[] requests = RingBufferRequestQueue.this.buffer;
+        int position = (RingBufferRequestQueue.this.head + this.index) & (requests.length - 1);
+        this.index++;
+        return requests[position];
+      }
+    };
+  }
+
+  /**
+   * Remove a request from the count of its start floor.
+   *
+   * @param request the request that left the queue.
+   */
+  private void uncount(Request request) {
+    int floor = request.getStartFloor();
+    if (floor >= 0 && floor < this.floorCounts.length) {
+      this.floorCounts[floor]--;
+    }
+  }
+
+  /**
+   * Double the size of the buffer, moving the front of the queue to index 0.
+   */
+  private void grow() {
+    Request[] newBuffer = new Request[this.buffer.length * 2];
+    int firstPart = this.buffer.length - this.head;
+    System.arraycopy(this.buffer, this.head, newBuffer, 0, firstPart);
+    System.arraycopy(this.buffer, 0, newBuffer, firstPart, this.head);
+    this.buffer = newBuffer;
+    this.head = 0;
+  }
+}
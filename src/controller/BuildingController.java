@@ -1,6 +1,7 @@
 package controller;
 
 import building.Building;
+import building.enums.RequestStatus;
 import display.BuildingDisplayInterface;
 import scanerzus.Request;
 
@@ -49,9 +50,10 @@ public class BuildingController implements BuildingControllerInterface {
    * This method is used to process a request.
    *
    * @param request the request to process.
+   * @return what happened to the request.
    */
-  private void processRequest(Request request) {
-    building.addRequestToElevatorSystem(request);
+  private RequestStatus processRequest(Request request) {
+    return building.offerRequest(request);
   }
 
 
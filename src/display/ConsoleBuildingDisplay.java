@@ -2,13 +2,17 @@ package display;
 
 
 import building.BuildingReport;
+import building.enums.RequestStatus;
 import building.handlers.RequestHandler;
 import building.handlers.StartElevatorSystemHandler;
 import building.handlers.StepHandler;
 import building.handlers.StopElevatorSystemHandler;
 import building.handlers.UpdateHandler;
+import java.util.Random;
 import java.util.Scanner;
 import scanerzus.Request;
+import traffic.TrafficGenerator;
+import traffic.TrafficProfile;
 
 
 /**
@@ -29,8 +33,21 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
 
   private StopElevatorSystemHandler stopHandler = null;
 
+  private final Random trafficSeeds;
+
 
   public ConsoleBuildingDisplay() {
+    this(0);
+  }
+
+  /**
+   * This constructor is used to create a display whose generated requests are
+   * drawn from a seed, so a session can be repeated.
+   *
+   * @param seed the seed of the generated requests
+   */
+  public ConsoleBuildingDisplay(long seed) {
+    this.trafficSeeds = new Random(seed);
   }
 
 
@@ -115,11 +132,14 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
           if (this.requestHandler != null) {
             int fromFloor = Integer.parseInt(command[1]);
             int toFloor = Integer.parseInt(command[2]);
-            try {
-              this.requestHandler.handleRequest(new Request(fromFloor, toFloor));
-            } catch (IllegalArgumentException | IllegalStateException e) {
+            RequestStatus status =
+                this.requestHandler.handleRequest(new Request(fromFloor, toFloor));
+            if (status != RequestStatus.accepted) {
+              // the floor range messages need the size of the building.
+              String message = this.updateHandler == null ? status.toString()
+                  : status.getMessage(this.updateHandler.handleRequest().getNumFloors());
               System.out.println("Request was rejected with the following message: \n\n\t"
-                  + e.getMessage());
+                  + message);
               // wait for a key press
               System.out.println("\nPress enter to continue");
               scanner.nextLine();
@@ -152,23 +172,23 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
 
         case "t":
           // the second parameter is the number random requests to generate
+          // and the third the traffic profile they are drawn from.
           int requests = Integer.parseInt(command[1]);
-          // no more than 10 requests
+          TrafficProfile profile = TrafficProfile.valueOf(command[2]);
 
           // get the number of floors in the building
           BuildingReport buildingReport = this.updateHandler.handleRequest();
           int numFloors = buildingReport.getNumFloors();
+          TrafficGenerator traffic = new TrafficGenerator(numFloors, profile, 1,
+              this.trafficSeeds.nextLong());
           for (int i = 0; i < requests; i++) {
-            int fromFloor = (int) (Math.random() * numFloors);
-            int toFloor = (int) (Math.random() * numFloors);
-            if (fromFloor == toFloor) {
-              continue;
-            }
-            try {
-              this.requestHandler.handleRequest(new Request(fromFloor, toFloor));
-            } catch (IllegalArgumentException | IllegalStateException e) {
+            RequestStatus status = this.requestHandler.handleRequest(traffic.nextRequest());
+            if (status != RequestStatus.accepted) {
+              // the floor range messages need the size of the building.
+              String message = this.updateHandler == null ? status.toString()
+                  : status.getMessage(this.updateHandler.handleRequest().getNumFloors());
               System.out.println("Request was rejected with the following message: \n\n\t"
-                  + e.getMessage());
+                  + message);
               System.out.println("No further requests will be generated");
               System.out.println("c will resume the operations of the building");
               // wait for a key press
@@ -176,8 +196,6 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
               scanner.nextLine();
               break;
             }
-            this.requestHandler.handleRequest(new Request(fromFloor, toFloor));
-
           }
 
           break;
@@ -221,7 +239,8 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
   public void displayPrompt() {
     System.out.print("[s steps] Run steps times [CR] one step\n"
         + "[r start end] make a request \n"
-        + "[t requests] generate random requests\n"
+        + "[t requests profile] generate random requests, the profile is uniform,\n"
+        + "  upPeak, downPeak, lunch or interfloor\n"
         + "[h] halt building [c] continue building [q] quit > ");
   }
 
@@ -277,15 +296,24 @@ public class ConsoleBuildingDisplay implements BuildingDisplayInterface {
       case 't':
         tokens = input.split(" ");
         if (tokens.length == 1) {
-          return new String[] {"t", "1"};
+          return new String[] {"t", "1", TrafficProfile.uniform.name()};
         } else {
-          // we will try to get the number.
+          // we will try to get the number and the profile.
           // if it is not a number we will default to 1
+          // and if it is not a profile to uniform traffic.
+          String profile = TrafficProfile.uniform.name();
+          if (tokens.length > 2) {
+            try {
+              profile = TrafficProfile.valueOf(tokens[2]).name();
+            } catch (IllegalArgumentException e) {
+              System.out.println("Unknown traffic profile, using uniform traffic");
+            }
+          }
           try {
             int requests = Integer.parseInt(tokens[1]);
-            return new String[] {"t", Integer.toString(requests)};
+            return new String[] {"t", Integer.toString(requests), profile};
           } catch (NumberFormatException e) {
-            return new String[] {"t", "1"};
+            return new String[] {"t", "1", profile};
           }
         }
 
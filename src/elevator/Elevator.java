@@ -2,6 +2,11 @@ package elevator;
 
 
 import building.enums.Direction;
+import building.enums.ElevatorCounter;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import scanerzus.Request;
 
@@ -11,14 +16,28 @@ import scanerzus.Request;
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * static value used to initialize the id of an elevator that is not
+   * given one.
    ************************************************************************/
   private static int newElevatorId = 0;
 
+  /************************************************************************
+   * The default limit on the number of floors (city bylaws).
+   ************************************************************************/
+  public static final int DEFAULT_FLOOR_LIMIT = 30;
+
+  private static final VarHandle COUNTER_ACCESS =
+      MethodHandles.arrayElementVarHandle(long[].class);
+
+  /************************************************************************
+   * The default limit on the occupancy of an elevator (fire code).
+   ************************************************************************/
+  public static final int DEFAULT_OCCUPANCY_LIMIT = 20;
+
   /************************************************************************
    * The id of the elevator.This is read only.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the building.
@@ -43,7 +62,12 @@ public class Elevator implements ElevatorInterface {
   /************************************************************************
    * The requests for the floors.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private final BitSet floorRequests; // set if there is a request for the floor.
+  /************************************************************************
+   * The requests that have been given to the elevator on this run and
+   * have not been dropped off yet.
+   ************************************************************************/
+  private final List<Request> assignedRequests = new ArrayList<>();
   /************************************************************************
    * The class variables that change as the elevator runs.
    ************************************************************************/
@@ -69,6 +93,17 @@ public class Elevator implements ElevatorInterface {
    ************************************************************************/
   private int stopWaitTimeLeft = 0;
   private boolean outOfService;  // start must be issued on the elevator to start it.
+  /************************************************************************
+   * The counters of what the elevator has done, indexed by ElevatorCounter.
+   * Only the stepping thread writes them, with release stores, so gauges
+   * read from other threads see whole values.
+   ************************************************************************/
+  private final long[] counters = new long[ElevatorCounter.values().length];
+  /************************************************************************
+   * The last report of the elevator, handed out again while it is still
+   * true. Reports never change, so they can be shared.
+   ************************************************************************/
+  private ElevatorReport status = null;
 
 
   /**
@@ -84,19 +119,54 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    this(maxFloor, maxOccupancy, DEFAULT_FLOOR_LIMIT, DEFAULT_OCCUPANCY_LIMIT);
+  }
+
+  /**
+   * The constructor for an elevator with its own limits on floors and occupancy,
+   * for buildings that are not covered by the default bylaws.
+   *
+   * @param maxFloor       the total number of floors in the building
+   *                       must be between 3 and floorLimit
+   * @param maxOccupancy   the maximum number of people that can fit in the elevator
+   *                       must be between 3 and occupancyLimit
+   * @param floorLimit     the largest number of floors allowed
+   * @param occupancyLimit the largest occupancy allowed
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int maxFloor, int maxOccupancy, int floorLimit, int occupancyLimit) {
+    this(newElevatorId++, maxFloor, maxOccupancy, floorLimit, occupancyLimit);
+  }
+
+  /**
+   * The constructor for an elevator with an id given by its owner, such as its index
+   * in a building. Elevators built this way do not use the shared id counter, so
+   * their ids do not depend on how many elevators were built before them.
+   *
+   * @param id             the id of the elevator
+   * @param maxFloor       the total number of floors in the building
+   *                       must be between 3 and floorLimit
+   * @param maxOccupancy   the maximum number of people that can fit in the elevator
+   *                       must be between 3 and occupancyLimit
+   * @param floorLimit     the largest number of floors allowed
+   * @param occupancyLimit the largest occupancy allowed
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy, int floorLimit, int occupancyLimit) {
+    if (maxFloor < 3 || maxFloor > floorLimit) {
+      throw new IllegalArgumentException("maxFloor must be between 3 and " + floorLimit);
     }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    if (maxOccupancy < 3 || maxOccupancy > occupancyLimit) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and " + occupancyLimit);
     }
 
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = new BitSet(maxFloor);
     this.takingRequests = false;
 
   }
@@ -170,7 +240,24 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return this.floorRequestsArray();
+  }
+
+  /**
+   * Get the nearest requested floor at or ahead of the elevator in the direction
+   * it is travelling.
+   *
+   * @return the floor or -1 if there are no stop requests ahead.
+   */
+  @Override
+  public int getNextStopRequest() {
+    if (this.direction == Direction.UP) {
+      return this.floorRequests.nextSetBit(this.currentFloor);
+    }
+    if (this.direction == Direction.DOWN) {
+      return this.floorRequests.previousSetBit(this.currentFloor);
+    }
+    return this.floorRequests.get(this.currentFloor) ? this.currentFloor : -1;
   }
 
   /* ***********************************************************************
@@ -222,6 +309,11 @@ public class Elevator implements ElevatorInterface {
    * Fourth check to see if there is a request at this floor.
    */
   public void step() {
+    this.count(ElevatorCounter.steps, 1);
+    if (!this.outOfService && this.floorRequests.isEmpty()) {
+      this.count(ElevatorCounter.idleSteps, 1);
+    }
+
     // If the elevator is out of service then we need to deal with that.
     if (this.outOfService) {
       this.stepOutOfService();
@@ -245,10 +337,12 @@ public class Elevator implements ElevatorInterface {
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
     // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    if (this.floorRequests.get(this.currentFloor)) {
       this.doorClosed = false;
+      this.count(ElevatorCounter.doorOpenings, 1);
       this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.clear(this.currentFloor);
+      this.dropOffRequests();
       return;
     }
 
@@ -266,6 +360,7 @@ public class Elevator implements ElevatorInterface {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.assignedRequests.clear();
       return;
     }
 
@@ -277,6 +372,7 @@ public class Elevator implements ElevatorInterface {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.assignedRequests.clear();
       return;
     }
 
@@ -290,9 +386,178 @@ public class Elevator implements ElevatorInterface {
     int floorIncrement = 1;
     if (this.direction == Direction.UP) {
       this.currentFloor += floorIncrement;
+      this.count(ElevatorCounter.floorsTravelled, 1);
     } else if (this.direction == Direction.DOWN) {
       this.currentFloor -= floorIncrement;
+      this.count(ElevatorCounter.floorsTravelled, 1);
+    }
+  }
+
+  /**
+   * Get the number of steps until something other than a timer counting down
+   * or a move towards the next stop can happen.
+   * Those steps can be applied at once with skipSteps.
+   *
+   * @return the number of steps, at least 1.
+   */
+  @Override
+  public int stepsUntilNextEvent() {
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        // parked on the ground floor with the door open nothing ever happens.
+        return this.doorClosed ? 1 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed) {
+        return Math.max(1, this.doorOpenTimeLeft);
+      }
+      // the elevator heads straight down to the ground floor.
+      return this.currentFloor;
+    }
+
+    if (!this.doorClosed) {
+      return Math.max(1, this.doorOpenTimeLeft);
+    }
+
+    if (this.stopWaitTimeLeft > 0) {
+      return this.stopWaitTimeLeft;
+    }
+
+    if (this.floorRequests.get(this.currentFloor)) {
+      return 1;
+    }
+
+    // the elevator moves until it reaches a requested floor or the top or bottom floor.
+    if (this.direction == Direction.UP && this.currentFloor < this.maxFloor - 1) {
+      int floor = this.floorRequests.nextSetBit(this.currentFloor + 1);
+      if (floor < 0 || floor > this.maxFloor - 1) {
+        floor = this.maxFloor - 1;
+      }
+      return floor - this.currentFloor;
+    }
+    if (this.direction == Direction.DOWN && this.currentFloor > 0) {
+      int floor = Math.max(0, this.floorRequests.previousSetBit(this.currentFloor - 1));
+      return this.currentFloor - floor;
+    }
+    return 1;
+  }
+
+  /**
+   * Get the length of the cycle the elevator is on when it has nothing to do.
+   * An idle elevator travels from the bottom floor to the top floor and back,
+   * waiting at each end, and is back in the same state after this many steps.
+   *
+   * @return the length of the cycle, or 0 if the elevator is not travelling
+   *     between the ends with nothing to do.
+   */
+  @Override
+  public int idleCycleLength() {
+    if (this.outOfService
+        || this.takingRequests
+        || !this.doorClosed
+        || this.doorOpenTimeLeft != 0
+        || this.stopWaitTimeLeft > 0
+        || this.direction == Direction.STOPPED) {
+      return 0;
+    }
+    if (!this.floorRequests.isEmpty()) {
+      return 0;
+    }
+    // a run, the step to stop and the wait at each end.
+    return 2 * ((this.maxFloor - 1) + 1 + this.stopWaitTimeTotal);
+  }
+
+  /**
+   * Apply several steps at once.  The result is the same as calling step that
+   * many times.
+   *
+   * @param steps the number of steps, from 1 to stepsUntilNextEvent.
+   * @throws IllegalArgumentException if steps is out of range.
+   */
+  @Override
+  public void skipSteps(int steps) {
+    if (steps < 1 || steps > this.stepsUntilNextEvent()) {
+      throw new IllegalArgumentException("steps must be between 1 and "
+          + this.stepsUntilNextEvent());
+    }
+    if (steps == 1) {
+      this.step();
+      return;
+    }
+
+    this.count(ElevatorCounter.steps, steps);
+    if (!this.outOfService && this.floorRequests.isEmpty()) {
+      this.count(ElevatorCounter.idleSteps, steps);
+    }
+
+    if (this.outOfService && this.currentFloor == 0) {
+      return;
+    }
+
+    if (!this.doorClosed) {
+      this.doorOpenTimeLeft -= steps;
+      if (this.doorOpenTimeLeft == 0) {
+        this.doorClosed = true;
+      }
+      return;
+    }
+
+    if (this.outOfService) {
+      this.direction = Direction.DOWN;
+      this.currentFloor -= steps;
+      this.count(ElevatorCounter.floorsTravelled, steps);
+      return;
+    }
+
+    if (this.stopWaitTimeLeft > 0) {
+      this.stopWaitTimeLeft -= steps - 1;
+      this.count(ElevatorCounter.stopWaitSteps, steps - 1);
+      this.stepTopOrBottom();
+      return;
     }
+
+    if (this.direction == Direction.UP) {
+      this.currentFloor += steps;
+    } else {
+      this.currentFloor -= steps;
+    }
+    this.count(ElevatorCounter.floorsTravelled, steps);
+  }
+
+  /**
+   * Count whole idle cycles that are skipped without stepping.  An idle elevator
+   * is back in the same state after each cycle so only the counters move on.
+   *
+   * @param cycles the number of cycles, not negative.
+   * @throws IllegalArgumentException if cycles is negative.
+   * @throws IllegalStateException    if the elevator is not on its idle cycle.
+   */
+  @Override
+  public void skipIdleCycles(long cycles) {
+    if (cycles < 0) {
+      throw new IllegalArgumentException("cycles must not be negative");
+    }
+    if (cycles == 0) {
+      return;
+    }
+    int cycle = this.idleCycleLength();
+    if (cycle == 0) {
+      throw new IllegalStateException("Elevator is not on its idle cycle.");
+    }
+    this.count(ElevatorCounter.steps, cycles * cycle);
+    this.count(ElevatorCounter.idleSteps, cycles * cycle);
+    this.count(ElevatorCounter.floorsTravelled, cycles * 2 * (this.maxFloor - 1));
+    this.count(ElevatorCounter.stopWaitSteps, cycles * 2 * this.stopWaitTimeTotal);
+  }
+
+  /**
+   * Get one of the counters of what the elevator has done.
+   *
+   * @param counter the counter.
+   * @return the value of the counter.
+   */
+  @Override
+  public long getCounter(ElevatorCounter counter) {
+    return (long) COUNTER_ACCESS.getAcquire(this.counters, counter.ordinal());
   }
 
   /**
@@ -312,8 +577,9 @@ public class Elevator implements ElevatorInterface {
     //
     if (this.currentFloor == 0) {
       this.doorClosed = false;
+      this.count(ElevatorCounter.doorOpenings, 1);
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.clear(this.currentFloor);
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -331,6 +597,7 @@ public class Elevator implements ElevatorInterface {
     // set the direction of the elevator to down.
     this.direction = Direction.DOWN;
     this.currentFloor--;
+    this.count(ElevatorCounter.floorsTravelled, 1);
   }
 
   /**
@@ -348,6 +615,7 @@ public class Elevator implements ElevatorInterface {
    */
   private void stepTopOrBottom() {
     this.stopWaitTimeLeft--;
+    this.count(ElevatorCounter.stopWaitSteps, 1);
     if (this.stopWaitTimeLeft == 0) {
       this.takingRequests = false;
       if (this.currentFloor == 0) {
@@ -387,6 +655,94 @@ public class Elevator implements ElevatorInterface {
 
   }
 
+  /**
+   * Is the elevator accepting pick ups on its way in the given direction.
+   * This is true when the elevator is in service, has left the top or bottom
+   * floor and is travelling in the given direction.
+   *
+   * @param direction the direction of the requests to pick up.
+   * @return true if requests in that direction can be given to pickUpRequests.
+   */
+  @Override
+  public boolean isAcceptingPickUps(Direction direction) {
+    return !this.outOfService
+        && !this.takingRequests
+        && this.stopWaitTimeLeft == 0
+        && this.direction == direction
+        && direction != Direction.STOPPED;
+  }
+
+  /**
+   * Get the number of requests that can still be given to the elevator on this run.
+   *
+   * @return the maximum occupancy less the requests that have not been dropped off.
+   */
+  @Override
+  public int getSpareCapacity() {
+    return this.maxOccupancy - this.assignedRequests.size();
+  }
+
+  /**
+   * Pick up requests on the way.  The requests must be going in the direction
+   * the elevator is travelling and start on the current floor or a floor that
+   * the elevator has not passed yet.
+   *
+   * @param requests the requests to pick up.
+   * @throws IllegalStateException    if the elevator is not accepting pick ups.
+   * @throws IllegalArgumentException if a request is behind the elevator, is going
+   *                                  the wrong way or there is not enough room.
+   */
+  @Override
+  public void pickUpRequests(List<Request> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    if (!this.isAcceptingPickUps(this.direction)) {
+      throw new IllegalStateException("Elevator is not accepting pick ups.");
+    }
+    if (requests.size() > this.getSpareCapacity()) {
+      throw new IllegalArgumentException("Elevator does not have room for "
+          + requests.size() + " requests.");
+    }
+    for (Request request : requests) {
+      if (!this.isOnTheWay(request)) {
+        throw new IllegalArgumentException("Request " + request
+            + " is not on the way for the elevator.");
+      }
+    }
+
+    for (Request request : requests) {
+      // if the door is already open on the start floor the passenger just gets on.
+      if (request.getStartFloor() != this.currentFloor || this.doorClosed) {
+        this.floorRequests.set(request.getStartFloor());
+      }
+      this.floorRequests.set(request.getEndFloor());
+      this.assignedRequests.add(request);
+    }
+  }
+
+  /**
+   * Turn the elevator around before it reaches the top or bottom floor.
+   * This is only allowed while the elevator is moving between the top and bottom
+   * floors with its door closed and no stop requests ahead of it.
+   *
+   * @throws IllegalStateException if the elevator cannot turn around.
+   */
+  @Override
+  public void reverseDirection() {
+    if (!this.isAcceptingPickUps(this.direction) || !this.doorClosed) {
+      throw new IllegalStateException("Elevator can only turn around while it is moving "
+          + "with its door closed.");
+    }
+    if (this.currentFloor == 0 || this.currentFloor == this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot turn around on the bottom or top floor.");
+    }
+    if (this.getNextStopRequest() >= 0) {
+      throw new IllegalStateException("Elevator cannot turn around with stops ahead.");
+    }
+    this.direction = this.direction == Direction.UP ? Direction.DOWN : Direction.UP;
+  }
+
   /**
    * isTakingRequests.
    * This will return true if the elevator is taking requests.
@@ -400,29 +756,67 @@ public class Elevator implements ElevatorInterface {
 
   /**
    * Generate a report for the elevator in ElevatorReport format.
+   * While nothing in it changes the same report is returned again.
    *
    * @return an ElevatorReport object.
    */
   @Override
   public ElevatorReport getElevatorStatus() {
-    return new ElevatorReport(
-        this.id,
-        this.currentFloor,
-        this.direction,
-        this.doorClosed,
-        this.floorRequests,
-        this.doorOpenTimeLeft,
-        this.stopWaitTimeLeft,
-        this.outOfService,
-        this.takingRequests);
+    ElevatorReport status = this.status;
+    if (status == null || !this.hasFloorRequestsOf(status)) {
+      status = ElevatorReport.owning(
+          this.id,
+          this.currentFloor,
+          this.direction,
+          this.doorClosed,
+          this.floorRequestsArray(),
+          this.doorOpenTimeLeft,
+          this.stopWaitTimeLeft,
+          this.outOfService,
+          this.takingRequests);
+    } else if (!status.matches(this.currentFloor, this.direction, this.doorClosed,
+        this.doorOpenTimeLeft, this.stopWaitTimeLeft, this.outOfService, this.takingRequests)) {
+      status = status.withState(this.currentFloor, this.direction, this.doorClosed,
+          this.doorOpenTimeLeft, this.stopWaitTimeLeft, this.outOfService, this.takingRequests);
+    }
+    this.status = status;
+    return status;
+  }
+
+  /**
+   * Find out if a report has the floor requests of the elevator.
+   *
+   * @param report the report.
+   * @return true if the same floors are requested.
+   */
+  private boolean hasFloorRequestsOf(ElevatorReport report) {
+    for (int floor = 0; floor < this.maxFloor; floor++) {
+      if (report.isFloorRequested(floor) != this.floorRequests.get(floor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Add to one of the counters.
+   *
+   * @param counter the counter.
+   * @param amount  the amount to add.
+   */
+  private void count(ElevatorCounter counter, long amount) {
+    int index = counter.ordinal();
+    COUNTER_ACCESS.setRelease(this.counters, index, this.counters[index] + amount);
   }
 
   private void processStopRequests(List<Request> requests) {
     clearStopRequests();
 
+    this.assignedRequests.clear();
+    this.assignedRequests.addAll(requests);
     for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+      this.floorRequests.set(request.getStartFloor());
+      this.floorRequests.set(request.getEndFloor());
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
@@ -433,9 +827,47 @@ public class Elevator implements ElevatorInterface {
    * Clear the Floor Requests.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
+    this.floorRequests.clear();
+    this.assignedRequests.clear();
+  }
+
+  /**
+   * Copy the Floor Requests into an array with an entry for every floor.
+   *
+   * @return the floor requests, true if there is a request for the floor.
+   */
+  private boolean[] floorRequestsArray() {
+    boolean[] requests = new boolean[this.maxFloor];
+    for (int floor = this.floorRequests.nextSetBit(0); floor >= 0;
+         floor = this.floorRequests.nextSetBit(floor + 1)) {
+      requests[floor] = true;
+    }
+    return requests;
+  }
+
+  /**
+   * Let out the requests that end on the current floor.
+   */
+  private void dropOffRequests() {
+    this.assignedRequests.removeIf(request -> request.getEndFloor() == this.currentFloor);
+  }
+
+  /**
+   * Is the request on the way for the elevator.
+   *
+   * @param request the request to check.
+   * @return true if the request starts at or ahead of the elevator and goes the same way.
+   */
+  private boolean isOnTheWay(Request request) {
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    if (end < 0 || end >= this.maxFloor) {
+      return false;
+    }
+    if (this.direction == Direction.UP) {
+      return start >= this.currentFloor && end > start;
     }
+    return start <= this.currentFloor && end < start;
   }
 
   /**
@@ -450,7 +882,7 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.floorRequestsArray(),
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
@@ -0,0 +1,111 @@
+package elevator;
+
+import building.enums.Direction;
+
+/**
+ * This class packs the state of an elevator that changes from step to step into
+ * one long, for traces that record every elevator on every step.
+ * <p>
+ * The fields are laid out with the ones that change most often in the low bits:
+ * <ul>
+ *   <li>bit 0, set if the door is closed</li>
+ *   <li>bits 1 and 2, the direction</li>
+ *   <li>bit 3, set if the elevator is taking requests</li>
+ *   <li>bits 4 to 23, the current floor</li>
+ *   <li>bits 24 to 43, the spare capacity</li>
+ *   <li>bits 44 to 63, the next stop plus 1, 0 if there is none</li>
+ * </ul>
+ * So the digest of an elevator moving one floor in a low building differs from the
+ * one before only in its low byte.
+ * Floors and capacities of a million and more do not fit and are cut to 20 bits.
+ */
+public final class ElevatorDigest {
+
+  private static final int FIELD_BITS = 20;
+  private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+  private static final int DOOR_SHIFT = 0;
+  private static final int DIRECTION_SHIFT = 1;
+  private static final int TAKING_REQUESTS_SHIFT = 3;
+  private static final int FLOOR_SHIFT = 4;
+  private static final int SPARE_CAPACITY_SHIFT = 24;
+  private static final int NEXT_STOP_SHIFT = 44;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private ElevatorDigest() {
+  }
+
+  /**
+   * Pack the state of an elevator.
+   *
+   * @param elevator the elevator.
+   * @return the digest.
+   */
+  public static long of(ElevatorInterface elevator) {
+    return (elevator.isDoorClosed() ? 1L << DOOR_SHIFT : 0)
+        | (long) elevator.getDirection().ordinal() << DIRECTION_SHIFT
+        | (elevator.isTakingRequests() ? 1L << TAKING_REQUESTS_SHIFT : 0)
+        | (elevator.getCurrentFloor() & FIELD_MASK) << FLOOR_SHIFT
+        | ((elevator.getNextStopRequest() + 1) & FIELD_MASK) << NEXT_STOP_SHIFT
+        | (elevator.getSpareCapacity() & FIELD_MASK) << SPARE_CAPACITY_SHIFT;
+  }
+
+  /**
+   * Get the current floor from a digest.
+   *
+   * @param digest the digest.
+   * @return the floor.
+   */
+  public static int currentFloor(long digest) {
+    return (int) (digest >>> FLOOR_SHIFT & FIELD_MASK);
+  }
+
+  /**
+   * Get the state of the door from a digest.
+   *
+   * @param digest the digest.
+   * @return true if the door is closed.
+   */
+  public static boolean isDoorClosed(long digest) {
+    return (digest >>> DOOR_SHIFT & 1) != 0;
+  }
+
+  /**
+   * Get the direction from a digest.
+   *
+   * @param digest the digest.
+   * @return the direction.
+   */
+  public static Direction direction(long digest) {
+    return DIRECTIONS[(int) (digest >>> DIRECTION_SHIFT & 3)];
+  }
+
+  /**
+   * Get whether the elevator is taking requests from a digest.
+   *
+   * @param digest the digest.
+   * @return true if the elevator is taking requests.
+   */
+  public static boolean isTakingRequests(long digest) {
+    return (digest >>> TAKING_REQUESTS_SHIFT & 1) != 0;
+  }
+
+  /**
+   * Get the next stop from a digest.
+   *
+   * @param digest the digest.
+   * @return the floor or -1 if there are no stops ahead.
+   */
+  public static int nextStop(long digest) {
+    return (int) (digest >>> NEXT_STOP_SHIFT & FIELD_MASK) - 1;
+  }
+
+  /**
+   * Get the spare capacity from a digest.
+   *
+   * @param digest the digest.
+   * @return the number of requests the elevator has room for.
+   */
+  public static int spareCapacity(long digest) {
+    return (int) (digest >>> SPARE_CAPACITY_SHIFT & FIELD_MASK);
+  }
+}
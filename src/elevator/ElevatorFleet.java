@@ -0,0 +1,855 @@
+package elevator;
+
+import building.enums.Direction;
+import building.enums.ElevatorCounter;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A fleet of elevators that keeps the state of all of its cars in parallel arrays.
+ * <p>
+ * Each car behaves exactly like an {@link Elevator}, but instead of one object per
+ * car the fleet holds one primitive array per field, indexed by car. Stepping the
+ * fleet walks those arrays in a single loop, which keeps the state of neighbouring
+ * cars next to each other in memory. The stop requests of each car are a run of
+ * long words in one shared array, and the requests on board are only counted per
+ * end floor, so the fleet holds no objects per car other than its view.
+ * <p>
+ * The cars are reached through views that implement {@link ElevatorInterface}, so
+ * a fleet can be used anywhere an array of elevators is expected. The ids of the
+ * cars are their index in the fleet.
+ */
+public class ElevatorFleet {
+
+  /************************************************************************
+   * The directions indexed by the values stored in the direction array.
+   ************************************************************************/
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final byte UP = (byte) Direction.UP.ordinal();
+  private static final byte DOWN = (byte) Direction.DOWN.ordinal();
+  private static final byte STOPPED = (byte) Direction.STOPPED.ordinal();
+  private static final int COUNTERS = ElevatorCounter.values().length;
+
+  private static final VarHandle COUNTER_ACCESS =
+      MethodHandles.arrayElementVarHandle(long[].class);
+
+  /************************************************************************
+   * The total number of floors in the building.
+   ************************************************************************/
+  private final int maxFloor;
+
+  /************************************************************************
+   * The maximum number of people that can fit in each car.
+   ************************************************************************/
+  private final int maxOccupancy;
+
+  /************************************************************************
+   * The number of steps that the door is open for.
+   ************************************************************************/
+  private final int doorOpenTimeTotal = 3;
+
+  /************************************************************************
+   * The number of steps that a car will wait at the top or bottom.
+   ************************************************************************/
+  private final int stopWaitTimeTotal = 5;
+
+  /************************************************************************
+   * The number of long words holding the stop requests of one car.
+   ************************************************************************/
+  private final int wordsPerCar;
+
+  /************************************************************************
+   * The state of the cars, one entry per car.
+   ************************************************************************/
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final int[] doorOpenTimeLeft;
+  private final int[] stopWaitTimeLeft;
+  private final boolean[] doorClosed;
+  private final boolean[] takingRequests;
+  private final boolean[] outOfService;
+
+  /************************************************************************
+   * The number of requests given to each car on this run that have not
+   * been dropped off yet.
+   ************************************************************************/
+  private final int[] assignedCount;
+
+  /************************************************************************
+   * The stop requests, wordsPerCar words per car. Bit f of a car's words
+   * is set if there is a request for floor f.
+   ************************************************************************/
+  private final long[] stopWords;
+
+  /************************************************************************
+   * The number of assigned requests ending on each floor, maxFloor
+   * entries per car.
+   ************************************************************************/
+  private final int[] dropOffCounts;
+
+  /************************************************************************
+   * The counters of what each car has done, COUNTERS entries per car
+   * indexed by ElevatorCounter. Only the stepping thread writes them, with
+   * release stores, so gauges read from other threads see whole values.
+   ************************************************************************/
+  private final long[] counters;
+
+  /************************************************************************
+   * The views of the cars.
+   ************************************************************************/
+  private final ElevatorInterface[] cars;
+
+  /************************************************************************
+   * The last report of each car, handed out again while it is still true.
+   ************************************************************************/
+  private final ElevatorReport[] reports;
+
+  /**
+   * Construct a fleet of cars using the default limits on floors and occupancy.
+   * The cars are initially out of service on the ground floor.
+   *
+   * @param numberOfCars the number of cars in the fleet, at least 1.
+   * @param maxFloor     the total number of floors in the building.
+   * @param maxOccupancy the maximum number of people that can fit in each car.
+   * @throws IllegalArgumentException if a parameter is out of range.
+   */
+  public ElevatorFleet(int numberOfCars, int maxFloor, int maxOccupancy) {
+    this(numberOfCars, maxFloor, maxOccupancy,
+        Elevator.DEFAULT_FLOOR_LIMIT, Elevator.DEFAULT_OCCUPANCY_LIMIT);
+  }
+
+  /**
+   * Construct a fleet of cars with its own limits on floors and occupancy.
+   * The cars are initially out of service on the ground floor.
+   *
+   * @param numberOfCars   the number of cars in the fleet, at least 1.
+   * @param maxFloor       the total number of floors in the building
+   *                       must be between 3 and floorLimit
+   * @param maxOccupancy   the maximum number of people that can fit in each car
+   *                       must be between 3 and occupancyLimit
+   * @param floorLimit     the largest number of floors allowed
+   * @param occupancyLimit the largest occupancy allowed
+   * @throws IllegalArgumentException if a parameter is out of range.
+   */
+  public ElevatorFleet(int numberOfCars, int maxFloor, int maxOccupancy,
+                       int floorLimit, int occupancyLimit) {
+    if (numberOfCars < 1) {
+      throw new IllegalArgumentException("numberOfCars must be greater than or equal to 1");
+    }
+    if (maxFloor < 3 || maxFloor > floorLimit) {
+      throw new IllegalArgumentException("maxFloor must be between 3 and " + floorLimit);
+    }
+    if (maxOccupancy < 3 || maxOccupancy > occupancyLimit) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and " + occupancyLimit);
+    }
+
+    this.maxFloor = maxFloor;
+    this.maxOccupancy = maxOccupancy;
+    this.wordsPerCar = (maxFloor + 63) >>> 6;
+
+    this.currentFloor = new int[numberOfCars];
+    this.direction = new byte[numberOfCars];
+    this.doorOpenTimeLeft = new int[numberOfCars];
+    this.stopWaitTimeLeft = new int[numberOfCars];
+    this.doorClosed = new boolean[numberOfCars];
+    this.takingRequests = new boolean[numberOfCars];
+    this.outOfService = new boolean[numberOfCars];
+    this.assignedCount = new int[numberOfCars];
+    this.stopWords = new long[numberOfCars * this.wordsPerCar];
+    this.dropOffCounts = new int[numberOfCars * maxFloor];
+    this.counters = new long[numberOfCars * COUNTERS];
+
+    Arrays.fill(this.direction, STOPPED);
+    Arrays.fill(this.doorClosed, true);
+    Arrays.fill(this.outOfService, true);
+
+    this.cars = new ElevatorInterface[numberOfCars];
+    this.reports = new ElevatorReport[numberOfCars];
+    for (int i = 0; i < numberOfCars; i++) {
+      this.cars[i] = new Car(i);
+    }
+  }
+
+  /**
+   * Get the number of cars in the fleet.
+   *
+   * @return the number of cars.
+   */
+  public int size() {
+    return this.cars.length;
+  }
+
+  /**
+   * Get the total number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  public int getMaxFloor() {
+    return this.maxFloor;
+  }
+
+  /**
+   * Get the maximum number of people that can fit in each car.
+   *
+   * @return the maximum occupancy.
+   */
+  public int getMaxOccupancy() {
+    return this.maxOccupancy;
+  }
+
+  /**
+   * Get the view of one car.
+   *
+   * @param car the index of the car.
+   * @return the car.
+   */
+  public ElevatorInterface getCar(int car) {
+    return this.cars[car];
+  }
+
+  /**
+   * Get the views of all of the cars.
+   * The array is shared with the fleet and must not be changed.
+   *
+   * @return the cars in index order.
+   */
+  public ElevatorInterface[] getCars() {
+    return this.cars;
+  }
+
+  /**
+   * Step every car in the fleet.
+   */
+  public void step() {
+    this.step(0, this.cars.length);
+  }
+
+  /**
+   * Step the cars from index from up to but not including to.
+   *
+   * @param from the first car to step.
+   * @param to   one past the last car to step.
+   */
+  public void step(int from, int to) {
+    for (int car = from; car < to; car++) {
+      this.stepCar(car);
+    }
+  }
+
+  /* ***********************************************************************
+   * The behaviour of one car. These follow the Elevator methods of the
+   * same name line for line.
+   * **********************************************************************/
+
+  private void start(int car) {
+    this.outOfService[car] = false;
+    this.takingRequests[car] = true;
+    this.clearStopRequests(car);
+    this.doorClosed[car] = true;
+    this.doorOpenTimeLeft[car] = 0;
+    this.stopWaitTimeLeft[car] = this.stopWaitTimeTotal;
+    this.direction[car] = UP;
+  }
+
+  private void takeOutOfService(int car) {
+    this.clearStopRequests(car);
+    this.takingRequests[car] = false;
+    this.direction[car] = DOWN;
+
+    this.outOfService[car] = true;
+    this.stopWaitTimeLeft[car] = 0;
+  }
+
+  private void stepCar(int car) {
+    this.count(car, ElevatorCounter.steps, 1);
+    if (!this.outOfService[car] && !this.hasStops(car)) {
+      this.count(car, ElevatorCounter.idleSteps, 1);
+    }
+
+    if (this.outOfService[car]) {
+      this.stepOutOfService(car);
+      return;
+    }
+
+    if (!this.doorClosed[car]) {
+      this.stepDoorOpen(car);
+      return;
+    }
+
+    if (this.stopWaitTimeLeft[car] > 0) {
+      this.stepTopOrBottom(car);
+      return;
+    }
+
+    int floor = this.currentFloor[car];
+    if (this.isStop(car, floor)) {
+      this.doorClosed[car] = false;
+      this.count(car, ElevatorCounter.doorOpenings, 1);
+      this.doorOpenTimeLeft[car] = this.doorOpenTimeTotal;
+      this.clearStop(car, floor);
+      this.dropOffRequests(car);
+      return;
+    }
+
+    byte carDirection = this.direction[car];
+    if ((floor == 0 && carDirection == DOWN)
+        || (floor == this.maxFloor - 1 && carDirection == UP)) {
+      this.direction[car] = STOPPED;
+      this.stopWaitTimeLeft[car] = this.stopWaitTimeTotal;
+      this.takingRequests[car] = true;
+      this.clearAssignedRequests(car);
+      return;
+    }
+
+    if (carDirection == UP) {
+      this.currentFloor[car] = floor + 1;
+      this.count(car, ElevatorCounter.floorsTravelled, 1);
+    } else if (carDirection == DOWN) {
+      this.currentFloor[car] = floor - 1;
+      this.count(car, ElevatorCounter.floorsTravelled, 1);
+    }
+  }
+
+  private void stepOutOfService(int car) {
+    if (this.currentFloor[car] == 0 && !this.doorClosed[car]) {
+      return;
+    }
+
+    if (this.currentFloor[car] == 0) {
+      this.doorClosed[car] = false;
+      this.count(car, ElevatorCounter.doorOpenings, 1);
+      this.clearStop(car, 0);
+      this.direction[car] = STOPPED;
+      return;
+    }
+
+    if (!this.doorClosed[car]) {
+      this.stepDoorOpen(car);
+      return;
+    }
+
+    this.direction[car] = DOWN;
+    this.currentFloor[car]--;
+    this.count(car, ElevatorCounter.floorsTravelled, 1);
+  }
+
+  private void stepDoorOpen(int car) {
+    this.doorOpenTimeLeft[car]--;
+    if (this.doorOpenTimeLeft[car] == 0) {
+      this.doorClosed[car] = true;
+    }
+  }
+
+  private void stepTopOrBottom(int car) {
+    this.stopWaitTimeLeft[car]--;
+    this.count(car, ElevatorCounter.stopWaitSteps, 1);
+    if (this.stopWaitTimeLeft[car] == 0) {
+      this.takingRequests[car] = false;
+      if (this.currentFloor[car] == 0) {
+        this.direction[car] = UP;
+      } else if (this.currentFloor[car] == this.maxFloor - 1) {
+        this.direction[car] = DOWN;
+      }
+    }
+  }
+
+  private int stepsUntilNextEvent(int car) {
+    int floor = this.currentFloor[car];
+    if (this.outOfService[car]) {
+      if (floor == 0) {
+        return this.doorClosed[car] ? 1 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed[car]) {
+        return Math.max(1, this.doorOpenTimeLeft[car]);
+      }
+      return floor;
+    }
+
+    if (!this.doorClosed[car]) {
+      return Math.max(1, this.doorOpenTimeLeft[car]);
+    }
+
+    if (this.stopWaitTimeLeft[car] > 0) {
+      return this.stopWaitTimeLeft[car];
+    }
+
+    if (this.isStop(car, floor)) {
+      return 1;
+    }
+
+    if (this.direction[car] == UP && floor < this.maxFloor - 1) {
+      int next = this.nextStop(car, floor + 1);
+      return (next < 0 ? this.maxFloor - 1 : next) - floor;
+    }
+    if (this.direction[car] == DOWN && floor > 0) {
+      return floor - Math.max(0, this.previousStop(car, floor - 1));
+    }
+    return 1;
+  }
+
+  private int idleCycleLength(int car) {
+    if (this.outOfService[car]
+        || this.takingRequests[car]
+        || !this.doorClosed[car]
+        || this.doorOpenTimeLeft[car] != 0
+        || this.stopWaitTimeLeft[car] > 0
+        || this.direction[car] == STOPPED) {
+      return 0;
+    }
+    if (this.nextStop(car, 0) >= 0) {
+      return 0;
+    }
+    return 2 * ((this.maxFloor - 1) + 1 + this.stopWaitTimeTotal);
+  }
+
+  private void skipSteps(int car, int steps) {
+    int limit = this.stepsUntilNextEvent(car);
+    if (steps < 1 || steps > limit) {
+      throw new IllegalArgumentException("steps must be between 1 and " + limit);
+    }
+    if (steps == 1) {
+      this.stepCar(car);
+      return;
+    }
+
+    this.count(car, ElevatorCounter.steps, steps);
+    if (!this.outOfService[car] && !this.hasStops(car)) {
+      this.count(car, ElevatorCounter.idleSteps, steps);
+    }
+
+    if (this.outOfService[car] && this.currentFloor[car] == 0) {
+      return;
+    }
+
+    if (!this.doorClosed[car]) {
+      this.doorOpenTimeLeft[car] -= steps;
+      if (this.doorOpenTimeLeft[car] == 0) {
+        this.doorClosed[car] = true;
+      }
+      return;
+    }
+
+    if (this.outOfService[car]) {
+      this.direction[car] = DOWN;
+      this.currentFloor[car] -= steps;
+      this.count(car, ElevatorCounter.floorsTravelled, steps);
+      return;
+    }
+
+    if (this.stopWaitTimeLeft[car] > 0) {
+      this.stopWaitTimeLeft[car] -= steps - 1;
+      this.count(car, ElevatorCounter.stopWaitSteps, steps - 1);
+      this.stepTopOrBottom(car);
+      return;
+    }
+
+    if (this.direction[car] == UP) {
+      this.currentFloor[car] += steps;
+    } else {
+      this.currentFloor[car] -= steps;
+    }
+    this.count(car, ElevatorCounter.floorsTravelled, steps);
+  }
+
+  private void skipIdleCycles(int car, long cycles) {
+    if (cycles < 0) {
+      throw new IllegalArgumentException("cycles must not be negative");
+    }
+    if (cycles == 0) {
+      return;
+    }
+    int cycle = this.idleCycleLength(car);
+    if (cycle == 0) {
+      throw new IllegalStateException("Elevator is not on its idle cycle.");
+    }
+    this.count(car, ElevatorCounter.steps, cycles * cycle);
+    this.count(car, ElevatorCounter.idleSteps, cycles * cycle);
+    this.count(car, ElevatorCounter.floorsTravelled, cycles * 2 * (this.maxFloor - 1));
+    this.count(car, ElevatorCounter.stopWaitSteps, cycles * 2 * this.stopWaitTimeTotal);
+  }
+
+  private void count(int car, ElevatorCounter counter, long amount) {
+    int index = car * COUNTERS + counter.ordinal();
+    COUNTER_ACCESS.setRelease(this.counters, index, this.counters[index] + amount);
+  }
+
+  private void processRequests(int car, List<Request> requests) {
+    int floor = this.currentFloor[car];
+    if (floor != 0 && floor != this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "unless it is at the bottom or top floor.");
+    }
+
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    this.clearStopRequests(car);
+    for (Request request : requests) {
+      this.setStop(car, request.getStartFloor());
+      this.setStop(car, request.getEndFloor());
+      this.assign(car, request);
+    }
+    this.stopWaitTimeLeft[car] = 0;
+
+    if (floor == 0) {
+      this.direction[car] = UP;
+    } else {
+      this.direction[car] = DOWN;
+    }
+    this.takingRequests[car] = false;
+  }
+
+  private boolean isAcceptingPickUps(int car, Direction direction) {
+    return !this.outOfService[car]
+        && !this.takingRequests[car]
+        && this.stopWaitTimeLeft[car] == 0
+        && DIRECTIONS[this.direction[car]] == direction
+        && direction != Direction.STOPPED;
+  }
+
+  private int getSpareCapacity(int car) {
+    return this.maxOccupancy - this.assignedCount[car];
+  }
+
+  private void pickUpRequests(int car, List<Request> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    if (!this.isAcceptingPickUps(car, DIRECTIONS[this.direction[car]])) {
+      throw new IllegalStateException("Elevator is not accepting pick ups.");
+    }
+    if (requests.size() > this.getSpareCapacity(car)) {
+      throw new IllegalArgumentException("Elevator does not have room for "
+          + requests.size() + " requests.");
+    }
+    for (Request request : requests) {
+      if (!this.isOnTheWay(car, request)) {
+        throw new IllegalArgumentException("Request " + request
+            + " is not on the way for the elevator.");
+      }
+    }
+
+    for (Request request : requests) {
+      if (request.getStartFloor() != this.currentFloor[car] || this.doorClosed[car]) {
+        this.setStop(car, request.getStartFloor());
+      }
+      this.setStop(car, request.getEndFloor());
+      this.assign(car, request);
+    }
+  }
+
+  private void reverseDirection(int car) {
+    if (!this.isAcceptingPickUps(car, DIRECTIONS[this.direction[car]]) || !this.doorClosed[car]) {
+      throw new IllegalStateException("Elevator can only turn around while it is moving "
+          + "with its door closed.");
+    }
+    if (this.currentFloor[car] == 0 || this.currentFloor[car] == this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot turn around on the bottom or top floor.");
+    }
+    if (this.getNextStopRequest(car) >= 0) {
+      throw new IllegalStateException("Elevator cannot turn around with stops ahead.");
+    }
+    this.direction[car] = this.direction[car] == UP ? DOWN : UP;
+  }
+
+  private int getNextStopRequest(int car) {
+    int floor = this.currentFloor[car];
+    if (this.direction[car] == UP) {
+      return this.nextStop(car, floor);
+    }
+    if (this.direction[car] == DOWN) {
+      return this.previousStop(car, floor);
+    }
+    return this.isStop(car, floor) ? floor : -1;
+  }
+
+  private boolean isOnTheWay(int car, Request request) {
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    if (end < 0 || end >= this.maxFloor) {
+      return false;
+    }
+    if (this.direction[car] == UP) {
+      return start >= this.currentFloor[car] && end > start;
+    }
+    return start <= this.currentFloor[car] && end < start;
+  }
+
+  private ElevatorReport getElevatorStatus(int car) {
+    ElevatorReport status = this.reports[car];
+    Direction direction = DIRECTIONS[this.direction[car]];
+    if (status == null || !this.hasFloorRequestsOf(car, status)) {
+      status = ElevatorReport.owning(
+          car,
+          this.currentFloor[car],
+          direction,
+          this.doorClosed[car],
+          this.floorRequestsArray(car),
+          this.doorOpenTimeLeft[car],
+          this.stopWaitTimeLeft[car],
+          this.outOfService[car],
+          this.takingRequests[car]);
+    } else if (!status.matches(this.currentFloor[car], direction, this.doorClosed[car],
+        this.doorOpenTimeLeft[car], this.stopWaitTimeLeft[car], this.outOfService[car],
+        this.takingRequests[car])) {
+      status = status.withState(this.currentFloor[car], direction, this.doorClosed[car],
+          this.doorOpenTimeLeft[car], this.stopWaitTimeLeft[car], this.outOfService[car],
+          this.takingRequests[car]);
+    }
+    this.reports[car] = status;
+    return status;
+  }
+
+  private boolean hasFloorRequestsOf(int car, ElevatorReport report) {
+    for (int floor = 0; floor < this.maxFloor; floor++) {
+      if (report.isFloorRequested(floor) != this.isStop(car, floor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /* ***********************************************************************
+   * The stop requests and the requests on board.
+   * **********************************************************************/
+
+  private boolean hasStops(int car) {
+    int base = car * this.wordsPerCar;
+    for (int i = base; i < base + this.wordsPerCar; i++) {
+      if (this.stopWords[i] != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isStop(int car, int floor) {
+    return (this.stopWords[car * this.wordsPerCar + (floor >>> 6)] & (1L << floor)) != 0;
+  }
+
+  private void setStop(int car, int floor) {
+    this.stopWords[car * this.wordsPerCar + (floor >>> 6)] |= 1L << floor;
+  }
+
+  private void clearStop(int car, int floor) {
+    this.stopWords[car * this.wordsPerCar + (floor >>> 6)] &= ~(1L << floor);
+  }
+
+  /**
+   * Find the lowest floor at or above fromFloor with a stop request.
+   *
+   * @param car       the car.
+   * @param fromFloor the floor to start looking from.
+   * @return the floor or -1 if there is none.
+   */
+  private int nextStop(int car, int fromFloor) {
+    if (fromFloor >= this.maxFloor) {
+      return -1;
+    }
+    int base = car * this.wordsPerCar;
+    int index = fromFloor >>> 6;
+    long word = this.stopWords[base + index] & (-1L << fromFloor);
+    while (word == 0) {
+      if (++index == this.wordsPerCar) {
+        return -1;
+      }
+      word = this.stopWords[base + index];
+    }
+    return (index << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * Find the highest floor at or below fromFloor with a stop request.
+   *
+   * @param car       the car.
+   * @param fromFloor the floor to start looking from.
+   * @return the floor or -1 if there is none.
+   */
+  private int previousStop(int car, int fromFloor) {
+    if (fromFloor < 0) {
+      return -1;
+    }
+    int base = car * this.wordsPerCar;
+    int index = fromFloor >>> 6;
+    long word = this.stopWords[base + index] & (-1L >>> -(fromFloor + 1));
+    while (word == 0) {
+      if (index-- == 0) {
+        return -1;
+      }
+      word = this.stopWords[base + index];
+    }
+    return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+  }
+
+  private boolean[] floorRequestsArray(int car) {
+    boolean[] requests = new boolean[this.maxFloor];
+    for (int floor = this.nextStop(car, 0); floor >= 0; floor = this.nextStop(car, floor + 1)) {
+      requests[floor] = true;
+    }
+    return requests;
+  }
+
+  private void assign(int car, Request request) {
+    this.assignedCount[car]++;
+    int end = request.getEndFloor();
+    if (end >= 0 && end < this.maxFloor) {
+      this.dropOffCounts[car * this.maxFloor + end]++;
+    }
+  }
+
+  private void dropOffRequests(int car) {
+    int index = car * this.maxFloor + this.currentFloor[car];
+    this.assignedCount[car] -= this.dropOffCounts[index];
+    this.dropOffCounts[index] = 0;
+  }
+
+  private void clearAssignedRequests(int car) {
+    if (this.assignedCount[car] != 0) {
+      int base = car * this.maxFloor;
+      Arrays.fill(this.dropOffCounts, base, base + this.maxFloor, 0);
+      this.assignedCount[car] = 0;
+    }
+  }
+
+  private void clearStopRequests(int car) {
+    int base = car * this.wordsPerCar;
+    Arrays.fill(this.stopWords, base, base + this.wordsPerCar, 0L);
+    this.clearAssignedRequests(car);
+  }
+
+  /**
+   * The view of one car of the fleet.
+   */
+  private final class Car implements ElevatorInterface {
+    private final int car;
+
+    private Car(int car) {
+      this.car = car;
+    }
+
+    @Override
+    public int getElevatorId() {
+      return this.car;
+    }
+
+    @Override
+    public int getMaxFloor() {
+      return ElevatorFleet.this.maxFloor;
+    }
+
+    @Override
+    public int getMaxOccupancy() {
+      return ElevatorFleet.this.maxOccupancy;
+    }
+
+    @Override
+    public int getCurrentFloor() {
+      return ElevatorFleet.this.currentFloor[this.car];
+    }
+
+    @Override
+    public Direction getDirection() {
+      return DIRECTIONS[ElevatorFleet.this.direction[this.car]];
+    }
+
+    @Override
+    public boolean isDoorClosed() {
+      return ElevatorFleet.this.doorClosed[this.car];
+    }
+
+    @Override
+    public boolean[] getFloorRequests() {
+      return ElevatorFleet.this.floorRequestsArray(this.car);
+    }
+
+    @Override
+    public int getNextStopRequest() {
+      return ElevatorFleet.this.getNextStopRequest(this.car);
+    }
+
+    @Override
+    public void start() {
+      ElevatorFleet.this.start(this.car);
+    }
+
+    @Override
+    public void takeOutOfService() {
+      ElevatorFleet.this.takeOutOfService(this.car);
+    }
+
+    @Override
+    public void step() {
+      ElevatorFleet.this.stepCar(this.car);
+    }
+
+    @Override
+    public int stepsUntilNextEvent() {
+      return ElevatorFleet.this.stepsUntilNextEvent(this.car);
+    }
+
+    @Override
+    public int idleCycleLength() {
+      return ElevatorFleet.this.idleCycleLength(this.car);
+    }
+
+    @Override
+    public void skipSteps(int steps) {
+      ElevatorFleet.this.skipSteps(this.car, steps);
+    }
+
+    @Override
+    public void skipIdleCycles(long cycles) {
+      ElevatorFleet.this.skipIdleCycles(this.car, cycles);
+    }
+
+    @Override
+    public long getCounter(ElevatorCounter counter) {
+      return (long) COUNTER_ACCESS.getAcquire(ElevatorFleet.this.counters,
+          this.car * COUNTERS + counter.ordinal());
+    }
+
+    @Override
+    public void processRequests(List<Request> requests) {
+      ElevatorFleet.this.processRequests(this.car, requests);
+    }
+
+    @Override
+    public boolean isAcceptingPickUps(Direction direction) {
+      return ElevatorFleet.this.isAcceptingPickUps(this.car, direction);
+    }
+
+    @Override
+    public int getSpareCapacity() {
+      return ElevatorFleet.this.getSpareCapacity(this.car);
+    }
+
+    @Override
+    public void pickUpRequests(List<Request> requests) {
+      ElevatorFleet.this.pickUpRequests(this.car, requests);
+    }
+
+    @Override
+    public void reverseDirection() {
+      ElevatorFleet.this.reverseDirection(this.car);
+    }
+
+    @Override
+    public boolean isTakingRequests() {
+      return ElevatorFleet.this.takingRequests[this.car];
+    }
+
+    @Override
+    public ElevatorReport getElevatorStatus() {
+      return ElevatorFleet.this.getElevatorStatus(this.car);
+    }
+
+    @Override
+    public String toString() {
+      return this.getElevatorStatus().toString();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package elevator;
 
 import building.enums.Direction;
+import building.enums.ElevatorCounter;
 import java.util.List;
 import scanerzus.Request;
 
@@ -64,6 +65,14 @@ public interface ElevatorInterface {
    */
   boolean[] getFloorRequests();
 
+  /**
+   * Return the nearest floor with a stop request at or ahead of the elevator
+   * in the direction it is travelling.
+   *
+   * @return the floor or -1 if there are no stop requests ahead.
+   */
+  int getNextStopRequest();
+
   /**
    * start elevator.
    * This will start the elevator if the elevator is on the ground floor.
@@ -89,6 +98,50 @@ public interface ElevatorInterface {
    */
   void step();
 
+  /**
+   * Returns the number of steps the elevator can be moved on at once with skipSteps.
+   * During these steps the elevator only counts down its door or wait timer, or
+   * moves towards its next stop, so nothing needs to be decided along the way.
+   *
+   * @return the number of steps, at least 1.
+   */
+  int stepsUntilNextEvent();
+
+  /**
+   * Returns the number of steps after which an elevator with nothing to do is back
+   * in the same state, or 0 if the elevator is busy or not on that cycle.
+   *
+   * @return the length of the idle cycle or 0.
+   */
+  int idleCycleLength();
+
+  /**
+   * Moves the elevator on by several steps at once.
+   * This gives the same result as calling step that many times.
+   *
+   * @param steps the number of steps, from 1 to stepsUntilNextEvent.
+   */
+  void skipSteps(int steps);
+
+  /**
+   * Counts whole idle cycles that are skipped without stepping the elevator.
+   * The state of the elevator does not change, only its counters move on as if
+   * it had been stepped cycles times idleCycleLength steps.
+   *
+   * @param cycles the number of idle cycles.
+   */
+  void skipIdleCycles(long cycles);
+
+  /**
+   * Returns one of the counters of what the elevator has done since it was built.
+   * Steps covered by skipSteps and skipIdleCycles are counted as if they had been
+   * stepped one at a time.
+   *
+   * @param counter the counter.
+   * @return the value of the counter.
+   */
+  long getCounter(ElevatorCounter counter);
+
   /**
    * processUpRequests.
    * This will tell the elevator to process these upRequests on the next run.
@@ -99,6 +152,39 @@ public interface ElevatorInterface {
   void processRequests(List<Request> requests) throws IllegalArgumentException;
 
 
+  /**
+   * Is the elevator accepting pick ups on its way in the given direction.
+   * Pick ups are only accepted after the elevator has left the top or bottom floor.
+   *
+   * @param direction the direction of the requests to pick up.
+   * @return true if requests in that direction can be given to pickUpRequests.
+   */
+  boolean isAcceptingPickUps(Direction direction);
+
+  /**
+   * Get the number of requests that can still be given to the elevator on this run.
+   *
+   * @return the number of requests the elevator has room for.
+   */
+  int getSpareCapacity();
+
+  /**
+   * pickUpRequests.
+   * This will tell the elevator to stop for these requests on its current run.
+   * The requests must start on the current floor or a floor ahead of the elevator
+   * and go in the direction the elevator is travelling.
+   *
+   * @param requests the requests to pick up.
+   */
+  void pickUpRequests(List<Request> requests) throws IllegalStateException;
+
+  /**
+   * reverseDirection.
+   * This will turn the elevator around between the top and bottom floors.
+   * It is only allowed when the elevator has no stop requests ahead of it.
+   */
+  void reverseDirection() throws IllegalStateException;
+
   /**
    * isTakingRequests.
    * This will tell the building if the elevator is taking requests.
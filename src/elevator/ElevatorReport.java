@@ -26,7 +26,7 @@ public class ElevatorReport {
    * @param elevatorId       The id of the elevator.
    * @param currentFloor     The current floor of the elevator.
    * @param doorClosed       The status of the door.
-   * @param floorRequests    The requests for the floors.
+   * @param floorRequests    The requests for the floors, which are copied.
    * @param direction        The direction of the elevator.
    * @param doorOpenTimer    The timer for the door.
    * @param endWaitTimer     The timer for the end of the run.
@@ -43,6 +43,19 @@ public class ElevatorReport {
                         int endWaitTimer,
                         boolean outOfService,
                         boolean isTakingRequests) {
+    this(elevatorId, currentFloor, direction, doorClosed, doorOpenTimer, endWaitTimer,
+        outOfService, isTakingRequests, floorRequests.clone());
+  }
+
+  private ElevatorReport(int elevatorId,
+                         int currentFloor,
+                         Direction direction,
+                         boolean doorClosed,
+                         int doorOpenTimer,
+                         int endWaitTimer,
+                         boolean outOfService,
+                         boolean isTakingRequests,
+                         boolean[] floorRequests) {
     this.elevatorId = elevatorId;
     this.currentFloor = currentFloor;
     this.doorClosed = doorClosed;
@@ -54,8 +67,99 @@ public class ElevatorReport {
     this.isTakingRequests = isTakingRequests;
   }
 
+  /**
+   * This method is used by the elevators to create a report that keeps the floor
+   * requests it is given instead of copying them. Nothing may write to the array
+   * afterwards.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequests    The requests for the floors, owned by the report.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   * @return the report.
+   */
+  static ElevatorReport owning(int elevatorId,
+                               int currentFloor,
+                               Direction direction,
+                               boolean doorClosed,
+                               boolean[] floorRequests,
+                               int doorOpenTimer,
+                               int endWaitTimer,
+                               boolean outOfService,
+                               boolean isTakingRequests) {
+    return new ElevatorReport(elevatorId, currentFloor, direction, doorClosed, doorOpenTimer,
+        endWaitTimer, outOfService, isTakingRequests, floorRequests);
+  }
+
+  /**
+   * This method is used to create a report of the same elevator with the same floor
+   * requests, which the two reports share.
+   *
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   * @return the new report.
+   */
+  ElevatorReport withState(int currentFloor,
+                           Direction direction,
+                           boolean doorClosed,
+                           int doorOpenTimer,
+                           int endWaitTimer,
+                           boolean outOfService,
+                           boolean isTakingRequests) {
+    return new ElevatorReport(this.elevatorId, currentFloor, direction, doorClosed,
+        doorOpenTimer, endWaitTimer, outOfService, isTakingRequests, this.floorRequests);
+  }
+
+  /**
+   * This method is used to find out if the report still describes an elevator,
+   * apart from its id and floor requests, without creating a new report.
+   *
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   * @return true if every one of them is the same as in the report.
+   */
+  boolean matches(int currentFloor,
+                  Direction direction,
+                  boolean doorClosed,
+                  int doorOpenTimer,
+                  int endWaitTimer,
+                  boolean outOfService,
+                  boolean isTakingRequests) {
+    return this.currentFloor == currentFloor
+        && this.direction == direction
+        && this.doorClosed == doorClosed
+        && this.doorOpenTimer == doorOpenTimer
+        && this.endWaitTimer == endWaitTimer
+        && this.outOfService == outOfService
+        && this.isTakingRequests == isTakingRequests;
+  }
+
+  /**
+   * This method is used to find out if there is a request for a floor without
+   * copying the floor requests.
+   *
+   * @param floor the floor.
+   * @return true if there is a request for the floor.
+   */
+  boolean isFloorRequested(int floor) {
+    return this.floorRequests[floor];
+  }
 
-  // getters, no setters
 
   /**
    * This method is used to get the id of the elevator.
@@ -87,10 +191,10 @@ public class ElevatorReport {
   /**
    * This method is used to get the requests for the floors.
    *
-   * @return The requests for the floors.
+   * @return a copy of the requests for the floors.
    */
   public boolean[] getFloorRequests() {
-    return floorRequests;
+    return floorRequests.clone();
   }
 
   /**
@@ -152,7 +256,7 @@ public class ElevatorReport {
     result = 31 * result + this.endWaitTimer;
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
-    result = 31 * result + this.direction.hashCode();
+    result = 31 * result + this.direction.ordinal();
     for (boolean floorRequest : this.floorRequests) {
       result = 31 * result + (floorRequest ? 1 : 0);
     }
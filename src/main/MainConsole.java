@@ -23,8 +23,8 @@ public class MainConsole {
    */
   public static void main(String[] args) {
 
-    if (args.length != 0 && args.length != 3) {
-      System.out.println("Usage: java -jar ElevatorSample floors elevators, capacity");
+    if (args.length != 0 && args.length != 3 && args.length != 4) {
+      System.out.println("Usage: java -jar ElevatorSample floors elevators, capacity [seed]");
       System.exit(1);
     }
 
@@ -38,15 +38,22 @@ public class MainConsole {
     int numElevators = 8;
     int numPeople = 3;
 
-    if (args.length == 3) {
+    // the seed of the generated requests, printed so the session can be repeated.
+    long seed = System.nanoTime();
+
+    if (args.length >= 3) {
       numFloors = Integer.parseInt(args[0]);
       numElevators = Integer.parseInt(args[1]);
       numPeople = Integer.parseInt(args[2]);
     }
+    if (args.length == 4) {
+      seed = Long.parseLong(args[3]);
+    }
+    System.out.println("Seed: " + seed);
 
 
     Building building = new Building(numFloors, numElevators, numPeople);
-    BuildingDisplayInterface display = new ConsoleBuildingDisplay();
+    BuildingDisplayInterface display = new ConsoleBuildingDisplay(seed);
 
     BuildingController controller = new BuildingController(building, display);
 
@@ -0,0 +1,77 @@
+package main;
+
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Properties;
+import simulation.HeadlessSimulation;
+import simulation.SimulationConfig;
+import simulation.SimulationSummary;
+
+/**
+ * The headless driver for the elevator system.
+ * This class runs a simulation without the console display and prints the
+ * summary statistics when it is done.
+ * <p>
+ * The settings are given as key=value pairs, or as the name of a properties file
+ * followed by optional key=value pairs that override it. See SimulationConfig for
+ * the settings.
+ */
+public class MainHeadless {
+
+  /**
+   * The main method for the headless simulation.
+   *
+   * @param args a properties file and/or key=value settings
+   */
+  public static void main(String[] args) {
+    SimulationConfig config;
+    try {
+      config = readConfig(args);
+    } catch (IllegalArgumentException | IOException e) {
+      System.out.println(e.getMessage());
+      System.out.println("Usage: java -cp Elevator.jar main.MainHeadless "
+          + "[config.properties] [key=value ...]");
+      System.exit(1);
+      return;
+    }
+
+    SimulationSummary summary = new HeadlessSimulation(config).run();
+    System.out.print(summary);
+
+    if (config.getSummaryFile() != null) {
+      try (Writer writer = new FileWriter(config.getSummaryFile())) {
+        writer.write(summary.toString());
+      } catch (IOException e) {
+        System.out.println("Could not write the summary: " + e.getMessage());
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Read the settings from the command line.
+   *
+   * @param args the command line arguments.
+   * @return the settings.
+   * @throws IOException if the properties file cannot be read.
+   */
+  private static SimulationConfig readConfig(String[] args) throws IOException {
+    Properties properties = new Properties();
+    int first = 0;
+    if (args.length > 0 && !args[0].contains("=")) {
+      try (Reader reader = new FileReader(args[0])) {
+        properties.load(reader);
+      }
+      first = 1;
+    }
+    return SimulationConfig.fromArguments(properties,
+        Arrays.copyOfRange(args, first, args.length));
+  }
+
+
+}
@@ -0,0 +1,123 @@
+package management;
+
+import java.util.Map;
+
+/**
+ * The management interface of a building, as seen by JConsole and other JMX clients.
+ * <p>
+ * The attributes are read while the building is stepping on another thread, so they
+ * can be a step behind each other. The operations are handed to the stepping thread
+ * and take effect at the start of the next step.
+ */
+public interface BuildingMXBean {
+
+  /**
+   * Get the number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  int getNumberOfFloors();
+
+  /**
+   * Get the number of elevators in the building.
+   *
+   * @return the number of elevators.
+   */
+  int getNumberOfElevators();
+
+  /**
+   * Get the status of the elevator system.
+   *
+   * @return Running, Stopping or Out of Service.
+   */
+  String getSystemStatus();
+
+  /**
+   * Get the number of steps the building has taken.
+   *
+   * @return the number of steps.
+   */
+  long getCurrentStep();
+
+  /**
+   * Get the number of requests waiting to go up.
+   *
+   * @return the length of the up queue.
+   */
+  long getUpQueueLength();
+
+  /**
+   * Get the number of requests waiting to go down.
+   *
+   * @return the length of the down queue.
+   */
+  long getDownQueueLength();
+
+  /**
+   * Get the number of requests given to an elevator and not dropped off yet.
+   *
+   * @return the number of requests in flight.
+   */
+  long getRequestsInFlight();
+
+  /**
+   * Get the number of requests that have been dropped off.
+   *
+   * @return the number of requests served.
+   */
+  long getRequestsServed();
+
+  /**
+   * Get the number of requests served per second of wall clock time.
+   *
+   * @return the throughput since the building was built.
+   */
+  long getRequestsServedPerSecond();
+
+  /**
+   * Get the average wait time of the requests served.
+   *
+   * @return the average wait in steps.
+   */
+  double getAverageWaitTime();
+
+  /**
+   * Get the wait time that 99 percent of the requests served waited at most.
+   *
+   * @return the 99th percentile of the wait time in steps.
+   */
+  long getWaitTime99thPercentile();
+
+  /**
+   * Get the average ride time of the requests served.
+   *
+   * @return the average ride in steps.
+   */
+  double getAverageRideTime();
+
+  /**
+   * Get every metric of the building's metrics registry.
+   *
+   * @return the metrics by name.
+   */
+  Map<String, Long> getMetrics();
+
+  /**
+   * Start the elevator system at the next step.
+   */
+  void start();
+
+  /**
+   * Stop the elevator system at the next step.
+   */
+  void stop();
+
+  /**
+   * Add a request at the next step.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return Submitted, or the reason the request was rejected.
+   */
+  String injectRequest(int startFloor, int endFloor);
+}
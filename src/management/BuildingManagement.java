@@ -0,0 +1,262 @@
+package management;
+
+import building.Building;
+import building.BuildingStatistics;
+import building.RequestStatistics;
+import building.enums.RequestStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import scanerzus.Request;
+
+/**
+ * This class exposes a building and its elevators to JMX.
+ * <p>
+ * {@link #register(MBeanServer, String, Building)} registers the building as
+ * elevator:type=Building,name=&lt;name&gt; and every elevator as
+ * elevator:type=Elevator,building=&lt;name&gt;,index=&lt;index&gt;. Registering turns on
+ * the statistics the building publishes, and the attributes are read from the
+ * latest of them rather than from the state the stepping thread is changing. The
+ * operations only hand their work to the stepping thread, so a JMX client never
+ * slows the simulation down.
+ */
+public class BuildingManagement implements BuildingMXBean {
+
+  /************************************************************************
+   * The domain of the object names.
+   ************************************************************************/
+  public static final String DOMAIN = "elevator";
+
+  /************************************************************************
+   * The least time between two statistics published for the attributes,
+   * unless the building already publishes them.
+   ************************************************************************/
+  public static final long PUBLISH_INTERVAL_MILLIS = 100;
+
+  private final Building building;
+
+  private final MBeanServer server;
+
+  private final List<ObjectName> names = new ArrayList<>();
+
+  /**
+   * Construct the management bean of a building. It is not registered.
+   *
+   * @param building the building.
+   * @throws IllegalArgumentException if the building is null.
+   */
+  public BuildingManagement(Building building) {
+    this(building, null);
+  }
+
+  private BuildingManagement(Building building, MBeanServer server) {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null");
+    }
+    this.building = building;
+    this.server = server;
+  }
+
+  /**
+   * Register a building and its elevators with an MBean server. If the building
+   * does not publish its statistics it is set to every PUBLISH_INTERVAL_MILLIS, so
+   * like the building's other settings this is called from the stepping thread.
+   *
+   * @param server   the MBean server, such as the platform MBean server.
+   * @param name     the name of the building in the object names.
+   * @param building the building.
+   * @return the registered bean, to unregister the building with.
+   * @throws IllegalArgumentException if the name is not valid or already registered.
+   */
+  public static BuildingManagement register(MBeanServer server, String name,
+                                            Building building) {
+    BuildingManagement management = new BuildingManagement(building, server);
+    if (!building.isPublishingStatistics()) {
+      building.setStatisticsInterval(PUBLISH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    try {
+      management.registerBean(management, buildingName(name));
+      for (int i = 0; i < building.getNumberOfElevators(); i++) {
+        management.registerBean(new ElevatorManagement(building, i), elevatorName(name, i));
+      }
+    } catch (JMException e) {
+      management.unregister();
+      throw new IllegalArgumentException("Cannot register building " + name + ": "
+          + e.getMessage(), e);
+    }
+    return management;
+  }
+
+  /**
+   * Get the object name of a building.
+   *
+   * @param name the name of the building.
+   * @return the object name.
+   * @throws IllegalArgumentException if the name is not valid in an object name.
+   */
+  public static ObjectName buildingName(String name) {
+    return objectName(DOMAIN + ":type=Building,name=" + name);
+  }
+
+  /**
+   * Get the object name of one elevator of a building.
+   *
+   * @param name  the name of the building.
+   * @param index the index of the elevator.
+   * @return the object name.
+   * @throws IllegalArgumentException if the name is not valid in an object name.
+   */
+  public static ObjectName elevatorName(String name, int index) {
+    return objectName(DOMAIN + ":type=Elevator,building=" + name + ",index=" + index);
+  }
+
+  /**
+   * Unregister the building and its elevators. Beans that are already gone are skipped.
+   */
+  public void unregister() {
+    if (this.server == null) {
+      return;
+    }
+    for (ObjectName name : this.names) {
+      try {
+        this.server.unregisterMBean(name);
+      } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+        // someone else removed it, there is nothing left to do.
+      }
+    }
+    this.names.clear();
+  }
+
+  @Override
+  public int getNumberOfFloors() {
+    return this.building.getNumberOfFloors();
+  }
+
+  @Override
+  public int getNumberOfElevators() {
+    return this.building.getNumberOfElevators();
+  }
+
+  @Override
+  public String getSystemStatus() {
+    return this.published().getSystemStatus().toString();
+  }
+
+  @Override
+  public long getCurrentStep() {
+    return this.published().getStep();
+  }
+
+  @Override
+  public long getUpQueueLength() {
+    return this.metric("queue.up.depth");
+  }
+
+  @Override
+  public long getDownQueueLength() {
+    return this.metric("queue.down.depth");
+  }
+
+  @Override
+  public long getRequestsInFlight() {
+    return this.metric("requests.inFlight");
+  }
+
+  @Override
+  public long getRequestsServed() {
+    return this.metric("requests.served");
+  }
+
+  @Override
+  public long getRequestsServedPerSecond() {
+    return this.metric("requests.servedPerSecond");
+  }
+
+  @Override
+  public double getAverageWaitTime() {
+    return this.statistics().getAverageWaitTime();
+  }
+
+  @Override
+  public long getWaitTime99thPercentile() {
+    return this.published().getWaitTimeAtPercentile(99);
+  }
+
+  @Override
+  public double getAverageRideTime() {
+    return this.statistics().getAverageRideTime();
+  }
+
+  @Override
+  public Map<String, Long> getMetrics() {
+    return this.published().getMetrics();
+  }
+
+  @Override
+  public void start() {
+    this.building.submitStart();
+  }
+
+  @Override
+  public void stop() {
+    this.building.submitStop();
+  }
+
+  @Override
+  public String injectRequest(int startFloor, int endFloor) {
+    RequestStatus status;
+    try {
+      status = this.building.submitRequest(new Request(startFloor, endFloor));
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+    return status == RequestStatus.accepted ? "Submitted" : status.toString();
+  }
+
+  private RequestStatistics statistics() {
+    return this.published().getRequestStatistics();
+  }
+
+  private long metric(String name) {
+    return this.published().getMetrics().get(name);
+  }
+
+  private BuildingStatistics published() {
+    return published(this.building);
+  }
+
+  /**
+   * Get the latest statistics a building published.
+   *
+   * @param building the building.
+   * @return the statistics.
+   * @throws IllegalStateException if the building has stopped publishing them.
+   */
+  static BuildingStatistics published(Building building) {
+    BuildingStatistics statistics = building.getPublishedStatistics();
+    if (statistics == null) {
+      throw new IllegalStateException("The building does not publish its statistics");
+    }
+    return statistics;
+  }
+
+  private void registerBean(Object bean, ObjectName name) throws JMException {
+    this.server.registerMBean(bean, name);
+    this.names.add(name);
+  }
+
+  private static ObjectName objectName(String name) {
+    try {
+      return new ObjectName(name);
+    } catch (MalformedObjectNameException e) {
+      throw new IllegalArgumentException("Not a valid object name: " + name, e);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package management;
+
+/**
+ * The management interface of one elevator of a building.
+ * <p>
+ * The attributes are read while the building is stepping on another thread, so they
+ * can be a step behind each other.
+ */
+public interface ElevatorMXBean {
+
+  /**
+   * Get the id of the elevator.
+   *
+   * @return the id.
+   */
+  int getElevatorId();
+
+  /**
+   * Get the floor the elevator is on.
+   *
+   * @return the current floor.
+   */
+  int getCurrentFloor();
+
+  /**
+   * Get the direction the elevator is moving in.
+   *
+   * @return UP, DOWN or STOPPED.
+   */
+  String getDirection();
+
+  /**
+   * Is the door of the elevator closed.
+   *
+   * @return true if the door is closed.
+   */
+  boolean isDoorClosed();
+
+  /**
+   * Is the elevator out of service.
+   *
+   * @return true if the elevator is out of service.
+   */
+  boolean isOutOfService();
+
+  /**
+   * Is the elevator waiting at the top or bottom for requests.
+   *
+   * @return true if the elevator is taking requests.
+   */
+  boolean isTakingRequests();
+
+  /**
+   * Get the floors the elevator will stop at.
+   *
+   * @return the floors in ascending order.
+   */
+  int[] getStops();
+
+  /**
+   * Get the number of steps the elevator has taken.
+   *
+   * @return the number of steps.
+   */
+  long getSteps();
+
+  /**
+   * Get the number of floors the elevator has travelled.
+   *
+   * @return the number of floors.
+   */
+  long getFloorsTravelled();
+
+  /**
+   * Get the number of times the elevator has opened its door.
+   *
+   * @return the number of door openings.
+   */
+  long getDoorOpenings();
+
+  /**
+   * Get the number of steps the elevator had no stops to make.
+   *
+   * @return the number of idle steps.
+   */
+  long getIdleSteps();
+}
@@ -0,0 +1,115 @@
+package management;
+
+import building.Building;
+import building.enums.ElevatorCounter;
+import elevator.ElevatorReport;
+
+/**
+ * This class exposes one elevator of a building to JMX.
+ * <p>
+ * Each attribute reads the elevator from the latest statistics the building
+ * published, so two attributes read one after the other can come from different
+ * steps.
+ */
+public class ElevatorManagement implements ElevatorMXBean {
+
+  private final Building building;
+
+  private final int index;
+
+  /**
+   * Construct the management bean of one elevator. It is not registered.
+   *
+   * @param building the building.
+   * @param index    the index of the elevator in the building.
+   * @throws IllegalArgumentException if the building is null or the index is out of range.
+   */
+  public ElevatorManagement(Building building, int index) {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null");
+    }
+    if (index < 0 || index >= building.getNumberOfElevators()) {
+      throw new IllegalArgumentException("Elevator index must be between 0 and "
+          + (building.getNumberOfElevators() - 1));
+    }
+    this.building = building;
+    this.index = index;
+  }
+
+  @Override
+  public int getElevatorId() {
+    return this.status().getElevatorId();
+  }
+
+  @Override
+  public int getCurrentFloor() {
+    return this.status().getCurrentFloor();
+  }
+
+  @Override
+  public String getDirection() {
+    return this.status().getDirection().name();
+  }
+
+  @Override
+  public boolean isDoorClosed() {
+    return this.status().isDoorClosed();
+  }
+
+  @Override
+  public boolean isOutOfService() {
+    return this.status().isOutOfService();
+  }
+
+  @Override
+  public boolean isTakingRequests() {
+    return this.status().isTakingRequests();
+  }
+
+  @Override
+  public int[] getStops() {
+    boolean[] floorRequests = this.status().getFloorRequests();
+    int count = 0;
+    for (boolean stop : floorRequests) {
+      if (stop) {
+        count++;
+      }
+    }
+    int[] stops = new int[count];
+    count = 0;
+    for (int floor = 0; floor < floorRequests.length; floor++) {
+      if (floorRequests[floor]) {
+        stops[count++] = floor;
+      }
+    }
+    return stops;
+  }
+
+  @Override
+  public long getSteps() {
+    return this.counter(ElevatorCounter.steps);
+  }
+
+  @Override
+  public long getFloorsTravelled() {
+    return this.counter(ElevatorCounter.floorsTravelled);
+  }
+
+  @Override
+  public long getDoorOpenings() {
+    return this.counter(ElevatorCounter.doorOpenings);
+  }
+
+  @Override
+  public long getIdleSteps() {
+    return this.counter(ElevatorCounter.idleSteps);
+  }
+
+  private ElevatorReport status() {
+    return BuildingManagement.published(this.building).getElevatorReport(this.index);
+  }
+
+  private long counter(ElevatorCounter counter) {
+    return BuildingManagement.published(this.building).getElevatorCounter(this.index, counter);
+  }
+}
@@ -0,0 +1,91 @@
+package metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A registry of named counters and gauges.
+ * <p>
+ * A counter is a {@link LongAdder}, which spreads updates from different threads
+ * over separate cells so adding to it stays cheap when several threads do so at
+ * once. Code on a hot path should look its counters up once and keep them.
+ * <p>
+ * A gauge is read when the registry is read. It suits values that are already kept
+ * somewhere, such as the length of a queue, or values kept per elevator that are
+ * only added up when someone asks.
+ * <p>
+ * Counters and gauges can be registered and read from any thread.
+ */
+public class MetricsRegistry {
+
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  /**
+   * Get the counter with a name, creating it if there is none.
+   *
+   * @param name the name of the counter.
+   * @return the counter.
+   * @throws IllegalArgumentException if the name is used by a gauge.
+   */
+  public LongAdder counter(String name) {
+    if (this.gauges.containsKey(name)) {
+      throw new IllegalArgumentException(name + " is a gauge");
+    }
+    return this.counters.computeIfAbsent(name, key -> new LongAdder());
+  }
+
+  /**
+   * Register a gauge, replacing any gauge with the same name.
+   *
+   * @param name  the name of the gauge.
+   * @param gauge the function that reads the value.
+   * @throws IllegalArgumentException if the name is used by a counter.
+   */
+  public void gauge(String name, LongSupplier gauge) {
+    if (this.counters.containsKey(name)) {
+      throw new IllegalArgumentException(name + " is a counter");
+    }
+    this.gauges.put(name, gauge);
+  }
+
+  /**
+   * Read one counter or gauge.
+   *
+   * @param name the name of the counter or gauge.
+   * @return the value.
+   * @throws IllegalArgumentException if there is no counter or gauge with the name.
+   */
+  public long get(String name) {
+    LongAdder counter = this.counters.get(name);
+    if (counter != null) {
+      return counter.sum();
+    }
+    LongSupplier gauge = this.gauges.get(name);
+    if (gauge == null) {
+      throw new IllegalArgumentException("Unknown metric: " + name);
+    }
+    return gauge.getAsLong();
+  }
+
+  /**
+   * Read every counter and gauge.
+   *
+   * @return the values by name, in name order.
+   */
+  public SortedMap<String, Long> snapshot() {
+    SortedMap<String, Long> values = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> counter : this.counters.entrySet()) {
+      values.put(counter.getKey(), counter.getValue().sum());
+    }
+    for (Map.Entry<String, LongSupplier> gauge : this.gauges.entrySet()) {
+      values.put(gauge.getKey(), gauge.getValue().getAsLong());
+    }
+    return values;
+  }
+}
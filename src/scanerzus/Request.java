@@ -6,8 +6,15 @@ package scanerzus;
  * All requests have a startFloor and endFloor
  */
 public class Request implements RequestInterface {
+  /**
+   * The deadline of a request that does not have one.
+   */
+  public static final long NO_DEADLINE = Long.MAX_VALUE;
+
   private final int startFloor;
   private final int endFloor;
+  private final RequestPriority priority;
+  private final long deadline;
 
   /**
    * The constructor for the request.
@@ -23,8 +30,39 @@ public class Request implements RequestInterface {
    * @param endFloor   the end floor.
    */
   public Request(int startFloor, int endFloor) {
+    this(startFloor, endFloor, RequestPriority.standard, NO_DEADLINE);
+  }
+
+  /**
+   * The constructor for a request with a priority class and no deadline.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @param priority   the priority class of the request.
+   */
+  public Request(int startFloor, int endFloor, RequestPriority priority) {
+    this(startFloor, endFloor, priority, NO_DEADLINE);
+  }
+
+  /**
+   * The constructor for a request with a priority class and a deadline.
+   * The deadline is the time by which the request should be picked up, on
+   * whatever clock the caller uses, such as the number of steps taken.
+   * Requests are only ever compared by deadline, so the clock is not checked.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @param priority   the priority class of the request.
+   * @param deadline   the deadline, or NO_DEADLINE.
+   */
+  public Request(int startFloor, int endFloor, RequestPriority priority, long deadline) {
+    if (priority == null) {
+      throw new IllegalArgumentException("Priority cannot be null");
+    }
     this.startFloor = startFloor;
     this.endFloor = endFloor;
+    this.priority = priority;
+    this.deadline = deadline;
   }
 
   /**
@@ -45,6 +83,24 @@ public class Request implements RequestInterface {
     return endFloor;
   }
 
+  /**
+   * Gets the priority class of the request.
+   *
+   * @return the priority class of the request.
+   */
+  public RequestPriority getPriority() {
+    return priority;
+  }
+
+  /**
+   * Gets the deadline of the request.
+   *
+   * @return the deadline, or NO_DEADLINE if the request does not have one.
+   */
+  public long getDeadline() {
+    return deadline;
+  }
+
   /**
    * Returns a string representation of the request.
    * This is a string of the form:
@@ -0,0 +1,22 @@
+package scanerzus;
+
+/**
+ * This enum is used to represent the priority class of a request.
+ * The classes are listed from the most urgent to the least urgent.
+ */
+public enum RequestPriority {
+  accessibility("Accessibility"),
+  vip("VIP"),
+  freight("Freight"),
+  standard("Standard");
+  final String display;
+
+  RequestPriority(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
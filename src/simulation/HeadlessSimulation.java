@@ -0,0 +1,233 @@
+package simulation;
+
+import building.Building;
+import building.LatencyHistogram;
+import building.RequestStatistics;
+import building.TickProfiler;
+import building.enums.RequestStatus;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import management.BuildingManagement;
+import scanerzus.Request;
+import trace.TraceWriter;
+import traffic.TrafficGenerator;
+import traffic.TrafficSchedule;
+
+/**
+ * This class runs a building without a display.
+ * <p>
+ * Every step a number of random requests are added to the building, averaging
+ * requestsPerStep, and the building is stepped. With steady traffic the requests
+ * arrive at exactly that rate; otherwise a TrafficGenerator draws Poisson arrivals
+ * from the traffic profile or schedule. Nothing is rendered and there is no
+ * pause between steps so the run is only limited by the speed of the CPU.
+ * <p>
+ * With the event engine the steps between arrivals are handed to
+ * Building.advanceElevatorSystem, which skips over the quiet steps. The results are
+ * the same as with the tick engine, only faster when traffic is sparse.
+ * <p>
+ * A run depends only on its settings: every random number comes from the seed and
+ * the elevators are numbered by the building, so two runs with the same settings
+ * give the same results, in the same JVM or not, and the same fingerprint.
+ * <p>
+ * With the profile setting the time spent in each phase of the steps is measured
+ * and added to the summary.
+ * <p>
+ * With the jmx setting the building is registered with the platform MBean server
+ * for the length of the run. The arrivals are offered to the building without
+ * throwing, so a run stopped through JMX carries on to its last step and counts
+ * the arrivals the stopped building turns away as rejected.
+ * <p>
+ * With the trace setting the requests and the state of the elevators are recorded
+ * to a file with a TraceWriter. The event engine does not report the steps it skips,
+ * so a traced run always uses the tick engine and every step has a tick record.
+ */
+public class HeadlessSimulation {
+  private final SimulationConfig config;
+
+  /**
+   * Construct a simulation.
+   *
+   * @param config the settings for the run.
+   */
+  public HeadlessSimulation(SimulationConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Build the building, run it for the configured number of steps and
+   * collect the statistics.
+   *
+   * @return the statistics of the run.
+   */
+  public SimulationSummary run() {
+    Building building = this.config.createBuilding();
+    building.startElevatorSystem();
+
+    String traceFile = this.config.getTraceFile();
+    if (traceFile == null) {
+      return this.register(building);
+    }
+    try (TraceWriter trace = new TraceWriter(building, Paths.get(traceFile))) {
+      building.addTickListener(trace);
+      SimulationSummary summary = this.register(building);
+      building.removeTickListener(trace);
+      return summary;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write the trace " + traceFile, e);
+    }
+  }
+
+  /**
+   * Run a started building, registered with the platform MBean server if the
+   * settings ask for it.
+   *
+   * @param building the building.
+   * @return the statistics of the run.
+   */
+  private SimulationSummary register(Building building) {
+    String jmxName = this.config.getJmxName();
+    if (jmxName == null) {
+      return this.run(building);
+    }
+    BuildingManagement management = BuildingManagement.register(
+        ManagementFactory.getPlatformMBeanServer(), jmxName, building);
+    try {
+      return this.run(building);
+    } finally {
+      management.unregister();
+    }
+  }
+
+  /**
+   * Run a started building for the configured number of steps.
+   *
+   * @param building the building.
+   * @return the statistics of the run.
+   */
+  private SimulationSummary run(Building building) {
+    TickProfiler profile = null;
+    if (this.config.isProfiled()) {
+      profile = new TickProfiler();
+      building.addTickListener(profile);
+    }
+
+    int floors = this.config.getFloors();
+    long steps = this.config.getSteps();
+    double requestsPerStep = this.config.getRequestsPerStep();
+    Random random = new Random(this.config.getSeed());
+    TrafficSchedule schedule = this.config.createTrafficSchedule();
+    TrafficGenerator traffic = schedule == null ? null
+        : new TrafficGenerator(floors, schedule, this.config.getSeed());
+    List<Request> arrivals = new ArrayList<>();
+
+    long requestsSubmitted = 0;
+    long requestsRejected = 0;
+    long peakRequestsWaiting = 0;
+    double requestCredit = 0;
+
+    boolean eventEngine = this.config.isEventEngine();
+
+    long start = System.nanoTime();
+    long step = 0;
+    while (step < steps) {
+      if (traffic != null) {
+        traffic.generate(arrivals);
+        for (Request request : arrivals) {
+          if (building.offerRequest(request) != RequestStatus.accepted) {
+            requestsRejected++;
+          }
+        }
+        requestsSubmitted += arrivals.size();
+        arrivals.clear();
+      } else {
+        // requests arrive at the average rate, the fractions carry over to the next step.
+        requestCredit += requestsPerStep;
+        while (requestCredit >= 1) {
+          requestCredit -= 1;
+          int startFloor = random.nextInt(floors);
+          int endFloor = (startFloor + 1 + random.nextInt(floors - 1)) % floors;
+          if (building.offerRequest(new Request(startFloor, endFloor))
+              != RequestStatus.accepted) {
+            requestsRejected++;
+          }
+          requestsSubmitted++;
+        }
+      }
+
+      building.stepElevatorSystem();
+      step++;
+
+      // the queues only grow when requests arrive, so the peak is always
+      // seen straight after a step with arrivals.
+      int waiting = building.getWaitingRequestCount();
+      if (waiting > peakRequestsWaiting) {
+        peakRequestsWaiting = waiting;
+      }
+
+      if (eventEngine) {
+        long quietSteps = 0;
+        if (traffic != null) {
+          quietSteps = Math.min(steps - step, traffic.quietSteps());
+          traffic.skip(quietSteps);
+        }
+        while (traffic == null && step + quietSteps < steps
+            && requestCredit + requestsPerStep < 1) {
+          requestCredit += requestsPerStep;
+          quietSteps++;
+        }
+        building.advanceElevatorSystem(quietSteps);
+        step += quietSteps;
+      }
+    }
+    long elapsedNanos = System.nanoTime() - start;
+
+    RequestStatistics statistics = building.getRequestStatistics();
+    LatencyHistogram waitTimes = building.getWaitTimeHistogram();
+    LatencyHistogram rideTimes = building.getRideTimeHistogram();
+    long fingerprint = fingerprint(new long[] {requestsSubmitted,
+        building.getWaitingRequestCount(), peakRequestsWaiting, building.getCurrentStep(),
+        statistics.getCompletedRequests(), statistics.getAbandonedRequests(),
+        statistics.getRequestsInFlight(), waitTimes.hashCode(), rideTimes.hashCode(),
+        Arrays.hashCode(building.getStatusElevatorSystem().getElevatorReports())});
+
+    return new SimulationSummary(this.config.toString(),
+        steps,
+        elapsedNanos,
+        requestsSubmitted,
+        requestsRejected,
+        building.getWaitingRequestCount(),
+        peakRequestsWaiting,
+        statistics,
+        waitTimes,
+        rideTimes,
+        profile,
+        fingerprint);
+  }
+
+  /**
+   * Combine the results of a run into one number. Two runs with the same settings
+   * and seed have the same fingerprint, so it shows at a glance that a change did
+   * not change what the simulation does.
+   *
+   * @param values the results.
+   * @return the fingerprint.
+   */
+  private static long fingerprint(long[] values) {
+    // FNV-1a over the bytes of the values.
+    long hash = 0xcbf29ce484222325L;
+    for (long value : values) {
+      for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+        hash ^= (value >>> shift) & 0xff;
+        hash *= 0x100000001b3L;
+      }
+    }
+    return hash;
+  }
+}
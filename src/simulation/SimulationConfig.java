@@ -0,0 +1,406 @@
+package simulation;
+
+import building.Building;
+import building.dispatch.CollectiveControlDispatchStrategy;
+import building.dispatch.DestinationGroupingDispatchStrategy;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.EndFloorDispatchStrategy;
+import building.dispatch.LookDispatchStrategy;
+import building.dispatch.NearestCarDispatchStrategy;
+import building.queue.FloorBucketRequestQueue;
+import building.queue.PersistentRequestQueue;
+import building.queue.PriorityRequestQueue;
+import building.queue.RequestQueueFactory;
+import building.queue.RingBufferRequestQueue;
+import elevator.Elevator;
+import elevator.ElevatorFleet;
+import java.util.Properties;
+import traffic.TrafficProfile;
+import traffic.TrafficSchedule;
+
+/**
+ * This class holds the settings for a headless simulation run.
+ * <p>
+ * The settings are read from java properties, so they can come from a file or from
+ * key=value pairs on the command line. Every setting has a default:
+ * <ul>
+ *   <li>floors=11</li>
+ *   <li>elevators=8</li>
+ *   <li>capacity=3</li>
+ *   <li>floorLimit=30 (the most floors an elevator may serve)</li>
+ *   <li>occupancyLimit=20 (the most people an elevator may hold)</li>
+ *   <li>steps=1000000</li>
+ *   <li>requestsPerStep=0.5 (the average number of new requests every step)</li>
+ *   <li>seed=0</li>
+ *   <li>traffic=steady (steady adds requests at exactly requestsPerStep between random
+ *   floors; uniform, upPeak, downPeak, lunch and interfloor add Poisson arrivals of
+ *   that profile; officeDay follows TrafficSchedule.officeDay with requestsPerStep at
+ *   the peaks)</li>
+ *   <li>dayLength=100000 (the steps in a day of the officeDay traffic)</li>
+ *   <li>dispatch=endFloor (endFloor, collective, nearestCar, look or destination)</li>
+ *   <li>queue=persistent (persistent, ringBuffer, floorBuckets or priority)</li>
+ *   <li>engine=event (event skips quiet steps, tick steps every step; tick when
+ *   the run is traced)</li>
+ *   <li>cars=objects (objects for one object per elevator, fleet for a struct of arrays)</li>
+ *   <li>summaryFile= (a file to write the summary to as well as the console)</li>
+ *   <li>profile=false (true to time the phases of every step, see TickProfiler)</li>
+ *   <li>jmx= (a name to register the building under with the platform MBean server
+ *   for the run, so it can be watched and driven from JConsole)</li>
+ *   <li>trace= (a file to record the requests and the state of the elevators to, see
+ *   TraceWriter; every step is recorded, so it cannot be used with engine=event)</li>
+ * </ul>
+ */
+public class SimulationConfig {
+  private final int floors;
+  private final int elevators;
+  private final int capacity;
+  private final int floorLimit;
+  private final int occupancyLimit;
+  private final long steps;
+  private final double requestsPerStep;
+  private final long seed;
+  private final String traffic;
+  private final long dayLength;
+  private final String dispatch;
+  private final String queue;
+  private final String engine;
+  private final String cars;
+  private final String summaryFile;
+  private final String jmxName;
+  private final boolean profiled;
+  private final String traceFile;
+
+  /**
+   * Construct the settings from properties, using the defaults for missing settings.
+   *
+   * @param properties the settings.
+   * @throws IllegalArgumentException if a setting is not valid.
+   */
+  public SimulationConfig(Properties properties) {
+    this.floors = intSetting(properties, "floors", 11);
+    this.elevators = intSetting(properties, "elevators", 8);
+    this.capacity = intSetting(properties, "capacity", 3);
+    this.floorLimit = intSetting(properties, "floorLimit", Elevator.DEFAULT_FLOOR_LIMIT);
+    this.occupancyLimit = intSetting(properties, "occupancyLimit",
+        Elevator.DEFAULT_OCCUPANCY_LIMIT);
+    this.steps = longSetting(properties, "steps", 1_000_000L);
+    this.requestsPerStep = doubleSetting(properties, "requestsPerStep", 0.5);
+    this.seed = longSetting(properties, "seed", 0L);
+    this.traffic = properties.getProperty("traffic", "steady").trim();
+    this.dayLength = longSetting(properties, "dayLength", 100_000L);
+    this.dispatch = properties.getProperty("dispatch", "endFloor").trim();
+    this.queue = properties.getProperty("queue", "persistent").trim();
+    this.cars = properties.getProperty("cars", "objects").trim();
+    String file = properties.getProperty("summaryFile", "").trim();
+    this.summaryFile = file.isEmpty() ? null : file;
+    String jmx = properties.getProperty("jmx", "").trim();
+    this.jmxName = jmx.isEmpty() ? null : jmx;
+    this.profiled = booleanSetting(properties, "profile", false);
+    String trace = properties.getProperty("trace", "").trim();
+    this.traceFile = trace.isEmpty() ? null : trace;
+    // the event engine does not report the steps it skips to the trace.
+    this.engine = properties.getProperty("engine", this.traceFile == null ? "event" : "tick")
+        .trim();
+
+    if (this.steps < 0) {
+      throw new IllegalArgumentException("steps must be greater than or equal to 0");
+    }
+    if (this.requestsPerStep < 0) {
+      throw new IllegalArgumentException("requestsPerStep must be greater than or equal to 0");
+    }
+    if (!this.engine.equals("event") && !this.engine.equals("tick")) {
+      throw new IllegalArgumentException("Unknown engine: " + this.engine);
+    }
+    if (this.traceFile != null && this.engine.equals("event")) {
+      throw new IllegalArgumentException("A trace records every step, which the event "
+          + "engine skips: use engine=tick with trace");
+    }
+    if (!this.cars.equals("objects") && !this.cars.equals("fleet")) {
+      throw new IllegalArgumentException("Unknown cars: " + this.cars);
+    }
+    // check the names now rather than after the building is built.
+    this.createDispatchStrategy();
+    this.createRequestQueueFactory();
+    this.createTrafficSchedule();
+  }
+
+  /**
+   * Read the settings from key=value pairs such as the command line arguments.
+   *
+   * @param base  the settings that the pairs are added to or override.
+   * @param pairs the key=value pairs.
+   * @return the settings.
+   * @throws IllegalArgumentException if a pair has no = or a setting is not valid.
+   */
+  public static SimulationConfig fromArguments(Properties base, String... pairs) {
+    Properties properties = new Properties();
+    properties.putAll(base);
+    for (String pair : pairs) {
+      int equals = pair.indexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException("Settings must look like key=value: " + pair);
+      }
+      properties.setProperty(pair.substring(0, equals).trim(), pair.substring(equals + 1));
+    }
+    return new SimulationConfig(properties);
+  }
+
+  /**
+   * Build the building described by the settings.
+   *
+   * @return a new building that is not started yet.
+   */
+  public Building createBuilding() {
+    Building building;
+    if (this.cars.equals("fleet")) {
+      building = new Building(new ElevatorFleet(this.elevators, this.floors, this.capacity,
+          this.floorLimit, this.occupancyLimit), this.createRequestQueueFactory());
+    } else {
+      building = new Building(this.floors, this.elevators, this.capacity,
+          this.createRequestQueueFactory(), this.floorLimit, this.occupancyLimit);
+    }
+    building.setDispatchStrategy(this.createDispatchStrategy());
+    return building;
+  }
+
+  /**
+   * Create the dispatch strategy named by the dispatch setting.
+   *
+   * @return a new dispatch strategy.
+   */
+  public DispatchStrategy createDispatchStrategy() {
+    switch (this.dispatch) {
+      case "endFloor":
+        return new EndFloorDispatchStrategy();
+      case "collective":
+        return new CollectiveControlDispatchStrategy();
+      case "nearestCar":
+        return new NearestCarDispatchStrategy();
+      case "look":
+        return new LookDispatchStrategy();
+      case "destination":
+        return new DestinationGroupingDispatchStrategy();
+      default:
+        throw new IllegalArgumentException("Unknown dispatch strategy: " + this.dispatch);
+    }
+  }
+
+  /**
+   * Create the traffic schedule named by the traffic setting.
+   *
+   * @return the schedule, or null for steady traffic.
+   */
+  public TrafficSchedule createTrafficSchedule() {
+    if (this.traffic.equals("steady")) {
+      return null;
+    }
+    if (this.traffic.equals("officeDay")) {
+      return TrafficSchedule.officeDay(this.dayLength, this.requestsPerStep);
+    }
+    try {
+      return TrafficSchedule.constant(TrafficProfile.valueOf(this.traffic),
+          this.requestsPerStep);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown traffic: " + this.traffic);
+    }
+  }
+
+  /**
+   * Create the request queue factory named by the queue setting.
+   *
+   * @return the request queue factory.
+   */
+  public RequestQueueFactory createRequestQueueFactory() {
+    switch (this.queue) {
+      case "ringBuffer":
+        return (numberOfFloors, direction) -> new RingBufferRequestQueue();
+      case "floorBuckets":
+        return FloorBucketRequestQueue::new;
+      case "persistent":
+        return (numberOfFloors, direction) -> new PersistentRequestQueue();
+      case "priority":
+        return (numberOfFloors, direction) -> new PriorityRequestQueue();
+      default:
+        throw new IllegalArgumentException("Unknown request queue: " + this.queue);
+    }
+  }
+
+  /**
+   * Get the number of floors.
+   *
+   * @return the number of floors.
+   */
+  public int getFloors() {
+    return this.floors;
+  }
+
+  /**
+   * Get the number of elevators.
+   *
+   * @return the number of elevators.
+   */
+  public int getElevators() {
+    return this.elevators;
+  }
+
+  /**
+   * Get the capacity of the elevators.
+   *
+   * @return the capacity of the elevators.
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Get the largest number of floors an elevator may serve.
+   *
+   * @return the floor limit.
+   */
+  public int getFloorLimit() {
+    return this.floorLimit;
+  }
+
+  /**
+   * Get the largest capacity an elevator may have.
+   *
+   * @return the occupancy limit.
+   */
+  public int getOccupancyLimit() {
+    return this.occupancyLimit;
+  }
+
+  /**
+   * Get the number of steps to run.
+   *
+   * @return the number of steps to run.
+   */
+  public long getSteps() {
+    return this.steps;
+  }
+
+  /**
+   * Get the average number of new requests every step.
+   *
+   * @return the average number of new requests every step.
+   */
+  public double getRequestsPerStep() {
+    return this.requestsPerStep;
+  }
+
+  /**
+   * Get the seed for the random requests.
+   *
+   * @return the seed.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Is the event engine used.
+   *
+   * @return true if quiet steps are skipped, false if every step is stepped.
+   */
+  public boolean isEventEngine() {
+    return this.engine.equals("event");
+  }
+
+  /**
+   * Get the file the summary is written to.
+   *
+   * @return the file name or null if the summary only goes to the console.
+   */
+  public String getSummaryFile() {
+    return this.summaryFile;
+  }
+
+  /**
+   * Is the time spent in each phase of the steps measured.
+   *
+   * @return true if the run is profiled.
+   */
+  public boolean isProfiled() {
+    return this.profiled;
+  }
+
+  /**
+   * Get the name the building is registered under with the platform MBean server.
+   *
+   * @return the name or null if the building is not registered.
+   */
+  public String getJmxName() {
+    return this.jmxName;
+  }
+
+  /**
+   * Get the file the run is traced to.
+   *
+   * @return the file name or null if the run is not traced.
+   */
+  public String getTraceFile() {
+    return this.traceFile;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("floors=%d elevators=%d capacity=%d floorLimit=%d occupancyLimit=%d "
+            + "steps=%d requestsPerStep=%s seed=%d traffic=%s dispatch=%s queue=%s engine=%s "
+            + "cars=%s",
+        this.floors, this.elevators, this.capacity, this.floorLimit, this.occupancyLimit,
+        this.steps, this.requestsPerStep,
+        this.seed, this.traffic, this.dispatch, this.queue, this.engine, this.cars);
+  }
+
+  private static int intSetting(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(key + " must be a whole number: " + value);
+    }
+  }
+
+  private static long longSetting(Properties properties, String key, long defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(key + " must be a whole number: " + value);
+    }
+  }
+
+  private static double doubleSetting(Properties properties, String key, double defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(key + " must be a number: " + value);
+    }
+  }
+
+  private static boolean booleanSetting(Properties properties, String key,
+                                        boolean defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    switch (value.trim()) {
+      case "true":
+        return true;
+      case "false":
+        return false;
+      default:
+        throw new IllegalArgumentException(key + " must be true or false: " + value);
+    }
+  }
+}
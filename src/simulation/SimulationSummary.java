@@ -0,0 +1,222 @@
+package simulation;
+
+import building.LatencyHistogram;
+import building.RequestStatistics;
+import building.TickProfiler;
+
+/**
+ * This class holds the statistics of a finished headless simulation run.
+ */
+public class SimulationSummary {
+  private final String config;
+  private final long steps;
+  private final long elapsedNanos;
+  private final long requestsSubmitted;
+  private final long requestsRejected;
+  private final long requestsWaiting;
+  private final long peakRequestsWaiting;
+  private final RequestStatistics requestStatistics;
+  private final LatencyHistogram waitTimes;
+  private final LatencyHistogram rideTimes;
+  private final TickProfiler profile;
+  private final long fingerprint;
+
+  /**
+   * This constructor is used to create a new SimulationSummary object.
+   *
+   * @param config              the settings of the run.
+   * @param steps               the number of steps that were run.
+   * @param elapsedNanos        the wall clock time of the run in nanoseconds.
+   * @param requestsSubmitted   the number of requests offered to the building.
+   * @param requestsRejected    the number of requests the building did not accept.
+   * @param requestsWaiting     the number of requests still waiting at the end.
+   * @param peakRequestsWaiting the largest number of requests waiting after a step.
+   * @param requestStatistics   the wait and ride times of the requests.
+   * @param waitTimes           the histogram of the wait times.
+   * @param rideTimes           the histogram of the ride times.
+   * @param profile             the time spent in each phase of the steps, or null if
+   *                            the run was not profiled.
+   * @param fingerprint         a hash of the results that is the same for every run
+   *                            with the same settings.
+   */
+  public SimulationSummary(String config,
+                           long steps,
+                           long elapsedNanos,
+                           long requestsSubmitted,
+                           long requestsRejected,
+                           long requestsWaiting,
+                           long peakRequestsWaiting,
+                           RequestStatistics requestStatistics,
+                           LatencyHistogram waitTimes,
+                           LatencyHistogram rideTimes,
+                           TickProfiler profile,
+                           long fingerprint) {
+    this.config = config;
+    this.steps = steps;
+    this.elapsedNanos = elapsedNanos;
+    this.requestsSubmitted = requestsSubmitted;
+    this.requestsRejected = requestsRejected;
+    this.requestsWaiting = requestsWaiting;
+    this.peakRequestsWaiting = peakRequestsWaiting;
+    this.requestStatistics = requestStatistics;
+    this.waitTimes = waitTimes;
+    this.rideTimes = rideTimes;
+    this.profile = profile;
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Get the number of steps that were run.
+   *
+   * @return the number of steps.
+   */
+  public long getSteps() {
+    return this.steps;
+  }
+
+  /**
+   * Get the wall clock time of the run.
+   *
+   * @return the time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Get the number of requests offered to the building.
+   *
+   * @return the number of requests.
+   */
+  public long getRequestsSubmitted() {
+    return this.requestsSubmitted;
+  }
+
+  /**
+   * Get the number of requests the building did not accept, for example because
+   * the elevator system was stopped during the run.
+   *
+   * @return the number of requests.
+   */
+  public long getRequestsRejected() {
+    return this.requestsRejected;
+  }
+
+  /**
+   * Get the number of requests that were given to an elevator.
+   *
+   * @return the number of requests.
+   */
+  public long getRequestsDispatched() {
+    return this.requestsSubmitted - this.requestsRejected - this.requestsWaiting;
+  }
+
+  /**
+   * Get the number of requests still waiting for an elevator at the end of the run.
+   *
+   * @return the number of requests.
+   */
+  public long getRequestsWaiting() {
+    return this.requestsWaiting;
+  }
+
+  /**
+   * Get the largest number of requests waiting for an elevator after any step.
+   *
+   * @return the number of requests.
+   */
+  public long getPeakRequestsWaiting() {
+    return this.peakRequestsWaiting;
+  }
+
+  /**
+   * Get the wait and ride times of the requests.
+   *
+   * @return the statistics of the requests.
+   */
+  public RequestStatistics getRequestStatistics() {
+    return this.requestStatistics;
+  }
+
+  /**
+   * Get the histogram of the wait times of the requests.
+   * The histograms of several runs can be merged.
+   *
+   * @return the wait times in steps.
+   */
+  public LatencyHistogram getWaitTimes() {
+    return this.waitTimes;
+  }
+
+  /**
+   * Get the histogram of the ride times of the requests.
+   *
+   * @return the ride times in steps.
+   */
+  public LatencyHistogram getRideTimes() {
+    return this.rideTimes;
+  }
+
+  /**
+   * Get the fingerprint of the results. Runs with the same settings, including the
+   * seed, have the same fingerprint.
+   *
+   * @return the fingerprint.
+   */
+  public long getFingerprint() {
+    return this.fingerprint;
+  }
+
+  /**
+   * Get the time spent in each phase of the steps.
+   *
+   * @return the profile, or null if the run was not profiled.
+   */
+  public TickProfiler getProfile() {
+    return this.profile;
+  }
+
+  /**
+   * Get the number of steps run per second of wall clock time.
+   *
+   * @return the steps per second.
+   */
+  public double getStepsPerSecond() {
+    if (this.elapsedNanos == 0) {
+      return 0;
+    }
+    return this.steps * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * toString method for the SimulationSummary.
+   *
+   * @return the summary, one statistic per line.
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Simulation: ").append(this.config).append("\n");
+    sb.append(String.format("Steps:                 %d%n", this.steps));
+    sb.append(String.format("Elapsed:               %.3f s%n", this.elapsedNanos / 1e9));
+    sb.append(String.format("Steps per second:      %.0f%n", this.getStepsPerSecond()));
+    sb.append(String.format("Requests submitted:    %d%n", this.requestsSubmitted));
+    sb.append(String.format("Requests rejected:     %d%n", this.requestsRejected));
+    sb.append(String.format("Requests dispatched:   %d%n", this.getRequestsDispatched()));
+    sb.append(String.format("Requests waiting:      %d%n", this.requestsWaiting));
+    sb.append(String.format("Peak requests waiting: %d%n", this.peakRequestsWaiting));
+    sb.append(String.format("Requests completed:    %d%n",
+        this.requestStatistics.getCompletedRequests()));
+    sb.append(String.format("Average wait:          %.2f steps (max %d)%n",
+        this.requestStatistics.getAverageWaitTime(), this.requestStatistics.getMaxWaitTime()));
+    sb.append(String.format("Average ride:          %.2f steps (max %d)%n",
+        this.requestStatistics.getAverageRideTime(), this.requestStatistics.getMaxRideTime()));
+    sb.append(String.format("Wait times:            %s%n", this.waitTimes));
+    sb.append(String.format("Ride times:            %s%n", this.rideTimes));
+    sb.append(String.format("Fingerprint:           %016x%n", this.fingerprint));
+    if (this.profile != null) {
+      sb.append(String.format("Step profile:          %s%n", this.profile));
+    }
+    return sb.toString();
+  }
+}
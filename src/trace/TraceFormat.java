@@ -0,0 +1,64 @@
+package trace;
+
+/**
+ * The constants of the binary trace format shared by the writer and the reader.
+ * <p>
+ * A trace starts with a header: the magic number, the version, the number of
+ * floors and the number of elevators. Then come the records, each a tag byte
+ * followed by the number of steps since the step of the record before it:
+ * <ul>
+ *   <li>a request: its start floor, end floor, priority and deadline. The deadline
+ *   is 0 if there is none, and otherwise the zigzag encoded steps from the step of
+ *   the record to the deadline, plus 1</li>
+ *   <li>a tick: for every elevator its ElevatorDigest exclusive or its digest in the
+ *   tick before, so an elevator that did not change takes one byte</li>
+ * </ul>
+ * Every number after the tag is an unsigned LEB128 varint: 7 bits a byte, low bits
+ * first, with the top bit set on every byte but the last.
+ */
+final class TraceFormat {
+
+  /************************************************************************
+   * "ELTR" in ASCII.
+   ************************************************************************/
+  static final int MAGIC = 0x454C5452;
+
+  static final byte VERSION = 1;
+
+  static final byte REQUEST = 1;
+
+  static final byte TICK = 2;
+
+  /************************************************************************
+   * The most bytes a varint of a long takes.
+   ************************************************************************/
+  static final int MAX_VARINT_BYTES = 10;
+
+  /************************************************************************
+   * The size of the buffer between the trace and its file.
+   ************************************************************************/
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private TraceFormat() {
+  }
+
+  /**
+   * Map a signed number to an unsigned one with a small magnitude kept small.
+   *
+   * @param value the signed number.
+   * @return 0, -1, 1, -2, 2 ... become 0, 1, 2, 3, 4 ...
+   */
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Undo zigzag.
+   *
+   * @param value the unsigned number.
+   * @return the signed number.
+   */
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
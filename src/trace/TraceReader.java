@@ -0,0 +1,193 @@
+package trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class streams the records of a trace written by TraceWriter.
+ * <p>
+ * The file is read through a buffer in large blocks and each call to next decodes
+ * one record in place. Reading a tick record creates no objects: the digests of
+ * the elevators are kept in an array that each tick updates. Only getRequest
+ * creates a request.
+ */
+public class TraceReader implements AutoCloseable {
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final int floors;
+  private final long[] digests;
+
+  private TraceRecordType recordType = null;
+  private long step = 0;
+  private int startFloor;
+  private int endFloor;
+  private RequestPriority priority;
+  private long deadline;
+
+  /**
+   * Open a trace and read its header.
+   *
+   * @param path the trace file.
+   * @throws IOException if the file cannot be read or is not a trace.
+   */
+  public TraceReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.buffer = ByteBuffer.allocateDirect(TraceFormat.BUFFER_SIZE);
+    this.buffer.limit(0);
+    try {
+      int magic = 0;
+      for (int i = 0; i < 4; i++) {
+        magic = (magic << 8) | (this.readByte() & 0xFF);
+      }
+      if (magic != TraceFormat.MAGIC) {
+        throw new IOException("Not a trace file: " + path);
+      }
+      byte version = this.readByte();
+      if (version != TraceFormat.VERSION) {
+        throw new IOException("Unsupported trace version " + version);
+      }
+      this.floors = (int) this.readVarint();
+      this.digests = new long[(int) this.readVarint()];
+    } catch (IOException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Get the number of floors of the building traced.
+   *
+   * @return the number of floors.
+   */
+  public int getFloors() {
+    return this.floors;
+  }
+
+  /**
+   * Get the number of elevators of the building traced.
+   *
+   * @return the number of elevators.
+   */
+  public int getElevators() {
+    return this.digests.length;
+  }
+
+  /**
+   * Read the next record.
+   *
+   * @return true if there was a record, false at the end of the trace.
+   * @throws IOException if the file cannot be read or ends in the middle of a record.
+   */
+  public boolean next() throws IOException {
+    if (!this.buffer.hasRemaining() && !this.fill()) {
+      this.recordType = null;
+      return false;
+    }
+    byte tag = this.buffer.get();
+    this.step += this.readVarint();
+    if (tag == TraceFormat.REQUEST) {
+      this.recordType = TraceRecordType.request;
+      this.startFloor = (int) this.readVarint();
+      this.endFloor = (int) this.readVarint();
+      this.priority = PRIORITIES[(int) this.readVarint()];
+      long encoded = this.readVarint();
+      this.deadline = encoded == 0 ? Request.NO_DEADLINE
+          : this.step + TraceFormat.unzigzag(encoded - 1);
+    } else if (tag == TraceFormat.TICK) {
+      this.recordType = TraceRecordType.tick;
+      for (int i = 0; i < this.digests.length; i++) {
+        this.digests[i] ^= this.readVarint();
+      }
+    } else {
+      throw new IOException("Unknown trace record " + tag);
+    }
+    return true;
+  }
+
+  /**
+   * Get the kind of the record read by next.
+   *
+   * @return the record type, null before the first record and at the end.
+   */
+  public TraceRecordType getRecordType() {
+    return this.recordType;
+  }
+
+  /**
+   * Get the step of the record read by next. A request arrived after this step and
+   * a tick was recorded at the end of it.
+   *
+   * @return the step.
+   */
+  public long getStep() {
+    return this.step;
+  }
+
+  /**
+   * Get the request of a request record.
+   *
+   * @return a new request equal to the one recorded.
+   * @throws IllegalStateException if the record is not a request.
+   */
+  public Request getRequest() {
+    if (this.recordType != TraceRecordType.request) {
+      throw new IllegalStateException("The record is not a request");
+    }
+    return new Request(this.startFloor, this.endFloor, this.priority, this.deadline);
+  }
+
+  /**
+   * Get the digest of an elevator as of the last tick record read.
+   * Read it with ElevatorDigest.
+   *
+   * @param elevator the index of the elevator.
+   * @return the digest, 0 before the first tick.
+   */
+  public long getDigest(int elevator) {
+    return this.digests[elevator];
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  /**
+   * Read more of the file into the buffer, keeping the bytes not read yet.
+   *
+   * @return true if anything was read, false at the end of the file.
+   */
+  private boolean fill() throws IOException {
+    this.buffer.compact();
+    int read = this.channel.read(this.buffer);
+    this.buffer.flip();
+    return read > 0 || this.buffer.hasRemaining();
+  }
+
+  private byte readByte() throws IOException {
+    if (!this.buffer.hasRemaining() && !this.fill()) {
+      throw new EOFException("The trace ends in the middle of a record");
+    }
+    return this.buffer.get();
+  }
+
+  private long readVarint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte b = this.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Varint is too long");
+  }
+}
@@ -0,0 +1,19 @@
+package trace;
+
+/**
+ * This enum is used to represent the kinds of record in a trace.
+ */
+public enum TraceRecordType {
+  request("Request"),
+  tick("Tick");
+  final String display;
+
+  TraceRecordType(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
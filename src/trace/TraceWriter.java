@@ -0,0 +1,181 @@
+package trace;
+
+import building.Building;
+import building.TickListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import scanerzus.Request;
+
+/**
+ * This class records a building into a compact binary trace.
+ * <p>
+ * Added to a building as a tick listener, it records every request the building
+ * accepts, with the step it arrived after, and at the end of every step the digest
+ * of every elevator. See TraceFormat for the layout. The records are encoded into a
+ * buffer that is written to the file channel when it is nearly full, so a step costs
+ * one digest and usually one byte per elevator and no system calls.
+ * <p>
+ * Steps that the building does not report to its listeners, the steps of a building
+ * that is out of service and the quiet steps jumped over by advanceElevatorSystem,
+ * have no tick record; the step numbers of the records show the gaps. Step the
+ * building one step at a time to record every step.
+ * <p>
+ * An error writing the file is thrown as an UncheckedIOException from the step that
+ * filled the buffer. The trace must be closed to write the end of the buffer.
+ */
+public class TraceWriter implements TickListener, AutoCloseable {
+  private final Building building;
+  private final FileChannel channel;
+  private final byte[] buffer;
+  private final ByteBuffer byteBuffer;
+  private final long[] digests;
+
+  /************************************************************************
+   * The number of bytes in the buffer.
+   ************************************************************************/
+  private int position = 0;
+
+  /************************************************************************
+   * The step of the last record written.
+   ************************************************************************/
+  private long lastStep = 0;
+
+  private long records = 0;
+
+  private long bytesWritten = 0;
+
+  /**
+   * Create a trace file for a building and write its header. The writer still has
+   * to be added to the building with addTickListener.
+   *
+   * @param building the building.
+   * @param path     the file, which is replaced if it exists.
+   * @throws IOException if the file cannot be created.
+   */
+  public TraceWriter(Building building, Path path) throws IOException {
+    if (building == null) {
+      throw new IllegalArgumentException("Building cannot be null");
+    }
+    this.building = building;
+    this.digests = new long[building.getNumberOfElevators()];
+    // a tick record must always fit in an empty buffer.
+    int tickSize = 1 + TraceFormat.MAX_VARINT_BYTES * (1 + this.digests.length);
+    this.buffer = new byte[Math.max(TraceFormat.BUFFER_SIZE, 2 * tickSize)];
+    this.byteBuffer = ByteBuffer.wrap(this.buffer);
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+    this.buffer[0] = (byte) (TraceFormat.MAGIC >>> 24);
+    this.buffer[1] = (byte) (TraceFormat.MAGIC >>> 16);
+    this.buffer[2] = (byte) (TraceFormat.MAGIC >>> 8);
+    this.buffer[3] = (byte) TraceFormat.MAGIC;
+    this.buffer[4] = TraceFormat.VERSION;
+    this.position = 5;
+    this.writeVarint(building.getNumberOfFloors());
+    this.writeVarint(this.digests.length);
+  }
+
+  @Override
+  public void requestAccepted(Request request, long step) {
+    this.ensureRoom(1 + 5 * TraceFormat.MAX_VARINT_BYTES);
+    this.startRecord(TraceFormat.REQUEST, step);
+    this.writeVarint(request.getStartFloor());
+    this.writeVarint(request.getEndFloor());
+    this.writeVarint(request.getPriority().ordinal());
+    long deadline = request.getDeadline();
+    this.writeVarint(deadline == Request.NO_DEADLINE ? 0
+        : TraceFormat.zigzag(deadline - step) + 1);
+  }
+
+  @Override
+  public void afterTick(long step) {
+    this.ensureRoom(1 + TraceFormat.MAX_VARINT_BYTES * (1 + this.digests.length));
+    this.startRecord(TraceFormat.TICK, step);
+    for (int i = 0; i < this.digests.length; i++) {
+      long digest = this.building.getElevatorDigest(i);
+      this.writeVarint(digest ^ this.digests[i]);
+      this.digests[i] = digest;
+    }
+  }
+
+  /**
+   * Get the number of records written.
+   *
+   * @return the number of request and tick records.
+   */
+  public long getRecordCount() {
+    return this.records;
+  }
+
+  /**
+   * Get the size of the trace so far.
+   *
+   * @return the number of bytes, counting those still in the buffer.
+   */
+  public long getSize() {
+    return this.bytesWritten + this.position;
+  }
+
+  /**
+   * Write the rest of the buffer to the file.
+   *
+   * @throws UncheckedIOException if the file cannot be written.
+   */
+  public void flush() {
+    this.byteBuffer.clear().limit(this.position);
+    try {
+      while (this.byteBuffer.hasRemaining()) {
+        this.channel.write(this.byteBuffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.bytesWritten += this.position;
+    this.position = 0;
+  }
+
+  /**
+   * Write the rest of the buffer and close the file. Remove the writer from the
+   * building first.
+   *
+   * @throws IOException if the file cannot be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.flush();
+    } catch (UncheckedIOException e) {
+      this.channel.close();
+      throw e.getCause();
+    }
+    this.channel.close();
+  }
+
+  private void ensureRoom(int bytes) {
+    if (this.position + bytes > this.buffer.length) {
+      this.flush();
+    }
+  }
+
+  private void startRecord(byte tag, long step) {
+    this.buffer[this.position++] = tag;
+    this.writeVarint(step - this.lastStep);
+    this.lastStep = step;
+    this.records++;
+  }
+
+  private void writeVarint(long value) {
+    byte[] bytes = this.buffer;
+    int at = this.position;
+    while ((value & ~0x7FL) != 0) {
+      bytes[at++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    bytes[at++] = (byte) value;
+    this.position = at;
+  }
+}
@@ -0,0 +1,155 @@
+package traffic;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * This class generates the requests arriving at a building.
+ * <p>
+ * Requests arrive as a Poisson process: the time between two arrivals is random
+ * with an exponential distribution, so the number of arrivals in a step has a
+ * Poisson distribution with the rate of the schedule at that step. When the rate
+ * changes over the day the arrivals are thinned: candidate arrivals are drawn at
+ * the highest rate of the schedule and each one is kept with the chance of the rate
+ * at its time divided by the highest rate. Each request kept is a trip drawn from
+ * the profile of its time.
+ * <p>
+ * A generator with the same floors, schedule and seed always produces the same
+ * requests. Drawing a request costs a few random numbers and a logarithm.
+ */
+public class TrafficGenerator {
+  private final int floors;
+  private final TrafficSchedule schedule;
+  private final SplittableRandom random;
+
+  /************************************************************************
+   * The step the next call to generate fills in.
+   ************************************************************************/
+  private long step = 0;
+
+  /************************************************************************
+   * The time of the next arrival, in steps. Step s covers the times from s
+   * up to s + 1.
+   ************************************************************************/
+  private double nextArrival;
+
+  /**
+   * Construct a generator.
+   *
+   * @param floors   the number of floors in the building, at least 2.
+   * @param schedule the traffic over the day.
+   * @param seed     the seed of the random numbers.
+   * @throws IllegalArgumentException if there are fewer than 2 floors or no schedule.
+   */
+  public TrafficGenerator(int floors, TrafficSchedule schedule, long seed) {
+    if (floors < 2) {
+      throw new IllegalArgumentException("floors must be greater than or equal to 2");
+    }
+    if (schedule == null) {
+      throw new IllegalArgumentException("Schedule cannot be null");
+    }
+    this.floors = floors;
+    this.schedule = schedule;
+    this.random = new SplittableRandom(seed);
+    this.nextArrival = this.arrivalAfter(0);
+  }
+
+  /**
+   * Construct a generator with the same traffic all the time.
+   *
+   * @param floors          the number of floors in the building, at least 2.
+   * @param profile         the profile of the trips.
+   * @param requestsPerStep the average number of requests per step.
+   * @param seed            the seed of the random numbers.
+   */
+  public TrafficGenerator(int floors, TrafficProfile profile, double requestsPerStep,
+                          long seed) {
+    this(floors, TrafficSchedule.constant(profile, requestsPerStep), seed);
+  }
+
+  /**
+   * Add the requests that arrive during the current step to target and move on to
+   * the next step.
+   *
+   * @param target the list that receives the requests.
+   * @return the number of requests added.
+   */
+  public int generate(List<Request> target) {
+    int count = 0;
+    long end = this.step + 1;
+    while (this.nextArrival < end) {
+      target.add(this.schedule.getProfile(this.step).draw(this.random, this.floors));
+      this.nextArrival = this.arrivalAfter(this.nextArrival);
+      count++;
+    }
+    this.step = end;
+    return count;
+  }
+
+  /**
+   * Get the number of steps, starting with the current one, in which no request
+   * arrives.
+   *
+   * @return the number of quiet steps, Long.MAX_VALUE if no request ever arrives.
+   */
+  public long quietSteps() {
+    if (this.nextArrival >= Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return (long) this.nextArrival - this.step;
+  }
+
+  /**
+   * Move on over quiet steps.
+   *
+   * @param steps the number of steps, no more than quietSteps.
+   * @throws IllegalArgumentException if a request would arrive in the steps skipped.
+   */
+  public void skip(long steps) {
+    if (steps < 0 || steps > this.quietSteps()) {
+      throw new IllegalArgumentException("Only quiet steps can be skipped");
+    }
+    this.step += steps;
+  }
+
+  /**
+   * Draw one request from the profile of the current step, outside of the arrivals.
+   *
+   * @return the request.
+   */
+  public Request nextRequest() {
+    return this.schedule.getProfile(this.step).draw(this.random, this.floors);
+  }
+
+  /**
+   * Get the step the next call to generate fills in.
+   *
+   * @return the current step.
+   */
+  public long getStep() {
+    return this.step;
+  }
+
+  /**
+   * Find the next arrival that is kept after a time.
+   *
+   * @param time the time of the last arrival.
+   * @return the time of the next arrival.
+   */
+  private double arrivalAfter(double time) {
+    double maxRate = this.schedule.getMaxRate();
+    if (maxRate <= 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double candidate = time;
+    while (true) {
+      // 1 - nextDouble is never 0, so the logarithm is finite.
+      candidate -= Math.log(1 - this.random.nextDouble()) / maxRate;
+      double rate = this.schedule.getRate((long) candidate);
+      if (rate >= maxRate || this.random.nextDouble() * maxRate < rate) {
+        return candidate;
+      }
+    }
+  }
+}
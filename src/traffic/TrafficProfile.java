@@ -0,0 +1,78 @@
+package traffic;
+
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * This enum is used to represent the mix of trips in a building at a time of day.
+ * <p>
+ * A trip is incoming (from the lobby on floor 0 to an upper floor), outgoing (from an
+ * upper floor to the lobby) or interfloor (between two upper floors). Each profile
+ * gives the share of incoming and outgoing trips; the rest are interfloor. The
+ * uniform profile instead picks both floors at random from every floor.
+ */
+public enum TrafficProfile {
+  uniform("Uniform", 0, 0),
+  upPeak("Up Peak", 0.85, 0.05),
+  downPeak("Down Peak", 0.05, 0.85),
+  lunch("Lunch", 0.40, 0.40),
+  interfloor("Interfloor", 0.10, 0.10);
+  final String display;
+  private final double incoming;
+  private final double outgoing;
+
+  TrafficProfile(String display, double incoming, double outgoing) {
+    this.display = display;
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+  }
+
+  /**
+   * Get the share of trips that start in the lobby.
+   *
+   * @return the share, from 0 to 1.
+   */
+  public double getIncomingShare() {
+    return this.incoming;
+  }
+
+  /**
+   * Get the share of trips that end in the lobby.
+   *
+   * @return the share, from 0 to 1.
+   */
+  public double getOutgoingShare() {
+    return this.outgoing;
+  }
+
+  /**
+   * Draw a trip.
+   *
+   * @param random the source of random numbers.
+   * @param floors the number of floors, at least 2.
+   * @return a request between two different floors.
+   */
+  Request draw(SplittableRandom random, int floors) {
+    if (this == uniform || floors < 3) {
+      int startFloor = random.nextInt(floors);
+      int endFloor = (startFloor + 1 + random.nextInt(floors - 1)) % floors;
+      return new Request(startFloor, endFloor);
+    }
+    double trip = random.nextDouble();
+    int upperFloor = 1 + random.nextInt(floors - 1);
+    if (trip < this.incoming) {
+      return new Request(0, upperFloor);
+    }
+    if (trip < this.incoming + this.outgoing) {
+      return new Request(upperFloor, 0);
+    }
+    // another upper floor, skipping the lobby and the start floor.
+    int endFloor = 1 + (upperFloor + random.nextInt(floors - 2)) % (floors - 1);
+    return new Request(upperFloor, endFloor);
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -0,0 +1,149 @@
+package traffic;
+
+import java.util.Arrays;
+
+/**
+ * This class describes how traffic changes over a day that repeats.
+ * <p>
+ * The day is split into periods. Each period starts at a step of the day and has a
+ * traffic profile and an average number of new requests per step, which hold until
+ * the next period starts.
+ */
+public class TrafficSchedule {
+
+  /************************************************************************
+   * The periods of the office day: the fraction of the day each one starts
+   * at, its profile and its rate as a fraction of the peak rate.
+   ************************************************************************/
+  private static final double[] OFFICE_DAY_STARTS = {0, 0.10, 0.25, 0.45, 0.55, 0.75, 0.90};
+  private static final TrafficProfile[] OFFICE_DAY_PROFILES = {TrafficProfile.interfloor,
+      TrafficProfile.upPeak, TrafficProfile.interfloor, TrafficProfile.lunch,
+      TrafficProfile.interfloor, TrafficProfile.downPeak, TrafficProfile.interfloor};
+  private static final double[] OFFICE_DAY_RATES = {0.1, 1, 0.4, 0.8, 0.4, 1, 0.1};
+
+  private final long dayLength;
+  private final long[] starts;
+  private final TrafficProfile[] profiles;
+  private final double[] rates;
+  private final double maxRate;
+
+  /**
+   * Construct a schedule.
+   *
+   * @param dayLength the number of steps in a day.
+   * @param starts    the step of the day each period starts at, the first one 0 and
+   *                  the rest increasing.
+   * @param profiles  the profile of each period.
+   * @param rates     the average number of requests per step of each period.
+   * @throws IllegalArgumentException if the periods are not valid.
+   */
+  public TrafficSchedule(long dayLength, long[] starts, TrafficProfile[] profiles,
+                         double[] rates) {
+    if (dayLength < 1) {
+      throw new IllegalArgumentException("dayLength must be greater than or equal to 1");
+    }
+    if (starts.length == 0 || starts.length != profiles.length
+        || starts.length != rates.length) {
+      throw new IllegalArgumentException("Every period needs a start, a profile and a rate");
+    }
+    if (starts[0] != 0) {
+      throw new IllegalArgumentException("The first period must start at step 0");
+    }
+    double max = 0;
+    for (int i = 0; i < starts.length; i++) {
+      if (i > 0 && (starts[i] <= starts[i - 1] || starts[i] >= dayLength)) {
+        throw new IllegalArgumentException("Period starts must increase and be in the day");
+      }
+      if (profiles[i] == null) {
+        throw new IllegalArgumentException("Profile cannot be null");
+      }
+      if (!(rates[i] >= 0) || Double.isInfinite(rates[i])) {
+        throw new IllegalArgumentException("Rates must be greater than or equal to 0");
+      }
+      max = Math.max(max, rates[i]);
+    }
+    this.dayLength = dayLength;
+    this.starts = starts.clone();
+    this.profiles = profiles.clone();
+    this.rates = rates.clone();
+    this.maxRate = max;
+  }
+
+  /**
+   * Create a schedule with the same traffic all the time.
+   *
+   * @param profile         the profile.
+   * @param requestsPerStep the average number of requests per step.
+   * @return the schedule.
+   */
+  public static TrafficSchedule constant(TrafficProfile profile, double requestsPerStep) {
+    return new TrafficSchedule(1, new long[] {0}, new TrafficProfile[] {profile},
+        new double[] {requestsPerStep});
+  }
+
+  /**
+   * Create the schedule of an office building: a quiet night, an up peak in the
+   * morning as people arrive, interfloor traffic, two way traffic over lunch, more
+   * interfloor traffic and a down peak in the evening as people leave.
+   *
+   * @param dayLength       the number of steps in a day, at least 20.
+   * @param requestsPerStep the average number of requests per step at the peaks.
+   * @return the schedule.
+   */
+  public static TrafficSchedule officeDay(long dayLength, double requestsPerStep) {
+    if (dayLength < 20) {
+      throw new IllegalArgumentException("An office day must be at least 20 steps long");
+    }
+    long[] starts = new long[OFFICE_DAY_STARTS.length];
+    double[] rates = new double[OFFICE_DAY_RATES.length];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = (long) (OFFICE_DAY_STARTS[i] * dayLength);
+      rates[i] = OFFICE_DAY_RATES[i] * requestsPerStep;
+    }
+    return new TrafficSchedule(dayLength, starts, OFFICE_DAY_PROFILES, rates);
+  }
+
+  /**
+   * Get the number of steps in a day.
+   *
+   * @return the length of the day.
+   */
+  public long getDayLength() {
+    return this.dayLength;
+  }
+
+  /**
+   * Get the largest rate of any period.
+   *
+   * @return the average number of requests per step at the busiest time.
+   */
+  public double getMaxRate() {
+    return this.maxRate;
+  }
+
+  /**
+   * Get the profile in force at a step.
+   *
+   * @param step the step, counted from the start of the first day.
+   * @return the profile.
+   */
+  public TrafficProfile getProfile(long step) {
+    return this.profiles[this.period(step)];
+  }
+
+  /**
+   * Get the rate in force at a step.
+   *
+   * @param step the step, counted from the start of the first day.
+   * @return the average number of requests per step.
+   */
+  public double getRate(long step) {
+    return this.rates[this.period(step)];
+  }
+
+  private int period(long step) {
+    long stepOfDay = Math.floorMod(step, this.dayLength);
+    int index = Arrays.binarySearch(this.starts, stepOfDay);
+    return index >= 0 ? index : -index - 2;
+  }
+}
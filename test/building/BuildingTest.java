@@ -1,12 +1,34 @@
 package building;
 
+import building.dispatch.CollectiveControlDispatchStrategy;
+import building.dispatch.EndFloorDispatchStrategy;
+import building.enums.Direction;
+import building.enums.ElevatorCounter;
 import building.enums.ElevatorSystemStatus;
+import building.enums.RequestStatus;
+import building.queue.FloorBucketRequestQueue;
+import building.queue.PriorityRequestQueue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import elevator.ElevatorFleet;
+import elevator.ElevatorReport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import metrics.MetricsRegistry;
 import org.junit.Test;
 import org.junit.Before;
 import scanerzus.Request;
+import scanerzus.RequestPriority;
 
 /**
  * This class tests the Building class.
@@ -119,6 +141,852 @@ public class BuildingTest {
   }
 
 
+  @Test
+  public void testReportShowsWaitingRequests() {
+    Building bucketBuilding = new Building(10, 1, 3, FloorBucketRequestQueue::new);
+    bucketBuilding.startElevatorSystem();
+    bucketBuilding.addRequestToElevatorSystem(new Request(5, 6));
+    bucketBuilding.addRequestToElevatorSystem(new Request(2, 8));
+    bucketBuilding.addRequestToElevatorSystem(new Request(7, 1));
+
+    BuildingReport report = bucketBuilding.getStatusElevatorSystem();
+    assertEquals("[2->8, 5->6]", report.getUpRequests().toString());
+    assertEquals("[7->1]", report.getDownRequests().toString());
+
+    // the elevator on the ground floor takes the up requests.
+    bucketBuilding.stepElevatorSystem();
+    report = bucketBuilding.getStatusElevatorSystem();
+    assertTrue(report.getUpRequests().isEmpty());
+    assertEquals(1, report.getDownRequests().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullRequestQueueFactory() {
+    new Building(10, 2, 3, null);
+  }
+
+  /**
+   * Step the building until the only elevator has left the ground floor.
+   */
+  private void stepPastGroundFloor(Building singleElevatorBuilding) {
+    for (int i = 0; i < 6; i++) {
+      singleElevatorBuilding.stepElevatorSystem();
+    }
+    assertEquals(1, singleElevatorBuilding.getStatusElevatorSystem()
+        .getElevatorReports()[0].getCurrentFloor());
+  }
+
+  @Test
+  public void testMidShaftPickUp() {
+    Building pickUpBuilding = new Building(10, 1, 3);
+    pickUpBuilding.setDispatchStrategy(new CollectiveControlDispatchStrategy());
+    pickUpBuilding.startElevatorSystem();
+    stepPastGroundFloor(pickUpBuilding);
+
+    pickUpBuilding.addRequestToElevatorSystem(new Request(5, 8));
+    for (int i = 0; i < 5; i++) {
+      pickUpBuilding.stepElevatorSystem();
+    }
+    BuildingReport report = pickUpBuilding.getStatusElevatorSystem();
+    assertEquals(5, report.getElevatorReports()[0].getCurrentFloor());
+    assertFalse(report.getElevatorReports()[0].isDoorClosed());
+    assertTrue(report.getElevatorReports()[0].getFloorRequests()[8]);
+    assertTrue(report.getUpRequests().isEmpty());
+  }
+
+  @Test
+  public void testNoMidShaftPickUpByDefault() {
+    Building endFloorBuilding = new Building(10, 1, 3);
+    assertTrue(endFloorBuilding.getDispatchStrategy() instanceof EndFloorDispatchStrategy);
+    endFloorBuilding.startElevatorSystem();
+    stepPastGroundFloor(endFloorBuilding);
+
+    endFloorBuilding.addRequestToElevatorSystem(new Request(5, 8));
+    for (int i = 0; i < 4; i++) {
+      endFloorBuilding.stepElevatorSystem();
+    }
+    BuildingReport report = endFloorBuilding.getStatusElevatorSystem();
+    assertEquals(5, report.getElevatorReports()[0].getCurrentFloor());
+    assertTrue(report.getElevatorReports()[0].isDoorClosed());
+    assertEquals(1, report.getUpRequests().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDispatchStrategy() {
+    building.setDispatchStrategy(null);
+  }
+
+  @Test
+  public void testParallelSteppingMatchesSerialStepping() {
+    Building serial = new Building(20, 64, 10);
+    Building parallel = new Building(20, 64, 10);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    parallel.setParallelStepping(pool, 4);
+    assertTrue(parallel.isParallelStepping());
+    assertFalse(serial.isParallelStepping());
+
+    serial.startElevatorSystem();
+    parallel.startElevatorSystem();
+    Random random = new Random(42);
+    for (int tick = 0; tick < 500; tick++) {
+      int startFloor = random.nextInt(20);
+      int endFloor = (startFloor + 1 + random.nextInt(19)) % 20;
+      serial.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      parallel.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      serial.stepElevatorSystem();
+      parallel.stepElevatorSystem();
+
+      ElevatorReport[] expected = serial.getStatusElevatorSystem().getElevatorReports();
+      ElevatorReport[] actual = parallel.getStatusElevatorSystem().getElevatorReports();
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i].toString(), actual[i].toString());
+      }
+    }
+    pool.shutdown();
+  }
+
+  /**
+   * Check that two buildings report the same state.
+   */
+  private void assertSameState(Building expected, Building actual) {
+    assertEquals(expected.getCurrentStep(), actual.getCurrentStep());
+    assertSameReport(expected.getStatusElevatorSystem(), actual.getStatusElevatorSystem());
+  }
+
+  @Test
+  public void testAdvanceMatchesStepping() {
+    Building stepped = new Building(15, 3, 5);
+    Building advanced = new Building(15, 3, 5);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+
+    Random random = new Random(7);
+    for (int round = 0; round < 300; round++) {
+      int startFloor = random.nextInt(15);
+      int endFloor = (startFloor + 1 + random.nextInt(14)) % 15;
+      if (round % 50 == 25) {
+        stepped.stopElevatorSystem();
+        advanced.stopElevatorSystem();
+      } else if (round % 50 == 40) {
+        stepped.startElevatorSystem();
+        advanced.startElevatorSystem();
+      } else if (round % 50 < 25) {
+        stepped.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        advanced.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      }
+
+      int steps = random.nextInt(200);
+      for (int i = 0; i < steps; i++) {
+        stepped.stepElevatorSystem();
+      }
+      advanced.advanceElevatorSystem(steps);
+      assertSameState(stepped, advanced);
+    }
+  }
+
+  @Test
+  public void testSnapshotModePublishesReportsThatNeverChange() {
+    Building snapshots = new Building(15, 3, 5);
+    Building reports = new Building(15, 3, 5);
+    snapshots.setSnapshotMode(true);
+    assertTrue(snapshots.isSnapshotMode());
+    snapshots.startElevatorSystem();
+    reports.startElevatorSystem();
+
+    Random random = new Random(5);
+    BuildingReport previous = snapshots.getStatusElevatorSystem();
+    BuildingReport first = null;
+    String firstElevators = null;
+    String firstRequests = null;
+    for (int step = 0; step < 500; step++) {
+      if (step % 10 == 0) {
+        int startFloor = random.nextInt(15);
+        int endFloor = (startFloor + 1 + random.nextInt(14)) % 15;
+        snapshots.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        reports.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      }
+      snapshots.stepElevatorSystem();
+      reports.stepElevatorSystem();
+
+      BuildingReport snapshot = snapshots.getStatusElevatorSystem();
+      assertSame(snapshot, snapshots.getStatusElevatorSystem());
+      assertNotSame(previous, snapshot);
+      assertSameReport(reports.getStatusElevatorSystem(), snapshot);
+      if (step == 50) {
+        first = snapshot;
+        firstElevators = Arrays.toString(snapshot.getElevatorReports());
+        firstRequests = snapshot.getUpRequests() + " " + snapshot.getDownRequests();
+      }
+      previous = snapshot;
+    }
+    assertEquals(firstElevators, Arrays.toString(first.getElevatorReports()));
+    assertEquals(firstRequests, first.getUpRequests() + " " + first.getDownRequests());
+
+    snapshots.setSnapshotMode(false);
+    assertFalse(snapshots.isSnapshotMode());
+    assertNotSame(snapshots.getStatusElevatorSystem(), snapshots.getStatusElevatorSystem());
+  }
+
+  @Test
+  public void testSnapshotModeSharesWhatDidNotChange() {
+    Building snapshots = new Building(15, 3, 5);
+    snapshots.setSnapshotMode(true);
+    BuildingReport stopped = snapshots.getStatusElevatorSystem();
+    snapshots.advanceElevatorSystem(10);
+    assertSame(stopped, snapshots.getStatusElevatorSystem());
+
+    snapshots.startElevatorSystem();
+    snapshots.addRequestToElevatorSystem(new Request(2, 4));
+    snapshots.addRequestToElevatorSystem(new Request(6, 8));
+    snapshots.addRequestToElevatorSystem(new Request(10, 12));
+    for (int step = 0; step < 20; step++) {
+      snapshots.stepElevatorSystem();
+    }
+    snapshots.stopElevatorSystem();
+    // the elevators reach the ground floor at different steps and wait there.
+    BuildingReport previous = snapshots.getStatusElevatorSystem();
+    int shared = 0;
+    while (snapshots.getElevatorSystemStatus() != ElevatorSystemStatus.outOfService) {
+      snapshots.stepElevatorSystem();
+      BuildingReport snapshot = snapshots.getStatusElevatorSystem();
+      for (int i = 0; i < 3; i++) {
+        ElevatorReport before = previous.getElevatorReports()[i];
+        ElevatorReport after = snapshot.getElevatorReports()[i];
+        if (before.equals(after)) {
+          assertSame(before, after);
+          shared++;
+        } else {
+          assertNotSame(before, after);
+        }
+      }
+      previous = snapshot;
+    }
+    assertTrue(shared > 0);
+  }
+
+  @Test
+  public void testStatusSinceCarriesOnlyChanges() {
+    Building tower = new Building(15, 6, 5);
+    BuildingDelta everything = tower.getStatusSince(-1);
+    assertEquals(6, everything.getElevatorReports().length);
+    assertEquals(0, everything.getUpRequests().size());
+    assertTrue(tower.getStatusSince(everything.getVersion()).isEmpty());
+
+    // out of service elevators parked on the ground floor do not change.
+    tower.stepElevatorSystem();
+    assertTrue(tower.getStatusSince(everything.getVersion()).isEmpty());
+
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 7));
+    BuildingDelta started = tower.getStatusSince(everything.getVersion());
+    assertEquals(6, started.getElevatorReports().length);
+    assertEquals(null, started.getUpRequests());
+    assertEquals(1, started.getUpAdded().size());
+    assertEquals(0, started.getUpRemoved().size());
+    assertEquals(null, started.getDownRequests());
+    assertEquals(0, started.getDownAdded().size());
+    assertEquals(ElevatorSystemStatus.running, started.getSystemStatus());
+  }
+
+  @Test
+  public void testStatusSinceKeepsAReaderUpToDate() {
+    Building tower = new Building(15, 6, 5);
+    tower.startElevatorSystem();
+    BuildingDelta delta = tower.getStatusSince(-1);
+    ElevatorReport[] view = delta.getElevatorReports();
+    List<Request> upView = new ArrayList<>(delta.getUpRequests());
+    List<Request> downView = new ArrayList<>(delta.getDownRequests());
+
+    Random random = new Random(9);
+    for (int round = 0; round < 400; round++) {
+      if (round % 100 == 60) {
+        tower.stopElevatorSystem();
+      } else if (round % 100 == 80) {
+        tower.startElevatorSystem();
+      } else if (round % 100 < 60 && random.nextBoolean()) {
+        int startFloor = random.nextInt(15);
+        int endFloor = (startFloor + 1 + random.nextInt(14)) % 15;
+        tower.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      }
+      int steps = random.nextInt(8);
+      for (int i = 0; i < steps; i++) {
+        tower.stepElevatorSystem();
+      }
+
+      delta = tower.getStatusSince(delta.getVersion());
+      for (int i = 0; i < delta.getElevatorIndexes().length; i++) {
+        view[delta.getElevatorIndexes()[i]] = delta.getElevatorReports()[i];
+      }
+      applyQueueChanges(upView, delta.getUpRequests(), delta.getUpAdded(),
+          delta.getUpRemoved());
+      applyQueueChanges(downView, delta.getDownRequests(), delta.getDownAdded(),
+          delta.getDownRemoved());
+
+      BuildingReport report = tower.getStatusElevatorSystem();
+      assertEquals(report.getSystemStatus(), delta.getSystemStatus());
+      assertEquals(report.getUpRequests(), upView);
+      assertEquals(report.getDownRequests(), downView);
+      for (int i = 0; i < view.length; i++) {
+        assertEquals(report.getElevatorReports()[i], view[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testStatusSinceSendsTheWholeQueueToAReaderTooFarBehind() {
+    Building tower = new Building(15, 2, 5);
+    tower.setDispatchStrategy((elevators, upRequests, downRequests) -> { });
+    tower.startElevatorSystem();
+    BuildingDelta start = tower.getStatusSince(-1);
+    BuildingDelta recent = start;
+    for (int i = 0; i < 70000; i++) {
+      tower.addRequestToElevatorSystem(new Request(1, 2));
+      if (i == 69990) {
+        recent = tower.getStatusSince(recent.getVersion());
+      }
+    }
+
+    BuildingDelta behind = tower.getStatusSince(start.getVersion());
+    assertEquals(70000, behind.getUpRequests().size());
+    assertEquals(0, behind.getUpAdded().size());
+    BuildingDelta caughtUp = tower.getStatusSince(recent.getVersion());
+    assertEquals(null, caughtUp.getUpRequests());
+    assertEquals(9, caughtUp.getUpAdded().size());
+  }
+
+  /**
+   * Bring a reader's copy of a first in first out queue up to date.
+   */
+  private static void applyQueueChanges(List<Request> view, List<Request> requests,
+                                        List<Request> added, List<Request> removed) {
+    if (requests != null) {
+      view.clear();
+      view.addAll(requests);
+      return;
+    }
+    for (Request request : removed) {
+      assertTrue(view.remove(request));
+    }
+    view.addAll(added);
+  }
+
+  @Test
+  public void testSubmitRequestFromManyThreads() throws InterruptedException {
+    Building tower = new Building(15, 2, 5);
+    // leave every request waiting so they can be counted.
+    tower.setDispatchStrategy((elevators, upRequests, downRequests) -> { });
+    tower.startElevatorSystem();
+
+    Thread[] producers = new Thread[4];
+    for (int p = 0; p < producers.length; p++) {
+      int seed = p;
+      producers[p] = new Thread(() -> {
+        Random random = new Random(seed);
+        for (int i = 0; i < 1000; i++) {
+          int startFloor = random.nextInt(15);
+          int endFloor = (startFloor + 1 + random.nextInt(14)) % 15;
+          tower.submitRequest(new Request(startFloor, endFloor));
+        }
+      });
+      producers[p].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    assertEquals(0, tower.getWaitingRequestCount());
+    tower.stepElevatorSystem();
+    assertEquals(4000, tower.getWaitingRequestCount());
+  }
+
+  @Test
+  public void testSubmittedRequestsAreTurnedAwayWhenNotRunning() {
+    Building tower = new Building(15, 2, 5);
+    tower.setDispatchStrategy((elevators, upRequests, downRequests) -> { });
+    assertEquals(RequestStatus.notAccepting, tower.submitRequest(new Request(1, 5)));
+    tower.submitStart();
+    assertEquals(RequestStatus.notAccepting, tower.submitRequest(new Request(1, 5)));
+    tower.stepElevatorSystem();
+    assertEquals(0, tower.getWaitingRequestCount());
+
+    assertEquals(RequestStatus.accepted, tower.submitRequest(new Request(1, 5)));
+    tower.submitStop();
+    assertEquals(RequestStatus.notAccepting, tower.submitRequest(new Request(2, 6)));
+    tower.stepElevatorSystem();
+    assertEquals(0, tower.getWaitingRequestCount());
+    assertEquals(0, tower.getRequestCount(RequestStatus.accepted));
+    assertEquals(4, tower.getRequestCount(RequestStatus.notAccepting));
+  }
+
+  @Test
+  public void testSubmittedRequestsDroppedByAStopAreNotCountedAsAccepted() {
+    Building tower = new Building(15, 2, 5);
+    tower.startElevatorSystem();
+    assertEquals(RequestStatus.accepted, tower.submitRequest(new Request(1, 5)));
+    assertEquals(RequestStatus.accepted, tower.submitRequest(new Request(7, 2)));
+    tower.stopElevatorSystem();
+    tower.stepElevatorSystem();
+
+    assertEquals(0, tower.getWaitingRequestCount());
+    assertEquals(0, tower.getRequestCount(RequestStatus.accepted));
+    assertEquals(2, tower.getRequestCount(RequestStatus.notAccepting));
+    assertEquals(2, tower.getRejectedRequestCount());
+    assertEquals(2, tower.getMetrics().get("requests.status.notAccepting"));
+  }
+
+  @Test
+  public void testSubmittedStartAndStopHappenAtTheNextStep() {
+    Building tower = new Building(10, 2, 5);
+    tower.submitStart();
+    assertEquals(ElevatorSystemStatus.outOfService, tower.getElevatorSystemStatus());
+    tower.stepElevatorSystem();
+    assertEquals(ElevatorSystemStatus.running, tower.getElevatorSystemStatus());
+
+    // the last submission wins.
+    tower.submitStart();
+    tower.submitStop();
+    tower.stepElevatorSystem();
+    assertFalse(tower.getElevatorSystemStatus() == ElevatorSystemStatus.running);
+  }
+
+  @Test
+  public void testSubmittedStartWaitsForTheStopToFinish() {
+    Building tower = new Building(10, 2, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 9));
+    tower.stepElevatorSystem();
+    tower.stopElevatorSystem();
+    tower.submitStart();
+    for (int i = 0; i < 100
+        && tower.getElevatorSystemStatus() == ElevatorSystemStatus.stopping; i++) {
+      tower.stepElevatorSystem();
+    }
+    // the step that finishes stopping leaves the start for the step after.
+    assertEquals(ElevatorSystemStatus.outOfService, tower.getElevatorSystemStatus());
+    tower.stepElevatorSystem();
+    assertEquals(ElevatorSystemStatus.running, tower.getElevatorSystemStatus());
+  }
+
+  @Test
+  public void testElevatorStatusAndCounters() {
+    Building tower = new Building(10, 2, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    for (int i = 0; i < 5; i++) {
+      tower.stepElevatorSystem();
+    }
+    BuildingReport report = tower.getStatusElevatorSystem();
+    for (int i = 0; i < 2; i++) {
+      assertEquals(report.getElevatorReports()[i], tower.getElevatorStatus(i));
+      assertEquals(5, tower.getElevatorCounter(i, ElevatorCounter.steps));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testElevatorStatusChecksTheIndex() {
+    building.getElevatorStatus(building.getNumberOfElevators());
+  }
+
+  @Test
+  public void testEveryBuildingNumbersItsElevatorsFromZero() {
+    Building first = new Building(10, 3, 5);
+    Building second = new Building(10, 3, 5);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i, first.getElevatorStatus(i).getElevatorId());
+      assertEquals(i, second.getElevatorStatus(i).getElevatorId());
+    }
+  }
+
+  @Test
+  public void testTickListenerPhases() {
+    Building tower = new Building(10, 2, 5);
+    StringBuilder calls = new StringBuilder();
+    TickListener listener = new TickListener() {
+      @Override
+      public void beforeDispatch(long step) {
+        calls.append("before").append(step).append(' ');
+      }
+
+      @Override
+      public void afterDispatch(long step) {
+        calls.append("after").append(step).append(' ');
+      }
+
+      @Override
+      public void elevatorStepped(int index, long step) {
+        calls.append("car").append(index).append(' ');
+      }
+
+      @Override
+      public void afterTick(long step) {
+        calls.append("tick").append(step).append(' ');
+      }
+    };
+    tower.addTickListener(listener);
+    tower.stepElevatorSystem();
+    assertEquals("", calls.toString());
+
+    tower.startElevatorSystem();
+    tower.stepElevatorSystem();
+    assertEquals("before2 after2 car0 car1 tick2 ", calls.toString());
+
+    assertTrue(tower.removeTickListener(listener));
+    assertFalse(tower.removeTickListener(listener));
+    tower.stepElevatorSystem();
+    assertEquals("before2 after2 car0 car1 tick2 ", calls.toString());
+  }
+
+  @Test
+  public void testTickListenersDoNotChangeTheSimulation() {
+    for (boolean fleet : new boolean[] {false, true}) {
+      Building plain = fleet
+          ? new Building(new ElevatorFleet(6, 12, 4), (floors, direction) ->
+              new FloorBucketRequestQueue(floors, direction))
+          : new Building(12, 6, 4);
+      Building profiled = fleet
+          ? new Building(new ElevatorFleet(6, 12, 4), (floors, direction) ->
+              new FloorBucketRequestQueue(floors, direction))
+          : new Building(12, 6, 4);
+      TickProfiler first = new TickProfiler();
+      TickProfiler second = new TickProfiler();
+      profiled.addTickListener(first);
+      profiled.addTickListener(second);
+      plain.startElevatorSystem();
+      profiled.startElevatorSystem();
+      Random random = new Random(7);
+      for (int step = 0; step < 500; step++) {
+        if (random.nextInt(3) == 0) {
+          int startFloor = random.nextInt(12);
+          int endFloor = (startFloor + 1 + random.nextInt(11)) % 12;
+          plain.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+          profiled.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        }
+        plain.stepElevatorSystem();
+        profiled.stepElevatorSystem();
+      }
+      assertArrayEquals(plain.getStatusElevatorSystem().getElevatorReports(),
+          profiled.getStatusElevatorSystem().getElevatorReports());
+      assertEquals(plain.getRequestStatistics().toString(),
+          profiled.getRequestStatistics().toString());
+      assertEquals(500, first.getTicks());
+      assertEquals(500, second.getTicks());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTickListenerCannotBeNull() {
+    building.addTickListener(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSubmitRequestChecksFloors() {
+    building.submitRequest(new Request(0, 4));
+  }
+
+  @Test
+  public void testAddRequestsReturnsAStatusForEachRequest() {
+    Building tower = new Building(10, 2, 5);
+    List<Request> requests = Arrays.asList(new Request(0, 5), new Request(3, 3),
+        new Request(-1, 2), new Request(9, 1), new Request(2, 10), null);
+
+    RequestStatus[] stopped = tower.addRequestsToElevatorSystem(requests);
+    assertEquals(6, stopped.length);
+    for (RequestStatus status : stopped) {
+      assertEquals(RequestStatus.notAccepting, status);
+    }
+
+    tower.startElevatorSystem();
+    long version = tower.getVersion();
+    RequestStatus[] statuses = tower.addRequestsToElevatorSystem(requests);
+    assertArrayEquals(new RequestStatus[] {RequestStatus.accepted, RequestStatus.sameFloor,
+        RequestStatus.startFloorOutOfRange, RequestStatus.accepted,
+        RequestStatus.endFloorOutOfRange, RequestStatus.nullRequest}, statuses);
+    assertEquals(version + 1, tower.getVersion());
+    BuildingReport report = tower.getStatusElevatorSystem();
+    assertEquals("[0->5]", report.getUpRequests().toString());
+    assertEquals("[9->1]", report.getDownRequests().toString());
+  }
+
+  @Test
+  public void testOfferRequestReturnsAStatusInsteadOfThrowing() {
+    Building tower = new Building(10, 2, 5);
+    assertEquals(RequestStatus.notAccepting, tower.offerRequest(new Request(0, 5)));
+    tower.startElevatorSystem();
+    assertEquals(RequestStatus.accepted, tower.offerRequest(new Request(0, 5)));
+    assertEquals(RequestStatus.sameFloor, tower.offerRequest(new Request(4, 4)));
+    assertEquals(RequestStatus.startFloorOutOfRange, tower.offerRequest(new Request(10, 4)));
+    assertEquals(RequestStatus.endFloorOutOfRange, tower.offerRequest(new Request(4, -1)));
+    assertEquals(RequestStatus.nullRequest, tower.offerRequest(null));
+    assertEquals(1, tower.getWaitingRequestCount());
+  }
+
+  @Test
+  public void testBulkRequestsAreTrackedFromArrival() {
+    Building single = new Building(10, 1, 5);
+    Building bulk = new Building(10, 1, 5);
+    single.startElevatorSystem();
+    bulk.startElevatorSystem();
+    List<Request> requests = Arrays.asList(new Request(0, 9), new Request(3, 1),
+        new Request(5, 8));
+    for (Request request : requests) {
+      single.addRequestToElevatorSystem(request);
+    }
+    bulk.addRequestsToElevatorSystem(requests);
+    for (int i = 0; i < 60; i++) {
+      single.stepElevatorSystem();
+      bulk.stepElevatorSystem();
+    }
+    assertEquals(3, bulk.getRequestStatistics().getCompletedRequests());
+    assertEquals(single.getRequestStatistics().toString(),
+        bulk.getRequestStatistics().toString());
+  }
+
+  @Test
+  public void testRejectionMessagesGiveTheFloorRange() {
+    Building tower = new Building(10, 2, 5);
+    tower.startElevatorSystem();
+    try {
+      tower.addRequestToElevatorSystem(new Request(2, 10));
+      fail("the end floor is out of range");
+    } catch (IllegalArgumentException e) {
+      assertEquals("End floor must be between 0 and 9", e.getMessage());
+      assertEquals(e.getMessage(), RequestStatus.endFloorOutOfRange.getMessage(10));
+    }
+  }
+
+  @Test
+  public void testRequestCountsByStatus() {
+    Building tower = new Building(10, 2, 5);
+    tower.submitRequest(new Request(1, 5));
+    tower.stepElevatorSystem();
+    tower.startElevatorSystem();
+    tower.offerRequest(new Request(0, 5));
+    tower.offerRequest(new Request(3, 3));
+    tower.addRequestsToElevatorSystem(Arrays.asList(new Request(9, 1), new Request(3, 3)));
+    try {
+      tower.addRequestToElevatorSystem(new Request(2, 10));
+    } catch (IllegalArgumentException e) {
+      // counted as well as thrown.
+    }
+    tower.submitRequest(new Request(2, 7));
+    tower.stepElevatorSystem();
+
+    assertEquals(3, tower.getRequestCount(RequestStatus.accepted));
+    assertEquals(1, tower.getRequestCount(RequestStatus.notAccepting));
+    assertEquals(2, tower.getRequestCount(RequestStatus.sameFloor));
+    assertEquals(1, tower.getRequestCount(RequestStatus.endFloorOutOfRange));
+    assertEquals(0, tower.getRequestCount(RequestStatus.nullRequest));
+    assertEquals(4, tower.getRejectedRequestCount());
+  }
+
+  @Test
+  public void testPriorityQueueLoadsUrgentRequestsFirst() {
+    Building tower = new Building(10, 1, 3, (floors, direction) -> new PriorityRequestQueue());
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 4));
+    tower.addRequestToElevatorSystem(new Request(0, 5));
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    tower.addRequestToElevatorSystem(new Request(0, 6, RequestPriority.accessibility));
+    tower.addRequestToElevatorSystem(new Request(0, 7, RequestPriority.vip, 3));
+    assertEquals("[0->6, 0->7, 0->4, 0->5, 0->3]",
+        tower.getStatusElevatorSystem().getUpRequests().toString());
+
+    tower.stepElevatorSystem();
+    assertEquals("[0->5, 0->3]", tower.getStatusElevatorSystem().getUpRequests().toString());
+  }
+
+  @Test
+  public void testRequestStatisticsFollowARequest() {
+    Building tower = new Building(10, 1, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    // given out and picked up on step 1, the door opens on floor 3 on step 8.
+    for (int i = 0; i < 7; i++) {
+      tower.stepElevatorSystem();
+    }
+    RequestStatistics statistics = tower.getRequestStatistics();
+    assertEquals(0, statistics.getCompletedRequests());
+    assertEquals(1, statistics.getRequestsInFlight());
+
+    tower.stepElevatorSystem();
+    statistics = tower.getRequestStatistics();
+    assertEquals(1, statistics.getCompletedRequests());
+    assertEquals(0, statistics.getRequestsInFlight());
+    assertEquals(1, statistics.getMaxTimeToAssignment());
+    assertEquals(1.0, statistics.getAverageWaitTime(), 0.0);
+    assertEquals(7, statistics.getMaxRideTime());
+  }
+
+  @Test
+  public void testRequestStatisticsMatchWhenAdvancing() {
+    Building stepped = new Building(20, 3, 8);
+    Building advanced = new Building(20, 3, 8);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    Random random = new Random(17);
+    for (int round = 0; round < 20; round++) {
+      for (int i = random.nextInt(6); i > 0; i--) {
+        int startFloor = random.nextInt(20);
+        int endFloor = random.nextInt(20);
+        if (startFloor != endFloor) {
+          stepped.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+          advanced.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        }
+      }
+      int steps = random.nextInt(60);
+      for (int i = 0; i < steps; i++) {
+        stepped.stepElevatorSystem();
+      }
+      advanced.advanceElevatorSystem(steps);
+      assertEquals(stepped.getRequestStatistics().toString(),
+          advanced.getRequestStatistics().toString());
+    }
+    assertTrue(stepped.getRequestStatistics().getCompletedRequests() > 0);
+  }
+
+  @Test
+  public void testLatencyHistogramsByFloorAndDirection() {
+    Building tower = new Building(10, 2, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    tower.addRequestToElevatorSystem(new Request(0, 5));
+    tower.addRequestToElevatorSystem(new Request(9, 2));
+    tower.advanceElevatorSystem(100);
+
+    LatencyHistogram upFromGround = tower.getRideTimeHistogram(0, Direction.UP);
+    assertEquals(2, upFromGround.getCount());
+    assertEquals(7, upFromGround.getValueAtPercentile(50));
+    assertEquals(13, upFromGround.getMax());
+    assertEquals(1, tower.getWaitTimeHistogram(9, Direction.DOWN).getCount());
+    assertEquals(0, tower.getWaitTimeHistogram(0, Direction.DOWN).getCount());
+    assertEquals(3, tower.getWaitTimeHistogram().getCount());
+    assertEquals(tower.getRequestStatistics().getMaxRideTime(),
+        tower.getRideTimeHistogram().getMax());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLatencyHistogramNeedsADirection() {
+    building.getWaitTimeHistogram(0, Direction.STOPPED);
+  }
+
+  @Test
+  public void testMetricsMatchWhenAdvancing() {
+    Building stepped = new Building(12, 3, 5);
+    Building advanced = new Building(12, 3, 5);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    Random random = new Random(19);
+    for (int round = 0; round < 10; round++) {
+      for (int i = random.nextInt(4); i > 0; i--) {
+        int startFloor = random.nextInt(12);
+        int endFloor = (startFloor + 1 + random.nextInt(11)) % 12;
+        stepped.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        advanced.submitRequest(new Request(startFloor, endFloor));
+      }
+      // long quiet spells let the idle elevators skip whole cycles.
+      int steps = 1 + random.nextInt(400);
+      for (int i = 0; i < steps; i++) {
+        stepped.stepElevatorSystem();
+      }
+      advanced.advanceElevatorSystem(steps);
+
+      Map<String, Long> expected = stepped.getMetrics().snapshot();
+      Map<String, Long> actual = advanced.getMetrics().snapshot();
+      expected.remove("requests.servedPerSecond");
+      actual.remove("requests.servedPerSecond");
+      expected.remove("requests.submitted");
+      assertEquals(expected.get("requests.status.accepted"), actual.remove("requests.submitted"));
+      assertEquals(expected, actual);
+    }
+    MetricsRegistry metrics = stepped.getMetrics();
+    assertTrue(metrics.get("elevators.floorsTravelled") > 0);
+    assertEquals(metrics.get("elevators.floorsTravelled"), metrics.get("elevator.0.floorsTravelled")
+        + metrics.get("elevator.1.floorsTravelled") + metrics.get("elevator.2.floorsTravelled"));
+    assertEquals(3 * stepped.getCurrentStep(), metrics.get("elevators.steps"));
+    assertEquals(stepped.getCurrentStep(), metrics.get("building.steps"));
+    assertEquals(stepped.getRequestStatistics().getCompletedRequests(),
+        metrics.get("requests.served"));
+  }
+
+  @Test
+  public void testServedPerSecondOnlyCountsTheRunningTime() throws InterruptedException {
+    Building tower = new Building(10, 1, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    for (int i = 0; i < 20; i++) {
+      tower.stepElevatorSystem();
+    }
+    tower.stopElevatorSystem();
+    long served = tower.getMetrics().get("requests.servedPerSecond");
+    assertTrue(served > 0);
+    Thread.sleep(20);
+    assertEquals(served, tower.getMetrics().get("requests.servedPerSecond"));
+  }
+
+  @Test
+  public void testPublishedStatisticsNeverChange() {
+    Building tower = new Building(10, 2, 5);
+    assertEquals(null, tower.getPublishedStatistics());
+    tower.setStatisticsInterval(0, TimeUnit.MILLISECONDS);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    for (int i = 0; i < 20; i++) {
+      tower.stepElevatorSystem();
+    }
+    BuildingStatistics published = tower.getPublishedStatistics();
+    assertEquals(20, published.getStep());
+    assertEquals(1, published.getRequestStatistics().getCompletedRequests());
+    assertEquals(tower.getWaitTimeHistogram(), published.getWaitTimeHistogram());
+    assertEquals(tower.getElevatorStatus(0), published.getElevatorReport(0));
+    assertEquals(tower.getElevatorCounter(1, ElevatorCounter.steps),
+        published.getElevatorCounter(1, ElevatorCounter.steps));
+    String before = published.getElevatorReport(0).toString();
+
+    tower.addRequestToElevatorSystem(new Request(5, 1));
+    tower.stepElevatorSystem();
+    assertNotSame(published, tower.getPublishedStatistics());
+    assertEquals(20, published.getStep());
+    assertEquals(before, published.getElevatorReport(0).toString());
+    assertEquals(20, published.getMetrics().get("building.steps").longValue());
+
+    tower.setStatisticsInterval(-1, TimeUnit.MILLISECONDS);
+    assertEquals(null, tower.getPublishedStatistics());
+  }
+
+  @Test
+  public void testStoppingAbandonsRequests() {
+    Building tower = new Building(10, 1, 5);
+    tower.startElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(0, 3));
+    tower.stepElevatorSystem();
+    tower.addRequestToElevatorSystem(new Request(5, 2));
+    tower.stopElevatorSystem();
+    RequestStatistics statistics = tower.getRequestStatistics();
+    assertEquals(2, statistics.getAbandonedRequests());
+    assertEquals(0, statistics.getRequestsInFlight());
+    assertEquals(0, statistics.getCompletedRequests());
+  }
+
+  private void assertSameReport(BuildingReport expected, BuildingReport actual) {
+    assertEquals(expected.getSystemStatus(), actual.getSystemStatus());
+    assertEquals(expected.getUpRequests().toString(), actual.getUpRequests().toString());
+    assertEquals(expected.getDownRequests().toString(), actual.getDownRequests().toString());
+    for (int i = 0; i < expected.getElevatorReports().length; i++) {
+      ElevatorReport expectedElevator = expected.getElevatorReports()[i];
+      ElevatorReport actualElevator = actual.getElevatorReports()[i];
+      assertEquals(expectedElevator.toString(), actualElevator.toString());
+      assertEquals(expectedElevator.getDirection(), actualElevator.getDirection());
+      assertEquals(expectedElevator.getDoorOpenTimer(), actualElevator.getDoorOpenTimer());
+      assertEquals(expectedElevator.isTakingRequests(), actualElevator.isTakingRequests());
+      assertEquals(expectedElevator.isOutOfService(), actualElevator.isOutOfService());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelSteppingThresholdMustBePositive() {
+    building.setParallelStepping(ForkJoinPool.commonPool(), 0);
+  }
+
   @Test
   public void takeOutOfService() {
   }
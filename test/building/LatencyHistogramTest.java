@@ -0,0 +1,111 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This class tests the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void testSmallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+    assertEquals(10, histogram.getCount());
+    assertEquals(5, histogram.getValueAtPercentile(50));
+    assertEquals(10, histogram.getValueAtPercentile(99));
+    assertEquals(1, histogram.getValueAtPercentile(0));
+    assertEquals(10, histogram.getMax());
+    assertEquals(5.5, histogram.getMean(), 0.0);
+  }
+
+  @Test
+  public void testPercentilesAreWithinOneSixteenth() {
+    Random random = new Random(18);
+    LatencyHistogram histogram = new LatencyHistogram();
+    long[] values = new long[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 20);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percentile : new double[] {1, 25, 50, 90, 95, 99, 99.9, 100}) {
+      long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+      long estimate = histogram.getValueAtPercentile(percentile);
+      assertTrue(percentile + ": " + estimate + " < " + exact, estimate >= exact);
+      assertTrue(percentile + ": " + estimate + " > " + exact, estimate <= exact + exact / 16);
+    }
+    assertEquals(values[values.length - 1], histogram.getMax());
+  }
+
+  @Test
+  public void testMergeMatchesRecordingBoth() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    LatencyHistogram both = new LatencyHistogram();
+    Random random = new Random(3);
+    for (int i = 0; i < 1000; i++) {
+      long value = random.nextInt(5000);
+      (i % 3 == 0 ? first : second).record(value);
+      both.record(value);
+    }
+    LatencyHistogram merged = first.copy();
+    merged.merge(second);
+    assertEquals(both.toString(), merged.toString());
+    assertEquals(both.getMean(), merged.getMean(), 0.0);
+
+    merged.reset();
+    assertEquals(0, merged.getCount());
+    assertEquals(0, merged.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void testHugeValuesShareTheOverflowBucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1L << 40);
+    histogram.record(-5);
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(1L << 40, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testTheTopBucketIsNotTheOverflowBucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record((1L << 32) - 1);
+    histogram.record(1L << 40);
+    assertEquals((1L << 32) - 1, histogram.getValueAtPercentile(50));
+    assertEquals(1L << 40, histogram.getValueAtPercentile(100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPercentileOutOfRange() {
+    new LatencyHistogram().getValueAtPercentile(101);
+  }
+
+  @Test
+  public void testEqualsComparesTheValues() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    for (long value : new long[] {3, 17, 250, 4096}) {
+      first.record(value);
+      second.record(value);
+    }
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertEquals(first, first.copy());
+
+    second.record(250);
+    assertNotEquals(first, second);
+    first.record(251);
+    // the same bucket but a different total.
+    assertNotEquals(first, second);
+  }
+}
@@ -0,0 +1,58 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class tests the tick profiler.
+ */
+public class TickProfilerTest {
+
+  @Test
+  public void testPhasesAddUpToTheTotal() {
+    Building building = new Building(10, 3, 5);
+    TickProfiler profiler = new TickProfiler();
+    building.addTickListener(profiler);
+    building.startElevatorSystem();
+    for (int i = 0; i < 100; i++) {
+      building.addRequestToElevatorSystem(new Request(i % 10, (i + 3) % 10));
+      building.stepElevatorSystem();
+    }
+
+    assertEquals(100, profiler.getTicks());
+    assertEquals(profiler.getDispatchNanos() + profiler.getElevatorNanos()
+        + profiler.getBookkeepingNanos(), profiler.getTotalNanos());
+    assertEquals(profiler.getElevatorNanos(), profiler.getElevatorNanos(0)
+        + profiler.getElevatorNanos(1) + profiler.getElevatorNanos(2));
+    assertEquals(0, profiler.getElevatorNanos(3));
+    assertTrue(profiler.getMaxTickNanos() > 0);
+    assertTrue(profiler.getMaxTickNanos() <= profiler.getTotalNanos());
+    assertTrue(profiler.toString().startsWith("ticks=100 "));
+
+    profiler.reset();
+    assertEquals(0, profiler.getTicks());
+    assertEquals(0, profiler.getTotalNanos());
+    assertEquals(0, profiler.getElevatorNanos(0));
+  }
+
+  @Test
+  public void testParallelSteppingIsTimedAsAWhole() {
+    Building building = new Building(10, 4, 5);
+    building.setParallelStepping(ForkJoinPool.commonPool(), 1);
+    TickProfiler profiler = new TickProfiler();
+    building.addTickListener(profiler);
+    building.startElevatorSystem();
+    for (int i = 0; i < 20; i++) {
+      building.stepElevatorSystem();
+    }
+
+    assertEquals(20, profiler.getTicks());
+    assertEquals(profiler.getElevatorNanos(), profiler.getElevatorNanos(0)
+        + profiler.getElevatorNanos(1) + profiler.getElevatorNanos(2)
+        + profiler.getElevatorNanos(3));
+  }
+}
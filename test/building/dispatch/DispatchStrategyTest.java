@@ -0,0 +1,154 @@
+package building.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingReport;
+import building.enums.Direction;
+import building.queue.FloorBucketRequestQueue;
+import elevator.ElevatorReport;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class tests the dispatch strategies through the Building.
+ */
+public class DispatchStrategyTest {
+
+  /**
+   * Create a running building with the given strategy.
+   */
+  private Building runningBuilding(int elevators, DispatchStrategy strategy) {
+    Building building = new Building(10, elevators, 3, FloorBucketRequestQueue::new);
+    building.setDispatchStrategy(strategy);
+    building.startElevatorSystem();
+    return building;
+  }
+
+  private void step(Building building, int steps) {
+    for (int i = 0; i < steps; i++) {
+      building.stepElevatorSystem();
+    }
+  }
+
+  private ElevatorReport elevator(Building building, int index) {
+    return building.getStatusElevatorSystem().getElevatorReports()[index];
+  }
+
+  @Test
+  public void nearestCarIsAssignedAheadOfTime() {
+    Building building = runningBuilding(1, new NearestCarDispatchStrategy());
+    // leave the ground floor
+    step(building, 6);
+    assertEquals(1, elevator(building, 0).getCurrentFloor());
+
+    building.addRequestToElevatorSystem(new Request(6, 8));
+    building.stepElevatorSystem();
+
+    // the call is taken from the queue and the elevator will stop for it.
+    BuildingReport report = building.getStatusElevatorSystem();
+    assertTrue(report.getUpRequests().isEmpty());
+    assertTrue(report.getElevatorReports()[0].getFloorRequests()[6]);
+    assertTrue(report.getElevatorReports()[0].getFloorRequests()[8]);
+
+    step(building, 5);
+    assertEquals(6, elevator(building, 0).getCurrentFloor());
+    assertFalse(elevator(building, 0).isDoorClosed());
+  }
+
+  @Test
+  public void nearestCarPrefersTheClosestElevator() {
+    Building building = runningBuilding(2, new NearestCarDispatchStrategy());
+    // elevator 0 leaves the ground floor with a request, elevator 1 stays behind.
+    building.addRequestToElevatorSystem(new Request(0, 9));
+    step(building, 7);
+    ElevatorReport first = elevator(building, 0);
+    assertEquals(3, first.getCurrentFloor());
+
+    building.addRequestToElevatorSystem(new Request(5, 7));
+    building.stepElevatorSystem();
+    assertTrue(elevator(building, 0).getFloorRequests()[5]);
+    assertFalse(elevator(building, 1).getFloorRequests()[5]);
+  }
+
+  @Test
+  public void collectiveControlOnlyPicksUpOnTheCurrentFloor() {
+    Building building = runningBuilding(1, new CollectiveControlDispatchStrategy());
+    step(building, 6);
+
+    building.addRequestToElevatorSystem(new Request(6, 8));
+    building.stepElevatorSystem();
+    assertEquals(1, building.getStatusElevatorSystem().getUpRequests().size());
+
+    step(building, 4);
+    assertEquals(6, elevator(building, 0).getCurrentFloor());
+    assertTrue(elevator(building, 0).isDoorClosed());
+    assertEquals(1, building.getStatusElevatorSystem().getUpRequests().size());
+
+    building.stepElevatorSystem();
+    assertEquals(6, elevator(building, 0).getCurrentFloor());
+    assertFalse(elevator(building, 0).isDoorClosed());
+    assertTrue(building.getStatusElevatorSystem().getUpRequests().isEmpty());
+  }
+
+  @Test
+  public void lookTurnsAroundForCallsBehind() {
+    Building building = runningBuilding(1, new LookDispatchStrategy());
+    step(building, 6);
+    // the elevator is on floor 1 going up with nothing to do.
+    building.stepElevatorSystem();
+    building.stepElevatorSystem();
+    assertEquals(3, elevator(building, 0).getCurrentFloor());
+
+    building.addRequestToElevatorSystem(new Request(2, 0));
+    building.stepElevatorSystem();
+    assertEquals(Direction.DOWN, elevator(building, 0).getDirection());
+    assertEquals(2, elevator(building, 0).getCurrentFloor());
+    assertTrue(building.getStatusElevatorSystem().getDownRequests().isEmpty());
+
+    building.stepElevatorSystem();
+    assertFalse(elevator(building, 0).isDoorClosed());
+  }
+
+  @Test
+  public void lookKeepsGoingForCallsAhead() {
+    Building building = runningBuilding(1, new LookDispatchStrategy());
+    step(building, 8);
+    assertEquals(3, elevator(building, 0).getCurrentFloor());
+
+    building.addRequestToElevatorSystem(new Request(2, 0));
+    building.addRequestToElevatorSystem(new Request(7, 4));
+    building.stepElevatorSystem();
+    assertEquals(Direction.UP, elevator(building, 0).getDirection());
+    assertEquals(4, elevator(building, 0).getCurrentFloor());
+  }
+
+  @Test
+  public void destinationGroupingLoadsNearbyEndFloors() {
+    Building building = runningBuilding(1, new DestinationGroupingDispatchStrategy());
+    building.addRequestToElevatorSystem(new Request(0, 5));
+    building.addRequestToElevatorSystem(new Request(0, 2));
+    building.addRequestToElevatorSystem(new Request(0, 9));
+    building.addRequestToElevatorSystem(new Request(0, 6));
+    building.addRequestToElevatorSystem(new Request(0, 5));
+    building.addRequestToElevatorSystem(new Request(0, 3));
+    building.stepElevatorSystem();
+
+    // the oldest request goes to 5, so the load is 5, 5 and 6.
+    boolean[] stops = elevator(building, 0).getFloorRequests();
+    assertTrue(stops[5]);
+    assertTrue(stops[6]);
+    assertFalse(stops[2]);
+    assertFalse(stops[3]);
+    assertFalse(stops[9]);
+    assertEquals("[0->2, 0->9, 0->3]",
+        building.getStatusElevatorSystem().getUpRequests().toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void destinationGroupingNeedsLookahead() {
+    new DestinationGroupingDispatchStrategy(0);
+  }
+}
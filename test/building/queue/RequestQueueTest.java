@@ -0,0 +1,433 @@
+package building.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class tests the request queue implementations.
+ */
+public class RequestQueueTest {
+
+  @Test
+  public void ringBufferIsFirstInFirstOut() {
+    RequestQueue queue = new RingBufferRequestQueue();
+    for (int i = 0; i < 100; i++) {
+      queue.add(new Request(i % 10, 10));
+    }
+    assertEquals(100, queue.size());
+
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, queue.drainTo(drained, 3));
+    assertEquals(97, queue.size());
+    assertEquals(0, drained.get(0).getStartFloor());
+    assertEquals(1, drained.get(1).getStartFloor());
+    assertEquals(2, drained.get(2).getStartFloor());
+
+    List<Request> remaining = queue.toList();
+    assertEquals(97, remaining.size());
+    assertEquals(3, remaining.get(0).getStartFloor());
+  }
+
+  @Test
+  public void ringBufferWrapsAroundAndGrows() {
+    RequestQueue queue = new RingBufferRequestQueue();
+    List<Request> drained = new ArrayList<>();
+    int next = 0;
+    int expected = 0;
+    for (int round = 0; round < 50; round++) {
+      for (int i = 0; i < 7; i++) {
+        queue.add(new Request(next++, 1000));
+      }
+      drained.clear();
+      queue.drainTo(drained, 5);
+      for (Request request : drained) {
+        assertEquals(expected++, request.getStartFloor());
+      }
+    }
+    assertEquals(100, queue.size());
+    assertEquals(expected, queue.toList().get(0).getStartFloor());
+
+    drained.clear();
+    assertEquals(100, queue.drainTo(drained, 1000));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void ringBufferClear() {
+    RequestQueue queue = new RingBufferRequestQueue();
+    queue.add(new Request(0, 1));
+    queue.add(new Request(0, 2));
+    queue.clear();
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.toList().size());
+  }
+
+  @Test
+  public void floorBucketsServeUpRequestsLowestFloorFirst() {
+    RequestQueue queue = new FloorBucketRequestQueue(10, Direction.UP);
+    queue.add(new Request(5, 6));
+    queue.add(new Request(1, 9));
+    queue.add(new Request(5, 7));
+    queue.add(new Request(0, 3));
+
+    assertEquals("[0->3, 1->9, 5->6, 5->7]", queue.toList().toString());
+
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, queue.drainTo(drained, 3));
+    assertEquals("[0->3, 1->9, 5->6]", drained.toString());
+
+    // a request below the cursor is served next.
+    queue.add(new Request(2, 4));
+    drained.clear();
+    assertEquals(2, queue.drainTo(drained, 5));
+    assertEquals("[2->4, 5->7]", drained.toString());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void floorBucketsServeDownRequestsHighestFloorFirst() {
+    RequestQueue queue = new FloorBucketRequestQueue(10, Direction.DOWN);
+    queue.add(new Request(3, 0));
+    queue.add(new Request(9, 1));
+    queue.add(new Request(6, 2));
+
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, queue.drainTo(drained, 10));
+    assertEquals("[9->1, 6->2, 3->0]", drained.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void floorBucketsRejectFloorOutsideBuilding() {
+    RequestQueue queue = new FloorBucketRequestQueue(10, Direction.UP);
+    queue.add(new Request(10, 11));
+  }
+
+  @Test
+  public void drainMatchingKeepsTheOrderOfTheRest() {
+    RequestQueue[] queues = {new RingBufferRequestQueue(),
+        new FloorBucketRequestQueue(10, Direction.UP), new PersistentRequestQueue(),
+        new PriorityRequestQueue()};
+    for (RequestQueue queue : queues) {
+      queue.add(new Request(1, 5));
+      queue.add(new Request(1, 2));
+      queue.add(new Request(3, 5));
+      queue.add(new Request(3, 4));
+      queue.add(new Request(4, 5));
+
+      List<Request> drained = new ArrayList<>();
+      assertEquals(2, queue.drainMatchingTo(request -> request.getEndFloor() == 5, drained, 2));
+      assertEquals("[1->5, 3->5]", drained.toString());
+      assertEquals(1, queue.sizeAtFloor(1));
+      assertEquals(1, queue.sizeAtFloor(3));
+
+      List<Request> remaining = new ArrayList<>();
+      for (Request request : queue) {
+        remaining.add(request);
+      }
+      assertEquals("[1->2, 3->4, 4->5]", remaining.toString());
+
+      drained.clear();
+      assertEquals(1, queue.drainFloorTo(4, drained, 5));
+      assertEquals(2, queue.size());
+    }
+  }
+
+  @Test
+  public void drainMatchingLooksOnlyAtTheWindow() {
+    RequestQueue[] queues = {new RingBufferRequestQueue(),
+        new FloorBucketRequestQueue(10, Direction.UP), new PersistentRequestQueue(),
+        new PriorityRequestQueue()};
+    for (RequestQueue queue : queues) {
+      for (int i = 0; i < 8; i++) {
+        queue.add(new Request(i, 9 - i % 2));
+      }
+      List<Request> before = queue.toList();
+      String expected = before.toString();
+
+      // requests 1 and 3 end on floor 8, request 5 does too but is outside the window.
+      List<Request> drained = new ArrayList<>();
+      assertEquals(2, queue.drainMatchingTo(request -> request.getEndFloor() == 8,
+          drained, 10, 5));
+      assertEquals("[1->8, 3->8]", drained.toString());
+      assertEquals("[0->9, 2->9, 4->9, 5->8, 6->9, 7->8]", queue.toList().toString());
+      assertEquals(0, queue.sizeAtFloor(3));
+      assertEquals(expected, before.toString());
+
+      drained.clear();
+      assertEquals(1, queue.drainMatchingTo(request -> request.getEndFloor() == 9,
+          drained, 1, 6));
+      assertEquals("[0->9]", drained.toString());
+      assertEquals(0, queue.drainMatchingTo(request -> true, drained, 5, 0));
+      assertEquals(5, queue.size());
+    }
+  }
+
+  @Test
+  public void persistentQueueIsFirstInFirstOut() {
+    RequestQueue queue = new PersistentRequestQueue();
+    List<Request> drained = new ArrayList<>();
+    int next = 0;
+    int expected = 0;
+    for (int round = 0; round < 50; round++) {
+      for (int i = 0; i < 7; i++) {
+        queue.add(new Request(next++, 1000));
+      }
+      drained.clear();
+      queue.drainTo(drained, 5);
+      for (Request request : drained) {
+        assertEquals(expected++, request.getStartFloor());
+      }
+    }
+    assertEquals(100, queue.size());
+    assertEquals(1, queue.sizeAtFloor(expected));
+    assertEquals(expected, queue.toList().get(0).getStartFloor());
+  }
+
+  @Test
+  public void persistentQueueViewsDoNotChange() {
+    RequestQueue queue = new PersistentRequestQueue();
+    for (int i = 0; i < 10; i++) {
+      queue.add(new Request(i, 20));
+    }
+    List<Request> before = queue.toList();
+    String expected = before.toString();
+
+    List<Request> drained = new ArrayList<>();
+    queue.drainTo(drained, 2);
+    for (int i = 0; i < 40; i++) {
+      queue.add(new Request(i, 20));
+    }
+    assertEquals(expected, before.toString());
+
+    List<Request> afterAdding = queue.toList();
+    String expectedAfterAdding = afterAdding.toString();
+    assertEquals(48, afterAdding.size());
+    queue.drainMatchingTo(request -> request.getStartFloor() % 2 == 1, drained, 100);
+    queue.clear();
+    queue.add(new Request(3, 4));
+    assertEquals(expected, before.toString());
+    assertEquals(expectedAfterAdding, afterAdding.toString());
+    assertEquals("[3->4]", queue.toList().toString());
+  }
+
+  @Test
+  public void persistentQueueDrainsAMiddleFloorOfALargeQueue() {
+    RequestQueue queue = new PersistentRequestQueue();
+    List<Request> expected = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      Request request = new Request(i % 100, 100);
+      queue.add(request);
+      expected.add(request);
+    }
+    List<Request> before = queue.toList();
+
+    // one request at a time, as elevators stopping at the floor would take them.
+    List<Request> drained = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(1, queue.drainFloorTo(50, drained, 1));
+      assertSame(expected.get(50 + i * 100), drained.get(i));
+    }
+    assertEquals(0, queue.drainFloorTo(50, drained, 1));
+    assertEquals(0, queue.sizeAtFloor(50));
+    assertEquals(1000, queue.sizeAtFloor(49));
+    expected.removeIf(request -> request.getStartFloor() == 50);
+    assertEquals(expected.size(), queue.size());
+    assertEquals(100_000, before.size());
+    assertSame(drained.get(0), before.get(50));
+
+    List<Request> remaining = new ArrayList<>();
+    for (Request request : queue) {
+      remaining.add(request);
+    }
+    assertEquals(expected, remaining);
+    assertEquals(expected, queue.toList());
+
+    queue.add(new Request(50, 100));
+    drained.clear();
+    assertEquals(1, queue.drainFloorTo(50, drained, 5));
+    assertEquals(expected, queue.toList());
+  }
+
+  @Test
+  public void persistentQueueMatchesAList() {
+    Random random = new Random(12);
+    RequestQueue queue = new PersistentRequestQueue();
+    List<Request> expected = new ArrayList<>();
+    for (int round = 0; round < 2000; round++) {
+      for (int i = random.nextInt(8); i > 0; i--) {
+        Request request = new Request(random.nextInt(10), 10);
+        queue.add(request);
+        expected.add(request);
+      }
+      List<Request> drained = new ArrayList<>();
+      int floor = random.nextInt(10);
+      int max = random.nextInt(4);
+      queue.drainFloorTo(floor, drained, max);
+      List<Request> expectedDrained = new ArrayList<>();
+      for (Request request : expected) {
+        if (request.getStartFloor() == floor && expectedDrained.size() < max) {
+          expectedDrained.add(request);
+        }
+      }
+      assertEquals(expectedDrained, drained);
+      expected.removeAll(expectedDrained);
+
+      if (round % 3 == 0) {
+        drained.clear();
+        int end = random.nextInt(10);
+        int window = random.nextInt(10);
+        queue.drainMatchingTo(request -> request.getEndFloor() == end, drained, 2, window);
+        expectedDrained.clear();
+        for (Request request : expected.subList(0, Math.min(window, expected.size()))) {
+          if (request.getEndFloor() == end && expectedDrained.size() < 2) {
+            expectedDrained.add(request);
+          }
+        }
+        assertEquals(expectedDrained, drained);
+        expected.removeAll(expectedDrained);
+      }
+      if (round % 5 == 0) {
+        drained.clear();
+        queue.drainTo(drained, random.nextInt(3));
+        assertEquals(expected.subList(0, drained.size()), drained);
+        expected.subList(0, drained.size()).clear();
+      }
+      assertEquals(expected.size(), queue.size());
+      assertEquals(expected.stream().filter(request -> request.getStartFloor() == floor)
+          .count(), queue.sizeAtFloor(floor));
+      if (round % 7 == 0) {
+        assertEquals(expected, queue.toList());
+      }
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void persistentQueueViewsAreReadOnly() {
+    RequestQueue queue = new PersistentRequestQueue();
+    queue.add(new Request(0, 1));
+    queue.toList().add(new Request(0, 2));
+  }
+
+  @Test
+  public void ingressQueueKeepsEachProducersOrder() throws InterruptedException {
+    RequestIngressQueue ingress = new RequestIngressQueue();
+    assertTrue(ingress.isEmpty());
+    int producers = 4;
+    int perProducer = 5000;
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      int floor = p;
+      threads[p] = new Thread(() -> {
+        for (int i = 1; i <= perProducer; i++) {
+          ingress.offer(new Request(floor, i + producers));
+        }
+      });
+      threads[p].start();
+    }
+
+    // drain while the producers are still adding.
+    List<Request> drained = new ArrayList<>();
+    int[] last = new int[producers];
+    while (drained.size() < producers * perProducer) {
+      int from = drained.size();
+      ingress.drainTo(drained);
+      for (int i = from; i < drained.size(); i++) {
+        Request request = drained.get(i);
+        assertEquals(last[request.getStartFloor()] + 1, request.getEndFloor() - producers);
+        last[request.getStartFloor()]++;
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(ingress.isEmpty());
+  }
+
+  @Test
+  public void priorityQueueServesByPriorityThenDeadlineThenAge() {
+    RequestQueue queue = new PriorityRequestQueue();
+    queue.add(new Request(0, 1));
+    queue.add(new Request(0, 2, RequestPriority.freight));
+    queue.add(new Request(0, 3, RequestPriority.accessibility));
+    queue.add(new Request(0, 4, RequestPriority.freight, 50));
+    queue.add(new Request(0, 5, RequestPriority.freight, 20));
+    queue.add(new Request(0, 6));
+    queue.add(new Request(0, 7, RequestPriority.vip));
+
+    assertEquals("[0->3, 0->7, 0->5, 0->4, 0->2, 0->1, 0->6]", queue.toList().toString());
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, queue.drainTo(drained, 3));
+    assertEquals("[0->3, 0->7, 0->5]", drained.toString());
+    assertEquals(4, queue.sizeAtFloor(0));
+  }
+
+  @Test
+  public void priorityQueueMatchesASortedList() {
+    Random random = new Random(16);
+    RequestPriority[] priorities = RequestPriority.values();
+    PriorityRequestQueue queue = new PriorityRequestQueue();
+    List<Request> expected = new ArrayList<>();
+    for (int round = 0; round < 200; round++) {
+      for (int i = random.nextInt(20); i > 0; i--) {
+        long deadline = random.nextBoolean() ? Request.NO_DEADLINE : random.nextInt(30);
+        Request request = new Request(random.nextInt(10), 10,
+            priorities[random.nextInt(priorities.length)], deadline);
+        queue.add(request);
+        expected.add(request);
+      }
+      // a stable sort keeps requests with the same priority and deadline in arrival order.
+      expected.sort((a, b) -> a.getPriority() != b.getPriority()
+          ? a.getPriority().compareTo(b.getPriority())
+          : Long.compare(a.getDeadline(), b.getDeadline()));
+      assertEquals(expected, queue.toList());
+
+      List<Request> drained = new ArrayList<>();
+      int floor = random.nextInt(10);
+      int max = random.nextInt(4);
+      queue.drainFloorTo(floor, drained, max);
+      List<Request> expectedDrained = new ArrayList<>();
+      for (Request request : expected) {
+        if (request.getStartFloor() == floor && expectedDrained.size() < max) {
+          expectedDrained.add(request);
+        }
+      }
+      assertEquals(expectedDrained, drained);
+      expected.removeAll(expectedDrained);
+
+      drained.clear();
+      queue.drainTo(drained, random.nextInt(5));
+      assertEquals(expected.subList(0, drained.size()), drained);
+      expected.subList(0, drained.size()).clear();
+      assertEquals(expected.size(), queue.size());
+
+      if (round % 10 == 0) {
+        drained.clear();
+        RequestPriority priority = priorities[random.nextInt(priorities.length)];
+        queue.drainMatchingTo(request -> request.getPriority() == priority, drained, 3);
+        expectedDrained.clear();
+        for (Request request : expected) {
+          if (request.getPriority() == priority && expectedDrained.size() < 3) {
+            expectedDrained.add(request);
+          }
+        }
+        assertEquals(expectedDrained, drained);
+        expected.removeAll(expectedDrained);
+      }
+
+      List<Request> iterated = new ArrayList<>();
+      for (Request request : queue) {
+        iterated.add(request);
+      }
+      assertEquals(expected, iterated);
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.dispatch.LookDispatchStrategy;
+import building.enums.Direction;
+import building.enums.ElevatorCounter;
+import building.queue.RingBufferRequestQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A JUnit test class for the ElevatorFleet class.
+ * The cars of a fleet must behave exactly like Elevator objects.
+ */
+public class ElevatorFleetTest {
+
+  private void assertSameCar(ElevatorInterface expected, ElevatorInterface actual) {
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getCurrentFloor(), actual.getCurrentFloor());
+    assertEquals(expected.getDirection(), actual.getDirection());
+    assertEquals(expected.isDoorClosed(), actual.isDoorClosed());
+    assertEquals(expected.isTakingRequests(), actual.isTakingRequests());
+    assertArrayEquals(expected.getFloorRequests(), actual.getFloorRequests());
+    assertEquals(expected.getNextStopRequest(), actual.getNextStopRequest());
+    assertEquals(expected.getSpareCapacity(), actual.getSpareCapacity());
+    assertEquals(expected.stepsUntilNextEvent(), actual.stepsUntilNextEvent());
+    assertEquals(expected.idleCycleLength(), actual.idleCycleLength());
+    for (ElevatorCounter counter : ElevatorCounter.values()) {
+      assertEquals(expected.getCounter(counter), actual.getCounter(counter));
+    }
+    ElevatorReport expectedReport = expected.getElevatorStatus();
+    ElevatorReport actualReport = actual.getElevatorStatus();
+    assertEquals(expectedReport.getDoorOpenTimer(), actualReport.getDoorOpenTimer());
+    assertEquals(expectedReport.getEndWaitTimer(), actualReport.getEndWaitTimer());
+    assertEquals(expectedReport.isOutOfService(), actualReport.isOutOfService());
+  }
+
+  @Test
+  public void testCarsHaveTheirIndexAsId() {
+    ElevatorFleet fleet = new ElevatorFleet(4, 10, 5);
+    assertEquals(4, fleet.size());
+    for (int i = 0; i < fleet.size(); i++) {
+      assertEquals(i, fleet.getCar(i).getElevatorId());
+      assertEquals(10, fleet.getCar(i).getMaxFloor());
+      assertEquals(5, fleet.getCar(i).getMaxOccupancy());
+    }
+  }
+
+  @Test
+  public void testCarStatusIsSharedUntilItChanges() {
+    ElevatorFleet fleet = new ElevatorFleet(2, 10, 5);
+    ElevatorInterface car = fleet.getCar(1);
+    // the first step of a car that is out of service opens its door.
+    fleet.step();
+    ElevatorReport idle = car.getElevatorStatus();
+    fleet.step();
+    assertSame(idle, car.getElevatorStatus());
+
+    car.start();
+    ElevatorReport started = car.getElevatorStatus();
+    assertNotSame(idle, started);
+    assertSame(started, car.getElevatorStatus());
+
+    // only the floor requests change.
+    car.processRequests(List.of(new Request(2, 7)));
+    ElevatorReport requested = car.getElevatorStatus();
+    assertNotEquals(started, requested);
+    assertTrue(requested.getFloorRequests()[2]);
+    assertFalse(started.getFloorRequests()[2]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFleetNeedsACar() {
+    new ElevatorFleet(0, 10, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFleetChecksFloorLimit() {
+    new ElevatorFleet(2, 31, 5);
+  }
+
+  @Test
+  public void testCarMatchesElevator() {
+    Elevator elevator = new Elevator(10, 5);
+    ElevatorInterface car = new ElevatorFleet(1, 10, 5).getCar(0);
+    assertSameCar(elevator, car);
+
+    elevator.start();
+    car.start();
+    Random random = new Random(3);
+    for (int step = 0; step < 5000; step++) {
+      boolean atEnd = elevator.getCurrentFloor() == 0 || elevator.getCurrentFloor() == 9;
+      if (elevator.isTakingRequests() && atEnd && random.nextInt(4) == 0) {
+        List<Request> requests = new ArrayList<>();
+        boolean up = elevator.getCurrentFloor() == 0;
+        for (int i = random.nextInt(5); i > 0; i--) {
+          int floor = 1 + random.nextInt(9);
+          requests.add(up ? new Request(0, floor) : new Request(9, floor - 1));
+        }
+        elevator.processRequests(requests);
+        car.processRequests(requests);
+      } else if (elevator.isAcceptingPickUps(elevator.getDirection())
+          && elevator.getSpareCapacity() > 0
+          && random.nextInt(3) == 0) {
+        boolean up = elevator.getDirection() == Direction.UP;
+        int start = elevator.getCurrentFloor() + (up ? 1 : -1);
+        if (start < 1 || start > 8) {
+          continue;
+        }
+        List<Request> requests = new ArrayList<>();
+        requests.add(new Request(start, up ? 9 : 0));
+        elevator.pickUpRequests(requests);
+        car.pickUpRequests(requests);
+      } else if (step % 700 == 350) {
+        elevator.takeOutOfService();
+        car.takeOutOfService();
+      } else if (step % 700 == 500) {
+        elevator.start();
+        car.start();
+      }
+      elevator.step();
+      car.step();
+      assertSameCar(elevator, car);
+    }
+  }
+
+  /**
+   * Run a fleet and one Elevator per car side by side on random requests, and
+   * compare every car with its elevator after every call. The calls include
+   * ones the elevators refuse, which the cars must refuse the same way.
+   */
+  @Test
+  public void testCarsMatchElevatorsOnRandomRequests() {
+    for (int seed = 0; seed < 100; seed++) {
+      Random random = new Random(seed);
+      int floors = 3 + random.nextInt(28);
+      int capacity = 3 + random.nextInt(18);
+      int cars = 1 + random.nextInt(4);
+      ElevatorFleet fleet = new ElevatorFleet(cars, floors, capacity);
+      Elevator[] elevators = new Elevator[cars];
+      for (int i = 0; i < cars; i++) {
+        elevators[i] = new Elevator(floors, capacity);
+        elevators[i].start();
+        fleet.getCar(i).start();
+      }
+
+      for (int step = 0; step < 1000; step++) {
+        for (int i = 0; i < cars; i++) {
+          Elevator elevator = elevators[i];
+          ElevatorInterface car = fleet.getCar(i);
+          this.randomCall(random, floors, elevator, car);
+          assertSameCarAt(seed, step, elevator, car);
+        }
+        if (random.nextInt(10) == 0) {
+          // move every car on as far as it can go in one jump.
+          for (int i = 0; i < cars; i++) {
+            int steps = 1 + random.nextInt(elevators[i].stepsUntilNextEvent());
+            elevators[i].skipSteps(steps);
+            fleet.getCar(i).skipSteps(steps);
+          }
+        } else {
+          for (Elevator elevator : elevators) {
+            elevator.step();
+          }
+          fleet.step();
+        }
+        for (int i = 0; i < cars; i++) {
+          assertSameCarAt(seed, step, elevators[i], fleet.getCar(i));
+        }
+      }
+    }
+  }
+
+  private void randomCall(Random random, int floors, Elevator elevator,
+                          ElevatorInterface car) {
+    int floor = elevator.getCurrentFloor();
+    switch (random.nextInt(12)) {
+      case 0:
+      case 1:
+        if (elevator.isTakingRequests()) {
+          List<Request> requests = new ArrayList<>();
+          for (int i = random.nextInt(4); i > 0; i--) {
+            int end = random.nextInt(floors);
+            if (end != floor) {
+              requests.add(new Request(floor, end));
+            }
+          }
+          assertSameOutcome(() -> elevator.processRequests(new ArrayList<>(requests)),
+              () -> car.processRequests(new ArrayList<>(requests)));
+        }
+        break;
+      case 2:
+      case 3:
+      case 4:
+        List<Request> requests = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+          int start = random.nextInt(floors);
+          int end = random.nextInt(floors);
+          if (start != end) {
+            requests.add(new Request(start, end));
+          }
+        }
+        assertSameOutcome(() -> elevator.pickUpRequests(new ArrayList<>(requests)),
+            () -> car.pickUpRequests(new ArrayList<>(requests)));
+        break;
+      case 5:
+        assertSameOutcome(elevator::reverseDirection, car::reverseDirection);
+        break;
+      case 6:
+        if (random.nextInt(20) == 0) {
+          elevator.takeOutOfService();
+          car.takeOutOfService();
+        } else if (random.nextInt(5) == 0) {
+          elevator.start();
+          car.start();
+        }
+        break;
+      case 7:
+        long cycles = random.nextInt(3);
+        assertSameOutcome(() -> elevator.skipIdleCycles(cycles),
+            () -> car.skipIdleCycles(cycles));
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static void assertSameOutcome(Runnable expected, Runnable actual) {
+    assertEquals(outcome(expected), outcome(actual));
+  }
+
+  private static Class<?> outcome(Runnable call) {
+    try {
+      call.run();
+      return null;
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  private void assertSameCarAt(int seed, int step, Elevator expected,
+                               ElevatorInterface actual) {
+    String where = "seed " + seed + " step " + step;
+    assertEquals(where, ElevatorDigest.of(expected), ElevatorDigest.of(actual));
+    ElevatorReport expectedReport = expected.getElevatorStatus();
+    ElevatorReport actualReport = actual.getElevatorStatus();
+    assertEquals(where + " " + expectedReport + " " + actualReport,
+        expectedReport.toString(), actualReport.toString());
+    assertEquals(where, expectedReport.getDoorOpenTimer(), actualReport.getDoorOpenTimer());
+    assertEquals(where, expectedReport.getEndWaitTimer(), actualReport.getEndWaitTimer());
+    assertEquals(where, expectedReport.isOutOfService(), actualReport.isOutOfService());
+    assertArrayEquals(where, expectedReport.getFloorRequests(),
+        actualReport.getFloorRequests());
+    assertEquals(where, expected.stepsUntilNextEvent(), actual.stepsUntilNextEvent());
+    assertEquals(where, expected.idleCycleLength(), actual.idleCycleLength());
+    assertEquals(where, expected.isAcceptingPickUps(Direction.UP),
+        actual.isAcceptingPickUps(Direction.UP));
+    assertEquals(where, expected.isAcceptingPickUps(Direction.DOWN),
+        actual.isAcceptingPickUps(Direction.DOWN));
+    for (ElevatorCounter counter : ElevatorCounter.values()) {
+      assertEquals(where + " " + counter, expected.getCounter(counter),
+          actual.getCounter(counter));
+    }
+  }
+
+  @Test
+  public void testTallFleetFindsStopsAcrossWords() {
+    ElevatorFleet fleet = new ElevatorFleet(3, 150, 10, 200, 50);
+    Elevator elevator = new Elevator(150, 10, 200, 50);
+    ElevatorInterface car = fleet.getCar(1);
+    elevator.start();
+    car.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 63));
+    requests.add(new Request(0, 64));
+    requests.add(new Request(0, 128));
+    requests.add(new Request(0, 149));
+    elevator.processRequests(requests);
+    car.processRequests(requests);
+
+    while (elevator.getCurrentFloor() < 149 || elevator.isDoorClosed()) {
+      elevator.step();
+      fleet.step();
+      assertSameCar(elevator, car);
+    }
+    assertEquals(10, car.getSpareCapacity());
+    // the other cars were never started.
+    assertEquals("Out of Service[Floor 0]", fleet.getCar(0).toString());
+  }
+
+  @Test
+  public void testFleetBuildingMatchesElevatorBuilding() {
+    Building objects = new Building(12, 6, 4, (floors, direction) -> new RingBufferRequestQueue());
+    Building fleet = new Building(new ElevatorFleet(6, 12, 4),
+        (floors, direction) -> new RingBufferRequestQueue());
+    objects.setDispatchStrategy(new LookDispatchStrategy());
+    fleet.setDispatchStrategy(new LookDispatchStrategy());
+    assertEquals(12, fleet.getNumberOfFloors());
+    assertEquals(6, fleet.getNumberOfElevators());
+    assertEquals(4, fleet.getElevatorCapacity());
+    objects.startElevatorSystem();
+    fleet.startElevatorSystem();
+
+    Random random = new Random(11);
+    for (int round = 0; round < 400; round++) {
+      if (round % 100 == 70) {
+        objects.stopElevatorSystem();
+        fleet.stopElevatorSystem();
+      } else if (round % 100 == 90) {
+        objects.startElevatorSystem();
+        fleet.startElevatorSystem();
+      } else if (round % 100 < 70) {
+        int startFloor = random.nextInt(12);
+        int endFloor = (startFloor + 1 + random.nextInt(11)) % 12;
+        objects.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+        fleet.addRequestToElevatorSystem(new Request(startFloor, endFloor));
+      }
+
+      int steps = random.nextInt(40);
+      for (int i = 0; i < steps; i++) {
+        objects.stepElevatorSystem();
+      }
+      fleet.advanceElevatorSystem(steps);
+      assertEquals(objects.getStatusElevatorSystem().getSystemStatus(),
+          fleet.getStatusElevatorSystem().getSystemStatus());
+      assertEquals(objects.getWaitingRequestCount(), fleet.getWaitingRequestCount());
+      ElevatorReport[] expected = objects.getStatusElevatorSystem().getElevatorReports();
+      ElevatorReport[] actual = fleet.getStatusElevatorSystem().getElevatorReports();
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(expected[i].toString(), actual[i].toString());
+      }
+    }
+  }
+}
@@ -57,6 +57,16 @@ public class ElevatorReportTest {
     assertArrayEquals(new boolean[] {false, true, true}, report.getFloorRequests());
   }
 
+  @Test
+  public void floorRequestsCannotBeChangedFromOutside() {
+    boolean[] floorRequests = {false, true, false};
+    ElevatorReport copied = new ElevatorReport(1, 1, Direction.STOPPED, true, floorRequests,
+        0, 0, false, false);
+    floorRequests[0] = true;
+    copied.getFloorRequests()[2] = true;
+    assertArrayEquals(new boolean[] {false, true, false}, copied.getFloorRequests());
+  }
+
   @Test
   public void getDirection() {
     assertEquals(Direction.STOPPED, report.getDirection());
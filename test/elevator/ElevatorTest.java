@@ -2,9 +2,13 @@ package elevator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import building.enums.Direction;
+import building.enums.ElevatorCounter;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Before;
@@ -128,6 +132,52 @@ public class ElevatorTest {
     new Elevator(10, 21);
   }
 
+  /**
+   * Test the constructor with limits.
+   * The limits replace the defaults but are still enforced.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorConstructorThrowsExceptionAboveFloorLimit() {
+    System.out.println("Testing: elevatorConstructorThrowsExceptionAboveFloorLimit");
+    new Elevator(201, 10, 200, 50);
+  }
+
+  /**
+   * Test an elevator in a 150 floor tower.
+   * The stop requests are found in the direction of travel and cleared as they are served.
+   */
+  @Test
+  public void tallElevatorServesHighFloors() {
+    System.out.println("Testing: tallElevatorServesHighFloors");
+    Elevator tall = new Elevator(150, 40, 200, 50);
+    assertEquals(150, tall.getMaxFloor());
+    assertEquals(40, tall.getMaxOccupancy());
+    tall.start();
+
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 120));
+    requests.add(new Request(64, 149));
+    tall.processRequests(requests);
+    assertEquals(0, tall.getNextStopRequest());
+    assertEquals(150, tall.getFloorRequests().length);
+
+    // leave the ground floor and travel up to floor 64.
+    while (tall.getCurrentFloor() < 64) {
+      tall.step();
+    }
+    assertEquals(64, tall.getNextStopRequest());
+    tall.step();
+    assertFalse(tall.isDoorClosed());
+    assertFalse(tall.getFloorRequests()[64]);
+    assertEquals(120, tall.getNextStopRequest());
+
+    while (tall.getCurrentFloor() < 149) {
+      tall.step();
+    }
+    assertFalse(tall.getFloorRequests()[120]);
+    assertEquals(149, tall.getNextStopRequest());
+  }
+
 
   /**
    * Test the constructor.
@@ -172,6 +222,19 @@ public class ElevatorTest {
 
   }
 
+  /**
+   * Test that an elevator given an id keeps it and does not use the shared counter.
+   */
+  @Test
+  public void elevatorGivenId() {
+    System.out.println("Testing: elevatorGivenId");
+
+    Elevator elevator = new Elevator(7, 10, 5, Elevator.DEFAULT_FLOOR_LIMIT,
+        Elevator.DEFAULT_OCCUPANCY_LIMIT);
+    assertEquals(7, elevator.getElevatorId());
+    assertEquals(7, elevator.getElevatorStatus().getElevatorId());
+  }
+
 
   /**
    * Test that the elevator starts out of service.
@@ -737,6 +800,210 @@ public class ElevatorTest {
     elevatorTenFloors10Capacity.processRequests(upTenRequests);
   }
 
+  /**
+   * Test that requests on the way are picked up mid run.
+   */
+  @Test
+  public void elevatorPicksUpRequestsMidRun() {
+    System.out.println("Testing: elevatorPicksUpRequestsMidRun");
+    elevatorTenFloors10Capacity.start();
+    assertFalse(elevatorTenFloors10Capacity.isAcceptingPickUps(Direction.UP));
+
+    for (int i = 0; i < 7; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    // elevator is on floor 2 going up
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isAcceptingPickUps(Direction.UP));
+    assertFalse(elevatorTenFloors10Capacity.isAcceptingPickUps(Direction.DOWN));
+    assertEquals(10, elevatorTenFloors10Capacity.getSpareCapacity());
+
+    List<Request> pickUps = new ArrayList<>();
+    pickUps.add(new Request(2, 4));
+    pickUps.add(new Request(3, 4));
+    elevatorTenFloors10Capacity.pickUpRequests(pickUps);
+    assertEquals(8, elevatorTenFloors10Capacity.getSpareCapacity());
+
+    // the door opens on floor 2
+    elevatorTenFloors10Capacity.step();
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+
+    // 3 steps for the door, one to move to floor 3, then the door opens
+    for (int i = 0; i < 5; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(3, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+
+    for (int i = 0; i < 5; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    // both requests were dropped off on floor 4
+    assertEquals(4, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+    assertEquals(10, elevatorTenFloors10Capacity.getSpareCapacity());
+  }
+
+  /**
+   * Test that a request behind the elevator is not picked up.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorThrowsExceptionForPickUpBehind() {
+    System.out.println("Testing: elevatorThrowsExceptionForPickUpBehind");
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 10; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    List<Request> pickUps = new ArrayList<>();
+    pickUps.add(new Request(1, 6));
+    elevatorTenFloors10Capacity.pickUpRequests(pickUps);
+  }
+
+  /**
+   * Test that the elevator turns around mid run.
+   */
+  @Test
+  public void elevatorReversesDirection() {
+    System.out.println("Testing: elevatorReversesDirection");
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 8; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(3, elevatorTenFloors10Capacity.getCurrentFloor());
+    elevatorTenFloors10Capacity.reverseDirection();
+    assertEquals(Direction.DOWN, elevatorTenFloors10Capacity.getDirection());
+    elevatorTenFloors10Capacity.step();
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+  }
+
+  /**
+   * Test that the elevator does not turn around with stops ahead.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorThrowsExceptionForReverseWithStopsAhead() {
+    System.out.println("Testing: elevatorThrowsExceptionForReverseWithStopsAhead");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upThreeRequests);
+    for (int i = 0; i < 5; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(1, elevatorTenFloors10Capacity.getCurrentFloor());
+    elevatorTenFloors10Capacity.reverseDirection();
+  }
+
+  /**
+   * Test that skipping steps gives the same result as stepping.
+   */
+  @Test
+  public void elevatorSkipStepsMatchesStep() {
+    System.out.println("Testing: elevatorSkipStepsMatchesStep");
+    Elevator stepped = new Elevator(10, 10);
+    Elevator skipped = new Elevator(10, 10);
+    stepped.start();
+    skipped.start();
+    stepped.processRequests(upTenRequests);
+    skipped.processRequests(upTenRequests);
+
+    for (int i = 0; i < 10; i++) {
+      int steps = skipped.stepsUntilNextEvent();
+      skipped.skipSteps(steps);
+      for (int j = 0; j < steps; j++) {
+        stepped.step();
+      }
+      assertEquals(stepped.toString(), skipped.toString());
+      assertEquals(stepped.getDirection(), skipped.getDirection());
+      for (ElevatorCounter counter : ElevatorCounter.values()) {
+        assertEquals(counter.toString(), stepped.getCounter(counter), skipped.getCounter(counter));
+      }
+    }
+    // the elevator travels past floor 1 with the door closed.
+    assertEquals(0, stepped.idleCycleLength());
+  }
+
+  /**
+   * Test the length of the idle cycle.
+   */
+  @Test
+  public void elevatorIdleCycle() {
+    System.out.println("Testing: elevatorIdleCycle");
+    elevatorTenFloors10Capacity.start();
+    assertEquals(0, elevatorTenFloors10Capacity.idleCycleLength());
+    for (int i = 0; i < 6; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    int cycle = elevatorTenFloors10Capacity.idleCycleLength();
+    assertEquals(30, cycle);
+    String before = elevatorTenFloors10Capacity.toString();
+    for (int i = 0; i < cycle; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(before, elevatorTenFloors10Capacity.toString());
+  }
+
+  /**
+   * Test the counters of an idle cycle, stepped and skipped.
+   */
+  @Test
+  public void elevatorIdleCycleCounters() {
+    System.out.println("Testing: elevatorIdleCycleCounters");
+    Elevator stepped = new Elevator(10, 10);
+    Elevator skipped = new Elevator(10, 10);
+    stepped.start();
+    skipped.start();
+    for (int i = 0; i < 6; i++) {
+      stepped.step();
+      skipped.step();
+    }
+    assertEquals(6, stepped.getCounter(ElevatorCounter.steps));
+    assertEquals(5, stepped.getCounter(ElevatorCounter.stopWaitSteps));
+    assertEquals(1, stepped.getCounter(ElevatorCounter.floorsTravelled));
+
+    for (int i = 0; i < 3 * 30; i++) {
+      stepped.step();
+    }
+    skipped.skipIdleCycles(3);
+    assertEquals(stepped.toString(), skipped.toString());
+    for (ElevatorCounter counter : ElevatorCounter.values()) {
+      assertEquals(counter.toString(), stepped.getCounter(counter), skipped.getCounter(counter));
+    }
+    assertEquals(96, skipped.getCounter(ElevatorCounter.steps));
+    assertEquals(96, skipped.getCounter(ElevatorCounter.idleSteps));
+    assertEquals(55, skipped.getCounter(ElevatorCounter.floorsTravelled));
+    assertEquals(0, skipped.getCounter(ElevatorCounter.doorOpenings));
+  }
+
+  /**
+   * Test that idle cycles cannot be skipped while the elevator has stops.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorThrowsExceptionForSkipIdleCyclesWhenBusy() {
+    System.out.println("Testing: elevatorThrowsExceptionForSkipIdleCyclesWhenBusy");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+    elevatorTenFloors10Capacity.skipIdleCycles(1);
+  }
+
+  /**
+   * Test that skipping past the next event is not allowed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorThrowsExceptionForSkipPastEvent() {
+    System.out.println("Testing: elevatorThrowsExceptionForSkipPastEvent");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.skipSteps(6);
+  }
+
+  /**
+   * Test that the elevator does not pick up while waiting on the ground floor.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorThrowsExceptionForPickUpWhileWaiting() {
+    System.out.println("Testing: elevatorThrowsExceptionForPickUpWhileWaiting");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.pickUpRequests(upThreeRequests);
+  }
+
   /**
    * test toString method.
    * The elevator should be waiting for 5 steps
@@ -998,6 +1265,30 @@ public class ElevatorTest {
     assertEquals(elevatorTenFloors10Capacity.isTakingRequests(), report.isTakingRequests());
   }
 
+  /**
+   * Test that the elevator hands out the same report until something in it changes.
+   */
+  @Test
+  public void testElevatorStatusIsSharedUntilItChanges() {
+    // the first step of an elevator that is out of service opens its door.
+    elevatorTenFloors10Capacity.step();
+    ElevatorReport idle = elevatorTenFloors10Capacity.getElevatorStatus();
+    elevatorTenFloors10Capacity.step();
+    assertSame(idle, elevatorTenFloors10Capacity.getElevatorStatus());
+
+    elevatorTenFloors10Capacity.start();
+    ElevatorReport started = elevatorTenFloors10Capacity.getElevatorStatus();
+    assertNotSame(idle, started);
+    assertSame(started, elevatorTenFloors10Capacity.getElevatorStatus());
+
+    // only the floor requests change.
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+    ElevatorReport requested = elevatorTenFloors10Capacity.getElevatorStatus();
+    assertNotEquals(started, requested);
+    assertTrue(requested.getFloorRequests()[9]);
+    assertFalse(started.getFloorRequests()[9]);
+  }
+
   /**
    * Make the elevator go up and down 100000 times.
    * This is a stress test to see if the elevator can handle a large number of requests.
@@ -0,0 +1,125 @@
+package management;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the JMX beans of a building and its elevators.
+ */
+public class BuildingManagementTest {
+
+  private MBeanServer server;
+  private Building building;
+  private BuildingManagement management;
+
+  @Before
+  public void setUp() {
+    this.server = MBeanServerFactory.newMBeanServer();
+    this.building = new Building(10, 2, 5);
+    // publish after every step so the attributes can be checked step by step.
+    this.building.setStatisticsInterval(0, TimeUnit.MILLISECONDS);
+    this.management = BuildingManagement.register(this.server, "test", this.building);
+  }
+
+  @After
+  public void tearDown() {
+    this.management.unregister();
+  }
+
+  @Test
+  public void testEveryElevatorIsRegistered() {
+    assertTrue(this.server.isRegistered(BuildingManagement.buildingName("test")));
+    assertTrue(this.server.isRegistered(BuildingManagement.elevatorName("test", 0)));
+    assertTrue(this.server.isRegistered(BuildingManagement.elevatorName("test", 1)));
+
+    this.management.unregister();
+    assertFalse(this.server.isRegistered(BuildingManagement.buildingName("test")));
+    assertFalse(this.server.isRegistered(BuildingManagement.elevatorName("test", 0)));
+  }
+
+  @Test
+  public void testRegisteringPublishesStatistics() throws Exception {
+    Building other = new Building(10, 1, 5);
+    assertFalse(other.isPublishingStatistics());
+    BuildingManagement management = BuildingManagement.register(this.server, "other", other);
+    try {
+      assertTrue(other.isPublishingStatistics());
+      other.startElevatorSystem();
+      // a start is published straight away, whatever the interval.
+      assertEquals("Running", this.server.getAttribute(
+          BuildingManagement.buildingName("other"), "SystemStatus"));
+    } finally {
+      management.unregister();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNamesCannotBeRegisteredTwice() {
+    BuildingManagement.register(this.server, "test", new Building(10, 1, 5));
+  }
+
+  @Test
+  public void testOperationsTakeEffectAtTheNextStep() throws Exception {
+    ObjectName name = BuildingManagement.buildingName("test");
+    assertEquals(10, this.server.getAttribute(name, "NumberOfFloors"));
+    assertEquals("Out Of Service", this.server.getAttribute(name, "SystemStatus"));
+
+    this.server.invoke(name, "start", null, null);
+    this.building.stepElevatorSystem();
+    assertEquals("Running", this.server.getAttribute(name, "SystemStatus"));
+
+    Object result = this.server.invoke(name, "injectRequest", new Object[] {2, 7},
+        new String[] {"int", "int"});
+    assertEquals("Submitted", result);
+    result = this.server.invoke(name, "injectRequest", new Object[] {2, 2},
+        new String[] {"int", "int"});
+    assertFalse("Submitted".equals(result));
+    assertEquals(0L, this.server.getAttribute(name, "UpQueueLength"));
+    this.building.stepElevatorSystem();
+    assertEquals(1L, (long) this.server.getAttribute(name, "UpQueueLength")
+        + (long) this.server.getAttribute(name, "RequestsInFlight"));
+
+    for (int i = 0; i < 40; i++) {
+      this.building.stepElevatorSystem();
+    }
+    assertEquals(1L, this.server.getAttribute(name, "RequestsServed"));
+    assertEquals(0L, this.server.getAttribute(name, "RequestsInFlight"));
+    assertEquals(42L, this.server.getAttribute(name, "CurrentStep"));
+    TabularData metrics = (TabularData) this.server.getAttribute(name, "Metrics");
+    CompositeData steps = metrics.get(new Object[] {"building.steps"});
+    assertEquals(42L, steps.get("value"));
+
+    this.server.invoke(name, "stop", null, null);
+    this.building.stepElevatorSystem();
+    assertFalse("Running".equals(this.server.getAttribute(name, "SystemStatus")));
+    assertEquals("Not accepting requests", this.server.invoke(name, "injectRequest",
+        new Object[] {2, 7}, new String[] {"int", "int"}));
+  }
+
+  @Test
+  public void testElevatorAttributes() throws Exception {
+    this.building.startElevatorSystem();
+    this.building.addRequestToElevatorSystem(new scanerzus.Request(0, 3));
+    this.building.stepElevatorSystem();
+
+    ObjectName name = BuildingManagement.elevatorName("test", 0);
+    assertEquals(0, this.server.getAttribute(name, "CurrentFloor"));
+    assertEquals(Boolean.FALSE, this.server.getAttribute(name, "DoorClosed"));
+    assertArrayEquals(new int[] {3}, (int[]) this.server.getAttribute(name, "Stops"));
+    assertEquals(1L, this.server.getAttribute(name, "Steps"));
+    assertEquals(1L, this.server.getAttribute(name, "DoorOpenings"));
+  }
+}
@@ -0,0 +1,198 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.RequestStatistics;
+import building.dispatch.LookDispatchStrategy;
+import building.enums.Direction;
+import building.queue.PersistentRequestQueue;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import management.BuildingManagement;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import trace.TraceReader;
+import trace.TraceRecordType;
+
+/**
+ * This class tests the headless simulation.
+ */
+public class HeadlessSimulationTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testDefaults() {
+    SimulationConfig config = new SimulationConfig(new Properties());
+    assertEquals(11, config.getFloors());
+    assertEquals(8, config.getElevators());
+    assertEquals(3, config.getCapacity());
+    assertEquals(1_000_000L, config.getSteps());
+    // the same queue a building gets when none is named.
+    assertTrue(config.createRequestQueueFactory().create(11, Direction.UP)
+        instanceof PersistentRequestQueue);
+  }
+
+  @Test
+  public void testArgumentsOverrideTheBase() {
+    Properties base = new Properties();
+    base.setProperty("floors", "20");
+    base.setProperty("elevators", "4");
+    SimulationConfig config = SimulationConfig.fromArguments(base, "elevators=6", "dispatch=look");
+    assertEquals(20, config.getFloors());
+    assertEquals(6, config.getElevators());
+    assertTrue(config.createDispatchStrategy() instanceof LookDispatchStrategy);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDispatch() {
+    SimulationConfig.fromArguments(new Properties(), "dispatch=elevatorMusic");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadNumber() {
+    SimulationConfig.fromArguments(new Properties(), "steps=lots");
+  }
+
+  @Test
+  public void testRunIsRepeatable() {
+    SimulationConfig config = SimulationConfig.fromArguments(new Properties(),
+        "steps=20000", "requestsPerStep=0.25", "seed=7", "dispatch=nearestCar");
+    SimulationSummary first = new HeadlessSimulation(config).run();
+    SimulationSummary second = new HeadlessSimulation(config).run();
+
+    assertEquals(20000, first.getSteps());
+    assertEquals(5000, first.getRequestsSubmitted());
+    assertEquals(first.getRequestsWaiting(), second.getRequestsWaiting());
+    assertEquals(first.getPeakRequestsWaiting(), second.getPeakRequestsWaiting());
+    assertTrue(first.getRequestsDispatched() > 4900);
+  }
+
+  @Test
+  public void testEventEngineMatchesTickEngine() {
+    SimulationSummary tick = new HeadlessSimulation(SimulationConfig.fromArguments(
+        new Properties(), "steps=200000", "requestsPerStep=0.003", "engine=tick")).run();
+    SimulationSummary event = new HeadlessSimulation(SimulationConfig.fromArguments(
+        new Properties(), "steps=200000", "requestsPerStep=0.003", "engine=event")).run();
+
+    assertEquals(tick.getSteps(), event.getSteps());
+    assertEquals(tick.getRequestsSubmitted(), event.getRequestsSubmitted());
+    assertEquals(tick.getRequestsWaiting(), event.getRequestsWaiting());
+    assertEquals(tick.getPeakRequestsWaiting(), event.getPeakRequestsWaiting());
+    assertEquals(tick.getRequestStatistics().toString(),
+        event.getRequestStatistics().toString());
+  }
+
+  @Test
+  public void testTrafficProfilesGiveTheSameResultsWithBothEngines() {
+    for (String traffic : new String[] {"upPeak", "officeDay"}) {
+      SimulationSummary tick = new HeadlessSimulation(SimulationConfig.fromArguments(
+          new Properties(), "steps=20000", "requestsPerStep=0.2", "dayLength=5000",
+          "traffic=" + traffic, "engine=tick")).run();
+      SimulationSummary event = new HeadlessSimulation(SimulationConfig.fromArguments(
+          new Properties(), "steps=20000", "requestsPerStep=0.2", "dayLength=5000",
+          "traffic=" + traffic, "engine=event")).run();
+      assertTrue(tick.getRequestsSubmitted() > 0);
+      assertEquals(tick.getRequestsSubmitted(), event.getRequestsSubmitted());
+      assertEquals(tick.getRequestStatistics().toString(),
+          event.getRequestStatistics().toString());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownTraffic() {
+    SimulationConfig.fromArguments(new Properties(), "traffic=rushHour");
+  }
+
+  @Test
+  public void testRunsWithTheSameSeedAreIdentical() {
+    for (String traffic : new String[] {"steady", "lunch"}) {
+      SimulationConfig config = SimulationConfig.fromArguments(new Properties(),
+          "steps=20000", "requestsPerStep=0.3", "seed=17", "traffic=" + traffic);
+      SimulationSummary first = new HeadlessSimulation(config).run();
+      SimulationSummary second = new HeadlessSimulation(config).run();
+      assertEquals(first.getFingerprint(), second.getFingerprint());
+      assertEquals(first.getWaitTimes(), second.getWaitTimes());
+      assertEquals(first.getRideTimes(), second.getRideTimes());
+
+      SimulationSummary other = new HeadlessSimulation(SimulationConfig.fromArguments(
+          new Properties(), "steps=20000", "requestsPerStep=0.3", "seed=18",
+          "traffic=" + traffic)).run();
+      assertNotEquals(first.getFingerprint(), other.getFingerprint());
+    }
+  }
+
+  @Test
+  public void testTraceRecordsEveryStep() throws IOException {
+    String file = this.folder.newFile("run.trace").getPath();
+    SimulationConfig config = SimulationConfig.fromArguments(new Properties(),
+        "steps=5000", "requestsPerStep=0.2", "trace=" + file);
+    assertFalse(config.isEventEngine());
+    SimulationSummary summary = new HeadlessSimulation(config).run();
+
+    long requests = 0;
+    long ticks = 0;
+    try (TraceReader reader = new TraceReader(Paths.get(file))) {
+      assertEquals(11, reader.getFloors());
+      assertEquals(8, reader.getElevators());
+      while (reader.next()) {
+        if (reader.getRecordType() == TraceRecordType.tick) {
+          ticks++;
+          assertEquals(ticks, reader.getStep());
+        } else {
+          requests++;
+        }
+      }
+    }
+    assertEquals(summary.getRequestsSubmitted(), requests);
+    assertEquals(5000, ticks);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTraceCannotUseTheEventEngine() {
+    SimulationConfig.fromArguments(new Properties(), "engine=event", "trace=run.trace");
+  }
+
+  @Test
+  public void testStoppingThroughJmxDoesNotEndTheRun() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = BuildingManagement.buildingName("stopped");
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    Thread stopper = new Thread(() -> {
+      try {
+        while (!server.isRegistered(name)) {
+          Thread.sleep(1);
+        }
+        server.invoke(name, "stop", null, null);
+      } catch (Exception e) {
+        failure.set(e);
+      }
+    });
+    stopper.start();
+
+    SimulationConfig config = SimulationConfig.fromArguments(new Properties(),
+        "steps=20000000", "requestsPerStep=0.2", "jmx=stopped");
+    SimulationSummary summary = new HeadlessSimulation(config).run();
+    stopper.join();
+
+    assertEquals(null, failure.get());
+    assertEquals(20000000, summary.getSteps());
+    assertTrue(summary.getRequestsRejected() > 0);
+    // every accepted request was served or dropped by the stop.
+    RequestStatistics statistics = summary.getRequestStatistics();
+    assertEquals(summary.getRequestsSubmitted() - summary.getRequestsRejected(),
+        statistics.getCompletedRequests() + statistics.getAbandonedRequests());
+    assertEquals(0, summary.getRequestsWaiting());
+    assertFalse(server.isRegistered(name));
+  }
+}
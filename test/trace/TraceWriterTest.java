@@ -0,0 +1,172 @@
+package trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.Building;
+import elevator.ElevatorDigest;
+import elevator.ElevatorReport;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+import scanerzus.RequestPriority;
+
+/**
+ * This class tests writing and reading traces.
+ */
+public class TraceWriterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testTraceReadsBackTheRequestsAndElevators() throws IOException {
+    Path path = this.folder.newFile("run.trace").toPath();
+    Building building = new Building(10, 3, 5);
+    List<Request> requests = new ArrayList<>();
+    List<Long> requestSteps = new ArrayList<>();
+    List<long[]> digests = new ArrayList<>();
+
+    try (TraceWriter writer = new TraceWriter(building, path)) {
+      building.addTickListener(writer);
+      building.startElevatorSystem();
+      for (int i = 0; i < 300; i++) {
+        if (i % 3 == 0) {
+          Request request = i % 2 == 0 ? new Request(i % 10, (i + 3) % 10)
+              : new Request(i % 10, (i + 7) % 10, RequestPriority.values()[i % 3], i + 20);
+          requests.add(request);
+          requestSteps.add(building.getCurrentStep());
+          building.addRequestToElevatorSystem(request);
+        }
+        building.stepElevatorSystem();
+        long[] step = new long[3];
+        for (int e = 0; e < 3; e++) {
+          step[e] = building.getElevatorDigest(e);
+        }
+        digests.add(step);
+      }
+      building.removeTickListener(writer);
+      assertEquals(400, writer.getRecordCount());
+      writer.flush();
+      assertEquals(Files.size(path), writer.getSize());
+    }
+
+    ElevatorReport[] reports = building.getStatusElevatorSystem().getElevatorReports();
+    try (TraceReader reader = new TraceReader(path)) {
+      assertEquals(10, reader.getFloors());
+      assertEquals(3, reader.getElevators());
+      int request = 0;
+      int tick = 0;
+      while (reader.next()) {
+        if (reader.getRecordType() == TraceRecordType.request) {
+          Request expected = requests.get(request);
+          Request actual = reader.getRequest();
+          assertEquals((long) requestSteps.get(request), reader.getStep());
+          assertEquals(expected.getStartFloor(), actual.getStartFloor());
+          assertEquals(expected.getEndFloor(), actual.getEndFloor());
+          assertEquals(expected.getPriority(), actual.getPriority());
+          assertEquals(expected.getDeadline(), actual.getDeadline());
+          request++;
+        } else {
+          tick++;
+          assertEquals(tick, reader.getStep());
+          for (int e = 0; e < 3; e++) {
+            assertEquals(digests.get(tick - 1)[e], reader.getDigest(e));
+          }
+        }
+      }
+      assertEquals(requests.size(), request);
+      assertEquals(300, tick);
+      assertEquals(null, reader.getRecordType());
+
+      for (int e = 0; e < 3; e++) {
+        long digest = reader.getDigest(e);
+        assertEquals(reports[e].getCurrentFloor(), ElevatorDigest.currentFloor(digest));
+        assertEquals(reports[e].isDoorClosed(), ElevatorDigest.isDoorClosed(digest));
+        assertEquals(reports[e].getDirection(), ElevatorDigest.direction(digest));
+        assertEquals(reports[e].isTakingRequests(), ElevatorDigest.isTakingRequests(digest));
+      }
+    }
+  }
+
+  @Test
+  public void testIdleElevatorsTakeAboutAByteEach() throws IOException {
+    Path path = this.folder.newFile("quiet.trace").toPath();
+    Building building = new Building(10, 4, 5);
+    try (TraceWriter writer = new TraceWriter(building, path)) {
+      building.startElevatorSystem();
+      building.stepElevatorSystem();
+      long before = writer.getSize();
+      building.addTickListener(writer);
+      for (int i = 0; i < 1000; i++) {
+        building.stepElevatorSystem();
+      }
+      // a tick is its tag, a step delta of 1 and the changes of the four idle
+      // elevators, which are mostly none or a door or a floor.
+      long size = writer.getSize() - before;
+      assertTrue(size > 1000 * (2 + 4) - 1);
+      assertTrue(size < 1000 * (2 + 6));
+    }
+  }
+
+  @Test
+  public void testTruncatedTraceIsAnError() throws IOException {
+    Path path = this.folder.newFile("truncated.trace").toPath();
+    Building building = new Building(10, 2, 5);
+    try (TraceWriter writer = new TraceWriter(building, path)) {
+      building.addTickListener(writer);
+      building.startElevatorSystem();
+      building.addRequestToElevatorSystem(new Request(2, 8, RequestPriority.standard, 500));
+      building.stepElevatorSystem();
+    }
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    try (TraceReader reader = new TraceReader(path)) {
+      assertTrue(reader.next());
+      assertEquals(TraceRecordType.request, reader.getRecordType());
+      reader.next();
+      fail("The last record is cut short");
+    } catch (EOFException e) {
+      assertTrue(e.getMessage().contains("middle of a record"));
+    }
+  }
+
+  @Test
+  public void testOtherFilesAreNotTraces() throws IOException {
+    Path path = this.folder.newFile("other.txt").toPath();
+    Files.write(path, "hello world".getBytes("UTF-8"));
+    try (TraceReader reader = new TraceReader(path)) {
+      assertFalse(reader.next());
+      fail("The file is not a trace");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Not a trace file"));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testTickHasNoRequest() throws IOException {
+    Path path = this.folder.newFile("tick.trace").toPath();
+    Building building = new Building(10, 2, 5);
+    try (TraceWriter writer = new TraceWriter(building, path)) {
+      building.addTickListener(writer);
+      building.startElevatorSystem();
+      building.stepElevatorSystem();
+    }
+    try (TraceReader reader = new TraceReader(path)) {
+      assertTrue(reader.next());
+      reader.getRequest();
+    }
+  }
+}
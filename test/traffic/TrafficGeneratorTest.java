@@ -0,0 +1,148 @@
+package traffic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This class tests the traffic generator and its profiles and schedules.
+ */
+public class TrafficGeneratorTest {
+
+  private static List<Request> generate(TrafficGenerator generator, int steps) {
+    List<Request> requests = new ArrayList<>();
+    for (int i = 0; i < steps; i++) {
+      generator.generate(requests);
+    }
+    return requests;
+  }
+
+  @Test
+  public void testTheSameSeedGivesTheSameRequests() {
+    List<Request> first = generate(new TrafficGenerator(20, TrafficProfile.lunch, 0.7, 5), 1000);
+    List<Request> second = generate(new TrafficGenerator(20, TrafficProfile.lunch, 0.7, 5), 1000);
+    List<Request> other = generate(new TrafficGenerator(20, TrafficProfile.lunch, 0.7, 6), 1000);
+    assertEquals(first.toString(), second.toString());
+    assertNotEquals(first.toString(), other.toString());
+  }
+
+  @Test
+  public void testArrivalsArePoisson() {
+    TrafficGenerator generator = new TrafficGenerator(10, TrafficProfile.uniform, 2.5, 1);
+    List<Request> requests = new ArrayList<>();
+    int steps = 100_000;
+    double total = 0;
+    double squares = 0;
+    for (int i = 0; i < steps; i++) {
+      int arrivals = generator.generate(requests);
+      total += arrivals;
+      squares += (double) arrivals * arrivals;
+      requests.clear();
+    }
+    double mean = total / steps;
+    double variance = squares / steps - mean * mean;
+    // a Poisson count has a variance equal to its mean.
+    assertEquals(2.5, mean, 0.03);
+    assertEquals(2.5, variance, 0.1);
+    assertEquals(steps, generator.getStep());
+  }
+
+  @Test
+  public void testRequestsAreBetweenDifferentFloors() {
+    for (TrafficProfile profile : TrafficProfile.values()) {
+      for (int floors = 2; floors <= 5; floors++) {
+        for (Request request : generate(new TrafficGenerator(floors, profile, 1, 3), 500)) {
+          assertTrue(request.getStartFloor() >= 0 && request.getStartFloor() < floors);
+          assertTrue(request.getEndFloor() >= 0 && request.getEndFloor() < floors);
+          assertNotEquals(request.getStartFloor(), request.getEndFloor());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testProfileShares() {
+    List<Request> requests = generate(new TrafficGenerator(30, TrafficProfile.upPeak, 1, 9),
+        50_000);
+    int incoming = 0;
+    int outgoing = 0;
+    for (Request request : requests) {
+      if (request.getStartFloor() == 0) {
+        incoming++;
+      } else if (request.getEndFloor() == 0) {
+        outgoing++;
+      }
+    }
+    assertEquals(0.85, (double) incoming / requests.size(), 0.01);
+    assertEquals(0.05, (double) outgoing / requests.size(), 0.01);
+  }
+
+  @Test
+  public void testSkippingQuietStepsGivesTheSameRequests() {
+    TrafficSchedule schedule = TrafficSchedule.officeDay(1000, 0.2);
+    List<Request> stepped = generate(new TrafficGenerator(15, schedule, 11), 5000);
+
+    TrafficGenerator skipping = new TrafficGenerator(15, schedule, 11);
+    List<Request> skipped = new ArrayList<>();
+    while (skipping.getStep() < 5000) {
+      skipping.skip(Math.min(skipping.quietSteps(), 5000 - skipping.getStep()));
+      if (skipping.getStep() < 5000) {
+        skipping.generate(skipped);
+      }
+    }
+    assertEquals(stepped.toString(), skipped.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testArrivalsCannotBeSkipped() {
+    TrafficGenerator generator = new TrafficGenerator(10, TrafficProfile.uniform, 5, 1);
+    generator.skip(generator.quietSteps() + 1);
+  }
+
+  @Test
+  public void testOfficeDaySchedule() {
+    TrafficSchedule day = TrafficSchedule.officeDay(1000, 2);
+    assertEquals(TrafficProfile.interfloor, day.getProfile(0));
+    assertEquals(TrafficProfile.upPeak, day.getProfile(100));
+    assertEquals(2, day.getRate(249), 0);
+    assertEquals(TrafficProfile.lunch, day.getProfile(500));
+    assertEquals(TrafficProfile.downPeak, day.getProfile(800));
+    assertEquals(TrafficProfile.upPeak, day.getProfile(1100));
+    assertEquals(2, day.getMaxRate(), 0);
+
+    // the arrivals follow the rate: the peaks are ten times as busy as the night.
+    int[] perPeriod = new int[2];
+    TrafficGenerator generator = new TrafficGenerator(10, day, 2);
+    List<Request> requests = new ArrayList<>();
+    for (int step = 0; step < 100_000; step++) {
+      int arrivals = generator.generate(requests);
+      requests.clear();
+      long stepOfDay = step % 1000;
+      if (stepOfDay < 100) {
+        perPeriod[0] += arrivals;
+      } else if (stepOfDay >= 100 && stepOfDay < 200) {
+        perPeriod[1] += arrivals;
+      }
+    }
+    assertEquals(10, (double) perPeriod[1] / perPeriod[0], 1);
+  }
+
+  @Test
+  public void testNoTraffic() {
+    TrafficGenerator generator = new TrafficGenerator(10, TrafficProfile.uniform, 0, 1);
+    assertEquals(Long.MAX_VALUE, generator.quietSteps());
+    assertEquals(0, generate(generator, 100).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPeriodsMustIncrease() {
+    new TrafficSchedule(100, new long[] {0, 50, 50},
+        new TrafficProfile[] {TrafficProfile.upPeak, TrafficProfile.lunch,
+            TrafficProfile.downPeak}, new double[] {1, 1, 1});
+  }
+}